@@ -16,7 +16,7 @@ public final class AddFunctionBuilder extends VariableWidthVectorialFunctionBuil
     private Word outputVector;
 
     @Override
-    public VectorialFunction build() throws IllegalStateException {
+    protected VectorialFunction buildVectorialFunction() throws IllegalStateException {
         prebuild();
         String inputVectorName = getInputVectorName();
         String outputVectorName = getOutputVectorName();
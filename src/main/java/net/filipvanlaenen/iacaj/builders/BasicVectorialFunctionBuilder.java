@@ -21,7 +21,7 @@ public final class BasicVectorialFunctionBuilder extends VariableWidthVectorialF
     private Word outputVector;
 
     @Override
-    public VectorialFunction build() throws IllegalStateException {
+    protected VectorialFunction buildVectorialFunction() throws IllegalStateException {
         prebuild();
         if (operator == null) {
             throw new IllegalStateException("Cannot build a basic vectorial function when the operator isn't set.");
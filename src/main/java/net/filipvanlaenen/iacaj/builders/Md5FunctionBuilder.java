@@ -1,7 +1,7 @@
 package net.filipvanlaenen.iacaj.builders;
 
+import net.filipvanlaenen.iacaj.events.Md5RoundEvent;
 import net.filipvanlaenen.iacaj.expressions.Expression;
-import net.filipvanlaenen.iacaj.expressions.IdentityExpression;
 import net.filipvanlaenen.iacaj.expressions.Operator;
 import net.filipvanlaenen.iacaj.expressions.Variable;
 import net.filipvanlaenen.iacaj.expressions.VectorialFunction;
@@ -46,7 +46,7 @@ public class Md5FunctionBuilder extends VectorialFunctionBuilder {
                 int ovi = 32 * position + 8 * i + j;
                 if (ovi < numberOfOutputBits) {
                     int ci = 8 * (3 - i) + j;
-                    map.add(outputVector.getAt(ovi), new IdentityExpression(chunk.getAt(ci)));
+                    map.add(outputVector.getAt(ovi), getExpressionFactory().identity(chunk.getAt(ci)));
                 }
             }
         }
@@ -54,7 +54,7 @@ public class Md5FunctionBuilder extends VectorialFunctionBuilder {
     }
 
     @Override
-    public VectorialFunction build() throws IllegalStateException {
+    protected VectorialFunction buildVectorialFunction() throws IllegalStateException {
         super.prebuild();
 
         // s specifies the per-round shift amounts
@@ -118,7 +118,7 @@ public class Md5FunctionBuilder extends VectorialFunctionBuilder {
                 for (int h = 0; h < 8; h++) {
                     int ii = h + 8 * (3 - i) + 32 * j;
                     int oi = h + 8 * i + 32 * j;
-                    map.add(innerInputVector.getAt(ii), new IdentityExpression(outerInputVector.getAt(oi)));
+                    map.add(innerInputVector.getAt(ii), getExpressionFactory().identity(outerInputVector.getAt(oi)));
                 }
             }
         }
@@ -144,6 +144,9 @@ public class Md5FunctionBuilder extends VectorialFunctionBuilder {
         // Main loop:
         // for i from 0 to 63 do
         for (int i = 0; i <= 63 && i < numberOfRounds; i++) {
+            Md5RoundEvent roundEvent = new Md5RoundEvent();
+            roundEvent.begin();
+            int dimensionBeforeRound = map.size();
             String round = String.format("%02d", i + 1);
             int g = 0;
             // var int F, g
@@ -219,6 +222,13 @@ public class Md5FunctionBuilder extends VectorialFunctionBuilder {
             Word bNew = new Word("b" + round, 32, false);
             map.addAll(buildAdditionFunctions(b, fr, bNew));
             b = bNew;
+            roundEvent.end();
+            if (roundEvent.shouldCommit()) {
+                roundEvent.setRound(i + 1);
+                roundEvent.setDimension(map.size());
+                roundEvent.setNumberOfDefinitions(map.size() - dimensionBeforeRound);
+                roundEvent.commit();
+            }
         }
         // end for
 
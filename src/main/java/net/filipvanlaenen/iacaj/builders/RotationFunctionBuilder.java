@@ -17,7 +17,7 @@ public final class RotationFunctionBuilder extends VariableWidthVectorialFunctio
     private Word outputVector;
 
     @Override
-    public VectorialFunction build() throws IllegalStateException {
+    protected VectorialFunction buildVectorialFunction() throws IllegalStateException {
         prebuild();
         String inputVectorName = getInputVectorName();
         String outputVectorName = getOutputVectorName();
@@ -17,7 +17,7 @@ public final class ShiftFunctionBuilder extends VariableWidthVectorialFunctionBu
     private Word outputVector;
 
     @Override
-    public VectorialFunction build() throws IllegalStateException {
+    protected VectorialFunction buildVectorialFunction() throws IllegalStateException {
         prebuild();
         String inputVectorName = getInputVectorName();
         String outputVectorName = getOutputVectorName();
@@ -1,16 +1,13 @@
 package net.filipvanlaenen.iacaj.builders;
 
-import net.filipvanlaenen.iacaj.expressions.AndFunction;
+import net.filipvanlaenen.iacaj.events.BuildEvent;
 import net.filipvanlaenen.iacaj.expressions.Expression;
-import net.filipvanlaenen.iacaj.expressions.IdentityExpression;
+import net.filipvanlaenen.iacaj.expressions.ExpressionFactory;
 import net.filipvanlaenen.iacaj.expressions.LiteralExpression;
-import net.filipvanlaenen.iacaj.expressions.NegationExpression;
 import net.filipvanlaenen.iacaj.expressions.Operator;
-import net.filipvanlaenen.iacaj.expressions.OrFunction;
 import net.filipvanlaenen.iacaj.expressions.Variable;
 import net.filipvanlaenen.iacaj.expressions.VectorialFunction;
 import net.filipvanlaenen.iacaj.expressions.Word;
-import net.filipvanlaenen.iacaj.expressions.XorFunction;
 import net.filipvanlaenen.kolektoj.Map;
 import net.filipvanlaenen.kolektoj.ModifiableMap;
 import net.filipvanlaenen.kolektoj.ValueCollection;
@@ -23,6 +20,10 @@ public abstract class VectorialFunctionBuilder {
      * The magic number 3.
      */
     private static final int THREE = 3;
+    /**
+     * The expression factory, sharing structurally identical expressions between the definitions.
+     */
+    private final ExpressionFactory expressionFactory = new ExpressionFactory();
     /**
      * The input vector name, default <code>x</code>.
      */
@@ -33,12 +34,33 @@ public abstract class VectorialFunctionBuilder {
     private String outputVectorName = "y";
 
     /**
-     * Builds the vectorial function.
+     * Builds the vectorial function, emitting a flight recorder event with the dimension and the number of variables
+     * of the vectorial function if a recording is running.
      *
      * @return The vectorial function as specified in the builder.
      * @throws IllegalStateException Thrown if the builder isn't in a state ready to build.
      */
-    public abstract VectorialFunction build() throws IllegalStateException;
+    public final VectorialFunction build() throws IllegalStateException {
+        BuildEvent event = new BuildEvent();
+        event.begin();
+        VectorialFunction vectorialFunction = buildVectorialFunction();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBuilder(getClass().getSimpleName());
+            event.setDimension(vectorialFunction.getDimension());
+            event.setNumberOfVariables(vectorialFunction.getNumberOfVariables());
+            event.commit();
+        }
+        return vectorialFunction;
+    }
+
+    /**
+     * Builds the vectorial function as specified in the builder.
+     *
+     * @return The vectorial function as specified in the builder.
+     * @throws IllegalStateException Thrown if the builder isn't in a state ready to build.
+     */
+    protected abstract VectorialFunction buildVectorialFunction() throws IllegalStateException;
 
     /**
      * Builds a map with variables and Boolean expression adding two words together.
@@ -60,28 +82,28 @@ public abstract class VectorialFunctionBuilder {
         int n = width - 1;
         Variable ivan = inputVectorA.getAt(n);
         Variable ivbn = inputVectorB.getAt(n);
-        map.add(outputVector.getAt(n), new XorFunction(ValueCollection.of(ivan, ivbn), false));
+        map.add(outputVector.getAt(n), expressionFactory.xor(ValueCollection.of(ivan, ivbn), false));
         if (width != 1) {
             int n1 = width - 2;
             Variable ovn1 = outputVector.getAt(n1);
             Variable carry = new Variable(ovn1.name() + "c");
-            map.add(carry, new AndFunction(ValueCollection.of(ivan, ivbn), ValueCollection.empty()));
-            map.add(ovn1,
-                    new XorFunction(ValueCollection.of(inputVectorA.getAt(n1), inputVectorB.getAt(n1), carry), false));
+            map.add(carry, expressionFactory.and(ValueCollection.of(ivan, ivbn), ValueCollection.empty()));
+            map.add(ovn1, expressionFactory
+                    .xor(ValueCollection.of(inputVectorA.getAt(n1), inputVectorB.getAt(n1), carry), false));
             for (int i = width - THREE; i >= 0; i--) {
                 Variable ivai1 = inputVectorA.getAt(i + 1);
                 Variable ivbi1 = inputVectorB.getAt(i + 1);
                 Variable ovi = outputVector.getAt(i);
                 Variable p = new Variable(ovi.name() + "p");
-                map.add(p, new XorFunction(ValueCollection.of(ivai1, ivbi1), false));
+                map.add(p, expressionFactory.xor(ValueCollection.of(ivai1, ivbi1), false));
                 Variable q = new Variable(ovi.name() + "q");
-                map.add(q, new AndFunction(ValueCollection.of(carry, p), ValueCollection.empty()));
+                map.add(q, expressionFactory.and(ValueCollection.of(carry, p), ValueCollection.empty()));
                 Variable r = new Variable(ovi.name() + "r");
-                map.add(r, new AndFunction(ValueCollection.of(ivai1, ivbi1), ValueCollection.empty()));
+                map.add(r, expressionFactory.and(ValueCollection.of(ivai1, ivbi1), ValueCollection.empty()));
                 carry = new Variable(ovi.name() + "c");
-                map.add(carry, new XorFunction(ValueCollection.of(q, r), false));
-                map.add(ovi, new XorFunction(ValueCollection.of(inputVectorA.getAt(i), inputVectorB.getAt(i), carry),
-                        false));
+                map.add(carry, expressionFactory.xor(ValueCollection.of(q, r), false));
+                map.add(ovi, expressionFactory
+                        .xor(ValueCollection.of(inputVectorA.getAt(i), inputVectorB.getAt(i), carry), false));
             }
         }
         return map;
@@ -130,7 +152,7 @@ public abstract class VectorialFunctionBuilder {
         for (int i = 0; i < width; i++) {
             Variable ovi = outputVector.getAt(i);
             Variable ivi = inputVector.getAt(i);
-            map.add(ovi, new IdentityExpression(ivi));
+            map.add(ovi, expressionFactory.identity(ivi));
         }
         return map;
     }
@@ -155,7 +177,7 @@ public abstract class VectorialFunctionBuilder {
         for (int i = 0; i < width; i++) {
             Variable ovi = outputVector.getAt(i);
             Variable ivi = inputVector.getAt(i);
-            map.add(ovi, new NegationExpression(ivi));
+            map.add(ovi, expressionFactory.negation(ivi));
         }
         return map;
     }
@@ -188,9 +210,9 @@ public abstract class VectorialFunctionBuilder {
             }
             ValueCollection<Variable> inputVariables = ValueCollection.of(inputVariablesArray);
             Expression expression = switch (operator) {
-            case AND -> new AndFunction(inputVariables, ValueCollection.empty());
-            case OR -> new OrFunction(inputVariables, ValueCollection.empty());
-            case XOR -> new XorFunction(inputVariables, false);
+            case AND -> expressionFactory.and(inputVariables, ValueCollection.empty());
+            case OR -> expressionFactory.or(inputVariables, ValueCollection.empty());
+            case XOR -> expressionFactory.xor(inputVariables, false);
             default -> null;
             };
             map.add(ovi, expression);
@@ -219,7 +241,7 @@ public abstract class VectorialFunctionBuilder {
             Variable ivi = inputVector.getAt(i);
             int j = (i + rotateRight + width) % width;
             Variable ovi = outputVector.getAt(j);
-            map.add(ovi, new IdentityExpression(ivi));
+            map.add(ovi, expressionFactory.identity(ivi));
         }
         return map;
     }
@@ -246,7 +268,7 @@ public abstract class VectorialFunctionBuilder {
             int j = i - shiftRight;
             if (j >= 0 && j < width) {
                 Variable ivi = inputVector.getAt(j);
-                map.add(ovi, new IdentityExpression(ivi));
+                map.add(ovi, expressionFactory.identity(ivi));
             } else {
                 map.add(ovi, LiteralExpression.FALSE);
             }
@@ -254,6 +276,15 @@ public abstract class VectorialFunctionBuilder {
         return map;
     }
 
+    /**
+     * Returns the expression factory.
+     *
+     * @return The expression factory.
+     */
+    protected ExpressionFactory getExpressionFactory() {
+        return expressionFactory;
+    }
+
     /**
      * Returns the name of the input vector.
      *
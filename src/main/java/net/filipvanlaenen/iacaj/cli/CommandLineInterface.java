@@ -12,8 +12,14 @@ import net.filipvanlaenen.iacaj.builders.Md5FunctionBuilder;
 import net.filipvanlaenen.iacaj.builders.RotationFunctionBuilder;
 import net.filipvanlaenen.iacaj.builders.ShiftFunctionBuilder;
 import net.filipvanlaenen.iacaj.builders.VectorialFunctionBuilder;
+import net.filipvanlaenen.iacaj.events.WriteEvent;
+import net.filipvanlaenen.iacaj.expressions.OffHeapArena;
 import net.filipvanlaenen.iacaj.expressions.Operator;
+import net.filipvanlaenen.iacaj.expressions.SimplificationBudget;
 import net.filipvanlaenen.iacaj.expressions.VectorialFunction;
+import net.filipvanlaenen.iacaj.expressions.Word;
+import net.filipvanlaenen.kolektoj.ModifiableOrderedCollection;
+import net.filipvanlaenen.kolektoj.OrderedCollection;
 import net.filipvanlaenen.nombrajkolektoj.integers.ModifiableOrderedIntegerCollection;
 
 /**
@@ -24,6 +30,34 @@ public final class CommandLineInterface {
      * The default word length.
      */
     private static final int DEFAULT_WORD_LENGTH = 32;
+    /**
+     * The option to limit the number of bytes in use on the heap during the simplification.
+     */
+    private static final String MAX_HEAP_OPTION = "--max-heap";
+    /**
+     * The option to limit the number of passes of the simplification.
+     */
+    private static final String MAX_PASSES_OPTION = "--max-passes";
+    /**
+     * The option to limit the wall time of the simplification, in milliseconds.
+     */
+    private static final String MAX_TIME_OPTION = "--max-time";
+    /**
+     * The option to store the vectorial function off the heap, optionally followed by the segment size of the arena.
+     */
+    private static final String OFF_HEAP_OPTION = "--off-heap";
+    /**
+     * The option to simplify the vectorial function on a number of threads.
+     */
+    private static final String PARALLELISM_OPTION = "--parallelism";
+    /**
+     * The option to simplify the vectorial function for slices of the output vector with a given width.
+     */
+    private static final String SLICE_WIDTH_OPTION = "--slice-width";
+    /**
+     * The option to print the statistics of the simplification to the standard error.
+     */
+    private static final String STATS_OPTION = "--stats";
 
     /**
      * The main entry point for the command line interface.
@@ -49,7 +83,7 @@ public final class CommandLineInterface {
     private static void printUsage() {
         System.out.println("Usage:");
         // TODO: System.out.println(" attack <function> <numeric-parameter>* [<file-name>]");
-        System.out.println("  produce <function> <numeric-parameter>* [<file-name>]");
+        System.out.println("  produce <function> <numeric-parameter>* [<option>]* [<file-name>]");
         // TODO: System.out.println(" report <function> <numeric-parameter>* [<file-name>]");
         System.out.println("with the following combinations of functions and numeric parameters:");
         System.out.println("    ADD [<word-length>]");
@@ -64,6 +98,14 @@ public final class CommandLineInterface {
         // System.out.println(" SHA-512 [<number-of-rounds> [<number-of-output-bits]]");
         System.out.println("    SHIFT [<word-length> [<number-of-positions>]]");
         System.out.println("    XOR [<word-length>]");
+        System.out.println("and the following options:");
+        System.out.println("    " + MAX_HEAP_OPTION + "=<number-of-bytes>");
+        System.out.println("    " + MAX_PASSES_OPTION + "=<number-of-passes>");
+        System.out.println("    " + MAX_TIME_OPTION + "=<number-of-milliseconds>");
+        System.out.println("    " + OFF_HEAP_OPTION + "[=<arena-segment-size>]");
+        System.out.println("    " + PARALLELISM_OPTION + "[=<number-of-threads>]");
+        System.out.println("    " + SLICE_WIDTH_OPTION + "=<number-of-output-bits>");
+        System.out.println("    " + STATS_OPTION);
     }
 
     /**
@@ -86,11 +128,41 @@ public final class CommandLineInterface {
                 String function = args[1];
                 ModifiableOrderedIntegerCollection parameters = ModifiableOrderedIntegerCollection.empty();
                 String fileName = null;
+                int offHeapSegmentSize = 0;
+                int parallelism = 1;
+                int sliceWidth = 0;
+                boolean printStats = false;
+                SimplificationBudget budget = new SimplificationBudget();
                 int i = 2;
                 while (i < args.length) {
                     String parameterString = args[i];
                     boolean isNumeric = Pattern.matches("-?\\d+", parameterString);
-                    if (isNumeric) {
+                    if (parameterString.startsWith(MAX_HEAP_OPTION + "=")) {
+                        budget.setMaximumHeapUse(
+                                Long.parseLong(parameterString.substring(MAX_HEAP_OPTION.length() + 1)));
+                    } else if (parameterString.startsWith(MAX_PASSES_OPTION + "=")) {
+                        budget.setMaximumNumberOfPasses(
+                                Integer.parseInt(parameterString.substring(MAX_PASSES_OPTION.length() + 1)));
+                    } else if (parameterString.startsWith(MAX_TIME_OPTION + "=")) {
+                        budget.setMaximumWallTime(
+                                Long.parseLong(parameterString.substring(MAX_TIME_OPTION.length() + 1)));
+                    } else if (parameterString.equals(OFF_HEAP_OPTION)) {
+                        offHeapSegmentSize = OffHeapArena.DEFAULT_SEGMENT_SIZE;
+                    } else if (parameterString.startsWith(OFF_HEAP_OPTION + "=")) {
+                        offHeapSegmentSize = Integer.parseInt(parameterString.substring(OFF_HEAP_OPTION.length() + 1));
+                    } else if (parameterString.equals(PARALLELISM_OPTION)) {
+                        parallelism = Runtime.getRuntime().availableProcessors();
+                    } else if (parameterString.startsWith(PARALLELISM_OPTION + "=")) {
+                        parallelism = Integer.parseInt(parameterString.substring(PARALLELISM_OPTION.length() + 1));
+                    } else if (parameterString.startsWith(SLICE_WIDTH_OPTION + "=")) {
+                        sliceWidth = Integer.parseInt(parameterString.substring(SLICE_WIDTH_OPTION.length() + 1));
+                        if (sliceWidth < 1) {
+                            throw new IllegalArgumentException("The value of " + SLICE_WIDTH_OPTION
+                                    + " should be at least 1, but was " + sliceWidth + ".");
+                        }
+                    } else if (parameterString.equals(STATS_OPTION)) {
+                        printStats = true;
+                    } else if (isNumeric) {
                         parameters.add(Integer.parseInt(parameterString));
                     } else {
                         fileName = parameterString;
@@ -141,12 +213,39 @@ public final class CommandLineInterface {
                 builder.inputVectorName("i");
                 builder.outputVectorName("o");
                 VectorialFunction vectorialFunction = builder.build();
-                vectorialFunction = vectorialFunction.simplify(builder.getOutputVector());
-                String output = vectorialFunction.toString();
-                if (fileName == null) {
-                    System.out.println(output);
+                Word outputVector = builder.getOutputVector();
+                vectorialFunction = vectorialFunction.prune(outputVector);
+                if (offHeapSegmentSize > 0) {
+                    vectorialFunction = vectorialFunction.offHeap(offHeapSegmentSize);
+                }
+                if (sliceWidth > 0) {
+                    ModifiableOrderedCollection<Word> slices = ModifiableOrderedCollection.empty();
+                    for (int from = 0; from < outputVector.size(); from += sliceWidth) {
+                        slices.add(outputVector.getSlice(from, Math.min(from + sliceWidth, outputVector.size())));
+                    }
+                    OrderedCollection<VectorialFunction> results =
+                            vectorialFunction.simplifyAll(slices, parallelism, budget);
+                    if (printStats) {
+                        System.err.println(results.getAt(0).getSimplificationStats());
+                    }
+                    for (int j = 0; j < results.size(); j++) {
+                        if (fileName == null) {
+                            System.out.println(results.getAt(j));
+                            System.out.println();
+                        } else {
+                            writeFile(createSliceFileName(fileName, j + 1), results.getAt(j));
+                        }
+                    }
                 } else {
-                    writeFile(fileName, output);
+                    vectorialFunction = vectorialFunction.simplify(outputVector, parallelism, budget);
+                    if (printStats) {
+                        System.err.println(vectorialFunction.getSimplificationStats());
+                    }
+                    if (fileName == null) {
+                        System.out.println(vectorialFunction);
+                    } else {
+                        writeFile(fileName, vectorialFunction);
+                    }
                 }
             }
         };
@@ -160,14 +259,43 @@ public final class CommandLineInterface {
         abstract void execute(String[] args) throws IOException;
 
         /**
-         * Utility method to write a string to a file.
+         * Utility method to create the name of the file for a slice of the output vector, by inserting the number of
+         * the slice before the extension of the file name.
          *
-         * @param fileName The name for the file.
-         * @param content  The string to be written to the file.
+         * @param fileName    The name of the file for the entire output vector.
+         * @param sliceNumber The number of the slice, starting at one.
+         * @return The name of the file for the slice.
+         */
+        private static String createSliceFileName(final String fileName, final int sliceNumber) {
+            int dot = fileName.lastIndexOf('.');
+            if (dot <= 0) {
+                return fileName + "-" + sliceNumber;
+            }
+            return fileName.substring(0, dot) + "-" + sliceNumber + fileName.substring(dot);
+        }
+
+        /**
+         * Utility method to write a vectorial function to a file, emitting a flight recorder event with the dimension
+         * and the number of variables of the vectorial function if a recording is running.
+         *
+         * @param fileName          The name for the file.
+         * @param vectorialFunction The vectorial function to be written to the file.
          * @throws IOException Thrown if an exception occurs related to IO.
          */
-        private static void writeFile(final String fileName, final String content) throws IOException {
+        private static void writeFile(final String fileName, final VectorialFunction vectorialFunction)
+                throws IOException {
+            WriteEvent event = new WriteEvent();
+            event.begin();
+            String content = vectorialFunction.toString();
             Files.writeString(Paths.get(fileName), content, StandardCharsets.UTF_8);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setFileName(fileName);
+                event.setLength(content.length());
+                event.setDimension(vectorialFunction.getDimension());
+                event.setNumberOfVariables(vectorialFunction.getNumberOfVariables());
+                event.commit();
+            }
         }
     }
 }
@@ -0,0 +1,61 @@
+package net.filipvanlaenen.iacaj.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for building a vectorial function with a builder.
+ */
+@Category("IACAJ")
+@Name("net.filipvanlaenen.iacaj.Build")
+@Label("Build")
+@Description("Building a vectorial function with a builder")
+public final class BuildEvent extends Event {
+    /**
+     * The dimension of the vectorial function.
+     */
+    @Label("Dimension")
+    @Description("The number of definitions in the vectorial function")
+    private int dimension;
+    /**
+     * The number of variables occurring in the vectorial function.
+     */
+    @Label("Number of Variables")
+    @Description("The number of variables occurring in the vectorial function, defined or not")
+    private int numberOfVariables;
+    /**
+     * The simple name of the class of the builder.
+     */
+    @Label("Builder")
+    private String builder;
+
+    /**
+     * Sets the dimension of the vectorial function.
+     *
+     * @param dimension The dimension of the vectorial function.
+     */
+    public void setDimension(final int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * Sets the number of variables occurring in the vectorial function.
+     *
+     * @param numberOfVariables The number of variables occurring in the vectorial function.
+     */
+    public void setNumberOfVariables(final int numberOfVariables) {
+        this.numberOfVariables = numberOfVariables;
+    }
+
+    /**
+     * Sets the simple name of the class of the builder.
+     *
+     * @param builder The simple name of the class of the builder.
+     */
+    public void setBuilder(final String builder) {
+        this.builder = builder;
+    }
+}
@@ -0,0 +1,64 @@
+package net.filipvanlaenen.iacaj.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for building the definitions of a round of MD5. The dimension is the number of definitions
+ * built so far, and the number of definitions is the number of definitions added in the round. The number of
+ * variables occurring in the vectorial function isn't recorded, since counting them after every round would make
+ * building the vectorial function quadratic while recording.
+ */
+@Category("IACAJ")
+@Name("net.filipvanlaenen.iacaj.Md5Round")
+@Label("MD5 Round")
+@Description("Building the definitions of a round of MD5")
+public final class Md5RoundEvent extends Event {
+    /**
+     * The dimension of the vectorial function.
+     */
+    @Label("Dimension")
+    @Description("The number of definitions built so far")
+    private int dimension;
+    /**
+     * The number of definitions added in the round.
+     */
+    @Label("Number of Definitions")
+    @Description("The number of definitions added in the round")
+    private int numberOfDefinitions;
+    /**
+     * The number of the round, starting at one.
+     */
+    @Label("Round")
+    private int round;
+
+    /**
+     * Sets the dimension of the vectorial function.
+     *
+     * @param dimension The dimension of the vectorial function.
+     */
+    public void setDimension(final int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * Sets the number of definitions added in the round.
+     *
+     * @param numberOfDefinitions The number of definitions added in the round.
+     */
+    public void setNumberOfDefinitions(final int numberOfDefinitions) {
+        this.numberOfDefinitions = numberOfDefinitions;
+    }
+
+    /**
+     * Sets the number of the round.
+     *
+     * @param round The number of the round, starting at one.
+     */
+    public void setRound(final int round) {
+        this.round = round;
+    }
+}
@@ -0,0 +1,62 @@
+package net.filipvanlaenen.iacaj.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for parsing a vectorial function from a string.
+ */
+@Category("IACAJ")
+@Name("net.filipvanlaenen.iacaj.Parse")
+@Label("Parse")
+@Description("Parsing a vectorial function from a string")
+public final class ParseEvent extends Event {
+    /**
+     * The dimension of the vectorial function.
+     */
+    @Label("Dimension")
+    @Description("The number of definitions in the vectorial function")
+    private int dimension;
+    /**
+     * The number of variables occurring in the vectorial function.
+     */
+    @Label("Number of Variables")
+    @Description("The number of variables occurring in the vectorial function, defined or not")
+    private int numberOfVariables;
+    /**
+     * The length of the string parsed.
+     */
+    @Label("Length")
+    @Description("The number of characters in the string parsed")
+    private long length;
+
+    /**
+     * Sets the dimension of the vectorial function.
+     *
+     * @param dimension The dimension of the vectorial function.
+     */
+    public void setDimension(final int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * Sets the number of variables occurring in the vectorial function.
+     *
+     * @param numberOfVariables The number of variables occurring in the vectorial function.
+     */
+    public void setNumberOfVariables(final int numberOfVariables) {
+        this.numberOfVariables = numberOfVariables;
+    }
+
+    /**
+     * Sets the length of the string parsed.
+     *
+     * @param length The number of characters in the string parsed.
+     */
+    public void setLength(final long length) {
+        this.length = length;
+    }
+}
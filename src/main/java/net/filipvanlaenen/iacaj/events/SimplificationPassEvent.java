@@ -0,0 +1,62 @@
+package net.filipvanlaenen.iacaj.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a pass of the simplifier, e.g. the constant propagation or the symbolic simplification.
+ * The dimension and the number of variables are taken after the pass.
+ */
+@Category("IACAJ")
+@Name("net.filipvanlaenen.iacaj.SimplificationPass")
+@Label("Simplification Pass")
+@Description("A pass of the simplifier over the definitions of a vectorial function")
+public final class SimplificationPassEvent extends Event {
+    /**
+     * The dimension of the vectorial function.
+     */
+    @Label("Dimension")
+    @Description("The number of definitions after the pass")
+    private int dimension;
+    /**
+     * The number of variables occurring in the vectorial function.
+     */
+    @Label("Number of Variables")
+    @Description("The number of variables occurring in the definitions after the pass, defined or not")
+    private int numberOfVariables;
+    /**
+     * The name of the pass.
+     */
+    @Label("Pass")
+    private String pass;
+
+    /**
+     * Sets the dimension of the vectorial function.
+     *
+     * @param dimension The dimension of the vectorial function.
+     */
+    public void setDimension(final int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * Sets the number of variables occurring in the vectorial function.
+     *
+     * @param numberOfVariables The number of variables occurring in the vectorial function.
+     */
+    public void setNumberOfVariables(final int numberOfVariables) {
+        this.numberOfVariables = numberOfVariables;
+    }
+
+    /**
+     * Sets the name of the pass.
+     *
+     * @param pass The name of the pass.
+     */
+    public void setPass(final String pass) {
+        this.pass = pass;
+    }
+}
@@ -0,0 +1,76 @@
+package net.filipvanlaenen.iacaj.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for writing a vectorial function to a file, including its conversion to a string.
+ */
+@Category("IACAJ")
+@Name("net.filipvanlaenen.iacaj.Write")
+@Label("Write")
+@Description("Writing a vectorial function to a file")
+public final class WriteEvent extends Event {
+    /**
+     * The dimension of the vectorial function.
+     */
+    @Label("Dimension")
+    @Description("The number of definitions in the vectorial function")
+    private int dimension;
+    /**
+     * The number of variables occurring in the vectorial function.
+     */
+    @Label("Number of Variables")
+    @Description("The number of variables occurring in the vectorial function, defined or not")
+    private int numberOfVariables;
+    /**
+     * The name of the file.
+     */
+    @Label("File Name")
+    private String fileName;
+    /**
+     * The number of characters written.
+     */
+    @Label("Length")
+    @Description("The number of characters written to the file")
+    private long length;
+
+    /**
+     * Sets the dimension of the vectorial function.
+     *
+     * @param dimension The dimension of the vectorial function.
+     */
+    public void setDimension(final int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * Sets the number of variables occurring in the vectorial function.
+     *
+     * @param numberOfVariables The number of variables occurring in the vectorial function.
+     */
+    public void setNumberOfVariables(final int numberOfVariables) {
+        this.numberOfVariables = numberOfVariables;
+    }
+
+    /**
+     * Sets the name of the file.
+     *
+     * @param fileName The name of the file.
+     */
+    public void setFileName(final String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Sets the number of characters written.
+     *
+     * @param length The number of characters written to the file.
+     */
+    public void setLength(final long length) {
+        this.length = length;
+    }
+}
@@ -0,0 +1,169 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+
+/**
+ * Class collapsing chains of identity and negation definitions, i.e. aliases, to the variable at the end of the chain.
+ * Chains of aliases are common in hash functions, e.g. MD5 rotates its state words every step, and rotations and
+ * shifts of words only rename bits.
+ *
+ * The aliases are kept in a union-find structure with parity over the positions in the table with the definitions.
+ * Every alias definition unites its variable with its operand, with odd parity for a negation. The root of a set is
+ * the variable that isn't defined as an alias, i.e. an input variable or a variable defined by a constant or a
+ * function. Finding the root of a literal compresses the path it follows, such that collapsing all the aliases takes
+ * near-linear time, whatever the length of the chains.
+ */
+final class AliasCollapser {
+    /**
+     * The link of a position of which the definition isn't an alias.
+     */
+    private static final int NO_LINK = -1;
+
+    /**
+     * The table with the definitions.
+     */
+    private final DefinitionTable definitions;
+    /**
+     * For each position in the table, the literal its variable is an alias of, or <code>NO_LINK</code> if the
+     * definition at the position isn't an alias. After a path has been compressed, the literals on it link directly
+     * to the root.
+     */
+    private final int[] links;
+    /**
+     * The number of aliases.
+     */
+    private final int numberOfAliases;
+
+    /**
+     * Constructs an alias collapser for a table with definitions.
+     *
+     * @param definitions     The table with the definitions.
+     * @param links           For each position in the table, the literal its variable is an alias of, or
+     *                        <code>NO_LINK</code>.
+     * @param numberOfAliases The number of aliases.
+     */
+    private AliasCollapser(final DefinitionTable definitions, final int[] links, final int numberOfAliases) {
+        this.definitions = definitions;
+        this.links = links;
+        this.numberOfAliases = numberOfAliases;
+    }
+
+    /**
+     * Collects the aliases in a table with definitions.
+     *
+     * @param definitions The table with the definitions.
+     * @return An alias collapser for the table.
+     */
+    static AliasCollapser of(final DefinitionTable definitions) {
+        int n = definitions.size();
+        int[] links = new int[n];
+        Arrays.fill(links, NO_LINK);
+        int numberOfAliases = 0;
+        for (int position = 0; position < n; position++) {
+            Expression expression = definitions.getExpression(position);
+            if (expression instanceof IdentityExpression identityExpression) {
+                links[position] = identityExpression.literal();
+                numberOfAliases++;
+            } else if (expression instanceof NegationExpression negationExpression) {
+                links[position] = negationExpression.literal();
+                numberOfAliases++;
+            }
+        }
+        return new AliasCollapser(definitions, links, numberOfAliases);
+    }
+
+    /**
+     * Finds the root of a literal, i.e. the literal of the variable at the end of its chain of aliases, and compresses
+     * the path from the literal to the root.
+     *
+     * @param literal The literal.
+     * @return The root of the literal, negated if the literal is equivalent to the negation of the root variable.
+     * @throws IllegalStateException Thrown if the chain of aliases is cyclic.
+     */
+    int find(final int literal) throws IllegalStateException {
+        int root = literal;
+        int position = definitions.getPosition(Literals.id(root));
+        for (int step = 0; position >= 0 && links[position] != NO_LINK; step++) {
+            if (step == links.length) {
+                throw new IllegalStateException(
+                        "The definition of variable " + new Variable(Literals.id(literal)) + " is cyclic.");
+            }
+            root = Literals.negateIf(links[position], Literals.isNegated(root));
+            position = definitions.getPosition(Literals.id(root));
+        }
+        int current = literal;
+        position = definitions.getPosition(Literals.id(current));
+        while (current != root && current != Literals.negate(root)) {
+            int next = Literals.negateIf(links[position], Literals.isNegated(current));
+            links[position] = Literals.negateIf(root, Literals.isNegated(current));
+            current = next;
+            position = definitions.getPosition(Literals.id(current));
+        }
+        return root;
+    }
+
+    /**
+     * Returns the number of aliases, i.e. the number of definitions that are an identity or a negation expression.
+     *
+     * @return The number of aliases.
+     */
+    int getNumberOfAliases() {
+        return numberOfAliases;
+    }
+
+    /**
+     * Returns a table with the definitions in which all aliases have been collapsed, i.e. every alias is defined
+     * directly as its root. Operands that are aliases of a free variable are replaced by the free variable. Operands
+     * that are aliases of a defined variable are left in place, since the simplifier decides whether the definition
+     * of the root is expanded into the definitions using it, but they now resolve in a single step.
+     *
+     * The definitions keep their positions, such that a topological order of the original table remains valid, and
+     * the links of the chains that aren't used anymore fall out of the cone of influence of the output vector.
+     *
+     * @return A table with the definitions with all aliases collapsed.
+     * @throws IllegalStateException Thrown if a chain of aliases is cyclic.
+     */
+    DefinitionTable toCollapsedDefinitions() throws IllegalStateException {
+        int n = definitions.size();
+        DefinitionTable renames = new DefinitionTable();
+        for (int position = 0; position < n; position++) {
+            if (links[position] != NO_LINK) {
+                int id = definitions.getId(position);
+                int root = find(Literals.of(id, false));
+                if (definitions.getPosition(Literals.id(root)) < 0) {
+                    renames.put(id, Literals.toExpression(root));
+                }
+            }
+        }
+        DefinitionTable result = definitions.createEmpty(n);
+        for (int position = 0; position < n; position++) {
+            int id = definitions.getId(position);
+            Expression expression = definitions.getExpression(position);
+            if (links[position] != NO_LINK) {
+                expression = Literals.toExpression(links[position]);
+            } else if (usesRename(expression, renames)) {
+                expression = expression.simplify(renames).simplify();
+            }
+            result.put(id, expression);
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether an expression uses a variable that's an alias of a free variable.
+     *
+     * @param expression The expression.
+     * @param renames    A table with the aliases of free variables.
+     * @return True if one of the variables of the expression is an alias of a free variable.
+     */
+    private static boolean usesRename(final Expression expression, final DefinitionTable renames) {
+        if (renames.size() > 0) {
+            for (Variable variable : expression.getVariables()) {
+                if (renames.containsKey(variable)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,705 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+
+import net.filipvanlaenen.kolektoj.Collection;
+import net.filipvanlaenen.kolektoj.ModifiableMap;
+import net.filipvanlaenen.kolektoj.OrderedCollection;
+
+/**
+ * Class representing a vectorial Boolean function as an and-inverter graph (AIG). The graph consists of two-input and
+ * nodes stored in flat integer arrays. Edges are literals, i.e. twice the index of a node plus one if the edge is
+ * complemented. Node 0 is the constant false, such that literal 0 is false and literal 1 is true. The other nodes are
+ * either inputs, i.e. variables without a definition, or and nodes.
+ *
+ * Structurally identical and nodes are hashed into a single node, and trivial and nodes (with a constant input, two
+ * equal inputs or two complementary inputs) are never created, such that building the graph already simplifies the
+ * function. Or and xor functions are lowered to and nodes, and recovered again when the graph is converted back to a
+ * vectorial function.
+ */
+public final class AndInverterGraph {
+    /**
+     * The literal for false.
+     */
+    private static final int FALSE = 0;
+    /**
+     * The literal for true.
+     */
+    private static final int TRUE = 1;
+    /**
+     * Marker in the second fan-in array for input nodes.
+     */
+    private static final int INPUT = -1;
+    /**
+     * Marker for literals that haven't been calculated yet.
+     */
+    private static final int UNKNOWN = -1;
+    /**
+     * Marker for literals that are being calculated, used to detect cyclic definitions.
+     */
+    private static final int IN_PROGRESS = -2;
+    /**
+     * The initial capacity of the node arrays.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * The prefix for the names of the variables introduced for shared nodes when converting back to a vectorial
+     * function. The prefix is followed by a sequence number, skipping the names of the variables that occur in the
+     * graph or in the output vector.
+     */
+    private static final String NODE_PREFIX = "°n";
+    /**
+     * Multiplier used to spread the structural hash keys.
+     */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The first fan-in literal of each and node, or the variable ID for an input node.
+     */
+    private int[] fanIn0 = new int[INITIAL_CAPACITY];
+    /**
+     * The second fan-in literal of each and node, or <code>INPUT</code> for an input node.
+     */
+    private int[] fanIn1 = new int[INITIAL_CAPACITY];
+    /**
+     * The number of nodes, the constant node included.
+     */
+    private int numberOfNodes = 1;
+    /**
+     * The number of input nodes.
+     */
+    private int numberOfInputs;
+    /**
+     * The open addressing table with the structural hash keys of the and nodes.
+     */
+    private long[] hashKeys = new long[INITIAL_CAPACITY];
+    /**
+     * The and nodes for the keys in the structural hash table, plus one, such that zero marks an empty slot.
+     */
+    private int[] hashNodes = new int[INITIAL_CAPACITY];
+    /**
+     * The explicit stack used to traverse the definitions while building the graph.
+     */
+    private int[] definitionStack = new int[INITIAL_CAPACITY];
+    /**
+     * The IDs of the variables defined in the vectorial function, in their original order.
+     */
+    private final int[] definedVariableIds;
+    /**
+     * The literals defining the variables in the vectorial function.
+     */
+    private final int[] definitionLiterals;
+
+    /**
+     * Private constructor building the graph for a table with definitions.
+     *
+     * @param definitions The table with the definitions of the variables.
+     */
+    private AndInverterGraph(final DefinitionTable definitions) {
+        int[] literals = new int[VariableTable.size()];
+        Arrays.fill(literals, UNKNOWN);
+        definedVariableIds = new int[definitions.size()];
+        definitionLiterals = new int[definedVariableIds.length];
+        for (int i = 0; i < definitions.size(); i++) {
+            definedVariableIds[i] = definitions.getId(i);
+            definitionLiterals[i] = literalOf(new Variable(definitions.getId(i)), definitions, literals);
+        }
+    }
+
+    /**
+     * Creates an and-inverter graph for a vectorial function.
+     *
+     * @param vectorialFunction The vectorial function.
+     * @return An and-inverter graph for the vectorial function.
+     * @throws IllegalStateException Thrown if the vectorial function contains cyclic definitions.
+     */
+    public static AndInverterGraph of(final VectorialFunction vectorialFunction) throws IllegalStateException {
+        return new AndInverterGraph(vectorialFunction.getDefinitions());
+    }
+
+    /**
+     * Returns the literal for the and of two literals, creating a new and node if needed.
+     *
+     * @param a The first literal.
+     * @param b The second literal.
+     * @return The literal for the and of the two literals.
+     */
+    private int and(final int a, final int b) {
+        int lit0 = Math.min(a, b);
+        int lit1 = Math.max(a, b);
+        if (lit0 == FALSE || lit0 == (lit1 ^ 1)) {
+            return FALSE;
+        } else if (lit0 == TRUE || lit0 == lit1) {
+            return lit1;
+        }
+        long key = ((long) lit0 << Integer.SIZE) | lit1;
+        int mask = hashKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (hashNodes[slot] != 0) {
+            if (hashKeys[slot] == key) {
+                return 2 * (hashNodes[slot] - 1);
+            }
+            slot = (slot + 1) & mask;
+        }
+        int node = addNode(lit0, lit1);
+        hashKeys[slot] = key;
+        hashNodes[slot] = node + 1;
+        if (2 * (node + 1) > hashKeys.length) {
+            rehash();
+        }
+        return 2 * node;
+    }
+
+    /**
+     * Adds a node to the node arrays.
+     *
+     * @param lit0 The first fan-in literal, or the variable ID for an input node.
+     * @param lit1 The second fan-in literal, or <code>INPUT</code> for an input node.
+     * @return The index of the new node.
+     */
+    private int addNode(final int lit0, final int lit1) {
+        if (numberOfNodes == fanIn0.length) {
+            fanIn0 = Arrays.copyOf(fanIn0, numberOfNodes * 2);
+            fanIn1 = Arrays.copyOf(fanIn1, numberOfNodes * 2);
+        }
+        fanIn0[numberOfNodes] = lit0;
+        fanIn1[numberOfNodes] = lit1;
+        return numberOfNodes++;
+    }
+
+    /**
+     * Returns the number of and nodes in the graph.
+     *
+     * @return The number of and nodes in the graph.
+     */
+    public int getNumberOfAndNodes() {
+        return numberOfNodes - numberOfInputs - 1;
+    }
+
+    /**
+     * Returns the number of input nodes in the graph.
+     *
+     * @return The number of input nodes in the graph.
+     */
+    public int getNumberOfInputs() {
+        return numberOfInputs;
+    }
+
+    /**
+     * Calculates the hash for a structural hash key.
+     *
+     * @param key The structural hash key.
+     * @return The hash for the key.
+     */
+    private static int hash(final long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> Integer.SIZE);
+    }
+
+    /**
+     * Returns whether a node is an and node.
+     *
+     * @param node The node.
+     * @return True if the node is an and node.
+     */
+    private boolean isAndNode(final int node) {
+        return node != 0 && fanIn1[node] != INPUT;
+    }
+
+    /**
+     * Returns the literal for a variable, building the nodes for its definition if needed. The definitions are
+     * traversed depth-first with an explicit stack, such that the depth of the definitions is bounded by the heap only.
+     * A variable is pushed once to be visited, pushing the variables in its definition, and once more, complemented,
+     * to be lowered after the variables in its definition have been lowered.
+     *
+     * @param variable    The variable.
+     * @param definitions The table with the definitions of the variables.
+     * @param literals    The literals calculated so far, indexed by variable ID.
+     * @return The literal for the variable.
+     * @throws IllegalStateException Thrown if the variable's definition is cyclic.
+     */
+    private int literalOf(final Variable variable, final DefinitionTable definitions, final int[] literals)
+            throws IllegalStateException {
+        int top = 0;
+        definitionStack[top++] = variable.id();
+        while (top > 0) {
+            int entry = definitionStack[--top];
+            if (entry < 0) {
+                int id = ~entry;
+                literals[id] = lower(definitions.get(id), literals);
+                continue;
+            }
+            if (literals[entry] != UNKNOWN) {
+                continue;
+            }
+            Expression expression = definitions.get(entry);
+            if (expression == null) {
+                literals[entry] = 2 * addNode(entry, INPUT);
+                numberOfInputs++;
+                continue;
+            }
+            literals[entry] = IN_PROGRESS;
+            Collection<Variable> operands = expression.getVariables();
+            if (top + 1 + operands.size() > definitionStack.length) {
+                int capacity = Math.max(definitionStack.length * 2, top + 1 + operands.size());
+                definitionStack = Arrays.copyOf(definitionStack, capacity);
+            }
+            definitionStack[top++] = ~entry;
+            for (Variable operand : operands) {
+                int operandId = operand.id();
+                if (literals[operandId] == IN_PROGRESS) {
+                    throw new IllegalStateException("The definition of variable " + operand + " is cyclic.");
+                } else if (literals[operandId] == UNKNOWN) {
+                    definitionStack[top++] = operandId;
+                }
+            }
+        }
+        return literals[variable.id()];
+    }
+
+    /**
+     * Lowers a definition to and nodes, once the literals for all the variables in the definition are known.
+     *
+     * @param expression The definition.
+     * @param literals   The literals calculated so far, indexed by variable ID.
+     * @return The literal for the definition.
+     */
+    private int lower(final Expression expression, final int[] literals) {
+        if (LiteralExpression.FALSE == expression) {
+            return FALSE;
+        } else if (LiteralExpression.TRUE == expression) {
+            return TRUE;
+        } else if (expression instanceof IdentityExpression identityExpression) {
+            return literals[identityExpression.variable().id()];
+        } else if (expression instanceof NegationExpression negationExpression) {
+            return literals[negationExpression.variable().id()] ^ 1;
+        } else if (expression instanceof AndFunction andFunction) {
+            return lowerAnd(andFunction.getLiterals(), literals);
+        } else if (expression instanceof OrFunction orFunction) {
+            return lowerAnd(orFunction.getLiterals().complement(), literals) ^ 1;
+        } else {
+            XorFunction xorFunction = (XorFunction) expression;
+            int literal = xorFunction.negated() ? TRUE : FALSE;
+            for (int id : xorFunction.getIds()) {
+                literal = xor(literal, literals[id]);
+            }
+            return literal;
+        }
+    }
+
+    /**
+     * Lowers a conjunction of literals to and nodes.
+     *
+     * @param literalSet The literals of the conjunction.
+     * @param literals   The literals calculated so far, indexed by variable ID.
+     * @return The literal for the conjunction.
+     */
+    private int lowerAnd(final LiteralSet literalSet, final int[] literals) {
+        int literal = TRUE;
+        for (int operand : literalSet.getLiterals()) {
+            int operandLiteral = literals[Literals.id(operand)];
+            literal = and(literal, Literals.negateIf(operandLiteral, Literals.isNegated(operand)));
+        }
+        return literal;
+    }
+
+    /**
+     * Doubles the size of the structural hash table.
+     */
+    private void rehash() {
+        long[] oldKeys = hashKeys;
+        int[] oldNodes = hashNodes;
+        hashKeys = new long[oldKeys.length * 2];
+        hashNodes = new int[oldNodes.length * 2];
+        int mask = hashKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldNodes[i] != 0) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (hashNodes[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                hashKeys[slot] = oldKeys[i];
+                hashNodes[slot] = oldNodes[i];
+            }
+        }
+    }
+
+    /**
+     * Converts the graph back into a vectorial function with all the variables that were defined originally.
+     *
+     * @return A vectorial function equivalent to the graph.
+     */
+    public VectorialFunction toVectorialFunction() {
+        return new Exporter(definedVariableIds.length).export(definedVariableIds, definitionLiterals,
+                definedVariableIds);
+    }
+
+    /**
+     * Converts the cone of influence of an output vector back into a vectorial function.
+     *
+     * @param outputVector The output vector.
+     * @return A vectorial function with the output vector's variables equivalent to the graph.
+     */
+    public VectorialFunction toVectorialFunction(final Word outputVector) {
+        int[] literals = new int[VariableTable.size()];
+        Arrays.fill(literals, UNKNOWN);
+        for (int i = 0; i < definedVariableIds.length; i++) {
+            literals[definedVariableIds[i]] = definitionLiterals[i];
+        }
+        OrderedCollection<Variable> outputVariables = outputVector.getVariables();
+        int[] outputIds = new int[outputVariables.size()];
+        int[] outputLiterals = new int[outputIds.length];
+        int n = 0;
+        for (Variable variable : outputVariables) {
+            if (literals[variable.id()] != UNKNOWN) {
+                outputIds[n] = variable.id();
+                outputLiterals[n] = literals[variable.id()];
+                n++;
+            }
+        }
+        int[] reservedIds = new int[outputVariables.size()];
+        int i = 0;
+        for (Variable variable : outputVariables) {
+            reservedIds[i++] = variable.id();
+        }
+        return new Exporter(n).export(Arrays.copyOf(outputIds, n), Arrays.copyOf(outputLiterals, n), reservedIds);
+    }
+
+    /**
+     * Returns the literal for the xor of two literals, lowered to and nodes. The xor is built as the conjunction of the
+     * negations of <code>a ∧ b</code> and <code>¬a ∧ ¬b</code>, which is the pattern recovered during the export.
+     *
+     * @param a The first literal.
+     * @param b The second literal.
+     * @return The literal for the xor of the two literals.
+     */
+    private int xor(final int a, final int b) {
+        return and(and(a, b) ^ 1, and(a ^ 1, b ^ 1) ^ 1);
+    }
+
+    /**
+     * Helper class converting the graph back into a vectorial function. And nodes are merged into n-ary and or or
+     * functions as long as they aren't shared, complemented and nodes become or functions, and the xor pattern is
+     * recovered into xor functions. Shared nodes that don't correspond to a defined variable get a new variable, with a
+     * name that doesn't occur in the graph or the output vector yet.
+     */
+    private final class Exporter {
+        /**
+         * Whether the nodes match the xor pattern.
+         */
+        private final boolean[] isXor = new boolean[numberOfNodes];
+        /**
+         * Whether the nodes need a variable of their own in the exported function.
+         */
+        private final boolean[] needsName = new boolean[numberOfNodes];
+        /**
+         * The variable naming each node, or null if the node is merged into the node referencing it.
+         */
+        private final Variable[] names = new Variable[numberOfNodes];
+        /**
+         * The polarity of the naming variable, i.e. 1 if the variable names the complement of the node.
+         */
+        private final int[] namePolarities = new int[numberOfNodes];
+        /**
+         * The explicit stack used to traverse the nodes.
+         */
+        private final int[] nodeStack = new int[numberOfNodes];
+        /**
+         * The map with the exported variables and expressions.
+         */
+        private final ModifiableMap<Variable, Expression> map = ModifiableMap.empty();
+        /**
+         * The number of exported root variables.
+         */
+        private final int numberOfRoots;
+        /**
+         * Whether the variable with an ID occurs in the graph or the output vector, such that its name can't be used
+         * for a shared node.
+         */
+        private boolean[] isTaken;
+        /**
+         * The sequence number of the last name tried for a shared node.
+         */
+        private int lastSequenceNumber;
+
+        /**
+         * Constructor taking the number of root variables to be exported.
+         *
+         * @param numberOfRoots The number of root variables to be exported.
+         */
+        private Exporter(final int numberOfRoots) {
+            this.numberOfRoots = numberOfRoots;
+        }
+
+        /**
+         * Collects the literals of the conjunction represented by an and node, merging in unshared and nodes. The
+         * merged nodes are traversed with an explicit stack.
+         *
+         * @param node     The and node.
+         * @param builder  The literal set builder collecting the literals.
+         * @param polarity 1 if the literals should be complemented.
+         */
+        private void collectAndLiterals(final int node, final LiteralSet.Builder builder, final int polarity) {
+            int top = 0;
+            nodeStack[top++] = node;
+            while (top > 0) {
+                int current = nodeStack[--top];
+                for (int literal : new int[] {fanIn0[current], fanIn1[current]}) {
+                    int child = literal >> 1;
+                    if ((literal & 1) == 0 && isMergeable(child) && !isXor[child]) {
+                        nodeStack[top++] = child;
+                    } else {
+                        addLiteral(builder, literal ^ polarity);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Collects the variables of the xor represented by a node matching the xor pattern, merging in unshared xor
+         * nodes. The merged nodes are traversed with an explicit stack.
+         *
+         * @param node    The node matching the xor pattern.
+         * @param builder The literal set builder collecting the variables as direct literals.
+         * @return The parity of the collected variables, i.e. 1 if their xor should be negated.
+         */
+        private int collectXorVariables(final int node, final LiteralSet.Builder builder) {
+            int top = 0;
+            nodeStack[top++] = node;
+            int parity = 0;
+            while (top > 0) {
+                int current = nodeStack[--top];
+                for (int literal : xorOperands(current)) {
+                    int child = literal >> 1;
+                    parity ^= literal & 1;
+                    if (isMergeable(child) && isXor[child]) {
+                        nodeStack[top++] = child;
+                    } else {
+                        builder.addDirect(nameOf(child).id());
+                        parity ^= namePolarities[child];
+                    }
+                }
+            }
+            return parity;
+        }
+
+        /**
+         * Adds a literal to a literal set builder, using the variable naming its node.
+         *
+         * @param builder The literal set builder.
+         * @param literal The literal.
+         */
+        private void addLiteral(final LiteralSet.Builder builder, final int literal) {
+            int node = literal >> 1;
+            if (((literal & 1) ^ namePolarities[node]) == 0) {
+                builder.addDirect(nameOf(node).id());
+            } else {
+                builder.addNegated(nameOf(node).id());
+            }
+        }
+
+        /**
+         * Classifies the nodes reachable from the roots, and marks the nodes that need a variable in the exported
+         * function because they're referenced more than once, or referenced by a node they can't be merged into.
+         *
+         * @param rootLiterals The literals of the roots.
+         */
+        private void markSharedNodes(final int[] rootLiterals) {
+            boolean[] visited = new boolean[numberOfNodes];
+            int top = 0;
+            for (int literal : rootLiterals) {
+                int node = literal >> 1;
+                if (!visited[node]) {
+                    visited[node] = true;
+                    nodeStack[top++] = node;
+                }
+            }
+            while (top > 0) {
+                int node = nodeStack[--top];
+                if (isAndNode(node)) {
+                    isXor[node] = xorOperands(node) != null;
+                    for (int literal : exportedOperands(node)) {
+                        int child = literal >> 1;
+                        if (!visited[child]) {
+                            visited[child] = true;
+                            nodeStack[top++] = child;
+                        }
+                    }
+                }
+            }
+            int[] references = new int[numberOfNodes];
+            for (int node = 1; node < numberOfNodes; node++) {
+                if (visited[node] && isAndNode(node)) {
+                    for (int literal : exportedOperands(node)) {
+                        int child = literal >> 1;
+                        references[child]++;
+                        boolean mergeable = isXor[node] ? isXor[child] : !isXor[child] && (literal & 1) == 0;
+                        if (references[child] > 1 || !mergeable) {
+                            needsName[child] = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the operands of a node as they occur in the exported function, i.e. the two operands of the xor for
+         * a node matching the xor pattern, and the two fan-in literals otherwise.
+         *
+         * @param node The and node.
+         * @return The operands of the node in the exported function.
+         */
+        private int[] exportedOperands(final int node) {
+            return isXor[node] ? xorOperands(node) : new int[] {fanIn0[node], fanIn1[node]};
+        }
+
+        /**
+         * Exports the roots, together with the nodes in their cone of influence.
+         *
+         * @param rootIds      The IDs of the root variables.
+         * @param rootLiterals The literals of the root variables.
+         * @param reservedIds  The IDs of variables that can't be used for shared nodes, in addition to the inputs and
+         *                     the roots.
+         * @return A vectorial function with the root variables and the variables introduced for shared nodes.
+         */
+        private VectorialFunction export(final int[] rootIds, final int[] rootLiterals, final int[] reservedIds) {
+            markTakenNames(rootIds, reservedIds);
+            markSharedNodes(rootLiterals);
+            for (int i = 0; i < numberOfRoots; i++) {
+                int node = rootLiterals[i] >> 1;
+                if (isAndNode(node) && names[node] == null) {
+                    names[node] = new Variable(rootIds[i]);
+                    namePolarities[node] = rootLiterals[i] & 1;
+                    needsName[node] = false;
+                }
+            }
+            for (int node = 1; node < numberOfNodes; node++) {
+                if (fanIn1[node] == INPUT) {
+                    names[node] = new Variable(fanIn0[node]);
+                } else if (needsName[node]) {
+                    names[node] = freshVariable();
+                }
+            }
+            for (int i = 0; i < numberOfRoots; i++) {
+                Variable variable = new Variable(rootIds[i]);
+                int literal = rootLiterals[i];
+                int node = literal >> 1;
+                if (node == 0) {
+                    map.add(variable, literal == TRUE ? LiteralExpression.TRUE : LiteralExpression.FALSE);
+                } else if (names[node].equals(variable)) {
+                    map.add(variable, exportNode(node, namePolarities[node]));
+                } else if (((literal & 1) ^ namePolarities[node]) == 0) {
+                    map.add(variable, new IdentityExpression(names[node]));
+                } else {
+                    map.add(variable, new NegationExpression(names[node]));
+                }
+            }
+            for (int node = 1; node < numberOfNodes; node++) {
+                if (isAndNode(node) && needsName[node]) {
+                    map.add(names[node], exportNode(node, 0));
+                }
+            }
+            return new VectorialFunction(map);
+        }
+
+        /**
+         * Returns a fresh variable for a shared node, skipping the names that are taken.
+         *
+         * @return A fresh variable.
+         */
+        private Variable freshVariable() {
+            int id;
+            do {
+                lastSequenceNumber++;
+                id = VariableTable.intern(NODE_PREFIX + lastSequenceNumber);
+            } while (id < isTaken.length && isTaken[id]);
+            return new Variable(id);
+        }
+
+        /**
+         * Marks the IDs of the variables that occur in the graph or the output vector as taken.
+         *
+         * @param rootIds     The IDs of the root variables.
+         * @param reservedIds The IDs of other variables that can't be used for shared nodes.
+         */
+        private void markTakenNames(final int[] rootIds, final int[] reservedIds) {
+            isTaken = new boolean[VariableTable.size()];
+            for (int node = 1; node < numberOfNodes; node++) {
+                if (fanIn1[node] == INPUT) {
+                    isTaken[fanIn0[node]] = true;
+                }
+            }
+            for (int id : definedVariableIds) {
+                isTaken[id] = true;
+            }
+            for (int id : rootIds) {
+                isTaken[id] = true;
+            }
+            for (int id : reservedIds) {
+                isTaken[id] = true;
+            }
+        }
+
+        /**
+         * Exports a node into an expression.
+         *
+         * @param node     The node.
+         * @param polarity 1 if the complement of the node should be exported.
+         * @return An expression for the node.
+         */
+        private Expression exportNode(final int node, final int polarity) {
+            LiteralSet.Builder builder = new LiteralSet.Builder();
+            if (isXor[node]) {
+                int parity = collectXorVariables(node, builder) ^ polarity;
+                return new XorFunction(builder.build().toIds(), parity == 1);
+            }
+            collectAndLiterals(node, builder, polarity);
+            LiteralSet literals = builder.build();
+            return polarity == 0 ? new AndFunction(literals) : new OrFunction(literals);
+        }
+
+        /**
+         * Returns whether a node can be merged into the node referencing it.
+         *
+         * @param node The node.
+         * @return True if the node is an and node without a variable of its own.
+         */
+        private boolean isMergeable(final int node) {
+            return isAndNode(node) && names[node] == null;
+        }
+
+        /**
+         * Returns the variable naming a node.
+         *
+         * @param node The node.
+         * @return The variable naming the node.
+         */
+        private Variable nameOf(final int node) {
+            return names[node];
+        }
+
+        /**
+         * Returns the two operands of the xor if a node matches the xor pattern
+         * <code>¬(p ∧ q) ∧ ¬(¬p ∧ ¬q)</code>, and null otherwise.
+         *
+         * @param node The node.
+         * @return An array with the two operands, or null if the node doesn't match the xor pattern.
+         */
+        private int[] xorOperands(final int node) {
+            int f0 = fanIn0[node];
+            int f1 = fanIn1[node];
+            if ((f0 & 1) == 0 || (f1 & 1) == 0 || !isAndNode(f0 >> 1) || !isAndNode(f1 >> 1)) {
+                return null;
+            }
+            int x = f0 >> 1;
+            int y = f1 >> 1;
+            int a0 = fanIn0[x];
+            int a1 = fanIn1[x];
+            int b0 = fanIn0[y];
+            int b1 = fanIn1[y];
+            if (b0 == (a0 ^ 1) && b1 == (a1 ^ 1) || b0 == (a1 ^ 1) && b1 == (a0 ^ 1)) {
+                return new int[] {a0, a1};
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A dense matrix over GF(2), with its rows packed into longs, 64 columns per word. Adding a row to another row is a
+ * word-parallel xor, such that eliminating a column from a row costs one operation per 64 columns.
+ *
+ * The rows are stored in blocks of consecutive rows, each block a single array of about the size of a level 2 cache,
+ * such that sweeping over the rows during an elimination step walks through memory linearly, one block at a time.
+ *
+ * Two algorithms reduce the matrix to its reduced row echelon form: plain Gauss-Jordan elimination, eliminating one
+ * column at a time, and the method of the Four Russians as in M4RI, eliminating a strip of up to four groups of up to
+ * eight columns at a time, with a table of all the combinations of the pivot rows of each group. The latter adds a
+ * single row from each table to every other row per strip, instead of up to one row per column, and can do so on a
+ * number of threads. The linear subsystem of a vectorial function uses the matrix only as a fallback, to solve xor
+ * definitions coupled by a cycle.
+ */
+final class BitMatrix {
+    /**
+     * The maximal number of columns in a group eliminated with a single table by the method of the Four Russians.
+     */
+    private static final int MAXIMAL_GROUP_WIDTH = 8;
+    /**
+     * The ratio between the number of columns in a group and the binary logarithm of the smallest dimension of the
+     * matrix.
+     */
+    private static final double GROUP_WIDTH_RATIO = 0.75;
+    /**
+     * The number of groups of columns in a strip, i.e. the number of tables each row is reduced against in one pass.
+     */
+    private static final int GROUPS_PER_STRIP = 4;
+    /**
+     * The number of bits to shift a column to get the index of its word in a row.
+     */
+    private static final int WORD_SHIFT = 6;
+    /**
+     * The number of words a block of rows should hold at most, i.e. 256 KiB.
+     */
+    private static final int WORDS_PER_BLOCK = 1 << 15;
+    /**
+     * The number of rows below which the rows are reduced against a strip without forking.
+     */
+    private static final int MINIMAL_NUMBER_OF_ROWS_TO_FORK = 1024;
+    /**
+     * The number of tasks per thread reducing the rows against a strip.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /**
+     * The blocks of rows.
+     */
+    private final long[][] blocks;
+    /**
+     * The number of rows.
+     */
+    private final int numberOfRows;
+    /**
+     * The number of columns.
+     */
+    private final int numberOfColumns;
+    /**
+     * The number of words per row.
+     */
+    private final int wordsPerRow;
+    /**
+     * The number of bits to shift a row to get the index of its block, i.e. the binary logarithm of the number of rows
+     * per block.
+     */
+    private final int blockShift;
+
+    /**
+     * Constructs a matrix with all entries zero.
+     *
+     * @param numberOfRows    The number of rows.
+     * @param numberOfColumns The number of columns.
+     * @throws IllegalArgumentException Thrown if the number of rows or columns is negative.
+     */
+    BitMatrix(final int numberOfRows, final int numberOfColumns) throws IllegalArgumentException {
+        if (numberOfRows < 0 || numberOfColumns < 0) {
+            throw new IllegalArgumentException("The dimensions of a matrix can't be negative, but were " + numberOfRows
+                    + " by " + numberOfColumns + ".");
+        }
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.wordsPerRow = (numberOfColumns + Long.SIZE - 1) >>> WORD_SHIFT;
+        int maximalRowsPerBlock = Math.max(1, WORDS_PER_BLOCK / Math.max(1, wordsPerRow));
+        this.blockShift = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(maximalRowsPerBlock);
+        int rowsPerBlock = 1 << blockShift;
+        int numberOfBlocks = (numberOfRows + rowsPerBlock - 1) >>> blockShift;
+        this.blocks = new long[numberOfBlocks][];
+        for (int block = 0; block < numberOfBlocks; block++) {
+            int rowsInBlock = Math.min(rowsPerBlock, numberOfRows - (block << blockShift));
+            blocks[block] = new long[rowsInBlock * wordsPerRow];
+        }
+    }
+
+    /**
+     * Adds a row to another row, starting from a word.
+     *
+     * @param source The row to add.
+     * @param target The row to add to.
+     * @param word   The index of the first word to add.
+     */
+    private void addRow(final int source, final int target, final int word) {
+        long[] sourceBlock = blocks[source >>> blockShift];
+        int sourceOffset = offset(source);
+        long[] targetBlock = blocks[target >>> blockShift];
+        int targetOffset = offset(target);
+        for (int i = word; i < wordsPerRow; i++) {
+            targetBlock[targetOffset + i] ^= sourceBlock[sourceOffset + i];
+        }
+    }
+
+    /**
+     * Flips the entry at a row and a column, i.e. adds one to it.
+     *
+     * @param row    The row.
+     * @param column The column.
+     */
+    void flip(final int row, final int column) {
+        blocks[row >>> blockShift][offset(row) + (column >>> WORD_SHIFT)] ^= 1L << column;
+    }
+
+    /**
+     * Returns the entry at a row and a column.
+     *
+     * @param row    The row.
+     * @param column The column.
+     * @return True if the entry is one.
+     */
+    boolean get(final int row, final int column) {
+        return (blocks[row >>> blockShift][offset(row) + (column >>> WORD_SHIFT)] & (1L << column)) != 0;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The number of columns.
+     */
+    int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of rows.
+     */
+    int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    /**
+     * Returns the column of the next entry that is one in a row, starting from a column.
+     *
+     * @param row    The row.
+     * @param column The column to start from.
+     * @return The column of the next entry that is one, or -1 if there is none.
+     */
+    int nextSetColumn(final int row, final int column) {
+        int word = column >>> WORD_SHIFT;
+        if (word >= wordsPerRow) {
+            return -1;
+        }
+        long[] block = blocks[row >>> blockShift];
+        int offset = offset(row);
+        long bits = block[offset + word] & (-1L << column);
+        while (bits == 0) {
+            if (++word == wordsPerRow) {
+                return -1;
+            }
+            bits = block[offset + word];
+        }
+        return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Returns the offset of a row in its block.
+     *
+     * @param row The row.
+     * @return The offset of the first word of the row in its block.
+     */
+    private int offset(final int row) {
+        return (row & ((1 << blockShift) - 1)) * wordsPerRow;
+    }
+
+    /**
+     * Reduces the matrix to its reduced row echelon form with plain Gauss-Jordan elimination. The columns are visited
+     * from left to right. For every column, a row with a one in that column is swapped into the next pivot position,
+     * and added to all other rows with a one in that column. Since the pivot row has zeros in all the columns to the
+     * left of its pivot, the additions start at the word holding the pivot.
+     *
+     * @return The pivot column of every row of the reduced matrix, i.e. the rank of the matrix is the length of the
+     *         array, and the rows below the rank are zero.
+     */
+    int[] reduce() {
+        int[] pivotColumns = new int[Math.min(numberOfRows, numberOfColumns)];
+        int rank = 0;
+        for (int column = 0; column < numberOfColumns && rank < numberOfRows; column++) {
+            int pivot = rank;
+            while (pivot < numberOfRows && !get(pivot, column)) {
+                pivot++;
+            }
+            if (pivot == numberOfRows) {
+                continue;
+            }
+            swapRows(pivot, rank);
+            int word = column >>> WORD_SHIFT;
+            for (int row = 0; row < numberOfRows; row++) {
+                if (row != rank && get(row, column)) {
+                    addRow(rank, row, word);
+                }
+            }
+            pivotColumns[rank++] = column;
+        }
+        return Arrays.copyOf(pivotColumns, rank);
+    }
+
+    /**
+     * Reduces the matrix to its reduced row echelon form with the method of the Four Russians. The columns are
+     * visited in strips of a number of groups of columns. Within a strip, the pivots are searched for as in plain
+     * Gauss-Jordan elimination, but only the rows that are visited during the search are reduced against the pivots
+     * found so far, and the pivot rows are reduced against each other. A column without a pivot ends the strip, since
+     * all the rows below the pivots have been visited and reduced against them by then. Then a table is built for
+     * every group of pivots with all the combinations of their pivot rows, and every other row is reduced against the
+     * strip by adding from every table the single combination matching its entries in the pivot columns of the group.
+     * Since the pivot rows have zeros in each other's pivot columns, the combinations can be looked up at once, and
+     * every row is loaded only once per strip. The result is the same as for plain Gauss-Jordan elimination.
+     *
+     * @param parallelism The number of threads reducing the rows against a strip.
+     * @return The pivot column of every row of the reduced matrix, i.e. the rank of the matrix is the length of the
+     *         array, and the rows below the rank are zero.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     */
+    int[] reduceFourRussians(final int parallelism) throws IllegalArgumentException {
+        return reduceFourRussians(parallelism, () -> false);
+    }
+
+    /**
+     * Reduces the matrix to its reduced row echelon form with the method of the Four Russians, unless the reduction is
+     * cancelled. Whether the reduction is cancelled is checked before every strip, such that a cancellation takes
+     * effect after at most one sweep over the rows.
+     *
+     * @param parallelism The number of threads reducing the rows against a strip.
+     * @param isCancelled The supplier telling whether the reduction is cancelled.
+     * @return The pivot column of every row of the reduced matrix, or null if the reduction was cancelled, in which
+     *         case the matrix is left partially reduced.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     */
+    int[] reduceFourRussians(final int parallelism, final BooleanSupplier isCancelled)
+            throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism should be at least 1, but was " + parallelism + ".");
+        }
+        int groupWidth = groupWidth();
+        int stripWidth = groupWidth * GROUPS_PER_STRIP;
+        int[] pivotColumns = new int[Math.min(numberOfRows, numberOfColumns)];
+        int[] stripPivotColumns = new int[stripWidth];
+        int rank = 0;
+        int column = 0;
+        ForkJoinPool pool = parallelism > 1 && numberOfRows >= MINIMAL_NUMBER_OF_ROWS_TO_FORK
+                ? new ForkJoinPool(parallelism) : null;
+        try {
+            while (column < numberOfColumns && rank < numberOfRows) {
+                if (isCancelled.getAsBoolean()) {
+                    return null;
+                }
+                int word = column >>> WORD_SHIFT;
+                int stripEnd = Math.min(column + stripWidth, numberOfColumns);
+                int numberOfPivots = 0;
+                while (column < stripEnd && rank + numberOfPivots < numberOfRows) {
+                    if (!findPivot(column++, rank, stripPivotColumns, numberOfPivots, word)) {
+                        break;
+                    }
+                    stripPivotColumns[numberOfPivots++] = column - 1;
+                }
+                if (numberOfPivots > 0) {
+                    long[][] tables = new long[(numberOfPivots + groupWidth - 1) / groupWidth][];
+                    for (int group = 0; group < tables.length; group++) {
+                        int firstPivot = group * groupWidth;
+                        tables[group] = createCombinationTable(rank + firstPivot,
+                                Math.min(groupWidth, numberOfPivots - firstPivot), word);
+                    }
+                    Strip strip = new Strip(rank, Arrays.copyOf(stripPivotColumns, numberOfPivots), groupWidth, word,
+                            tables);
+                    reduceAgainstStrip(pool, strip);
+                    System.arraycopy(stripPivotColumns, 0, pivotColumns, rank, numberOfPivots);
+                    rank += numberOfPivots;
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        return Arrays.copyOf(pivotColumns, rank);
+    }
+
+    /**
+     * Searches for a pivot for a column within a strip, reducing the rows visited against the pivots found so far in
+     * the strip. If a pivot is found, it's swapped into the next pivot position, and eliminated from the pivot rows
+     * found before it in the strip.
+     *
+     * @param column            The column.
+     * @param rank              The number of pivots found before the strip.
+     * @param stripPivotColumns The pivot columns found so far in the strip.
+     * @param numberOfPivots    The number of pivots found so far in the strip.
+     * @param word              The index of the word holding the first column of the strip.
+     * @return True if a pivot was found.
+     */
+    private boolean findPivot(final int column, final int rank, final int[] stripPivotColumns,
+            final int numberOfPivots, final int word) {
+        int pivotRow = rank + numberOfPivots;
+        for (int row = pivotRow; row < numberOfRows; row++) {
+            for (int i = 0; i < numberOfPivots; i++) {
+                if (get(row, stripPivotColumns[i])) {
+                    addRow(rank + i, row, word);
+                }
+            }
+            if (get(row, column)) {
+                swapRows(row, pivotRow);
+                for (int i = 0; i < numberOfPivots; i++) {
+                    if (get(rank + i, column)) {
+                        addRow(pivotRow, rank + i, word);
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a table with all the combinations of a group of consecutive pivot rows, starting from the word holding
+     * the first column of the strip. Every combination is built from a combination with one pivot row less, with a
+     * single row addition.
+     *
+     * @param firstPivotRow  The first pivot row of the group.
+     * @param numberOfPivots The number of pivot rows in the group.
+     * @param word           The index of the word holding the first column of the strip.
+     * @return A table with the combinations, indexed by the bit pattern of the pivot rows in the combination.
+     */
+    private long[] createCombinationTable(final int firstPivotRow, final int numberOfPivots, final int word) {
+        int width = wordsPerRow - word;
+        long[] table = new long[(1 << numberOfPivots) * width];
+        for (int index = 1; index < 1 << numberOfPivots; index++) {
+            int pivotRow = firstPivotRow + Integer.numberOfTrailingZeros(index);
+            int previous = (index & (index - 1)) * width;
+            long[] block = blocks[pivotRow >>> blockShift];
+            int offset = offset(pivotRow) + word;
+            for (int i = 0; i < width; i++) {
+                table[index * width + i] = table[previous + i] ^ block[offset + i];
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Reduces all rows but the pivot rows of a strip against the strip, on a fork/join pool if one is provided.
+     *
+     * @param pool  The fork/join pool, or null to reduce the rows on the calling thread.
+     * @param strip The strip.
+     */
+    private void reduceAgainstStrip(final ForkJoinPool pool, final Strip strip) {
+        if (pool == null) {
+            reduceAgainstStrip(strip, 0, numberOfRows);
+            return;
+        }
+        int numberOfTasks = pool.getParallelism() * TASKS_PER_THREAD;
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[numberOfTasks];
+        for (int i = 0; i < numberOfTasks; i++) {
+            int start = (int) ((long) numberOfRows * i / numberOfTasks);
+            int end = (int) ((long) numberOfRows * (i + 1) / numberOfTasks);
+            tasks[i] = pool.submit(() -> {
+                reduceAgainstStrip(strip, start, end);
+            });
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Reduces a range of rows against a strip, skipping the pivot rows of the strip. For every group of pivots, the
+     * entries of a row in the pivot columns of the group form the index of the combination of pivot rows that is
+     * added to it.
+     *
+     * @param strip The strip.
+     * @param start The first row of the range.
+     * @param end   The row just after the last row of the range.
+     */
+    private void reduceAgainstStrip(final Strip strip, final int start, final int end) {
+        int word = strip.word();
+        int width = wordsPerRow - word;
+        int[] stripPivotColumns = strip.pivotColumns();
+        long[][] tables = strip.tables();
+        int[] indices = new int[tables.length];
+        for (int row = start; row < end; row++) {
+            if (row >= strip.rank() && row < strip.rank() + stripPivotColumns.length) {
+                continue;
+            }
+            long[] block = blocks[row >>> blockShift];
+            int offset = offset(row);
+            Arrays.fill(indices, 0);
+            for (int i = 0; i < stripPivotColumns.length; i++) {
+                int column = stripPivotColumns[i];
+                if ((block[offset + (column >>> WORD_SHIFT)] & (1L << column)) != 0) {
+                    indices[i / strip.groupWidth()] |= 1 << (i % strip.groupWidth());
+                }
+            }
+            for (int group = 0; group < tables.length; group++) {
+                if (indices[group] != 0) {
+                    long[] table = tables[group];
+                    int tableOffset = indices[group] * width;
+                    for (int i = 0; i < width; i++) {
+                        block[offset + word + i] ^= table[tableOffset + i];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of columns in a group eliminated with a single table by the method of the Four Russians, i.e.
+     * three quarters of the binary logarithm of the smallest dimension of the matrix, as in M4RI, but at least one and
+     * at most eight.
+     *
+     * @return The number of columns in a group.
+     */
+    private int groupWidth() {
+        int logarithm = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(Math.max(1, Math.min(numberOfRows,
+                numberOfColumns)));
+        return Math.max(1, Math.min(MAXIMAL_GROUP_WIDTH, (int) (logarithm * GROUP_WIDTH_RATIO)));
+    }
+
+    /**
+     * Swaps two rows.
+     *
+     * @param row   The first row.
+     * @param other The other row.
+     */
+    private void swapRows(final int row, final int other) {
+        if (row == other) {
+            return;
+        }
+        long[] block = blocks[row >>> blockShift];
+        int offset = offset(row);
+        long[] otherBlock = blocks[other >>> blockShift];
+        int otherOffset = offset(other);
+        for (int i = 0; i < wordsPerRow; i++) {
+            long word = block[offset + i];
+            block[offset + i] = otherBlock[otherOffset + i];
+            otherBlock[otherOffset + i] = word;
+        }
+    }
+
+    /**
+     * A strip of columns being eliminated by the method of the Four Russians.
+     *
+     * @param rank         The row of the first pivot of the strip.
+     * @param pivotColumns The pivot columns of the strip.
+     * @param groupWidth   The number of pivots in a group.
+     * @param word         The index of the word holding the first column of the strip.
+     * @param tables       The tables with the combinations of the pivot rows, one for each group.
+     */
+    private record Strip(int rank, int[] pivotColumns, int groupWidth, int word, long[][] tables) {
+    }
+}
@@ -0,0 +1,134 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.HashMap;
+
+/**
+ * Class eliminating common subexpressions across the definitions of a vectorial function, without simplifying them
+ * otherwise. The definitions are visited once in topological order. The operands of every definition are renamed
+ * first to the representatives of the variables that have been eliminated, and then the definition is looked up in a
+ * hash map with the functions seen so far. Since and, or and xor functions hold their operands in canonical order,
+ * structurally identical functions are equal and have the same hash code. A duplicate function is dropped, and its
+ * variable is redirected to the variable that was first defined with it, such that the users of the duplicate may
+ * turn into duplicates too. Renaming the operands may cancel or merge operands, but no other rewriting takes place.
+ *
+ * Many duplicates only appear after constants have been folded in, e.g. in adders of which some inputs have been
+ * fixed. Therefore, the constants are propagated through the definitions at the bit level first. Definitions that
+ * aren't output variables and that have a known value, or that are reduced to a single literal while renaming, are
+ * folded into the definitions using them, and removed.
+ *
+ * The definitions of the variables of the output vector are never dropped, but an output variable does become the
+ * representative of a function if none was seen before.
+ */
+final class CommonSubexpressionEliminator {
+    /**
+     * The table with the definitions that remain after the elimination, in topological order.
+     */
+    private final DefinitionTable definitions;
+    /**
+     * The number of definitions that were removed.
+     */
+    private final int numberOfRemovedDefinitions;
+    /**
+     * The number of definitions that were removed because they were identical to an earlier definition.
+     */
+    private final int numberOfCommonSubexpressions;
+
+    /**
+     * Constructs the result of an elimination.
+     *
+     * @param definitions                  The table with the definitions that remain after the elimination.
+     * @param numberOfRemovedDefinitions   The number of definitions that were removed.
+     * @param numberOfCommonSubexpressions The number of definitions that were removed because they were identical to
+     *                                     an earlier definition.
+     */
+    private CommonSubexpressionEliminator(final DefinitionTable definitions, final int numberOfRemovedDefinitions,
+            final int numberOfCommonSubexpressions) {
+        this.definitions = definitions;
+        this.numberOfRemovedDefinitions = numberOfRemovedDefinitions;
+        this.numberOfCommonSubexpressions = numberOfCommonSubexpressions;
+    }
+
+    /**
+     * Eliminates the common subexpressions across the definitions of a vectorial function.
+     *
+     * @param vectorialFunction The vectorial function.
+     * @param outputVector      The output vector.
+     * @return The result of the elimination.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    static CommonSubexpressionEliminator of(final VectorialFunction vectorialFunction, final Word outputVector)
+            throws IllegalStateException {
+        DefinitionTable original = vectorialFunction.getDefinitions();
+        TopologicalOrder order = vectorialFunction.getTopologicalOrder();
+        int n = original.size();
+        boolean[] isOutput = new boolean[n];
+        for (Variable variable : outputVector.getVariables()) {
+            int position = original.getPosition(variable.id());
+            if (position >= 0) {
+                isOutput[position] = true;
+            }
+        }
+        ConstantPropagator constants = ConstantPropagator.of(vectorialFunction);
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        HashMap<Expression, Variable> representatives = new HashMap<Expression, Variable>();
+        DefinitionTable redirections = new DefinitionTable();
+        DefinitionTable result = original.createEmpty(n);
+        int numberOfRemovedDefinitions = 0;
+        int numberOfCommonSubexpressions = 0;
+        for (int i = 0; i < n; i++) {
+            int position = order.get(i);
+            int id = original.getId(position);
+            Expression expression = original.getExpression(position);
+            if (constants.isKnown(position)) {
+                expression = constants.getValue(position) ? LiteralExpression.TRUE : LiteralExpression.FALSE;
+            } else if (redirections.size() > 0) {
+                expression = expressionFactory.intern(expression.simplify(redirections).simplify());
+            }
+            if (isOutput[position]) {
+                if (expression instanceof Function) {
+                    representatives.putIfAbsent(expression, new Variable(id));
+                }
+                result.put(id, expression);
+            } else if (expression instanceof Function) {
+                Variable representative = representatives.putIfAbsent(expression, new Variable(id));
+                if (representative == null) {
+                    result.put(id, expression);
+                } else {
+                    redirections.put(id, expressionFactory.identity(representative));
+                    numberOfCommonSubexpressions++;
+                }
+            } else {
+                redirections.put(id, expression);
+            }
+        }
+        return new CommonSubexpressionEliminator(result, n - result.size(), numberOfCommonSubexpressions);
+    }
+
+    /**
+     * Returns the table with the definitions that remain after the elimination, in topological order.
+     *
+     * @return The table with the definitions that remain after the elimination.
+     */
+    DefinitionTable getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * Returns the number of definitions that were removed because they were identical to an earlier definition.
+     *
+     * @return The number of definitions that were removed because they were identical to an earlier definition.
+     */
+    int getNumberOfCommonSubexpressions() {
+        return numberOfCommonSubexpressions;
+    }
+
+    /**
+     * Returns the number of definitions that were removed, including the definitions that were folded into the
+     * definitions using them because they were reduced to a constant or a single literal.
+     *
+     * @return The number of definitions that were removed.
+     */
+    int getNumberOfRemovedDefinitions() {
+        return numberOfRemovedDefinitions;
+    }
+}
@@ -0,0 +1,136 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+/**
+ * The cone of influence of an output vector in a table with definitions, i.e. the definitions of the output variables,
+ * and recursively the definitions of the variables they use. The cone is marked in a bitset indexed on the positions
+ * of the definitions in the table, starting from the output variables with an explicit worklist, such that only the
+ * definitions in the cone are visited, and no topological order is needed.
+ *
+ * The definitions outside the cone of influence are dead, in the sense that they aren't needed to calculate the output
+ * vector. They can be dropped in place from a table, or the definitions in the cone can be extracted into a new table.
+ */
+final class ConeOfInfluence {
+    /**
+     * The number of bits to shift a position to get the index of its word in the bitset.
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * A bitset indicating for each position in the table whether its definition is in the cone of influence.
+     */
+    private final long[] marks;
+    /**
+     * The number of definitions in the cone of influence.
+     */
+    private final int size;
+
+    /**
+     * Constructs a cone of influence from its bitset.
+     *
+     * @param marks The bitset indicating for each position whether its definition is in the cone of influence.
+     * @param size  The number of definitions in the cone of influence.
+     */
+    private ConeOfInfluence(final long[] marks, final int size) {
+        this.marks = marks;
+        this.size = size;
+    }
+
+    /**
+     * Marks the cone of influence of an output vector in a table with definitions.
+     *
+     * @param definitions  The table with the definitions.
+     * @param outputVector The output vector.
+     * @return The cone of influence of the output vector.
+     */
+    static ConeOfInfluence of(final DefinitionTable definitions, final Word outputVector) {
+        int n = definitions.size();
+        long[] marks = new long[(n + Long.SIZE - 1) >>> WORD_SHIFT];
+        int[] worklist = new int[n];
+        int top = 0;
+        int size = 0;
+        for (Variable variable : outputVector.getVariables()) {
+            int position = definitions.getPosition(variable.id());
+            if (position >= 0 && mark(marks, position)) {
+                worklist[top++] = position;
+                size++;
+            }
+        }
+        while (top > 0) {
+            int position = worklist[--top];
+            for (int i = 0; i < definitions.getNumberOfOperands(position); i++) {
+                int operand = definitions.getPosition(definitions.getOperandId(position, i));
+                if (operand >= 0 && mark(marks, operand)) {
+                    worklist[top++] = operand;
+                    size++;
+                }
+            }
+        }
+        return new ConeOfInfluence(marks, size);
+    }
+
+    /**
+     * Returns whether the definition at a position is in the cone of influence.
+     *
+     * @param position The position in the table.
+     * @return True if the definition at the position is in the cone of influence.
+     */
+    boolean contains(final int position) {
+        return (marks[position >>> WORD_SHIFT] & (1L << position)) != 0;
+    }
+
+    /**
+     * Returns a new table with the definitions in the cone of influence, in the order they have in the table the cone
+     * was marked in, and stored in the same way.
+     *
+     * @param definitions The table the cone of influence was marked in.
+     * @return A new table with the definitions in the cone of influence.
+     */
+    DefinitionTable extract(final DefinitionTable definitions) {
+        DefinitionTable result = definitions.createEmpty(size);
+        for (int position = 0; position < definitions.size(); position++) {
+            if (contains(position)) {
+                result.put(definitions.getId(position), definitions.getExpression(position));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marks a position in a bitset.
+     *
+     * @param marks    The bitset.
+     * @param position The position.
+     * @return True if the position wasn't marked yet.
+     */
+    private static boolean mark(final long[] marks, final int position) {
+        long bit = 1L << position;
+        int word = position >>> WORD_SHIFT;
+        if ((marks[word] & bit) != 0) {
+            return false;
+        }
+        marks[word] |= bit;
+        return true;
+    }
+
+    /**
+     * Drops the definitions outside the cone of influence in place from the table the cone was marked in.
+     *
+     * @param definitions The table the cone of influence was marked in.
+     * @return The number of definitions dropped.
+     * @throws IllegalStateException Thrown if the table is an overlay on top of a base table.
+     */
+    int prune(final DefinitionTable definitions) throws IllegalStateException {
+        int numberOfDefinitions = definitions.size();
+        definitions.retainAll(marks);
+        return numberOfDefinitions - size;
+    }
+
+    /**
+     * Returns the number of definitions in the cone of influence.
+     *
+     * @return The number of definitions in the cone of influence.
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,245 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+/**
+ * Class propagating constants through the definitions of a vectorial function at the bit level. The definitions are
+ * evaluated once in topological order, directly into two bitsets holding which definitions have a known value and what
+ * that value is, without creating any expressions. A definition gets a known value if its value is determined by the
+ * known values of its operands alone, e.g. an and function with an operand known to be false.
+ *
+ * When all input variables have been fixed, e.g. to calculate a test vector, all the output variables get a known
+ * value, and no symbolic simplification is needed at all. Otherwise, the definitions with a known value are replaced
+ * by constants, and only the definitions still depending on free variables are left to the symbolic simplification.
+ */
+final class ConstantPropagator {
+    /**
+     * The number of bits to shift a position to get the index of its word in a bitset.
+     */
+    private static final int WORD_SHIFT = 6;
+    /**
+     * The result of the evaluation of a definition that doesn't have a known value.
+     */
+    private static final int UNKNOWN = -1;
+    /**
+     * The result of the evaluation of a definition with the value false.
+     */
+    private static final int FALSE = 0;
+    /**
+     * The result of the evaluation of a definition with the value true.
+     */
+    private static final int TRUE = 1;
+
+    /**
+     * The table with the definitions.
+     */
+    private final DefinitionTable definitions;
+    /**
+     * A bitset indicating for each position in the table whether its definition has a known value.
+     */
+    private final long[] known;
+    /**
+     * A bitset holding for each position in the table with a known value that value.
+     */
+    private final long[] values;
+    /**
+     * The number of definitions with a known value.
+     */
+    private int numberOfKnownDefinitions;
+
+    /**
+     * Constructs a constant propagator for a table with definitions, with no known values yet.
+     *
+     * @param definitions The table with the definitions.
+     */
+    private ConstantPropagator(final DefinitionTable definitions) {
+        this.definitions = definitions;
+        int numberOfWords = (definitions.size() + Long.SIZE - 1) >>> WORD_SHIFT;
+        known = new long[numberOfWords];
+        values = new long[numberOfWords];
+    }
+
+    /**
+     * Propagates the constants through the definitions of a vectorial function.
+     *
+     * @param vectorialFunction The vectorial function.
+     * @return A constant propagator holding the known values of the definitions.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    static ConstantPropagator of(final VectorialFunction vectorialFunction) throws IllegalStateException {
+        DefinitionTable definitions = vectorialFunction.getDefinitions();
+        TopologicalOrder order = vectorialFunction.getTopologicalOrder();
+        ConstantPropagator propagator = new ConstantPropagator(definitions);
+        for (int i = 0; i < order.size(); i++) {
+            int position = order.get(i);
+            int value = propagator.evaluate(definitions.getExpression(position));
+            if (value != UNKNOWN) {
+                propagator.setValue(position, value == TRUE);
+            }
+        }
+        return propagator;
+    }
+
+    /**
+     * Returns whether all the variables of an output vector that are defined have a known value.
+     *
+     * @param outputVector The output vector.
+     * @return True if all the variables of the output vector that are defined have a known value.
+     */
+    boolean areAllKnown(final Word outputVector) {
+        for (Variable variable : outputVector.getVariables()) {
+            int position = definitions.getPosition(variable.id());
+            if (position >= 0 && !isKnown(position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates an expression against the known values.
+     *
+     * @param expression The expression.
+     * @return The value of the expression, or <code>UNKNOWN</code> if it isn't determined by the known values.
+     */
+    private int evaluate(final Expression expression) {
+        if (expression instanceof LiteralExpression) {
+            return LiteralExpression.TRUE == expression ? TRUE : FALSE;
+        } else if (expression instanceof IdentityExpression identityExpression) {
+            return evaluateLiteral(identityExpression.literal());
+        } else if (expression instanceof NegationExpression negationExpression) {
+            return evaluateLiteral(negationExpression.literal());
+        } else if (expression instanceof AndFunction andFunction) {
+            return evaluateJunction(andFunction.getLiterals().getLiterals(), FALSE);
+        } else if (expression instanceof OrFunction orFunction) {
+            return evaluateJunction(orFunction.getLiterals().getLiterals(), TRUE);
+        } else {
+            XorFunction xorFunction = (XorFunction) expression;
+            int parity = xorFunction.negated() ? TRUE : FALSE;
+            for (int id : xorFunction.getIds()) {
+                int value = evaluateLiteral(Literals.of(id, false));
+                if (value == UNKNOWN) {
+                    return UNKNOWN;
+                }
+                parity ^= value;
+            }
+            return parity;
+        }
+    }
+
+    /**
+     * Evaluates an and or an or function against the known values. The function has a known value if one of its
+     * literals has the dominating value, i.e. false for an and function and true for an or function, or if all its
+     * literals have a known value.
+     *
+     * @param literals        The literals of the function.
+     * @param dominatingValue The value determining the value of the function on its own.
+     * @return The value of the function, or <code>UNKNOWN</code> if it isn't determined by the known values.
+     */
+    private int evaluateJunction(final int[] literals, final int dominatingValue) {
+        boolean allKnown = true;
+        for (int literal : literals) {
+            int value = evaluateLiteral(literal);
+            if (value == dominatingValue) {
+                return dominatingValue;
+            } else if (value == UNKNOWN) {
+                allKnown = false;
+            }
+        }
+        return allKnown ? dominatingValue ^ 1 : UNKNOWN;
+    }
+
+    /**
+     * Evaluates a literal against the known values.
+     *
+     * @param literal The literal.
+     * @return The value of the literal, or <code>UNKNOWN</code> if its variable is free or doesn't have a known value.
+     */
+    private int evaluateLiteral(final int literal) {
+        int position = definitions.getPosition(Literals.id(literal));
+        if (position < 0 || !isKnown(position)) {
+            return UNKNOWN;
+        }
+        return (getValue(position) ? TRUE : FALSE) ^ (Literals.isNegated(literal) ? 1 : 0);
+    }
+
+    /**
+     * Returns the number of definitions with a known value.
+     *
+     * @return The number of definitions with a known value.
+     */
+    int getNumberOfKnownDefinitions() {
+        return numberOfKnownDefinitions;
+    }
+
+    /**
+     * Returns the known value of the definition at a position.
+     *
+     * @param position The position in the table.
+     * @return The known value of the definition.
+     */
+    boolean getValue(final int position) {
+        return (values[position >>> WORD_SHIFT] & (1L << position)) != 0;
+    }
+
+    /**
+     * Returns whether the definition at a position has a known value.
+     *
+     * @param position The position in the table.
+     * @return True if the definition at the position has a known value.
+     */
+    boolean isKnown(final int position) {
+        return (known[position >>> WORD_SHIFT] & (1L << position)) != 0;
+    }
+
+    /**
+     * Records the known value of the definition at a position.
+     *
+     * @param position The position in the table.
+     * @param value    The value of the definition.
+     */
+    private void setValue(final int position, final boolean value) {
+        known[position >>> WORD_SHIFT] |= 1L << position;
+        if (value) {
+            values[position >>> WORD_SHIFT] |= 1L << position;
+        }
+        numberOfKnownDefinitions++;
+    }
+
+    /**
+     * Returns a table with the definitions of the variables of an output vector, each one a constant with its known
+     * value.
+     *
+     * @param outputVector The output vector, of which all variables that are defined have a known value.
+     * @return A table with a constant definition for each defined variable of the output vector.
+     */
+    DefinitionTable toConstantOutputs(final Word outputVector) {
+        DefinitionTable result = definitions.createEmpty(outputVector.size());
+        for (Variable variable : outputVector.getVariables()) {
+            int position = definitions.getPosition(variable.id());
+            if (position >= 0) {
+                result.put(variable.id(), getValue(position) ? LiteralExpression.TRUE : LiteralExpression.FALSE);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a table with the definitions in which the definitions with a known value have been replaced by
+     * constants. The definitions keep their positions.
+     *
+     * @return A table with the definitions with a known value replaced by constants.
+     */
+    DefinitionTable toSubstitutedDefinitions() {
+        int n = definitions.size();
+        DefinitionTable result = definitions.createEmpty(n);
+        for (int position = 0; position < n; position++) {
+            Expression expression;
+            if (isKnown(position)) {
+                expression = getValue(position) ? LiteralExpression.TRUE : LiteralExpression.FALSE;
+            } else {
+                expression = definitions.getExpression(position);
+            }
+            result.put(definitions.getId(position), expression);
+        }
+        return result;
+    }
+}
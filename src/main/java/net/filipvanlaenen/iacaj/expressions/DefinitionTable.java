@@ -0,0 +1,625 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.Map.Entry;
+import net.filipvanlaenen.kolektoj.ModifiableMap;
+
+/**
+ * A table mapping variables to their definitions, keyed on the variables' IDs. The variable IDs and the expressions are
+ * held in two parallel arrays in insertion order, such that iteration runs over contiguous memory, and an open
+ * addressing index with linear probing maps the variable IDs to their position in the arrays, such that a lookup
+ * involves no boxing and no entry objects.
+ *
+ * Optionally, the expressions can be stored off the heap in an arena, in which case the table holds only primitive
+ * arrays on the heap, and the expressions are decoded on each lookup. Traversals that only need the variables used by
+ * the definitions, like the topological sort, the fan-out index and the cone of influence, read the operands in place
+ * instead, such that they don't allocate anything on the heap, whether the expressions are stored on or off the heap.
+ * Each table storing its expressions off the heap has an arena of its own, and the tables derived from it get a new
+ * arena sized to their expected content. The memory off the heap is released by the garbage collector once the table
+ * has become unreachable.
+ *
+ * A table can also be layered as an overlay on top of an immutable base table, holding only the definitions added to
+ * the base table. This way, extending a table costs time and memory proportional to the extension only, and many
+ * extensions can share one base table. The positions of the definitions in the base table come first, followed by the
+ * positions of the definitions in the overlay.
+ */
+public final class DefinitionTable {
+    /**
+     * The minimal capacity of the arrays.
+     */
+    private static final int MINIMAL_CAPACITY = 8;
+    /**
+     * Multiplier used to spread the variable IDs over the index.
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    /**
+     * The maximal number of layers, after which an extension is flattened into a single table.
+     */
+    private static final int MAXIMAL_NUMBER_OF_LAYERS = 8;
+    /**
+     * The number of bits to shift a position to get the index of its word in a bitset.
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * The base table, or null if the table isn't an overlay.
+     */
+    private final DefinitionTable base;
+    /**
+     * The number of definitions in the base table.
+     */
+    private final int baseSize;
+    /**
+     * The number of layers, i.e. one plus the number of layers of the base table.
+     */
+    private final int numberOfLayers;
+
+    /**
+     * The IDs of the variables defined in this layer, in insertion order.
+     */
+    private int[] ids;
+    /**
+     * The expressions defining the variables, in insertion order, or null if the expressions are stored off the heap.
+     */
+    private Expression[] expressions;
+    /**
+     * The arena storing the expressions off the heap, or null if the expressions are stored on the heap.
+     */
+    private final OffHeapArena arena;
+    /**
+     * The addresses of the expressions in the arena, in insertion order, or null if the expressions are stored on the
+     * heap.
+     */
+    private long[] addresses;
+    /**
+     * The number of definitions in this layer.
+     */
+    private int size;
+    /**
+     * The open addressing index, holding the position of each definition plus one, or zero for an empty slot.
+     */
+    private int[] index;
+
+    /**
+     * Constructs an empty table.
+     */
+    DefinitionTable() {
+        this(MINIMAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty table with room for an expected number of definitions.
+     *
+     * @param expectedSize The expected number of definitions.
+     */
+    DefinitionTable(final int expectedSize) {
+        this(expectedSize, null);
+    }
+
+    /**
+     * Constructs an empty table with room for an expected number of definitions, storing its expressions in an arena
+     * off the heap.
+     *
+     * @param expectedSize The expected number of definitions.
+     * @param arena        The arena to store the expressions in, or null to store them on the heap.
+     */
+    DefinitionTable(final int expectedSize, final OffHeapArena arena) {
+        this(null, expectedSize, arena);
+    }
+
+    /**
+     * Constructs an empty overlay on top of a base table, with room for an expected number of definitions.
+     *
+     * @param base         The base table, or null for a table without a base table.
+     * @param expectedSize The expected number of definitions in the overlay.
+     * @param arena        The arena to store the expressions in, or null to store them on the heap.
+     */
+    private DefinitionTable(final DefinitionTable base, final int expectedSize, final OffHeapArena arena) {
+        int capacity = Math.max(MINIMAL_CAPACITY, expectedSize);
+        this.base = base;
+        this.baseSize = base == null ? 0 : base.size();
+        this.numberOfLayers = base == null ? 1 : base.numberOfLayers + 1;
+        this.arena = arena;
+        ids = new int[capacity];
+        if (arena == null) {
+            expressions = new Expression[capacity];
+        } else {
+            addresses = new long[capacity];
+        }
+        index = new int[indexSizeFor(capacity)];
+    }
+
+    /**
+     * Creates a table with the variables and expressions of a map.
+     *
+     * @param variableToExpressionMap The map with the variables and their expressions.
+     * @return A table with the variables and expressions of the map.
+     */
+    public static DefinitionTable of(final Map<Variable, Expression> variableToExpressionMap) {
+        DefinitionTable table = new DefinitionTable(variableToExpressionMap.size());
+        for (Entry<Variable, Expression> entry : variableToExpressionMap) {
+            table.put(entry.key().id(), entry.value());
+        }
+        return table;
+    }
+
+    /**
+     * Returns whether the table contains a definition for a variable.
+     *
+     * @param variable The variable.
+     * @return True if the table contains a definition for the variable.
+     */
+    public boolean containsKey(final Variable variable) {
+        return get(variable.id()) != null;
+    }
+
+    /**
+     * Returns whether the table contains the same definitions as another table, regardless of their order.
+     *
+     * @param other The other table.
+     * @return True if both tables contain the same definitions.
+     */
+    public boolean containsSame(final DefinitionTable other) {
+        int n = size();
+        if (n != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (!getExpression(i).equals(other.get(getId(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of the table, flattened into a single layer.
+     *
+     * @return A copy of the table.
+     */
+    DefinitionTable copy() {
+        return copyInto(createEmpty(size()));
+    }
+
+    /**
+     * Copies all definitions of the table into another table.
+     *
+     * @param target The table to copy the definitions into.
+     * @return The table with the definitions copied into.
+     */
+    private DefinitionTable copyInto(final DefinitionTable target) {
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            target.put(getId(i), getExpression(i));
+        }
+        return target;
+    }
+
+    /**
+     * Creates an empty table storing its expressions in the same way as this table, i.e. on the heap, or off the heap
+     * in a new arena derived from this table's arena. Since each table gets its own arena, the memory off the heap is
+     * released together with the table, and since the arena is sized to the expected number of definitions, a small
+     * table doesn't take a full segment.
+     *
+     * @param expectedSize The expected number of definitions.
+     * @return An empty table storing its expressions in the same way as this table.
+     */
+    DefinitionTable createEmpty(final int expectedSize) {
+        return new DefinitionTable(expectedSize, createArena(expectedSize));
+    }
+
+    /**
+     * Creates a new arena derived from this table's arena, sized to an expected number of definitions.
+     *
+     * @param expectedSize The expected number of definitions.
+     * @return A new arena, or null if this table stores its expressions on the heap.
+     */
+    private OffHeapArena createArena(final int expectedSize) {
+        return arena == null ? null : arena.derive(expectedSize);
+    }
+
+    /**
+     * Returns a table with the definitions of this table extended with the definitions in a map. If none of the
+     * variables in the map are defined in this table already, the result is an overlay sharing this table as its base,
+     * such that the cost is proportional to the size of the map. Otherwise, the definitions in the map replace the
+     * definitions in a copy of this table.
+     *
+     * @param extension The map with the definitions to extend the table with.
+     * @return A table with the definitions of this table extended with the definitions in the map.
+     */
+    DefinitionTable extendWith(final Map<Variable, Expression> extension) {
+        boolean disjoint = numberOfLayers < MAXIMAL_NUMBER_OF_LAYERS;
+        for (Entry<Variable, Expression> entry : extension) {
+            if (disjoint && containsKey(entry.key())) {
+                disjoint = false;
+            }
+        }
+        DefinitionTable extendedTable =
+                disjoint ? new DefinitionTable(this, extension.size(), createArena(extension.size())) : copy();
+        for (Entry<Variable, Expression> entry : extension) {
+            extendedTable.put(entry.key().id(), entry.value());
+        }
+        return extendedTable;
+    }
+
+    /**
+     * Returns the expression defining the variable with an ID.
+     *
+     * @param id The ID of the variable.
+     * @return The expression defining the variable, or null if the variable isn't defined in the table.
+     */
+    public Expression get(final int id) {
+        int position = positionOf(id);
+        if (position >= 0) {
+            return getOwnExpression(position);
+        }
+        return base == null ? null : base.get(id);
+    }
+
+    /**
+     * Returns the expression defining a variable.
+     *
+     * @param variable The variable.
+     * @return The expression defining the variable, or null if the variable isn't defined in the table.
+     */
+    public Expression get(final Variable variable) {
+        return get(variable.id());
+    }
+
+    /**
+     * Returns the expression at a position in the table.
+     *
+     * @param position The position, between zero and the size of the table.
+     * @return The expression at the position.
+     */
+    Expression getExpression(final int position) {
+        return position < baseSize ? base.getExpression(position) : getOwnExpression(position - baseSize);
+    }
+
+    /**
+     * Returns the number of operands of the expression at a position in the table, i.e. the number of literals of an
+     * and or an or function, the number of variables of an xor function, one for an identity or a negation expression,
+     * and zero for a constant. The expression isn't decoded if it's stored off the heap.
+     *
+     * @param position The position, between zero and the size of the table.
+     * @return The number of operands of the expression at the position.
+     */
+    int getNumberOfOperands(final int position) {
+        if (position < baseSize) {
+            return base.getNumberOfOperands(position);
+        }
+        int ownPosition = position - baseSize;
+        return arena == null ? numberOfOperands(expressions[ownPosition])
+                : arena.getNumberOfOperands(addresses[ownPosition]);
+    }
+
+    /**
+     * Returns the ID of the variable of an operand of the expression at a position in the table. The expression isn't
+     * decoded if it's stored off the heap. A variable occurring both directly and negated in an and or an or function
+     * is returned for both operands.
+     *
+     * @param position The position, between zero and the size of the table.
+     * @param index    The index of the operand, between zero and the number of operands.
+     * @return The ID of the variable of the operand.
+     */
+    int getOperandId(final int position, final int index) {
+        if (position < baseSize) {
+            return base.getOperandId(position, index);
+        }
+        int ownPosition = position - baseSize;
+        return arena == null ? operandId(expressions[ownPosition], index)
+                : arena.getOperandId(addresses[ownPosition], index);
+    }
+
+    /**
+     * Returns the number of operands of an expression.
+     *
+     * @param expression The expression.
+     * @return The number of operands of the expression.
+     */
+    private static int numberOfOperands(final Expression expression) {
+        if (expression instanceof AndFunction andFunction) {
+            return andFunction.getLiterals().size();
+        } else if (expression instanceof OrFunction orFunction) {
+            return orFunction.getLiterals().size();
+        } else if (expression instanceof XorFunction xorFunction) {
+            return xorFunction.getIds().length;
+        } else if (expression instanceof LiteralExpression) {
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the ID of the variable of an operand of an expression.
+     *
+     * @param expression The expression.
+     * @param index      The index of the operand.
+     * @return The ID of the variable of the operand.
+     */
+    private static int operandId(final Expression expression, final int index) {
+        if (expression instanceof AndFunction andFunction) {
+            return Literals.id(andFunction.getLiterals().getLiterals()[index]);
+        } else if (expression instanceof OrFunction orFunction) {
+            return Literals.id(orFunction.getLiterals().getLiterals()[index]);
+        } else if (expression instanceof XorFunction xorFunction) {
+            return xorFunction.getIds()[index];
+        } else if (expression instanceof IdentityExpression identityExpression) {
+            return Literals.id(identityExpression.literal());
+        }
+        return Literals.id(((NegationExpression) expression).literal());
+    }
+
+    /**
+     * Returns the position of the definition of the variable with an ID in the table.
+     *
+     * @param id The ID of the variable.
+     * @return The position of the definition, or -1 if the variable isn't defined in the table.
+     */
+    int getPosition(final int id) {
+        int position = positionOf(id);
+        if (position >= 0) {
+            return baseSize + position;
+        }
+        return base == null ? -1 : base.getPosition(id);
+    }
+
+    /**
+     * Returns the ID of the variable at a position in the table.
+     *
+     * @param position The position, between zero and the size of the table.
+     * @return The ID of the variable at the position.
+     */
+    int getId(final int position) {
+        return position < baseSize ? base.getId(position) : ids[position - baseSize];
+    }
+
+    /**
+     * Returns the expression at a position in this layer.
+     *
+     * @param position The position, between zero and the number of definitions in this layer.
+     * @return The expression at the position.
+     */
+    private Expression getOwnExpression(final int position) {
+        return arena == null ? expressions[position] : arena.read(addresses[position]);
+    }
+
+    /**
+     * Returns the slot in the index where a variable ID should be looked up first.
+     *
+     * @param id The ID of the variable.
+     * @return The slot where the lookup starts.
+     */
+    private int home(final int id) {
+        return (id * HASH_MULTIPLIER) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(index.length));
+    }
+
+    /**
+     * Returns the size of the index for a capacity, i.e. the smallest power of two that's at least twice the
+     * capacity.
+     *
+     * @param capacity The capacity.
+     * @return The size of the index.
+     */
+    private static int indexSizeFor(final int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) * 2;
+    }
+
+    /**
+     * Returns the position of the definition of a variable in this layer's arrays.
+     *
+     * @param id The ID of the variable.
+     * @return The position of the definition, or -1 if the variable isn't defined in this layer.
+     */
+    private int positionOf(final int id) {
+        int mask = index.length - 1;
+        int slot = home(id);
+        while (index[slot] != 0) {
+            int position = index[slot] - 1;
+            if (ids[position] == id) {
+                return position;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a definition to the table, or replaces the existing definition of the variable.
+     *
+     * @param id         The ID of the variable.
+     * @param expression The expression defining the variable.
+     * @throws IllegalStateException Thrown if the variable is defined in the base table, which is immutable.
+     */
+    void put(final int id, final Expression expression) throws IllegalStateException {
+        if (base != null && base.get(id) != null) {
+            throw new IllegalStateException("The base table can't be modified through an overlay.");
+        }
+        int mask = index.length - 1;
+        int slot = home(id);
+        while (index[slot] != 0) {
+            int position = index[slot] - 1;
+            if (ids[position] == id) {
+                setExpression(position, expression);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            if (arena == null) {
+                expressions = Arrays.copyOf(expressions, size * 2);
+            } else {
+                addresses = Arrays.copyOf(addresses, size * 2);
+            }
+        }
+        ids[size] = id;
+        setExpression(size, expression);
+        size++;
+        index[slot] = size;
+        if (2 * size > index.length) {
+            reindex(index.length * 2);
+        }
+    }
+
+    /**
+     * Replaces the index by an index of a given size and reinserts all positions.
+     *
+     * @param indexSize The size of the new index, a power of two.
+     */
+    private void reindex(final int indexSize) {
+        index = new int[indexSize];
+        int mask = index.length - 1;
+        for (int position = 0; position < size; position++) {
+            int slot = home(ids[position]);
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = position + 1;
+        }
+    }
+
+    /**
+     * Drops the definitions that aren't marked in a bitset in place, keeping the order of the remaining definitions.
+     * The arrays are trimmed if less than a quarter of their capacity remains in use. If the expressions are stored
+     * off the heap, the dropped expressions stay in the arena until the table is garbage collected.
+     *
+     * @param retained A bitset indicating for each position whether its definition should be retained.
+     * @throws IllegalStateException Thrown if the table is an overlay on top of a base table.
+     */
+    void retainAll(final long[] retained) throws IllegalStateException {
+        if (base != null) {
+            throw new IllegalStateException("An overlay can't be compacted in place.");
+        }
+        int newSize = 0;
+        for (int position = 0; position < size; position++) {
+            if ((retained[position >>> WORD_SHIFT] & (1L << position)) != 0) {
+                ids[newSize] = ids[position];
+                if (arena == null) {
+                    expressions[newSize] = expressions[position];
+                } else {
+                    addresses[newSize] = addresses[position];
+                }
+                newSize++;
+            }
+        }
+        if (arena == null) {
+            Arrays.fill(expressions, newSize, size, null);
+        }
+        size = newSize;
+        int capacity = Math.max(MINIMAL_CAPACITY, size);
+        if (capacity * 4 < ids.length) {
+            ids = Arrays.copyOf(ids, capacity);
+            if (arena == null) {
+                expressions = Arrays.copyOf(expressions, capacity);
+            } else {
+                addresses = Arrays.copyOf(addresses, capacity);
+            }
+        }
+        reindex(indexSizeFor(ids.length));
+    }
+
+    /**
+     * Stores an expression at a position in this layer.
+     *
+     * @param position   The position.
+     * @param expression The expression.
+     */
+    private void setExpression(final int position, final Expression expression) {
+        if (arena == null) {
+            expressions[position] = expression;
+        } else {
+            addresses[position] = arena.write(expression);
+        }
+    }
+
+    /**
+     * Returns whether the table is an overlay directly on top of another table.
+     *
+     * @param table The other table.
+     * @return True if the other table is the base table of this table.
+     */
+    boolean isOverlayOf(final DefinitionTable table) {
+        return base == table;
+    }
+
+    /**
+     * Returns whether the expressions are stored off the heap.
+     *
+     * @return True if the expressions are stored off the heap.
+     */
+    public boolean isOffHeap() {
+        return arena != null;
+    }
+
+    /**
+     * Returns the number of variables occurring in the table, i.e. the defined variables and the variables that are
+     * used by the definitions without being defined themselves.
+     *
+     * @return The number of variables occurring in the table.
+     */
+    int getNumberOfVariables() {
+        int n = size();
+        int[] undefinedIds = new int[n];
+        int numberOfUndefinedIds = 0;
+        for (int position = 0; position < n; position++) {
+            for (int i = 0; i < getNumberOfOperands(position); i++) {
+                int id = getOperandId(position, i);
+                if (getPosition(id) < 0) {
+                    if (numberOfUndefinedIds == undefinedIds.length) {
+                        undefinedIds = Arrays.copyOf(undefinedIds, Math.max(1, numberOfUndefinedIds * 2));
+                    }
+                    undefinedIds[numberOfUndefinedIds++] = id;
+                }
+            }
+        }
+        int[] sortedIds = Arrays.copyOf(undefinedIds, numberOfUndefinedIds);
+        Arrays.sort(sortedIds);
+        return n + SortedIds.distinct(sortedIds).length;
+    }
+
+    /**
+     * Returns the number of bytes allocated off the heap by the arenas of the table and its base tables.
+     *
+     * @return The number of bytes allocated off the heap.
+     */
+    long getAllocatedOffHeapBytes() {
+        long bytes = arena == null ? 0L : arena.getAllocatedBytes();
+        return base == null ? bytes : bytes + base.getAllocatedOffHeapBytes();
+    }
+
+    /**
+     * Returns the number of definitions in the table.
+     *
+     * @return The number of definitions in the table.
+     */
+    public int size() {
+        return baseSize + size;
+    }
+
+    /**
+     * Returns a copy of the table storing its expressions off the heap, in a new arena with a segment size.
+     *
+     * @param segmentSize The size of a segment in the arena, in bytes.
+     * @return A copy of the table storing its expressions off the heap.
+     */
+    DefinitionTable toOffHeap(final int segmentSize) {
+        return copyInto(new DefinitionTable(size(), new OffHeapArena(segmentSize)));
+    }
+
+    /**
+     * Returns a map with the variables and expressions of the table.
+     *
+     * @return A map with the variables and expressions of the table.
+     */
+    Map<Variable, Expression> toMap() {
+        ModifiableMap<Variable, Expression> map = ModifiableMap.empty();
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            map.add(new Variable(getId(i)), getExpression(i));
+        }
+        return map;
+    }
+}
@@ -16,5 +16,21 @@ public interface Expression {
      */
     Expression simplify();
 
-    Expression simplify(Map<Variable, Expression> variableToExpressionMap);
+    /**
+     * Tries to simplify the expression using the definitions in a table and returns the result.
+     *
+     * @param definitions The table with the definitions of the variables.
+     * @return An expression, if possible simplified.
+     */
+    Expression simplify(DefinitionTable definitions);
+
+    /**
+     * Tries to simplify the expression using the definitions in a map and returns the result.
+     *
+     * @param variableToExpressionMap The map with the definitions of the variables.
+     * @return An expression, if possible simplified.
+     */
+    default Expression simplify(Map<Variable, Expression> variableToExpressionMap) {
+        return simplify(DefinitionTable.of(variableToExpressionMap));
+    }
 }
@@ -0,0 +1,96 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * A hash-consing factory for expressions. Structurally identical expressions, which hold their operands in canonical
+ * order already, are returned as a single node, such that equality between nodes created by the same factory can be
+ * checked by identity.
+ */
+public final class ExpressionFactory {
+    /**
+     * A map mapping the expressions to their canonical node.
+     */
+    private final ConcurrentHashMap<Expression, Expression> nodes = new ConcurrentHashMap<Expression, Expression>();
+
+    /**
+     * Returns the canonical node for an and function.
+     *
+     * @param directVariables  The variables occurring directly in the and function.
+     * @param negatedVariables The variables occurring negated in the and function.
+     * @return The canonical node for the and function.
+     */
+    public Expression and(final ValueCollection<Variable> directVariables,
+            final ValueCollection<Variable> negatedVariables) {
+        return intern(new AndFunction(directVariables, negatedVariables));
+    }
+
+    /**
+     * Returns the canonical node for an identity expression.
+     *
+     * @param variable The variable in the identity expression.
+     * @return The canonical node for the identity expression.
+     */
+    public Expression identity(final Variable variable) {
+        return intern(new IdentityExpression(variable));
+    }
+
+    /**
+     * Returns the canonical node for an expression. Literal expressions are returned as they are, since they are
+     * canonical already.
+     *
+     * @param expression The expression.
+     * @return The canonical node for the expression.
+     */
+    public Expression intern(final Expression expression) {
+        if (expression instanceof LiteralExpression) {
+            return expression;
+        }
+        Expression node = nodes.putIfAbsent(expression, expression);
+        return node == null ? expression : node;
+    }
+
+    /**
+     * Returns the canonical node for a negation expression.
+     *
+     * @param variable The variable in the negation expression.
+     * @return The canonical node for the negation expression.
+     */
+    public Expression negation(final Variable variable) {
+        return intern(new NegationExpression(variable));
+    }
+
+    /**
+     * Returns the canonical node for an or function.
+     *
+     * @param directVariables  The variables occurring directly in the or function.
+     * @param negatedVariables The variables occurring negated in the or function.
+     * @return The canonical node for the or function.
+     */
+    public Expression or(final ValueCollection<Variable> directVariables,
+            final ValueCollection<Variable> negatedVariables) {
+        return intern(new OrFunction(directVariables, negatedVariables));
+    }
+
+    /**
+     * Returns the number of distinct nodes created by the factory.
+     *
+     * @return The number of distinct nodes created by the factory.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the canonical node for an xor function.
+     *
+     * @param variables The variables occurring in the xor function.
+     * @param negated   True if the xor function is negated.
+     * @return The canonical node for the xor function.
+     */
+    public Expression xor(final ValueCollection<Variable> variables, final boolean negated) {
+        return intern(new XorFunction(variables, negated));
+    }
+}
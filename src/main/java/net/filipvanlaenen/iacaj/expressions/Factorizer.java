@@ -0,0 +1,185 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.HashMap;
+
+/**
+ * Class factoring the operands of and and or functions that are partially absorbed by the other operands, introducing
+ * fresh variables where needed. An example is the and function e = a ∧ d, with d = ¬a ∨ b ∨ c, where ¬a can be dropped
+ * from the definition of d within e. Since d may be used elsewhere, the remaining literals b ∨ c are defined as a fresh
+ * variable °f, such that e = a ∧ °f. If a variable with the same definition exists already, that variable is used
+ * instead of a fresh one.
+ *
+ * Fresh variables are named with the prefix ° followed by a sequence number, skipping the names of variables that
+ * already occur in the vectorial function or its output vector. Since the fresh variables are numbered in the order in
+ * which they're introduced, the factorizer should be called in a deterministic order.
+ */
+final class Factorizer {
+    /**
+     * The prefix of the names of fresh variables.
+     */
+    static final String FRESH_VARIABLE_PREFIX = "°";
+
+    /**
+     * The vectorial function being simplified.
+     */
+    private final VectorialFunction vectorialFunction;
+    /**
+     * The output vector the vectorial function is being simplified for.
+     */
+    private final Word outputVector;
+    /**
+     * The expression factory sharing structurally identical expressions.
+     */
+    private final ExpressionFactory expressionFactory;
+    /**
+     * A map with the variable representing each simplified definition.
+     */
+    private final HashMap<Expression, Variable> representatives;
+    /**
+     * The sequence number of the last fresh variable name tried.
+     */
+    private int lastSequenceNumber;
+    /**
+     * The number of fresh variables introduced.
+     */
+    private int numberOfFreshVariables;
+
+    /**
+     * Constructs a factorizer for the simplification of a vectorial function.
+     *
+     * @param vectorialFunction The vectorial function being simplified.
+     * @param outputVector      The output vector the vectorial function is being simplified for.
+     * @param expressionFactory The expression factory sharing structurally identical expressions.
+     * @param representatives   A map with the variable representing each simplified definition, to which the fresh
+     *                          variables are added.
+     */
+    Factorizer(final VectorialFunction vectorialFunction, final Word outputVector,
+            final ExpressionFactory expressionFactory, final HashMap<Expression, Variable> representatives) {
+        this.vectorialFunction = vectorialFunction;
+        this.outputVector = outputVector;
+        this.expressionFactory = expressionFactory;
+        this.representatives = representatives;
+    }
+
+    /**
+     * Factors the operands of an and or an or function that are partially absorbed by the other operands. The
+     * definitions of fresh variables are added to the table with the simplified definitions.
+     *
+     * @param expression The simplified expression.
+     * @param simplified The table with the simplified definitions of the operands.
+     * @return The factored expression, or the expression itself if none of its operands could be factored.
+     */
+    Expression factor(final Expression expression, final DefinitionTable simplified) {
+        boolean isAnd = expression instanceof AndFunction;
+        LiteralSet literals;
+        if (isAnd) {
+            literals = ((AndFunction) expression).getLiterals();
+        } else if (expression instanceof OrFunction orFunction) {
+            literals = orFunction.getLiterals();
+        } else {
+            return expression;
+        }
+        LiteralSet current = literals;
+        for (int literal : literals.getLiterals()) {
+            Expression definition = simplified.get(Literals.id(literal));
+            boolean negated = Literals.isNegated(literal);
+            LiteralSet operands;
+            if (definition instanceof AndFunction andFunction && isAnd == negated) {
+                operands = andFunction.getLiterals();
+            } else if (definition instanceof OrFunction orFunction && isAnd != negated) {
+                operands = orFunction.getLiterals();
+            } else {
+                continue;
+            }
+            LiteralSet remaining = negated ? operands.without(current) : operands.withoutComplementsOf(current);
+            if (remaining == operands) {
+                continue;
+            } else if (remaining.size() == 0) {
+                return isAnd ? LiteralExpression.FALSE : LiteralExpression.TRUE;
+            }
+            int factor = remaining.size() == 1 ? remaining.getLiterals()[0]
+                    : Literals.of(representative(definition instanceof AndFunction, remaining, simplified).id(), false);
+            current = replace(current, literal, Literals.negateIf(factor, negated));
+        }
+        if (current == literals) {
+            return expression;
+        }
+        Expression factored = isAnd ? new AndFunction(current) : new OrFunction(current);
+        return expressionFactory.intern(factored.simplify());
+    }
+
+    /**
+     * Returns the number of fresh variables introduced so far.
+     *
+     * @return The number of fresh variables introduced so far.
+     */
+    int getNumberOfFreshVariables() {
+        return numberOfFreshVariables;
+    }
+
+    /**
+     * Returns whether a variable ID is free to be used for a fresh variable, i.e. it isn't defined or used in the
+     * vectorial function, and it isn't a variable of the output vector.
+     *
+     * @param id The ID of the variable.
+     * @return True if the variable ID is free to be used for a fresh variable.
+     */
+    private boolean isFree(final int id) {
+        if (vectorialFunction.getDefinitions().getPosition(id) >= 0
+                || vectorialFunction.getFanOutIndex().getNumberOfUsers(id) > 0) {
+            return false;
+        }
+        for (Variable variable : outputVector.getVariables()) {
+            if (variable.id() == id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a literal set in which one literal has been replaced by another one.
+     *
+     * @param literals    The literal set.
+     * @param literal     The literal to be replaced.
+     * @param replacement The replacement.
+     * @return A literal set with the literal replaced.
+     */
+    private static LiteralSet replace(final LiteralSet literals, final int literal, final int replacement) {
+        LiteralSet.Builder builder = new LiteralSet.Builder();
+        for (int other : literals.getLiterals()) {
+            if (other != literal) {
+                builder.add(other);
+            }
+        }
+        builder.add(replacement);
+        return builder.build();
+    }
+
+    /**
+     * Returns the variable representing an and or an or function, introducing a fresh variable if no variable with
+     * that definition exists yet.
+     *
+     * @param isAnd      True for an and function, false for an or function.
+     * @param literals   The literals of the function.
+     * @param simplified The table with the simplified definitions, to which the definition of a fresh variable is
+     *                   added.
+     * @return The variable representing the function.
+     */
+    private Variable representative(final boolean isAnd, final LiteralSet literals, final DefinitionTable simplified) {
+        Expression function = expressionFactory.intern(isAnd ? new AndFunction(literals) : new OrFunction(literals));
+        Variable representative = representatives.get(function);
+        if (representative == null) {
+            int id;
+            do {
+                lastSequenceNumber++;
+                id = VariableTable.intern(FRESH_VARIABLE_PREFIX + lastSequenceNumber);
+            } while (!isFree(id));
+            representative = new Variable(id);
+            representatives.put(function, representative);
+            simplified.put(id, function);
+            numberOfFreshVariables++;
+        }
+        return representative;
+    }
+}
@@ -0,0 +1,148 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+
+/**
+ * A reverse dependency index on the definitions in a table, mapping the ID of every variable occurring in a definition
+ * to the positions of the definitions using it. Both defined variables and input variables, i.e. variables without a
+ * definition in the table, are indexed, such that the definitions affected by fixing an input variable can be found
+ * without scanning the table.
+ *
+ * The index is stored in three primitive arrays: the sorted IDs of the variables in use, the index where the users of
+ * each variable start, and the positions of the users, grouped by variable.
+ */
+final class FanOutIndex {
+    /**
+     * The number of bits to shift a variable ID when it's packed together with a position into a long.
+     */
+    private static final int ID_SHIFT = 32;
+    /**
+     * The mask extracting the position from a packed long.
+     */
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+
+    /**
+     * The sorted IDs of the variables occurring in the definitions.
+     */
+    private final int[] ids;
+    /**
+     * The index in the array with the users where the users of each variable start, with an extra element at the end.
+     */
+    private final int[] userStarts;
+    /**
+     * The positions of the definitions using the variables, grouped by variable.
+     */
+    private final int[] users;
+
+    /**
+     * Constructs a fan-out index from its arrays.
+     *
+     * @param ids        The sorted IDs of the variables occurring in the definitions.
+     * @param userStarts The index where the users of each variable start, followed by the number of users.
+     * @param users      The positions of the users, grouped by variable.
+     */
+    private FanOutIndex(final int[] ids, final int[] userStarts, final int[] users) {
+        this.ids = ids;
+        this.userStarts = userStarts;
+        this.users = users;
+    }
+
+    /**
+     * Computes the fan-out index of the definitions in a table.
+     *
+     * @param table The table with the definitions.
+     * @return The fan-out index of the definitions in the table.
+     */
+    static FanOutIndex of(final DefinitionTable table) {
+        int n = table.size();
+        long[] edges = new long[Math.max(1, n)];
+        int numberOfEdges = 0;
+        for (int position = 0; position < n; position++) {
+            for (int i = 0; i < table.getNumberOfOperands(position); i++) {
+                if (numberOfEdges == edges.length) {
+                    edges = Arrays.copyOf(edges, numberOfEdges * 2);
+                }
+                edges[numberOfEdges++] = ((long) table.getOperandId(position, i) << ID_SHIFT) | position;
+            }
+        }
+        Arrays.sort(edges, 0, numberOfEdges);
+        int[] ids = new int[numberOfEdges];
+        int[] userStarts = new int[numberOfEdges + 1];
+        int[] users = new int[numberOfEdges];
+        int numberOfIds = 0;
+        int numberOfUsers = 0;
+        for (int i = 0; i < numberOfEdges; i++) {
+            if (i > 0 && edges[i] == edges[i - 1]) {
+                continue;
+            }
+            int id = (int) (edges[i] >>> ID_SHIFT);
+            if (numberOfIds == 0 || ids[numberOfIds - 1] != id) {
+                userStarts[numberOfIds] = numberOfUsers;
+                ids[numberOfIds++] = id;
+            }
+            users[numberOfUsers++] = (int) (edges[i] & POSITION_MASK);
+        }
+        userStarts[numberOfIds] = numberOfUsers;
+        return new FanOutIndex(Arrays.copyOf(ids, numberOfIds), Arrays.copyOf(userStarts, numberOfIds + 1),
+                Arrays.copyOf(users, numberOfUsers));
+    }
+
+    /**
+     * Returns the number of definitions using a variable.
+     *
+     * @param id The ID of the variable.
+     * @return The number of definitions using the variable.
+     */
+    int getNumberOfUsers(final int id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i < 0 ? 0 : userStarts[i + 1] - userStarts[i];
+    }
+
+    /**
+     * Marks the transitive fan-out of a number of variables, i.e. the definitions using one of the variables, and
+     * recursively the definitions using a variable whose definition is marked. The fan-out is traversed with an
+     * explicit worklist, such that every definition is visited at most once.
+     *
+     * @param roots The IDs of the variables to start from.
+     * @param table The table with the definitions the index was computed for.
+     * @return An array indicating for each position in the table whether its definition is in the transitive fan-out.
+     */
+    boolean[] markTransitiveFanOut(final int[] roots, final DefinitionTable table) {
+        int n = table.size();
+        boolean[] marked = new boolean[n];
+        int[] worklist = new int[n];
+        int top = 0;
+        for (int root : roots) {
+            top = pushUsers(root, marked, worklist, top);
+        }
+        while (top > 0) {
+            top = pushUsers(table.getId(worklist[--top]), marked, worklist, top);
+        }
+        return marked;
+    }
+
+    /**
+     * Marks the unmarked users of a variable and pushes them on the worklist.
+     *
+     * @param id       The ID of the variable.
+     * @param marked   The array with the marks, indexed on the positions in the table.
+     * @param worklist The worklist.
+     * @param top      The number of positions on the worklist.
+     * @return The number of positions on the worklist after pushing the users.
+     */
+    private int pushUsers(final int id, final boolean[] marked, final int[] worklist, final int top) {
+        int i = Arrays.binarySearch(ids, id);
+        if (i < 0) {
+            return top;
+        }
+        int newTop = top;
+        for (int j = userStarts[i]; j < userStarts[i + 1]; j++) {
+            int user = users[j];
+            if (!marked[user]) {
+                marked[user] = true;
+                worklist[newTop++] = user;
+            }
+        }
+        return newTop;
+    }
+}
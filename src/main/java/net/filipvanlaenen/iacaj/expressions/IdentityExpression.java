@@ -1,7 +1,6 @@
 package net.filipvanlaenen.iacaj.expressions;
 
 import net.filipvanlaenen.kolektoj.Collection;
-import net.filipvanlaenen.kolektoj.Map;
 
 /**
  * An identity expression for a variable.
@@ -14,18 +13,23 @@ public record IdentityExpression(Variable variable) implements Expression {
         return Collection.of(variable);
     }
 
+    /**
+     * Returns the direct literal of the variable, encoded as in the <code>Literals</code> class.
+     *
+     * @return The direct literal of the variable.
+     */
+    int literal() {
+        return Literals.of(variable.id(), false);
+    }
+
     @Override
     public Expression simplify() {
         return this;
     }
 
     @Override
-    public Expression simplify(final Map<Variable, Expression> variableToExpressionMap) {
-        if (variableToExpressionMap.containsKey(variable)) {
-            return variableToExpressionMap.get(variable).simplify(variableToExpressionMap);
-        } else {
-            return this;
-        }
+    public Expression simplify(final DefinitionTable definitions) {
+        return definitions.containsKey(variable) ? Literals.simplify(literal(), definitions) : this;
     }
 
     @Override
@@ -0,0 +1,542 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The xor-linear part of a vectorial function, i.e. its xor definitions, solved as a system of linear equations over
+ * GF(2). Every xor definition v = x₁ ⊻ … ⊻ xₖ ⊻ c expresses a defined variable in terms of other variables. The
+ * variables that aren't defined by xor functions themselves are the leaves, and every xor definition is solved into a
+ * row of bits over the leaves, in ascending order of their IDs, followed by a bit for the constant.
+ *
+ * The xor definitions are solved by substitution in topological order: the row of a definition is the sum of the rows
+ * of the xor definitions it uses and the bits of the leaves it uses. This takes time proportional to the number of
+ * operands times the number of words in a row, and the rows that are neither needed anymore nor used by definitions
+ * still to be solved are released on the way. Since the definitions of a valid vectorial function are acyclic, this
+ * solves all of its xor definitions.
+ *
+ * Only as a fallback, xor definitions that are part of a cycle, or depend on one, are coupled and solved together by
+ * Gauss-Jordan elimination of a dense bit matrix, with the method of the Four Russians, optionally on a number of
+ * threads. A cycle that doesn't determine its variables uniquely, i.e. of which the matrix is singular, can't be
+ * solved.
+ *
+ * The solved rows are substituted back into the vectorial function. Xor definitions that are used by other xor
+ * definitions only, and that aren't output variables, aren't needed anymore and are eliminated. The other xor
+ * definitions are replaced by their solved rows.
+ *
+ * The linear subsystem can be solved within a budget, which is checked for every chunk of rows solved by substitution
+ * and, in the fallback for cycles, before every strip of the Gauss-Jordan elimination. If the budget is exhausted, the
+ * solution is cut short: the xor definitions solved so far are substituted, the other ones are kept as they are,
+ * together with the solved xor definitions they use.
+ */
+final class LinearSubsystem {
+    /**
+     * The number of bits to shift a bit index to get the index of its word in a row.
+     */
+    private static final int WORD_SHIFT = 6;
+    /**
+     * The number of rows solved by substitution between two checks of the budget.
+     */
+    private static final int NUMBER_OF_ROWS_PER_BUDGET_CHECK = 64;
+
+    /**
+     * The table with the definitions after substituting the solved rows.
+     */
+    private final DefinitionTable definitions;
+    /**
+     * The number of xor definitions in the linear subsystem.
+     */
+    private final int numberOfLinearDefinitions;
+    /**
+     * The number of xor definitions that were eliminated.
+     */
+    private final int numberOfEliminatedDefinitions;
+    /**
+     * Whether the budget was exhausted before all the xor definitions were solved.
+     */
+    private final boolean cutShort;
+
+    /**
+     * Constructs the result of solving a linear subsystem.
+     *
+     * @param definitions                   The table with the definitions after substituting the solved rows.
+     * @param numberOfLinearDefinitions     The number of xor definitions in the linear subsystem.
+     * @param numberOfEliminatedDefinitions The number of xor definitions that were eliminated.
+     * @param cutShort                      Whether the budget was exhausted before all the xor definitions were
+     *                                      solved.
+     */
+    private LinearSubsystem(final DefinitionTable definitions, final int numberOfLinearDefinitions,
+            final int numberOfEliminatedDefinitions, final boolean cutShort) {
+        this.definitions = definitions;
+        this.numberOfLinearDefinitions = numberOfLinearDefinitions;
+        this.numberOfEliminatedDefinitions = numberOfEliminatedDefinitions;
+        this.cutShort = cutShort;
+    }
+
+    /**
+     * Extracts the xor-linear part of a vectorial function, solves it, and substitutes the solved rows back.
+     *
+     * @param vectorialFunction The vectorial function.
+     * @param outputVector      The output vector, of which the definitions are never eliminated.
+     * @param parallelism       The number of threads reducing the matrix of xor definitions coupled by a cycle, if
+     *                          any.
+     * @return The result of solving the linear subsystem.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the xor definitions contain a cycle that can't be solved.
+     */
+    static LinearSubsystem of(final VectorialFunction vectorialFunction, final Word outputVector,
+            final int parallelism) throws IllegalArgumentException, IllegalStateException {
+        return of(vectorialFunction, outputVector, parallelism, new SimplificationBudget());
+    }
+
+    /**
+     * Extracts the xor-linear part of a vectorial function, solves it within a budget, and substitutes the solved rows
+     * back. The number of passes of the budget doesn't apply.
+     *
+     * @param vectorialFunction The vectorial function.
+     * @param outputVector      The output vector, of which the definitions are never eliminated.
+     * @param parallelism       The number of threads reducing the matrix of xor definitions coupled by a cycle, if
+     *                          any.
+     * @param budget            The budget for solving the linear subsystem.
+     * @return The result of solving the linear subsystem.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the xor definitions contain a cycle that can't be solved.
+     */
+    static LinearSubsystem of(final VectorialFunction vectorialFunction, final Word outputVector,
+            final int parallelism, final SimplificationBudget budget)
+            throws IllegalArgumentException, IllegalStateException {
+        long startTime = System.nanoTime();
+        BooleanSupplier isBudgetExhausted = () -> budget.isExhausted(System.nanoTime() - startTime);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism should be at least 1, but was " + parallelism + ".");
+        }
+        DefinitionTable original = vectorialFunction.getDefinitions();
+        int n = original.size();
+        int[] rowOf = new int[n];
+        int numberOfRows = 0;
+        for (int position = 0; position < n; position++) {
+            rowOf[position] = original.getExpression(position) instanceof XorFunction ? numberOfRows++ : -1;
+        }
+        if (numberOfRows == 0) {
+            return new LinearSubsystem(original, 0, 0, false);
+        }
+        int[] positions = new int[numberOfRows];
+        for (int position = 0; position < n; position++) {
+            if (rowOf[position] >= 0) {
+                positions[rowOf[position]] = position;
+            }
+        }
+        int[] leafIds = collectLeafIds(original, rowOf, numberOfRows);
+        boolean[] isNeeded = markNeeded(original, rowOf, outputVector);
+        long[][] solvedRows = new long[numberOfRows][];
+        boolean[] isSolved =
+                substituteInTopologicalOrder(original, rowOf, positions, leafIds, isNeeded, solvedRows,
+                        isBudgetExhausted);
+        boolean cutShort = false;
+        if (!areAllSolved(isSolved)) {
+            cutShort = isBudgetExhausted.getAsBoolean() || !solveCoupledRows(original, rowOf, leafIds, solvedRows,
+                    isSolved, parallelism, isBudgetExhausted);
+        }
+        if (cutShort) {
+            markUsedByUnsolvedRows(original, rowOf, isSolved, isNeeded);
+        }
+        DefinitionTable result = original.createEmpty(n);
+        int numberOfEliminatedDefinitions = 0;
+        for (int position = 0; position < n; position++) {
+            int row = rowOf[position];
+            if (row < 0) {
+                result.put(original.getId(position), original.getExpression(position));
+            } else if (!isNeeded[position]) {
+                numberOfEliminatedDefinitions++;
+            } else if (isSolved[row]) {
+                result.put(original.getId(position), toExpression(solvedRows[row], leafIds));
+            } else {
+                result.put(original.getId(position), original.getExpression(position));
+            }
+        }
+        return new LinearSubsystem(result, numberOfRows, numberOfEliminatedDefinitions, cutShort);
+    }
+
+    /**
+     * Returns whether all the rows have been solved.
+     *
+     * @param isSolved For each row, whether it has been solved.
+     * @return True if all the rows have been solved.
+     */
+    private static boolean areAllSolved(final boolean[] isSolved) {
+        for (boolean solved : isSolved) {
+            if (!solved) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the xor definitions used by the xor definitions that haven't been solved as still needed, since the
+     * definitions that haven't been solved are kept as they are.
+     *
+     * @param definitions The table with the definitions.
+     * @param rowOf       For each position in the table, the row of its xor definition, or -1.
+     * @param isSolved    For each row, whether it has been solved.
+     * @param isNeeded    For each position in the table, whether its definition is still needed.
+     */
+    private static void markUsedByUnsolvedRows(final DefinitionTable definitions, final int[] rowOf,
+            final boolean[] isSolved, final boolean[] isNeeded) {
+        for (int position = 0; position < rowOf.length; position++) {
+            if (rowOf[position] >= 0 && !isSolved[rowOf[position]]) {
+                for (int i = 0; i < definitions.getNumberOfOperands(position); i++) {
+                    int operand = definitions.getPosition(definitions.getOperandId(position, i));
+                    if (operand >= 0 && rowOf[operand] >= 0) {
+                        isNeeded[operand] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves the xor definitions that don't depend on a cycle by substitution in topological order. The xor
+     * definitions are visited as soon as all the xor definitions they use have been solved, and the row of a
+     * definition that isn't needed anymore is released as soon as all the xor definitions using it have been solved.
+     * The substitution stops early if the budget is exhausted.
+     *
+     * @param definitions       The table with the definitions.
+     * @param rowOf             For each position in the table, the row of its xor definition, or -1.
+     * @param positions         For each row, the position of its xor definition in the table.
+     * @param leafIds           The sorted IDs of the leaves.
+     * @param isNeeded          For each position in the table, whether its definition is still needed after
+     *                          substitution.
+     * @param solvedRows        The array to store the solved rows in.
+     * @param isBudgetExhausted The supplier telling whether the budget is exhausted.
+     * @return For each row, whether it has been solved.
+     */
+    private static boolean[] substituteInTopologicalOrder(final DefinitionTable definitions, final int[] rowOf,
+            final int[] positions, final int[] leafIds, final boolean[] isNeeded, final long[][] solvedRows,
+            final BooleanSupplier isBudgetExhausted) {
+        int numberOfRows = positions.length;
+        boolean[] isSolved = new boolean[numberOfRows];
+        int[] pending = new int[numberOfRows];
+        int[] userStarts = new int[numberOfRows + 1];
+        for (int row = 0; row < numberOfRows; row++) {
+            int position = positions[row];
+            for (int i = 0; i < definitions.getNumberOfOperands(position); i++) {
+                int operandRow = rowOfOperand(definitions, rowOf, definitions.getOperandId(position, i));
+                if (operandRow >= 0) {
+                    pending[row]++;
+                    userStarts[operandRow + 1]++;
+                }
+            }
+        }
+        for (int row = 0; row < numberOfRows; row++) {
+            userStarts[row + 1] += userStarts[row];
+        }
+        int[] users = new int[userStarts[numberOfRows]];
+        int[] remainingUsers = new int[numberOfRows];
+        for (int row = 0; row < numberOfRows; row++) {
+            int position = positions[row];
+            for (int i = 0; i < definitions.getNumberOfOperands(position); i++) {
+                int operandRow = rowOfOperand(definitions, rowOf, definitions.getOperandId(position, i));
+                if (operandRow >= 0) {
+                    users[userStarts[operandRow] + remainingUsers[operandRow]++] = row;
+                }
+            }
+        }
+        int[] queue = new int[numberOfRows];
+        int tail = 0;
+        for (int row = 0; row < numberOfRows; row++) {
+            if (pending[row] == 0) {
+                queue[tail++] = row;
+            }
+        }
+        int wordsPerRow = wordsPerRow(leafIds);
+        for (int head = 0; head < tail; head++) {
+            if (head % NUMBER_OF_ROWS_PER_BUDGET_CHECK == 0 && isBudgetExhausted.getAsBoolean()) {
+                break;
+            }
+            int row = queue[head];
+            int position = positions[row];
+            XorFunction xorFunction = (XorFunction) definitions.getExpression(position);
+            long[] solvedRow = new long[wordsPerRow];
+            for (int id : xorFunction.getIds()) {
+                int operandRow = rowOfOperand(definitions, rowOf, id);
+                if (operandRow < 0) {
+                    flip(solvedRow, Arrays.binarySearch(leafIds, id));
+                } else {
+                    long[] operand = solvedRows[operandRow];
+                    for (int word = 0; word < wordsPerRow; word++) {
+                        solvedRow[word] ^= operand[word];
+                    }
+                    if (--remainingUsers[operandRow] == 0 && !isNeeded[positions[operandRow]]) {
+                        solvedRows[operandRow] = null;
+                    }
+                }
+            }
+            if (xorFunction.negated()) {
+                flip(solvedRow, leafIds.length);
+            }
+            solvedRows[row] = solvedRow;
+            isSolved[row] = true;
+            for (int i = userStarts[row]; i < userStarts[row + 1]; i++) {
+                if (--pending[users[i]] == 0) {
+                    queue[tail++] = users[i];
+                }
+            }
+        }
+        return isSolved;
+    }
+
+    /**
+     * Solves the xor definitions that are part of a cycle, or depend on one, together by Gauss-Jordan elimination. This
+     * is the fallback for cyclic xor definitions only, which valid vectorial functions don't have.
+     * The columns of the coupled xor definitions come first, followed by the columns of the leaves and a column for the
+     * constant. The xor definitions solved already are substituted by their rows. Gauss-Jordan elimination pivots on
+     * the columns of the coupled xor definitions first, such that every row of the reduced matrix expresses a coupled
+     * xor definition in terms of leaves only, unless the matrix is singular. The elimination is abandoned if the
+     * budget is exhausted.
+     *
+     * @param definitions       The table with the definitions.
+     * @param rowOf             For each position in the table, the row of its xor definition, or -1.
+     * @param leafIds           The sorted IDs of the leaves.
+     * @param solvedRows        The solved rows, to store the rows of the coupled xor definitions in.
+     * @param isSolved          For each row, whether it has been solved already.
+     * @param parallelism       The number of threads reducing the matrix.
+     * @param isBudgetExhausted The supplier telling whether the budget is exhausted.
+     * @return True if the coupled xor definitions were solved, false if the budget was exhausted.
+     * @throws IllegalStateException Thrown if the coupled xor definitions contain a cycle that can't be solved.
+     */
+    private static boolean solveCoupledRows(final DefinitionTable definitions, final int[] rowOf, final int[] leafIds,
+            final long[][] solvedRows, final boolean[] isSolved, final int parallelism,
+            final BooleanSupplier isBudgetExhausted) throws IllegalStateException {
+        int numberOfRows = isSolved.length;
+        int[] coupledRows = new int[numberOfRows];
+        int[] coupledPositions = new int[numberOfRows];
+        int[] columnOf = new int[numberOfRows];
+        int numberOfCoupledRows = 0;
+        for (int position = 0; position < rowOf.length; position++) {
+            int row = rowOf[position];
+            if (row >= 0 && !isSolved[row]) {
+                columnOf[row] = numberOfCoupledRows;
+                coupledPositions[numberOfCoupledRows] = position;
+                coupledRows[numberOfCoupledRows++] = row;
+            }
+        }
+        int constantColumn = numberOfCoupledRows + leafIds.length;
+        BitMatrix matrix = new BitMatrix(numberOfCoupledRows, constantColumn + 1);
+        for (int i = 0; i < numberOfCoupledRows; i++) {
+            XorFunction xorFunction = (XorFunction) definitions.getExpression(coupledPositions[i]);
+            matrix.flip(i, i);
+            for (int id : xorFunction.getIds()) {
+                int operandRow = rowOfOperand(definitions, rowOf, id);
+                if (operandRow < 0) {
+                    matrix.flip(i, numberOfCoupledRows + Arrays.binarySearch(leafIds, id));
+                } else if (isSolved[operandRow]) {
+                    long[] operand = solvedRows[operandRow];
+                    for (int bit = nextSetBit(operand, 0); bit >= 0; bit = nextSetBit(operand, bit + 1)) {
+                        matrix.flip(i, numberOfCoupledRows + bit);
+                    }
+                } else {
+                    matrix.flip(i, columnOf[operandRow]);
+                }
+            }
+            if (xorFunction.negated()) {
+                matrix.flip(i, constantColumn);
+            }
+        }
+        int[] pivotColumns = matrix.reduceFourRussians(parallelism, isBudgetExhausted);
+        if (pivotColumns == null) {
+            return false;
+        }
+        if (pivotColumns.length < numberOfCoupledRows
+                || pivotColumns[numberOfCoupledRows - 1] != numberOfCoupledRows - 1) {
+            throw new IllegalStateException("The xor definitions contain a cycle that can't be solved.");
+        }
+        int wordsPerRow = wordsPerRow(leafIds);
+        for (int i = 0; i < numberOfCoupledRows; i++) {
+            long[] solvedRow = new long[wordsPerRow];
+            for (int column = matrix.nextSetColumn(i, numberOfCoupledRows); column >= 0;
+                    column = matrix.nextSetColumn(i, column + 1)) {
+                flip(solvedRow, column - numberOfCoupledRows);
+            }
+            solvedRows[coupledRows[i]] = solvedRow;
+            isSolved[coupledRows[i]] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the row of the xor definition of an operand.
+     *
+     * @param definitions The table with the definitions.
+     * @param rowOf       For each position in the table, the row of its xor definition, or -1.
+     * @param id          The ID of the variable of the operand.
+     * @return The row of the xor definition of the operand, or -1 if the operand is a leaf.
+     */
+    private static int rowOfOperand(final DefinitionTable definitions, final int[] rowOf, final int id) {
+        int position = definitions.getPosition(id);
+        return position < 0 ? -1 : rowOf[position];
+    }
+
+    /**
+     * Returns the number of words in a solved row, i.e. one bit for each leaf and one bit for the constant.
+     *
+     * @param leafIds The sorted IDs of the leaves.
+     * @return The number of words in a solved row.
+     */
+    private static int wordsPerRow(final int[] leafIds) {
+        return (leafIds.length >>> WORD_SHIFT) + 1;
+    }
+
+    /**
+     * Flips a bit in a row.
+     *
+     * @param row The row.
+     * @param bit The index of the bit.
+     */
+    private static void flip(final long[] row, final int bit) {
+        row[bit >>> WORD_SHIFT] ^= 1L << bit;
+    }
+
+    /**
+     * Returns the index of the next bit that is one in a row, starting from an index.
+     *
+     * @param row The row.
+     * @param bit The index to start from.
+     * @return The index of the next bit that is one, or -1 if there is none.
+     */
+    private static int nextSetBit(final long[] row, final int bit) {
+        int word = bit >>> WORD_SHIFT;
+        if (word >= row.length) {
+            return -1;
+        }
+        long bits = row[word] & (-1L << bit);
+        while (bits == 0) {
+            if (++word == row.length) {
+                return -1;
+            }
+            bits = row[word];
+        }
+        return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Collects the IDs of the leaves of the linear subsystem, i.e. the variables used by xor definitions that aren't
+     * defined by an xor function themselves.
+     *
+     * @param definitions  The table with the definitions.
+     * @param rowOf        For each position in the table, the row of its xor definition, or -1.
+     * @param numberOfRows The number of xor definitions.
+     * @return The sorted IDs of the leaves, without duplicates.
+     */
+    private static int[] collectLeafIds(final DefinitionTable definitions, final int[] rowOf,
+            final int numberOfRows) {
+        int[] ids = new int[0];
+        int size = 0;
+        for (int position = 0; position < rowOf.length; position++) {
+            if (rowOf[position] >= 0) {
+                for (int id : ((XorFunction) definitions.getExpression(position)).getIds()) {
+                    int operand = definitions.getPosition(id);
+                    if (operand < 0 || rowOf[operand] < 0) {
+                        if (size == ids.length) {
+                            ids = Arrays.copyOf(ids, Math.max(numberOfRows, size * 2));
+                        }
+                        ids[size++] = id;
+                    }
+                }
+            }
+        }
+        int[] sorted = Arrays.copyOf(ids, size);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || sorted[unique - 1] != sorted[i]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    /**
+     * Marks the xor definitions that are still needed after substitution, i.e. the definitions of output variables and
+     * of variables used by definitions that aren't xor functions.
+     *
+     * @param definitions  The table with the definitions.
+     * @param rowOf        For each position in the table, the row of its xor definition, or -1.
+     * @param outputVector The output vector.
+     * @return For each position in the table, whether its definition is still needed.
+     */
+    private static boolean[] markNeeded(final DefinitionTable definitions, final int[] rowOf,
+            final Word outputVector) {
+        boolean[] isNeeded = new boolean[rowOf.length];
+        for (Variable variable : outputVector.getVariables()) {
+            int position = definitions.getPosition(variable.id());
+            if (position >= 0) {
+                isNeeded[position] = true;
+            }
+        }
+        for (int position = 0; position < rowOf.length; position++) {
+            if (rowOf[position] < 0) {
+                for (int i = 0; i < definitions.getNumberOfOperands(position); i++) {
+                    int operand = definitions.getPosition(definitions.getOperandId(position, i));
+                    if (operand >= 0) {
+                        isNeeded[operand] = true;
+                    }
+                }
+            }
+        }
+        return isNeeded;
+    }
+
+    /**
+     * Converts a solved row to an expression in terms of the leaves.
+     *
+     * @param solvedRow The solved row.
+     * @param leafIds   The sorted IDs of the leaves.
+     * @return An xor function, a literal or a constant for the solved row.
+     */
+    private static Expression toExpression(final long[] solvedRow, final int[] leafIds) {
+        int[] ids = new int[leafIds.length];
+        int size = 0;
+        for (int bit = nextSetBit(solvedRow, 0); bit >= 0 && bit < leafIds.length;
+                bit = nextSetBit(solvedRow, bit + 1)) {
+            ids[size++] = leafIds[bit];
+        }
+        return new XorFunction(Arrays.copyOf(ids, size), nextSetBit(solvedRow, leafIds.length) >= 0).simplify();
+    }
+
+    /**
+     * Returns the table with the definitions after substituting the solved rows.
+     *
+     * @return The table with the definitions after substituting the solved rows.
+     */
+    DefinitionTable getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * Returns the number of xor definitions that were eliminated.
+     *
+     * @return The number of xor definitions that were eliminated.
+     */
+    int getNumberOfEliminatedDefinitions() {
+        return numberOfEliminatedDefinitions;
+    }
+
+    /**
+     * Returns whether the budget was exhausted before all the xor definitions were solved.
+     *
+     * @return True if the solution was cut short.
+     */
+    boolean isCutShort() {
+        return cutShort;
+    }
+
+    /**
+     * Returns the number of xor definitions in the linear subsystem.
+     *
+     * @return The number of xor definitions in the linear subsystem.
+     */
+    int getNumberOfLinearDefinitions() {
+        return numberOfLinearDefinitions;
+    }
+}
@@ -1,7 +1,6 @@
 package net.filipvanlaenen.iacaj.expressions;
 
 import net.filipvanlaenen.kolektoj.Collection;
-import net.filipvanlaenen.kolektoj.Map;
 
 /**
  * A literal expression, i.e. true or false.
@@ -27,7 +26,7 @@ public enum LiteralExpression implements Expression {
     }
 
     @Override
-    public Expression simplify(final Map<Variable, Expression> variableToExpressionMap) {
+    public Expression simplify(final DefinitionTable definitions) {
         return this;
     }
 
@@ -0,0 +1,409 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * A set of literals, i.e. direct and negated variables, as used by the and and or functions. The literals are encoded
+ * as in the <code>Literals</code> class and stored in one sorted array, such that contradiction checks, absorption
+ * checks and merging are linear scans over a primitive array, and complementing the set is a bit flip on every
+ * literal. Duplicates are kept, such that the set behaves like the value collections it replaces.
+ */
+final class LiteralSet {
+    /**
+     * The empty literal set.
+     */
+    static final LiteralSet EMPTY = new LiteralSet(SortedIds.EMPTY);
+    /**
+     * The sorted literals.
+     */
+    private final int[] literals;
+    /**
+     * The hash code, calculated once at construction.
+     */
+    private final int hashCode;
+
+    /**
+     * Constructor taking a sorted array of literals.
+     *
+     * @param literals The sorted literals.
+     */
+    private LiteralSet(final int[] literals) {
+        this.literals = literals;
+        this.hashCode = Arrays.hashCode(literals);
+    }
+
+    /**
+     * Creates a literal set from collections with the direct and negated variables.
+     *
+     * @param directVariables  The direct variables.
+     * @param negatedVariables The negated variables.
+     * @return A literal set with the direct and negated variables.
+     */
+    static LiteralSet of(final ValueCollection<Variable> directVariables,
+            final ValueCollection<Variable> negatedVariables) {
+        Builder builder = new Builder();
+        for (Variable variable : directVariables) {
+            builder.addDirect(variable.id());
+        }
+        for (Variable variable : negatedVariables) {
+            builder.addNegated(variable.id());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a literal set from a sorted array of literals.
+     *
+     * @param literals The sorted literals.
+     * @return A literal set with the literals.
+     */
+    static LiteralSet of(final int[] literals) {
+        return new LiteralSet(literals);
+    }
+
+    /**
+     * Returns the literal set with every literal negated. Since the direct and negated literals of a variable are
+     * adjacent in the sorted array, only the literals of variables occurring both directly and negated have to be
+     * reordered after flipping their lowest bit.
+     *
+     * @return The literal set with every literal negated.
+     */
+    LiteralSet complement() {
+        int length = literals.length;
+        int[] result = new int[length];
+        int i = 0;
+        while (i < length) {
+            int id = Literals.id(literals[i]);
+            int j = i;
+            while (j < length && literals[j] == Literals.of(id, false)) {
+                j++;
+            }
+            int k = j;
+            while (k < length && literals[k] == Literals.of(id, true)) {
+                k++;
+            }
+            Arrays.fill(result, i, i + k - j, Literals.of(id, false));
+            Arrays.fill(result, i + k - j, k, Literals.of(id, true));
+            i = k;
+        }
+        return new LiteralSet(result);
+    }
+
+    /**
+     * Returns a literal set without duplicates.
+     *
+     * @return A literal set without duplicates, or this literal set if it doesn't contain duplicates.
+     */
+    LiteralSet distinct() {
+        int[] distinctLiterals = SortedIds.distinct(literals);
+        return distinctLiterals == literals ? this : new LiteralSet(distinctLiterals);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof LiteralSet other && hashCode == other.hashCode
+                && Arrays.equals(literals, other.literals);
+    }
+
+    /**
+     * Returns the direct variables.
+     *
+     * @return A value collection with the direct variables.
+     */
+    ValueCollection<Variable> getDirectVariables() {
+        return getVariables(false);
+    }
+
+    /**
+     * Returns the sorted literals. The returned array must not be modified.
+     *
+     * @return The sorted literals.
+     */
+    int[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * Returns the negated variables.
+     *
+     * @return A value collection with the negated variables.
+     */
+    ValueCollection<Variable> getNegatedVariables() {
+        return getVariables(true);
+    }
+
+    /**
+     * Returns the variables of either the direct or the negated literals.
+     *
+     * @param negated True for the variables of the negated literals, false for the direct ones.
+     * @return A value collection with the variables.
+     */
+    private ValueCollection<Variable> getVariables(final boolean negated) {
+        int[] ids = new int[literals.length];
+        int n = 0;
+        for (int literal : literals) {
+            if (Literals.isNegated(literal) == negated) {
+                ids[n++] = Literals.id(literal);
+            }
+        }
+        return SortedIds.toVariables(Arrays.copyOf(ids, n));
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Returns whether this literal set shares a literal with another literal set.
+     *
+     * @param other The other literal set.
+     * @return True if this literal set shares a direct or a negated variable with the other literal set.
+     */
+    boolean intersects(final LiteralSet other) {
+        return SortedIds.intersects(literals, other.literals);
+    }
+
+    /**
+     * Returns whether this literal set contains the complement of a literal in another literal set. The scan walks
+     * both arrays by variable ID, and compares the signs with which a shared variable occurs in both sets.
+     *
+     * @param other The other literal set.
+     * @return True if a direct variable of this literal set is negated in the other literal set, or vice versa.
+     */
+    boolean intersectsComplementOf(final LiteralSet other) {
+        int[] a = literals;
+        int[] b = other.literals;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            int idA = Literals.id(a[i]);
+            int idB = Literals.id(b[j]);
+            if (idA < idB) {
+                i++;
+            } else if (idA > idB) {
+                j++;
+            } else {
+                int signsA = 0;
+                while (i < a.length && Literals.id(a[i]) == idA) {
+                    signsA |= 1 << (a[i++] & 1);
+                }
+                int signsB = 0;
+                while (j < b.length && Literals.id(b[j]) == idB) {
+                    signsB |= 1 << (b[j++] & 1);
+                }
+                if (signsA != signsB || signsA == 3) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the literal set contains a variable both directly and negated.
+     *
+     * @return True if the literal set contains a variable both directly and negated.
+     */
+    boolean isContradictory() {
+        for (int i = 1; i < literals.length; i++) {
+            if (literals[i] != literals[i - 1] && Literals.id(literals[i]) == Literals.id(literals[i - 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of literals in the set, duplicates included.
+     *
+     * @return The number of literals in the set.
+     */
+    int size() {
+        return literals.length;
+    }
+
+    /**
+     * Returns the sorted IDs of the variables of the literals, regardless of their signs.
+     *
+     * @return The sorted IDs of the variables of the literals.
+     */
+    int[] toIds() {
+        int[] ids = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            ids[i] = Literals.id(literals[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the literal set without the literals occurring in another literal set.
+     *
+     * @param other The other literal set.
+     * @return A literal set without the literals of the other literal set, or this literal set if it doesn't share any
+     *         literal with the other literal set.
+     */
+    LiteralSet without(final LiteralSet other) {
+        return without(other, false);
+    }
+
+    /**
+     * Returns the literal set without the literals whose complement occurs in another literal set.
+     *
+     * @param other The other literal set.
+     * @return A literal set without the literals whose complement occurs in the other literal set, or this literal set
+     *         if it doesn't contain any such literal.
+     */
+    LiteralSet withoutComplementsOf(final LiteralSet other) {
+        return without(other, true);
+    }
+
+    /**
+     * Returns the literal set without the literals that, possibly complemented, occur in another literal set. Since the
+     * literals of the other literal set are sorted, every membership check is a binary search.
+     *
+     * @param other        The other literal set.
+     * @param complemented True if the complements of the literals should be looked up in the other literal set.
+     * @return A literal set without the literals found in the other literal set, or this literal set if none were
+     *         found.
+     */
+    private LiteralSet without(final LiteralSet other, final boolean complemented) {
+        int[] remaining = new int[literals.length];
+        int n = 0;
+        for (int literal : literals) {
+            if (Arrays.binarySearch(other.literals, Literals.negateIf(literal, complemented)) < 0) {
+                remaining[n++] = literal;
+            }
+        }
+        return n == literals.length ? this : new LiteralSet(Arrays.copyOf(remaining, n));
+    }
+
+    /**
+     * Returns the single literal in the set as an identity or negation expression.
+     *
+     * @return An identity or negation expression for the single literal in the set.
+     */
+    Expression toLiteralExpression() {
+        return Literals.toExpression(literals[0]);
+    }
+
+    /**
+     * Returns a string with the literals joined by an operator, the direct literals first.
+     *
+     * @param operator The operator.
+     * @return A string with the literals joined by the operator.
+     */
+    String toString(final Operator operator) {
+        String withSpaces = " " + operator + " ";
+        StringBuilder sb = new StringBuilder();
+        for (boolean negated : new boolean[] {false, true}) {
+            for (int literal : literals) {
+                if (Literals.isNegated(literal) == negated) {
+                    if (sb.length() > 0) {
+                        sb.append(withSpaces);
+                    }
+                    if (negated) {
+                        sb.append(Operator.NOT);
+                    }
+                    sb.append(VariableTable.getName(Literals.id(literal)));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builder accumulating literals into a growable primitive array.
+     */
+    static final class Builder {
+        /**
+         * The initial capacity of the array.
+         */
+        private static final int INITIAL_CAPACITY = 8;
+        /**
+         * The literals added so far.
+         */
+        private int[] literals = new int[INITIAL_CAPACITY];
+        /**
+         * The number of literals added so far.
+         */
+        private int size;
+
+        /**
+         * Adds a literal.
+         *
+         * @param literal The literal.
+         */
+        void add(final int literal) {
+            if (size == literals.length) {
+                literals = Arrays.copyOf(literals, size * 2);
+            }
+            literals[size++] = literal;
+        }
+
+        /**
+         * Adds all the literals of a literal set.
+         *
+         * @param literalSet The literal set.
+         */
+        void addAll(final LiteralSet literalSet) {
+            for (int literal : literalSet.literals) {
+                add(literal);
+            }
+        }
+
+        /**
+         * Adds the complements of all the literals of a literal set.
+         *
+         * @param literalSet The literal set.
+         */
+        void addAllComplemented(final LiteralSet literalSet) {
+            for (int literal : literalSet.literals) {
+                add(Literals.negate(literal));
+            }
+        }
+
+        /**
+         * Adds a direct variable.
+         *
+         * @param id The ID of the variable.
+         */
+        void addDirect(final int id) {
+            add(Literals.of(id, false));
+        }
+
+        /**
+         * Adds a negated variable.
+         *
+         * @param id The ID of the variable.
+         */
+        void addNegated(final int id) {
+            add(Literals.of(id, true));
+        }
+
+        /**
+         * Builds the literal set.
+         *
+         * @return A literal set with the literals added to the builder.
+         */
+        LiteralSet build() {
+            int[] sortedLiterals = Arrays.copyOf(literals, size);
+            Arrays.sort(sortedLiterals);
+            return new LiteralSet(sortedLiterals);
+        }
+
+        /**
+         * Returns whether no literals have been added to the builder.
+         *
+         * @return True if no literals have been added to the builder.
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+/**
+ * Utility class encoding literals as integers, in the same way as the AIGER format: a literal is twice the ID of its
+ * variable, plus one if the variable is negated. Negating a literal flips its lowest bit, and sorting literals sorts
+ * them by variable ID, with the direct literal of a variable right before its negated literal.
+ */
+final class Literals {
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Literals() {
+    }
+
+    /**
+     * Returns the ID of the variable of a literal.
+     *
+     * @param literal The literal.
+     * @return The ID of the variable of the literal.
+     */
+    static int id(final int literal) {
+        return literal >>> 1;
+    }
+
+    /**
+     * Returns whether a literal is negated.
+     *
+     * @param literal The literal.
+     * @return True if the literal is negated.
+     */
+    static boolean isNegated(final int literal) {
+        return (literal & 1) == 1;
+    }
+
+    /**
+     * Returns the negation of a literal.
+     *
+     * @param literal The literal.
+     * @return The negation of the literal.
+     */
+    static int negate(final int literal) {
+        return literal ^ 1;
+    }
+
+    /**
+     * Returns the negation of a literal if a condition holds, and the literal itself otherwise.
+     *
+     * @param literal The literal.
+     * @param negate  True if the literal should be negated.
+     * @return The negation of the literal if the condition holds, and the literal itself otherwise.
+     */
+    static int negateIf(final int literal, final boolean negate) {
+        return negate ? literal ^ 1 : literal;
+    }
+
+    /**
+     * Returns the literal for a variable ID.
+     *
+     * @param id      The ID of the variable.
+     * @param negated True if the literal should be negated.
+     * @return The literal for the variable ID.
+     */
+    static int of(final int id, final boolean negated) {
+        return (id << 1) | (negated ? 1 : 0);
+    }
+
+    /**
+     * Simplifies a literal against a table with definitions. Chains of identity and negation definitions are followed
+     * in a loop rather than by recursion, such that their length is bounded by the heap only. If the chain ends in a
+     * function, the function is simplified against the table, after applying De Morgan's laws if the literal is
+     * negated at that point.
+     *
+     * @param literal     The literal.
+     * @param definitions The table with the definitions.
+     * @return The simplified expression for the literal.
+     * @throws IllegalStateException Thrown if the chain of identity and negation definitions is cyclic.
+     */
+    static Expression simplify(final int literal, final DefinitionTable definitions) throws IllegalStateException {
+        int current = literal;
+        for (int step = 0; step <= definitions.size(); step++) {
+            Expression expression = definitions.get(id(current));
+            boolean negated = isNegated(current);
+            if (expression == null) {
+                return toExpression(current);
+            } else if (expression instanceof LiteralExpression) {
+                return (LiteralExpression.TRUE == expression) != negated ? LiteralExpression.TRUE
+                        : LiteralExpression.FALSE;
+            } else if (expression instanceof IdentityExpression identityExpression) {
+                current = negateIf(identityExpression.literal(), negated);
+            } else if (expression instanceof NegationExpression negationExpression) {
+                current = negateIf(negationExpression.literal(), negated);
+            } else if (!negated) {
+                return expression.simplify(definitions);
+            } else if (expression instanceof AndFunction andFunction) {
+                return new OrFunction(andFunction.getLiterals().complement()).simplify(definitions);
+            } else if (expression instanceof OrFunction orFunction) {
+                return new AndFunction(orFunction.getLiterals().complement()).simplify(definitions);
+            } else {
+                XorFunction xorFunction = (XorFunction) expression;
+                return new XorFunction(xorFunction.getIds(), !xorFunction.negated()).simplify(definitions);
+            }
+        }
+        throw new IllegalStateException("The definition of variable " + new Variable(id(literal)) + " is cyclic.");
+    }
+
+    /**
+     * Returns the identity or negation expression for a literal.
+     *
+     * @param literal The literal.
+     * @return An identity expression if the literal is direct, or a negation expression if it's negated.
+     */
+    static Expression toExpression(final int literal) {
+        Variable variable = new Variable(id(literal));
+        return isNegated(literal) ? new NegationExpression(variable) : new IdentityExpression(variable);
+    }
+}
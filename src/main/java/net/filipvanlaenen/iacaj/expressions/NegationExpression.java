@@ -1,7 +1,6 @@
 package net.filipvanlaenen.iacaj.expressions;
 
 import net.filipvanlaenen.kolektoj.Collection;
-import net.filipvanlaenen.kolektoj.Map;
 
 /**
  * An expression negating a variable.
@@ -14,40 +13,23 @@ public record NegationExpression(Variable variable) implements Expression {
         return Collection.of(variable);
     }
 
+    /**
+     * Returns the negated literal of the variable, encoded as in the <code>Literals</code> class.
+     *
+     * @return The negated literal of the variable.
+     */
+    int literal() {
+        return Literals.of(variable.id(), true);
+    }
+
     @Override
     public Expression simplify() {
         return this;
     }
 
     @Override
-    public Expression simplify(final Map<Variable, Expression> variableToExpressionMap) {
-        if (variableToExpressionMap.containsKey(variable)) {
-            Expression expression = variableToExpressionMap.get(variable);
-            if (LiteralExpression.TRUE == expression) {
-                return LiteralExpression.FALSE;
-            } else if (LiteralExpression.FALSE == expression) {
-                return LiteralExpression.TRUE;
-            } else if (expression instanceof IdentityExpression) {
-                return new NegationExpression(((IdentityExpression) expression).variable())
-                        .simplify(variableToExpressionMap);
-            } else if (expression instanceof NegationExpression) {
-                return new IdentityExpression(((NegationExpression) expression).variable())
-                        .simplify(variableToExpressionMap);
-            } else if (expression instanceof AndFunction) {
-                AndFunction andFunction = (AndFunction) expression;
-                return new OrFunction(andFunction.negatedVariables(), andFunction.directVariables())
-                        .simplify(variableToExpressionMap);
-            } else if (expression instanceof OrFunction) {
-                OrFunction orFunction = (OrFunction) expression;
-                return new AndFunction(orFunction.negatedVariables(), orFunction.directVariables())
-                        .simplify(variableToExpressionMap);
-            } else if (expression instanceof XorFunction) {
-                XorFunction xorFunction = (XorFunction) expression;
-                return new XorFunction(xorFunction.variables(), !xorFunction.negated())
-                        .simplify(variableToExpressionMap);
-            }
-        }
-        return this;
+    public Expression simplify(final DefinitionTable definitions) {
+        return definitions.containsKey(variable) ? Literals.simplify(literal(), definitions) : this;
     }
 
     @Override
@@ -0,0 +1,310 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An arena storing expressions outside the Java heap, in direct byte buffers. Each expression is encoded as a short
+ * sequence of integers: its kind, the number of operands, and the operands themselves, i.e. literals encoded as in the
+ * <code>Literals</code> class, or variable IDs for xor functions.
+ * The arena is allocated in segments of a configurable size. An arena derived from another arena for a table with an
+ * expected number of definitions starts with a segment sized to that content, and doubles the size of its segments up
+ * to the configured size as it grows, such that a small scratch table doesn't take a full segment. An expression that
+ * is larger than a segment, e.g. a function widened by the simplification, gets a dedicated segment of its own size.
+ *
+ * The segments are direct byte buffers, and are therefore released by the garbage collector only, once the arena is
+ * no longer referenced, i.e. once the tables storing their expressions in it have become unreachable. The direct memory
+ * in use is bounded by the JVM option <code>-XX:MaxDirectMemorySize</code>, and allocating a segment beyond that bound
+ * triggers a garbage collection first, such that the segments of unreachable arenas are released.
+ */
+public final class OffHeapArena {
+    /**
+     * The default size of a segment, in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /**
+     * The number of integers in the header of an encoded expression.
+     */
+    private static final int HEADER_LENGTH = 2;
+    /**
+     * The kind for false.
+     */
+    private static final int FALSE = 0;
+    /**
+     * The kind for true.
+     */
+    private static final int TRUE = 1;
+    /**
+     * The kind for identity and negation expressions.
+     */
+    private static final int LITERAL = 2;
+    /**
+     * The kind for and functions.
+     */
+    private static final int AND = 3;
+    /**
+     * The kind for or functions.
+     */
+    private static final int OR = 4;
+    /**
+     * The kind for non-negated xor functions.
+     */
+    private static final int XOR = 5;
+    /**
+     * The kind for negated xor functions.
+     */
+    private static final int NEGATED_XOR = 6;
+    /**
+     * The expected number of operands of an expression, used to size the first segment of a derived arena.
+     */
+    private static final int EXPECTED_NUMBER_OF_OPERANDS = 4;
+
+    /**
+     * The size of a segment, in bytes, i.e. the maximal size of a segment of a derived arena.
+     */
+    private final int segmentSize;
+    /**
+     * The size of the next segment to be allocated, in bytes.
+     */
+    private int nextSegmentSize;
+    /**
+     * The number of bytes allocated in the segments so far.
+     */
+    private long allocatedBytes;
+    /**
+     * The segments allocated so far.
+     */
+    private final List<ByteBuffer> segments = new ArrayList<ByteBuffer>();
+    /**
+     * The segment expressions are currently written to.
+     */
+    private ByteBuffer currentSegment;
+    /**
+     * The index of the segment expressions are currently written to.
+     */
+    private int currentSegmentIndex;
+
+    /**
+     * Constructs an arena with the default segment size.
+     */
+    public OffHeapArena() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructs an arena with a segment size.
+     *
+     * @param segmentSize The size of a segment, in bytes.
+     * @throws IllegalArgumentException Thrown if the segment size is smaller than three integers.
+     */
+    public OffHeapArena(final int segmentSize) throws IllegalArgumentException {
+        this(segmentSize, segmentSize);
+    }
+
+    /**
+     * Constructs an arena with a segment size and the size of its first segment.
+     *
+     * @param segmentSize      The size of a segment, in bytes.
+     * @param firstSegmentSize The size of the first segment, in bytes.
+     * @throws IllegalArgumentException Thrown if the segment size is smaller than three integers.
+     */
+    private OffHeapArena(final int segmentSize, final int firstSegmentSize) throws IllegalArgumentException {
+        int minimalSegmentSize = (HEADER_LENGTH + 1) * Integer.BYTES;
+        if (segmentSize < minimalSegmentSize) {
+            throw new IllegalArgumentException("The segment size should be at least " + minimalSegmentSize
+                    + " bytes, but was " + segmentSize + ".");
+        }
+        this.segmentSize = segmentSize;
+        this.nextSegmentSize = Math.max(minimalSegmentSize, firstSegmentSize);
+    }
+
+    /**
+     * Reserves space for a number of integers, allocating a new segment if needed. If the integers don't fit in a
+     * segment, they get a dedicated segment of exactly their size, and the current segment remains the segment the
+     * next expressions are written to.
+     *
+     * @param length The number of integers.
+     * @return The address of the reserved space.
+     */
+    private long allocate(final int length) {
+        int bytes = length * Integer.BYTES;
+        if (bytes > segmentSize) {
+            segments.add(ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()));
+            allocatedBytes += bytes;
+            return (long) (segments.size() - 1) << Integer.SIZE;
+        }
+        if (currentSegment == null || currentSegment.remaining() < bytes) {
+            int size = Math.max(nextSegmentSize, bytes);
+            currentSegment = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+            currentSegmentIndex = segments.size();
+            segments.add(currentSegment);
+            allocatedBytes += size;
+            nextSegmentSize = (int) Math.min(segmentSize, 2L * size);
+        }
+        long address = ((long) currentSegmentIndex << Integer.SIZE) | currentSegment.position();
+        currentSegment.position(currentSegment.position() + bytes);
+        return address;
+    }
+
+    /**
+     * Creates a new arena with the same segment size as this arena, for a table with an expected number of
+     * definitions. The first segment of the new arena is sized to the expected content, such that a small table
+     * doesn't take a full segment.
+     *
+     * @param expectedNumberOfExpressions The expected number of expressions to be stored in the new arena.
+     * @return A new arena with the same segment size as this arena.
+     */
+    OffHeapArena derive(final int expectedNumberOfExpressions) {
+        long expectedBytes =
+                (long) expectedNumberOfExpressions * (HEADER_LENGTH + EXPECTED_NUMBER_OF_OPERANDS) * Integer.BYTES;
+        return new OffHeapArena(segmentSize, (int) Math.min(segmentSize, expectedBytes));
+    }
+
+    /**
+     * Returns the number of bytes allocated off the heap by the arena.
+     *
+     * @return The number of bytes allocated off the heap.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the number of operands of the expression stored at an address, without decoding the expression.
+     *
+     * @param address The address of the expression.
+     * @return The number of operands of the expression.
+     */
+    int getNumberOfOperands(final long address) {
+        return segmentAt(address).getInt((int) address + Integer.BYTES);
+    }
+
+    /**
+     * Returns the ID of the variable of an operand of the expression stored at an address, without decoding the
+     * expression.
+     *
+     * @param address The address of the expression.
+     * @param index   The index of the operand, between zero and the number of operands.
+     * @return The ID of the variable of the operand.
+     */
+    int getOperandId(final long address, final int index) {
+        ByteBuffer segment = segmentAt(address);
+        int offset = (int) address;
+        int operand = segment.getInt(offset + (HEADER_LENGTH + index) * Integer.BYTES);
+        return segment.getInt(offset) >= XOR ? operand : Literals.id(operand);
+    }
+
+    /**
+     * Returns the size of a segment.
+     *
+     * @return The size of a segment, in bytes.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Reads the expression stored at an address.
+     *
+     * @param address The address of the expression.
+     * @return The expression stored at the address.
+     */
+    Expression read(final long address) {
+        ByteBuffer segment = segmentAt(address);
+        int offset = (int) address;
+        int kind = segment.getInt(offset);
+        int[] operands = readOperands(segment, offset + HEADER_LENGTH * Integer.BYTES,
+                segment.getInt(offset + Integer.BYTES));
+        switch (kind) {
+        case FALSE:
+            return LiteralExpression.FALSE;
+        case TRUE:
+            return LiteralExpression.TRUE;
+        case LITERAL:
+            return Literals.toExpression(operands[0]);
+        case AND:
+            return new AndFunction(LiteralSet.of(operands));
+        case OR:
+            return new OrFunction(LiteralSet.of(operands));
+        default:
+            return new XorFunction(operands, kind == NEGATED_XOR);
+        }
+    }
+
+    /**
+     * Reads a number of operands from a segment.
+     *
+     * @param segment The segment.
+     * @param offset  The offset of the first operand, in bytes.
+     * @param length  The number of operands.
+     * @return An array with the operands.
+     */
+    private static int[] readOperands(final ByteBuffer segment, final int offset, final int length) {
+        if (length == 0) {
+            return SortedIds.EMPTY;
+        }
+        int[] operands = new int[length];
+        for (int i = 0; i < length; i++) {
+            operands[i] = segment.getInt(offset + i * Integer.BYTES);
+        }
+        return operands;
+    }
+
+    /**
+     * Returns the segment holding an address.
+     *
+     * @param address The address.
+     * @return The segment holding the address.
+     */
+    private ByteBuffer segmentAt(final long address) {
+        return segments.get((int) (address >>> Integer.SIZE));
+    }
+
+    /**
+     * Writes an expression into the arena.
+     *
+     * @param expression The expression.
+     * @return The address of the expression in the arena.
+     */
+    long write(final Expression expression) {
+        if (LiteralExpression.FALSE == expression) {
+            return write(FALSE, SortedIds.EMPTY);
+        } else if (LiteralExpression.TRUE == expression) {
+            return write(TRUE, SortedIds.EMPTY);
+        } else if (expression instanceof IdentityExpression identityExpression) {
+            return write(LITERAL, new int[] {identityExpression.literal()});
+        } else if (expression instanceof NegationExpression negationExpression) {
+            return write(LITERAL, new int[] {negationExpression.literal()});
+        } else if (expression instanceof AndFunction andFunction) {
+            return write(AND, andFunction.getLiterals().getLiterals());
+        } else if (expression instanceof OrFunction orFunction) {
+            return write(OR, orFunction.getLiterals().getLiterals());
+        } else {
+            XorFunction xorFunction = (XorFunction) expression;
+            return write(xorFunction.negated() ? NEGATED_XOR : XOR, xorFunction.getIds());
+        }
+    }
+
+    /**
+     * Writes an encoded expression into the arena.
+     *
+     * @param kind     The kind of the expression.
+     * @param operands The operands of the expression.
+     * @return The address of the expression in the arena.
+     */
+    private long write(final int kind, final int[] operands) {
+        long address = allocate(HEADER_LENGTH + operands.length);
+        ByteBuffer segment = segmentAt(address);
+        int offset = (int) address;
+        segment.putInt(offset, kind);
+        segment.putInt(offset + Integer.BYTES, operands.length);
+        offset += HEADER_LENGTH * Integer.BYTES;
+        for (int operand : operands) {
+            segment.putInt(offset, operand);
+            offset += Integer.BYTES;
+        }
+        return address;
+    }
+}
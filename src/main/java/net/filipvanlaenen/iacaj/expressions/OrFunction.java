@@ -1,153 +1,196 @@
 package net.filipvanlaenen.iacaj.expressions;
 
-import static net.filipvanlaenen.kolektoj.Collection.ElementCardinality.DISTINCT_ELEMENTS;
-
 import net.filipvanlaenen.kolektoj.Collection;
-import net.filipvanlaenen.kolektoj.Map;
-import net.filipvanlaenen.kolektoj.ModifiableCollection;
 import net.filipvanlaenen.kolektoj.ValueCollection;
-import net.filipvanlaenen.kolektoj.collectors.Collectors;
 
 /**
- * A function using <code>or</code>.
- *
- * @param directVariables  The variables occurring directly in the or function.
- * @param negatedVariables The variables occurring negated in the or function.
+ * A function using <code>or</code>. The direct and negated variables are held in a literal set.
  */
-public record OrFunction(ValueCollection<Variable> directVariables, ValueCollection<Variable> negatedVariables)
-        implements Function {
+public final class OrFunction implements Function {
     /**
-     * The or operator with spaces.
+     * The literals of the or function.
      */
-    private static final String OR_WITH_SPACES = " " + Operator.OR + " ";
+    private final LiteralSet literals;
+
     /**
-     * The negated or operator with spaces.
+     * Constructor taking the direct and negated variables.
+     *
+     * @param directVariables  The variables occurring directly in the or function.
+     * @param negatedVariables The variables occurring negated in the or function.
      */
-    private static final String OR_NOT_WITH_SPACES = OR_WITH_SPACES + Operator.NOT;
+    public OrFunction(final ValueCollection<Variable> directVariables,
+            final ValueCollection<Variable> negatedVariables) {
+        this(LiteralSet.of(directVariables, negatedVariables));
+    }
 
     /**
-     * Creates a new expression based on the provided new direct and negated variables. If only one variable is left, an
-     * identity or negation expression is created instead of a new or expression.
+     * Constructor taking a literal set.
      *
-     * @param newDirectVariables  The new direct variables.
-     * @param newNegatedVariables The new negated variables.
-     * @return A new expression based on the provided new direct and negated variables.
+     * @param literals The literals of the or function.
      */
-    private Expression createExpression(final Collection<Variable> newDirectVariables,
-            final Collection<Variable> newNegatedVariables) {
-        if (newDirectVariables.size() + newNegatedVariables.size() == 1) {
-            if (newDirectVariables.isEmpty()) {
-                return new NegationExpression(newNegatedVariables.get());
-            } else {
-                return new IdentityExpression(newDirectVariables.get());
-            }
+    OrFunction(final LiteralSet literals) {
+        this.literals = literals;
+    }
+
+    /**
+     * Creates a new expression based on the provided literals. If only one literal is left, an identity or negation
+     * expression is created instead of a new or expression.
+     *
+     * @param newLiterals The new literals.
+     * @return A new expression based on the provided literals.
+     */
+    private static Expression createExpression(final LiteralSet newLiterals) {
+        if (newLiterals.size() == 1) {
+            return newLiterals.toLiteralExpression();
         } else {
-            return new OrFunction(ValueCollection.of(newDirectVariables), ValueCollection.of(newNegatedVariables));
+            return new OrFunction(newLiterals);
         }
     }
 
+    /**
+     * Returns the variables occurring directly in the or function.
+     *
+     * @return The variables occurring directly in the or function.
+     */
+    public ValueCollection<Variable> directVariables() {
+        return literals.getDirectVariables();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof OrFunction && literals.equals(((OrFunction) obj).literals);
+    }
+
+    /**
+     * Returns the literals of the or function.
+     *
+     * @return The literals of the or function.
+     */
+    LiteralSet getLiterals() {
+        return literals;
+    }
+
     @Override
     public Collection<Variable> getVariables() {
-        return Collection.unionOf(directVariables, negatedVariables);
+        return Collection.unionOf(literals.getDirectVariables(), literals.getNegatedVariables());
+    }
+
+    @Override
+    public int hashCode() {
+        return literals.hashCode();
+    }
+
+    /**
+     * Returns the variables occurring negated in the or function.
+     *
+     * @return The variables occurring negated in the or function.
+     */
+    public ValueCollection<Variable> negatedVariables() {
+        return literals.getNegatedVariables();
     }
 
     @Override
     public Expression simplify() {
-        Collection<Variable> distinctDirectVariables = Collection.of(DISTINCT_ELEMENTS, directVariables);
-        Collection<Variable> distinctNegatedVariables = Collection.of(DISTINCT_ELEMENTS, negatedVariables);
-        Collection<Variable> commonVariables =
-                Collection.intersectionOf(distinctDirectVariables, distinctNegatedVariables);
-        if (commonVariables.isEmpty()) {
-            return createExpression(distinctDirectVariables, distinctNegatedVariables);
-        } else {
+        return simplify((long[]) null);
+    }
+
+    /**
+     * Tries to simplify the or function and returns the result, counting the rules applied.
+     *
+     * @param ruleCounts The array with a counter for each rule, indexed by the ordinals of the rules, or null.
+     * @return An expression, if possible simplified.
+     */
+    Expression simplify(final long[] ruleCounts) {
+        if (literals.isContradictory()) {
+            SimplificationRule.CONTRADICTION.count(ruleCounts);
             return LiteralExpression.TRUE;
         }
+        LiteralSet distinctLiterals = literals.distinct();
+        if (distinctLiterals != literals) {
+            SimplificationRule.IDEMPOTENCE.count(ruleCounts);
+        }
+        return createExpression(distinctLiterals);
     }
 
     @Override
-    public Expression simplify(final Map<Variable, Expression> variableToExpressionMap) {
-        ModifiableCollection<Variable> newDirectVariables = ModifiableCollection.empty();
-        ModifiableCollection<Variable> newNegatedVariables = ModifiableCollection.empty();
-        for (Variable directVariable : directVariables) {
-            if (variableToExpressionMap.containsKey(directVariable)) {
-                Expression expression = variableToExpressionMap.get(directVariable);
-                if (LiteralExpression.TRUE == expression) {
+    public Expression simplify(final DefinitionTable definitions) {
+        return simplify(definitions, null);
+    }
+
+    /**
+     * Tries to simplify the or function using the definitions in a table and returns the result, counting the rules
+     * applied.
+     *
+     * @param definitions The table with the definitions of the variables.
+     * @param ruleCounts  The array with a counter for each rule, indexed by the ordinals of the rules, or null.
+     * @return An expression, if possible simplified.
+     */
+    Expression simplify(final DefinitionTable definitions, final long[] ruleCounts) {
+        LiteralSet.Builder newLiterals = new LiteralSet.Builder();
+        for (int literal : literals.getLiterals()) {
+            boolean negated = Literals.isNegated(literal);
+            Expression expression = definitions.get(Literals.id(literal));
+            if (expression == null) {
+                newLiterals.add(literal);
+            } else if (expression instanceof LiteralExpression) {
+                SimplificationRule.CONSTANT_FOLDING.count(ruleCounts);
+                if ((LiteralExpression.TRUE == expression) != negated) {
                     return LiteralExpression.TRUE;
-                } else if (expression instanceof IdentityExpression identityExpression) {
-                    newDirectVariables.add(identityExpression.variable());
-                } else if (expression instanceof NegationExpression negationExpression) {
-                    newNegatedVariables.add(negationExpression.variable());
-                } else if (expression instanceof AndFunction andFunction) {
-                    // TODO: Refactor when https://github.com/filipvanlaenen/kolektoj/issues/113 is implemented
-                    ModifiableCollection<Variable> intersectionOfDirectVariables =
-                            ModifiableCollection.of(directVariables);
-                    intersectionOfDirectVariables.retainAll(andFunction.directVariables());
-                    // TODO: Refactor when https://github.com/filipvanlaenen/kolektoj/issues/113 is implemented
-                    ModifiableCollection<Variable> intersectionOfNegatedVariables =
-                            ModifiableCollection.of(negatedVariables);
-                    intersectionOfNegatedVariables.retainAll(andFunction.negatedVariables());
-                    if (intersectionOfDirectVariables.isEmpty() && intersectionOfNegatedVariables.isEmpty()) {
-                        newDirectVariables.add(directVariable);
+                }
+            } else if (expression instanceof IdentityExpression identityExpression) {
+                SimplificationRule.LITERAL_FOLDING.count(ruleCounts);
+                newLiterals.add(Literals.negateIf(identityExpression.literal(), negated));
+            } else if (expression instanceof NegationExpression negationExpression) {
+                SimplificationRule.LITERAL_FOLDING.count(ruleCounts);
+                newLiterals.add(Literals.negateIf(negationExpression.literal(), negated));
+            } else if (expression instanceof OrFunction orFunction) {
+                if (!negated) {
+                    SimplificationRule.FLATTENING.count(ruleCounts);
+                    newLiterals.addAll(orFunction.literals);
+                } else if (!literals.intersectsComplementOf(orFunction.literals)) {
+                    LiteralSet remaining = orFunction.literals.without(literals);
+                    if (remaining.size() == 0) {
+                        SimplificationRule.ABSORPTION.count(ruleCounts);
+                        return LiteralExpression.TRUE;
+                    } else if (remaining.size() == 1) {
+                        SimplificationRule.ABSORPTION.count(ruleCounts);
+                        newLiterals.add(Literals.negate(remaining.getLiterals()[0]));
+                    } else {
+                        newLiterals.add(literal);
                     }
-                } else if (expression instanceof OrFunction orFunction) {
-                    newDirectVariables.addAll(orFunction.directVariables());
-                    newNegatedVariables.addAll(orFunction.negatedVariables());
-                } else if (LiteralExpression.FALSE != expression) {
-                    newDirectVariables.add(directVariable);
+                } else {
+                    SimplificationRule.ABSORPTION.count(ruleCounts);
                 }
-            } else {
-                newDirectVariables.add(directVariable);
-            }
-        }
-        for (Variable negatedVariable : negatedVariables) {
-            if (variableToExpressionMap.containsKey(negatedVariable)) {
-                Expression expression = variableToExpressionMap.get(negatedVariable);
-                if (LiteralExpression.FALSE == expression) {
-                    return LiteralExpression.TRUE;
-                } else if (expression instanceof IdentityExpression identityExpression) {
-                    newNegatedVariables.add(identityExpression.variable());
-                } else if (expression instanceof NegationExpression negationExpression) {
-                    newDirectVariables.add(negationExpression.variable());
-                } else if (expression instanceof AndFunction andFunction) {
-                    newDirectVariables.addAll(andFunction.negatedVariables());
-                    newNegatedVariables.addAll(andFunction.directVariables());
-                } else if (expression instanceof OrFunction orFunction) {
-                    // TODO: Refactor when https://github.com/filipvanlaenen/kolektoj/issues/113 is implemented
-                    ModifiableCollection<Variable> intersectionOfDirectVariables =
-                            ModifiableCollection.of(directVariables);
-                    intersectionOfDirectVariables.retainAll(orFunction.negatedVariables());
-                    // TODO: Refactor when https://github.com/filipvanlaenen/kolektoj/issues/113 is implemented
-                    ModifiableCollection<Variable> intersectionOfNegatedVariables =
-                            ModifiableCollection.of(negatedVariables);
-                    intersectionOfNegatedVariables.retainAll(orFunction.directVariables());
-                    if (intersectionOfDirectVariables.isEmpty() && intersectionOfNegatedVariables.isEmpty()) {
-                        newNegatedVariables.add(negatedVariable);
+            } else if (expression instanceof AndFunction andFunction) {
+                if (negated) {
+                    SimplificationRule.DE_MORGAN.count(ruleCounts);
+                    newLiterals.addAllComplemented(andFunction.getLiterals());
+                } else if (!literals.intersects(andFunction.getLiterals())) {
+                    LiteralSet remaining = andFunction.getLiterals().withoutComplementsOf(literals);
+                    if (remaining.size() == 0) {
+                        SimplificationRule.ABSORPTION.count(ruleCounts);
+                        return LiteralExpression.TRUE;
+                    } else if (remaining.size() == 1) {
+                        SimplificationRule.ABSORPTION.count(ruleCounts);
+                        newLiterals.add(remaining.getLiterals()[0]);
+                    } else {
+                        newLiterals.add(literal);
                     }
-                } else if (LiteralExpression.TRUE != expression) {
-                    newNegatedVariables.add(negatedVariable);
+                } else {
+                    SimplificationRule.ABSORPTION.count(ruleCounts);
                 }
             } else {
-                newNegatedVariables.add(negatedVariable);
+                newLiterals.add(literal);
             }
         }
-        if (newDirectVariables.size() + newNegatedVariables.size() == 0) {
+        if (newLiterals.isEmpty()) {
             return LiteralExpression.FALSE;
         }
-        return createExpression(newDirectVariables, newNegatedVariables);
+        return createExpression(newLiterals.build());
     }
 
     @Override
     public String toString() {
-        String dv = String.join(OR_WITH_SPACES,
-                directVariables.stream().map(Variable::name).collect(Collectors.toCollection()));
-        String nv = String.join(OR_NOT_WITH_SPACES,
-                negatedVariables.stream().map(Variable::name).collect(Collectors.toCollection()));
-        if (dv.isEmpty()) {
-            return Operator.NOT + nv;
-        } else if (nv.isEmpty()) {
-            return dv;
-        } else {
-            return dv + OR_NOT_WITH_SPACES + nv;
-        }
+        return literals.toString(Operator.OR);
     }
 }
@@ -5,6 +5,7 @@ import static net.filipvanlaenen.iacaj.expressions.Operator.NOT;
 import static net.filipvanlaenen.iacaj.expressions.Operator.OR;
 import static net.filipvanlaenen.iacaj.expressions.Operator.XOR;
 
+import net.filipvanlaenen.iacaj.events.ParseEvent;
 import net.filipvanlaenen.kolektoj.ModifiableCollection;
 import net.filipvanlaenen.kolektoj.OrderedCollection;
 import net.filipvanlaenen.kolektoj.ValueCollection;
@@ -63,16 +64,29 @@ public final class Parser {
      * @return An expression representing the content of the provided string.
      */
     public static Expression parseExpression(final String expressionString) {
+        return parseExpression(expressionString, new ExpressionFactory());
+    }
+
+    /**
+     * Parses an expression string into an expression, using an expression factory to share structurally identical
+     * expressions.
+     *
+     * @param expressionString  The string to be parsed.
+     * @param expressionFactory The expression factory.
+     * @return An expression representing the content of the provided string.
+     */
+    private static Expression parseExpression(final String expressionString,
+            final ExpressionFactory expressionFactory) {
         if (expressionString.contentEquals("true")) {
             return LiteralExpression.TRUE;
         } else if (expressionString.contentEquals("false")) {
             return LiteralExpression.FALSE;
         } else if (containsSymbol(expressionString, AND)) {
             OrderedCollection<ValueCollection<Variable>> variables = extractVariables(expressionString, AND);
-            return new AndFunction(variables.getAt(0), variables.getAt(1));
+            return expressionFactory.and(variables.getAt(0), variables.getAt(1));
         } else if (containsSymbol(expressionString, OR)) {
             OrderedCollection<ValueCollection<Variable>> variables = extractVariables(expressionString, OR);
-            return new OrFunction(variables.getAt(0), variables.getAt(1));
+            return expressionFactory.or(variables.getAt(0), variables.getAt(1));
         } else if (containsSymbol(expressionString, XOR)) {
             OrderedCollection<ValueCollection<Variable>> variables = extractVariables(expressionString, XOR);
             // TODO: Refactor after the implementation of https://github.com/filipvanlaenen/kolektoj/issues/99
@@ -81,24 +95,36 @@ public final class Parser {
             // TODO: Refactor after the implementation of https://github.com/filipvanlaenen/kolektoj/issues/108
             Variable[] directArray = directVariables.toArray(new Variable[0]);
             ValueCollection<Variable> direct = ValueCollection.of(directArray);
-            return new XorFunction(direct, variables.getAt(1).size() % 2 == 1);
+            return expressionFactory.xor(direct, variables.getAt(1).size() % 2 == 1);
         } else if (expressionString.startsWith(NOT.getSymbol())) {
-            return new NegationExpression(new Variable(expressionString.substring(1)));
+            return expressionFactory.negation(new Variable(expressionString.substring(1)));
         } else {
-            return new IdentityExpression(new Variable(expressionString));
+            return expressionFactory.identity(new Variable(expressionString));
         }
     }
 
     /**
-     * Parses a string containing a vectorial Boolean function into a vectorial function.
+     * Parses a string containing a vectorial Boolean function into a vectorial function, emitting a flight recorder
+     * event with the dimension and the number of variables of the vectorial function if a recording is running.
      *
      * @param vectorialFunctionString The string to be parsed.
      * @return A vectorial function representing the content of the string.
      */
     public static VectorialFunction parseVectorialFunction(final String vectorialFunctionString) {
-        return new VectorialFunction(vectorialFunctionString.lines().map(line -> line.replaceAll("\\s", ""))
-                .filter(line -> line.contains("=")).map(line -> line.split("="))
-                .collect(Collectors.<String[], Variable, Expression>toMap(parts -> new Variable(parts[0]),
-                        parts -> parseExpression(parts[1]))));
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        VectorialFunction vectorialFunction = new VectorialFunction(vectorialFunctionString.lines()
+                .map(line -> line.replaceAll("\\s", "")).filter(line -> line.contains("="))
+                .map(line -> line.split("=")).collect(Collectors.<String[], Variable, Expression>toMap(
+                        parts -> new Variable(parts[0]), parts -> parseExpression(parts[1], expressionFactory))));
+        event.end();
+        if (event.shouldCommit()) {
+            event.setLength(vectorialFunctionString.length());
+            event.setDimension(vectorialFunction.getDimension());
+            event.setNumberOfVariables(vectorialFunction.getNumberOfVariables());
+            event.commit();
+        }
+        return vectorialFunction;
     }
 }
@@ -0,0 +1,128 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+/**
+ * Budget for the simplification of a vectorial function, limiting its wall time, the heap in use or the number of
+ * passes, and allowing it to be cancelled from another thread. The simplifier checks the budget between its passes,
+ * and within the symbolic simplification for every chunk of definitions. When the budget is exhausted, the
+ * simplification is cut short and returns the best vectorial function reached so far: the definitions simplified
+ * already, followed by the remaining definitions as they were. Such a result is equivalent to the input, but isn't
+ * considered simplified for the output vector. A budget can also limit solving the xor definitions of a vectorial
+ * function as a linear system, in which case the number of passes doesn't apply.
+ *
+ * A new budget is unlimited. The limits should be set before the simplification starts, whereas the budget can be
+ * cancelled at any time.
+ */
+public final class SimplificationBudget {
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final long NANOSECONDS_PER_MILLISECOND = 1_000_000L;
+    /**
+     * The runtime, used to measure the heap in use.
+     */
+    private static final Runtime RUNTIME = Runtime.getRuntime();
+
+    /**
+     * Whether the budget has been cancelled.
+     */
+    private volatile boolean cancelled;
+    /**
+     * The maximal wall time of the simplification, in nanoseconds.
+     */
+    private long maximumWallTime = Long.MAX_VALUE;
+    /**
+     * The maximal number of bytes in use on the heap.
+     */
+    private long maximumHeapUse = Long.MAX_VALUE;
+    /**
+     * The maximal number of passes rewriting the definitions.
+     */
+    private int maximumNumberOfPasses = Integer.MAX_VALUE;
+
+    /**
+     * Cancels the simplification using this budget. The simplification returns the best vectorial function reached
+     * so far as soon as it checks the budget again.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether the budget has been cancelled.
+     *
+     * @return True if the budget has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns whether the budget is exhausted, i.e. whether it has been cancelled, the wall time or the number of
+     * passes has reached its maximum, or the heap in use exceeds its maximum. Since the heap in use includes garbage
+     * that hasn't been collected yet, the heap use is an upper bound of the memory needed.
+     *
+     * @param wallTime       The wall time of the simplification so far, in nanoseconds.
+     * @param numberOfPasses The number of passes that have ended.
+     * @return True if the budget is exhausted.
+     */
+    boolean isExhausted(final long wallTime, final int numberOfPasses) {
+        return numberOfPasses >= maximumNumberOfPasses || isExhausted(wallTime);
+    }
+
+    /**
+     * Returns whether the budget is exhausted for work that isn't a pass rewriting the definitions, e.g. extracting
+     * views or solving the linear subsystem, i.e. whether it has been cancelled, the wall time has reached its
+     * maximum, or the heap in use exceeds its maximum.
+     *
+     * @param wallTime The wall time of the work so far, in nanoseconds.
+     * @return True if the budget is exhausted.
+     */
+    boolean isExhausted(final long wallTime) {
+        return cancelled || wallTime >= maximumWallTime
+                || maximumHeapUse != Long.MAX_VALUE && RUNTIME.totalMemory() - RUNTIME.freeMemory() > maximumHeapUse;
+    }
+
+    /**
+     * Sets the maximal number of bytes in use on the heap.
+     *
+     * @param bytes The maximal number of bytes in use on the heap.
+     * @throws IllegalArgumentException Thrown if the number of bytes isn't positive.
+     */
+    public void setMaximumHeapUse(final long bytes) throws IllegalArgumentException {
+        if (bytes < 1) {
+            throw new IllegalArgumentException(
+                    "The maximal heap use should be at least 1 byte, but was " + bytes + " bytes.");
+        }
+        maximumHeapUse = bytes;
+    }
+
+    /**
+     * Sets the maximal number of passes rewriting the definitions, i.e. constant propagation, alias collapsing and
+     * symbolic simplification. The compaction of the result always runs.
+     *
+     * @param numberOfPasses The maximal number of passes.
+     * @throws IllegalArgumentException Thrown if the number of passes is negative.
+     */
+    public void setMaximumNumberOfPasses(final int numberOfPasses) throws IllegalArgumentException {
+        if (numberOfPasses < 0) {
+            throw new IllegalArgumentException(
+                    "The maximal number of passes should be at least 0, but was " + numberOfPasses + ".");
+        }
+        maximumNumberOfPasses = numberOfPasses;
+    }
+
+    /**
+     * Sets the maximal wall time of the simplification.
+     *
+     * @param milliseconds The maximal wall time, in milliseconds.
+     * @throws IllegalArgumentException Thrown if the wall time is negative.
+     */
+    public void setMaximumWallTime(final long milliseconds) throws IllegalArgumentException {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException(
+                    "The maximal wall time should be at least 0 milliseconds, but was " + milliseconds + ".");
+        }
+        maximumWallTime = milliseconds > Long.MAX_VALUE / NANOSECONDS_PER_MILLISECOND ? Long.MAX_VALUE
+                : milliseconds * NANOSECONDS_PER_MILLISECOND;
+    }
+}
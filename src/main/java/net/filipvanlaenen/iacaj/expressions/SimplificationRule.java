@@ -0,0 +1,93 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+/**
+ * Enumeration with the rules applied while simplifying a vectorial function. A rule rewriting the operands of a
+ * function is counted once for every operand it rewrites, and a rule rewriting a function or a definition as a whole
+ * once for every function or definition.
+ */
+public enum SimplificationRule {
+    /**
+     * A definition evaluated to a constant by propagating the constants at the bit level.
+     */
+    CONSTANT_PROPAGATION("constant propagation"),
+    /**
+     * An identity or negation definition collapsed to the variable at the end of its chain of aliases.
+     */
+    ALIAS_COLLAPSING("alias collapsing"),
+    /**
+     * An and function containing a literal and its complement reduced to false, or an or function to true.
+     */
+    CONTRADICTION("contradiction"),
+    /**
+     * Duplicate literals removed from an and or an or function.
+     */
+    IDEMPOTENCE("idempotence"),
+    /**
+     * Pairs of equal variables cancelled in an xor function.
+     */
+    XOR_CANCELLATION("xor cancellation"),
+    /**
+     * An operand defined as a constant folded into a function.
+     */
+    CONSTANT_FOLDING("constant folding"),
+    /**
+     * An operand defined as a single literal replaced by that literal.
+     */
+    LITERAL_FOLDING("literal folding"),
+    /**
+     * An operand defined as a function of the same kind inlined into the function.
+     */
+    FLATTENING("flattening"),
+    /**
+     * A negated operand defined as an or function inlined into an and function as the complements of its literals,
+     * or a negated operand defined as an and function into an or function.
+     */
+    DE_MORGAN("De Morgan"),
+    /**
+     * An operand absorbed by the other operands of a function, entirely or up to a single literal.
+     */
+    ABSORPTION("absorption"),
+    /**
+     * A fresh variable introduced while factoring partially absorbed operands.
+     */
+    FACTORING("factoring"),
+    /**
+     * A definition merged with an identical definition of another variable.
+     */
+    MERGING("merging");
+
+    /**
+     * The number of rules.
+     */
+    static final int NUMBER_OF_RULES = values().length;
+
+    /**
+     * The description of the rule.
+     */
+    private final String description;
+
+    /**
+     * Creates a rule with a description.
+     *
+     * @param description The description of the rule.
+     */
+    SimplificationRule(final String description) {
+        this.description = description;
+    }
+
+    /**
+     * Counts an application of the rule in an array with a counter for each rule, if there is one.
+     *
+     * @param ruleCounts The array with the counters, indexed by the ordinals of the rules, or null.
+     */
+    void count(final long[] ruleCounts) {
+        if (ruleCounts != null) {
+            ruleCounts[ordinal()]++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
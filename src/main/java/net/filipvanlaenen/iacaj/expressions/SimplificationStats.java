@@ -0,0 +1,264 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+
+import net.filipvanlaenen.iacaj.events.SimplificationPassEvent;
+import net.filipvanlaenen.kolektoj.ModifiableOrderedCollection;
+import net.filipvanlaenen.kolektoj.OrderedCollection;
+
+/**
+ * Statistics on the simplification of a vectorial function: how many times each simplification rule was applied, and
+ * for each pass of the simplifier, the dimension of the vectorial function after the pass, its wall time, its CPU
+ * time and the number of bytes allocated during the pass.
+ *
+ * The CPU time is the CPU time of the whole process, such that it includes the threads of a fork/join pool, but also
+ * e.g. the garbage collector. The allocated bytes are counted for the calling thread only, and are therefore an
+ * underestimate for a simplification on a number of threads. If the Java virtual machine doesn't support measuring
+ * the CPU time or the allocated bytes, they're reported as -1.
+ *
+ * Every pass is also emitted as a flight recorder event, if a recording is running.
+ *
+ * If the simplification was cut short because its budget was exhausted, the statistics say so.
+ */
+public final class SimplificationStats {
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000D;
+    /**
+     * The management interface of the operating system, used to measure the CPU time of the process.
+     */
+    private static final OperatingSystemMXBean OPERATING_SYSTEM_MX_BEAN = ManagementFactory.getOperatingSystemMXBean();
+    /**
+     * The management interface of the threads, used to measure the bytes allocated by the calling thread.
+     */
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    /**
+     * The dimension of the vectorial function before the simplification.
+     */
+    private final int initialDimension;
+    /**
+     * The number of applications of each rule, indexed by the ordinals of the rules.
+     */
+    private final long[] ruleCounts = new long[SimplificationRule.NUMBER_OF_RULES];
+    /**
+     * The passes that have ended, in the order in which they ended.
+     */
+    private final ModifiableOrderedCollection<Pass> passes = ModifiableOrderedCollection.empty();
+    /**
+     * The wall time when the current pass started, in nanoseconds.
+     */
+    private long passWallTimeStart;
+    /**
+     * The CPU time when the current pass started, in nanoseconds.
+     */
+    private long passCpuTimeStart;
+    /**
+     * The number of bytes allocated by the calling thread when the current pass started.
+     */
+    private long passAllocatedBytesStart;
+    /**
+     * The flight recorder event for the current pass.
+     */
+    private SimplificationPassEvent passEvent;
+    /**
+     * Whether the simplification was cut short because its budget was exhausted.
+     */
+    private boolean cutShort;
+
+    /**
+     * The statistics of a pass of the simplifier.
+     *
+     * @param name           The name of the pass.
+     * @param dimension      The dimension of the vectorial function after the pass.
+     * @param wallTime       The wall time of the pass, in nanoseconds.
+     * @param cpuTime        The CPU time of the process during the pass, in nanoseconds, or -1 if not supported.
+     * @param allocatedBytes The number of bytes allocated by the calling thread during the pass, or -1 if not
+     *                       supported.
+     */
+    public record Pass(String name, int dimension, long wallTime, long cpuTime, long allocatedBytes) {
+    }
+
+    /**
+     * Constructs empty statistics for the simplification of a vectorial function.
+     *
+     * @param initialDimension The dimension of the vectorial function before the simplification.
+     */
+    SimplificationStats(final int initialDimension) {
+        this.initialDimension = initialDimension;
+    }
+
+    /**
+     * Adds the counters of an array to the counters of the rules.
+     *
+     * @param counts The array with the counters to add, indexed by the ordinals of the rules.
+     */
+    void addRuleCounts(final long[] counts) {
+        for (int i = 0; i < ruleCounts.length; i++) {
+            ruleCounts[i] += counts[i];
+        }
+    }
+
+    /**
+     * Adds a number of applications to the counter of a rule.
+     *
+     * @param rule   The rule.
+     * @param number The number of applications.
+     */
+    void count(final SimplificationRule rule, final long number) {
+        ruleCounts[rule.ordinal()] += number;
+    }
+
+    /**
+     * Records that the simplification was cut short because its budget was exhausted.
+     */
+    void cutShort() {
+        cutShort = true;
+    }
+
+    /**
+     * Ends the current pass, and records its statistics.
+     *
+     * @param name        The name of the pass.
+     * @param definitions The table with the definitions after the pass.
+     */
+    void endPass(final String name, final DefinitionTable definitions) {
+        passEvent.end();
+        long wallTime = System.nanoTime() - passWallTimeStart;
+        long cpuTime = passCpuTimeStart < 0 ? -1L : getProcessCpuTime() - passCpuTimeStart;
+        long allocatedBytes = passAllocatedBytesStart < 0 ? -1L : getAllocatedBytes() - passAllocatedBytesStart;
+        passes.add(new Pass(name, definitions.size(), wallTime, cpuTime, allocatedBytes));
+        if (passEvent.shouldCommit()) {
+            passEvent.setPass(name);
+            passEvent.setDimension(definitions.size());
+            passEvent.setNumberOfVariables(definitions.getNumberOfVariables());
+            passEvent.commit();
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by the calling thread.
+     *
+     * @return The number of bytes allocated by the calling thread, or -1 if not supported.
+     */
+    private static long getAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+
+    /**
+     * Returns the number of times a rule was applied.
+     *
+     * @param rule The rule.
+     * @return The number of times the rule was applied.
+     */
+    public long getCount(final SimplificationRule rule) {
+        return ruleCounts[rule.ordinal()];
+    }
+
+    /**
+     * Returns the dimension of the vectorial function before the simplification.
+     *
+     * @return The dimension of the vectorial function before the simplification.
+     */
+    public int getInitialDimension() {
+        return initialDimension;
+    }
+
+    /**
+     * Returns the number of passes that have ended.
+     *
+     * @return The number of passes that have ended.
+     */
+    int getNumberOfPasses() {
+        return passes.size();
+    }
+
+    /**
+     * Returns the statistics of the passes of the simplifier, in the order in which they ran.
+     *
+     * @return The statistics of the passes.
+     */
+    public OrderedCollection<Pass> getPasses() {
+        return OrderedCollection.of(passes);
+    }
+
+    /**
+     * Returns the CPU time of the process.
+     *
+     * @return The CPU time of the process in nanoseconds, or -1 if not supported.
+     */
+    private static long getProcessCpuTime() {
+        if (OPERATING_SYSTEM_MX_BEAN instanceof com.sun.management.OperatingSystemMXBean operatingSystemMXBean) {
+            return operatingSystemMXBean.getProcessCpuTime();
+        }
+        return -1L;
+    }
+
+    /**
+     * Returns the total wall time of the passes.
+     *
+     * @return The total wall time of the passes, in nanoseconds.
+     */
+    public long getWallTime() {
+        long wallTime = 0L;
+        for (Pass pass : passes) {
+            wallTime += pass.wallTime();
+        }
+        return wallTime;
+    }
+
+    /**
+     * Returns whether the simplification was cut short because its budget was exhausted, in which case the result is
+     * the best vectorial function reached within the budget.
+     *
+     * @return True if the simplification was cut short.
+     */
+    public boolean isCutShort() {
+        return cutShort;
+    }
+
+    /**
+     * Starts a new pass.
+     */
+    void startPass() {
+        passEvent = new SimplificationPassEvent();
+        passEvent.begin();
+        passWallTimeStart = System.nanoTime();
+        passCpuTimeStart = getProcessCpuTime();
+        passAllocatedBytesStart = getAllocatedBytes();
+    }
+
+    /**
+     * Converts a duration in nanoseconds to a string in milliseconds, or -1 if not supported.
+     *
+     * @param nanoseconds The duration in nanoseconds, or -1.
+     * @return The duration in milliseconds with one decimal, or -1.
+     */
+    private static String toMilliseconds(final long nanoseconds) {
+        return nanoseconds < 0 ? "-1" : String.format("%.1f", nanoseconds / NANOSECONDS_PER_MILLISECOND);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("pass, dimension, wall time (ms), CPU time (ms), allocated bytes").append(System.lineSeparator());
+        sb.append("input, ").append(initialDimension).append(", 0.0, 0.0, 0").append(System.lineSeparator());
+        for (Pass pass : passes) {
+            sb.append(pass.name()).append(", ").append(pass.dimension()).append(", ")
+                    .append(toMilliseconds(pass.wallTime())).append(", ").append(toMilliseconds(pass.cpuTime()))
+                    .append(", ").append(pass.allocatedBytes()).append(System.lineSeparator());
+        }
+        sb.append(System.lineSeparator()).append("rule, count");
+        for (SimplificationRule rule : SimplificationRule.values()) {
+            sb.append(System.lineSeparator()).append(rule).append(", ").append(getCount(rule));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,843 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+import net.filipvanlaenen.kolektoj.Collection;
+import net.filipvanlaenen.kolektoj.ModifiableOrderedCollection;
+import net.filipvanlaenen.kolektoj.OrderedCollection;
+import net.filipvanlaenen.laconic.Laconic;
+
+/**
+ * Class simplifying vectorial functions in a single pass. The definitions in the cone of influence of the output
+ * vector are visited once in topological order, such that every definition is rewritten against the definitions of
+ * its operands that have been simplified already. Variables with structurally identical definitions are merged on the
+ * fly, and at the end, the definitions that aren't needed anymore to calculate the output vector are dropped. Operands
+ * of and and or functions that are partially absorbed by the other operands are factored, introducing fresh variables
+ * where needed.
+ *
+ * Before the symbolic simplification starts, the constants are propagated through the definitions at the bit level.
+ * If all the output variables get a known value, the result consists of constants only, and otherwise, only the
+ * definitions without a known value are simplified symbolically. Chains of identity and negation definitions are
+ * collapsed next, such that the definitions using an alias refer directly to the variable at the end of its chain.
+ *
+ * When a vectorial function extends a vectorial function that has been simplified for the same output vector, only
+ * the definitions in the transitive fan-out of the extension are rewritten, and the other definitions are taken over
+ * as they are.
+ *
+ * The simplified vectorial function carries statistics on the simplification, with the number of times each rule was
+ * applied, and the dimension, the wall time, the CPU time and the allocated bytes of each pass.
+ *
+ * A simplification can be given a budget, which is checked between the passes, and within the symbolic simplification
+ * for every chunk of definitions simplified by a task or merged on the calling thread. If the budget is exhausted, the
+ * simplification is cut short: the definitions that have been simplified are kept, the remaining definitions are taken
+ * over as they are, and the result is compacted. The result is equivalent to the input, but isn't marked as
+ * simplified for the output vector, such that an extension of it is simplified from scratch.
+ */
+public final class Simplifier {
+    /**
+     * The number of definitions below which a level is simplified without forking.
+     */
+    private static final int MINIMAL_NUMBER_OF_DEFINITIONS_TO_FORK = 32;
+    /**
+     * The maximal number of definitions simplified by a single task on the fork/join pool.
+     */
+    private static final int MAXIMAL_NUMBER_OF_DEFINITIONS_PER_TASK = 16;
+    /**
+     * The name of the pass propagating the constants.
+     */
+    private static final String CONSTANT_PROPAGATION_PASS = "constant propagation";
+    /**
+     * The name of the pass collapsing the chains of aliases.
+     */
+    private static final String ALIAS_COLLAPSING_PASS = "alias collapsing";
+    /**
+     * The name of the pass simplifying the definitions symbolically.
+     */
+    private static final String SYMBOLIC_SIMPLIFICATION_PASS = "symbolic simplification";
+    /**
+     * The name of the pass dropping the definitions that aren't needed anymore.
+     */
+    private static final String COMPACTION_PASS = "compaction";
+    /**
+     * The number of threads simplifying the definitions of a level.
+     */
+    private final int parallelism;
+
+    /**
+     * Constructs a simplifier running on the calling thread only.
+     */
+    public Simplifier() {
+        this(1);
+    }
+
+    /**
+     * Constructs a simplifier simplifying the definitions of each level on a number of threads. The result doesn't
+     * depend on the number of threads.
+     *
+     * @param parallelism The number of threads.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     */
+    public Simplifier(final int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism should be at least 1, but was " + parallelism + ".");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Simplifies a vectorial function for an output vector.
+     *
+     * The definitions are visited level by level. Since the definitions of a level don't depend on each other, they
+     * are simplified independently, on a fork/join pool if the simplifier has a parallelism larger than one. Merging
+     * variables with identical definitions is done afterwards on the calling thread, in topological order, such that
+     * the result is deterministic.
+     *
+     * @param vectorialFunction The vectorial function to simplify.
+     * @param outputVector      The output vector.
+     * @return The simplified vectorial function, carrying the statistics of the simplification.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public VectorialFunction simplify(final VectorialFunction vectorialFunction, final Word outputVector)
+            throws IllegalStateException {
+        return simplify(vectorialFunction, outputVector, new SimplificationBudget());
+    }
+
+    /**
+     * Simplifies a vectorial function for an output vector within a budget. If the budget is exhausted, the result is
+     * the best vectorial function reached so far, and its statistics report that the simplification was cut short.
+     *
+     * @param vectorialFunction The vectorial function to simplify.
+     * @param outputVector      The output vector.
+     * @param budget            The budget for the simplification.
+     * @return The simplified vectorial function, carrying the statistics of the simplification.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public VectorialFunction simplify(final VectorialFunction vectorialFunction, final Word outputVector,
+            final SimplificationBudget budget) throws IllegalStateException {
+        long startTime = System.nanoTime();
+        DefinitionTable definitions = vectorialFunction.getDefinitions();
+        SimplificationStats stats = new SimplificationStats(definitions.size());
+        stats.startPass();
+        boolean[] isOutput = markOutputs(definitions, outputVector);
+        Schedule schedule = scheduleExtension(vectorialFunction, outputVector, isOutput);
+        if (schedule == null) {
+            if (isExhausted(budget, startTime, stats)) {
+                return cutShort(definitions, outputVector, stats);
+            }
+            Laconic.LOGGER.logProgress("Simplifying a vectorial Boolean function of dimension %d...",
+                    definitions.size());
+            ConstantPropagator constants = ConstantPropagator.of(vectorialFunction);
+            stats.count(SimplificationRule.CONSTANT_PROPAGATION, constants.getNumberOfKnownDefinitions());
+            if (constants.areAllKnown(outputVector)) {
+                Laconic.LOGGER.logProgress("All output variables were evaluated to constants.");
+                DefinitionTable constantOutputs = constants.toConstantOutputs(outputVector);
+                stats.endPass(CONSTANT_PROPAGATION_PASS, constantOutputs);
+                return new VectorialFunction(constantOutputs, outputVector, stats);
+            } else if (constants.getNumberOfKnownDefinitions() > 0) {
+                Laconic.LOGGER.logProgress("%d definitions were evaluated to constants.",
+                        constants.getNumberOfKnownDefinitions());
+                definitions = constants.toSubstitutedDefinitions();
+            }
+            stats.endPass(CONSTANT_PROPAGATION_PASS, definitions);
+            stats.startPass();
+            if (isExhausted(budget, startTime, stats)) {
+                return cutShort(definitions, outputVector, stats);
+            }
+            AliasCollapser aliases = AliasCollapser.of(definitions);
+            stats.count(SimplificationRule.ALIAS_COLLAPSING, aliases.getNumberOfAliases());
+            if (aliases.getNumberOfAliases() > 0) {
+                Laconic.LOGGER.logProgress("%d aliases were collapsed to the variables at the end of their chains.",
+                        aliases.getNumberOfAliases());
+                definitions = aliases.toCollapsedDefinitions();
+            }
+            stats.endPass(ALIAS_COLLAPSING_PASS, definitions);
+            stats.startPass();
+            schedule = scheduleConeOfInfluence(definitions, vectorialFunction.getTopologicalOrder(), outputVector,
+                    isOutput);
+        }
+        if (isExhausted(budget, startTime, stats)) {
+            return cutShort(definitions, outputVector, stats);
+        }
+        int[] positions = schedule.positions();
+        boolean[] dirty = schedule.dirty();
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        HashMap<Expression, Variable> representatives = new HashMap<Expression, Variable>();
+        for (int position : positions) {
+            Expression expression = definitions.getExpression(position);
+            if (!dirty[position] && expression instanceof Function) {
+                representatives.putIfAbsent(expression, new Variable(definitions.getId(position)));
+            }
+        }
+        Factorizer factorizer = new Factorizer(vectorialFunction, outputVector, expressionFactory, representatives);
+        DefinitionTable simplified = new DefinitionTable(definitions.size());
+        DefinitionTable outputAliases = new DefinitionTable();
+        Expression[] expressions = new Expression[positions.length];
+        int numberOfSimplifiedDefinitions = 0;
+        int numberOfMergedDefinitions = 0;
+        int numberOfSimplifiedLevels = 0;
+        BooleanSupplier isBudgetExhausted = () -> isExhausted(budget, startTime, stats);
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            for (int level = 0; level < schedule.getNumberOfLevels(); level++) {
+                int start = schedule.levelStarts()[level];
+                int end = schedule.levelStarts()[level + 1];
+                if (level > 0 && isBudgetExhausted.getAsBoolean()) {
+                    putUnchanged(definitions, positions, start, simplified);
+                    break;
+                }
+                LevelTask task = new LevelTask(definitions, schedule, simplified, expressionFactory, expressions, level,
+                        isBudgetExhausted);
+                if (pool == null || end - start < MINIMAL_NUMBER_OF_DEFINITIONS_TO_FORK) {
+                    task.compute();
+                } else {
+                    pool.invoke(task);
+                }
+                stats.addRuleCounts(task.getRuleCounts());
+                boolean isLevelCutShort = task.isCutShort();
+                for (int i = start; i < end; i++) {
+                    if (!isLevelCutShort && i > start && (i - start) % MAXIMAL_NUMBER_OF_DEFINITIONS_PER_TASK == 0) {
+                        isLevelCutShort = isBudgetExhausted.getAsBoolean();
+                    }
+                    int position = positions[i];
+                    Variable variable = new Variable(definitions.getId(position));
+                    Expression expression = expressions[i];
+                    if (dirty[position] && !isLevelCutShort) {
+                        numberOfSimplifiedDefinitions++;
+                        expression = factorizer.factor(expression, simplified);
+                        if (expression instanceof Function) {
+                            Variable representative = representatives.putIfAbsent(expression, variable);
+                            if (representative != null && !isOutput[position]) {
+                                expression = expressionFactory.identity(representative);
+                                numberOfMergedDefinitions++;
+                            } else if (representative != null && !isOutput(definitions, isOutput, representative)
+                                    && !outputAliases.containsKey(representative)) {
+                                outputAliases.put(representative.id(), expressionFactory.identity(variable));
+                            }
+                        }
+                    }
+                    simplified.put(variable.id(), expression);
+                }
+                if (isLevelCutShort) {
+                    putUnchanged(definitions, positions, end, simplified);
+                    break;
+                }
+                numberOfSimplifiedLevels++;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        stats.count(SimplificationRule.FACTORING, factorizer.getNumberOfFreshVariables());
+        stats.count(SimplificationRule.MERGING, numberOfMergedDefinitions);
+        stats.endPass(SYMBOLIC_SIMPLIFICATION_PASS, simplified);
+        stats.startPass();
+        DefinitionTable result = compact(simplified, outputVector, outputAliases, definitions, expressionFactory);
+        stats.endPass(COMPACTION_PASS, result);
+        boolean isCutShort = numberOfSimplifiedLevels < schedule.getNumberOfLevels();
+        if (isCutShort) {
+            Laconic.LOGGER.logProgress("The budget was exhausted after simplifying %d of %d levels.",
+                    numberOfSimplifiedLevels, schedule.getNumberOfLevels());
+            stats.cutShort();
+        }
+        if (factorizer.getNumberOfFreshVariables() > 0) {
+            Laconic.LOGGER.logProgress("%d fresh variables were introduced while factoring definitions.",
+                    factorizer.getNumberOfFreshVariables());
+        }
+        Laconic.LOGGER.logProgress(
+                "The vectorial Boolean function was simplified to a dimension of %d, rewriting %d definitions and "
+                        + "merging %d definitions with an identical definition.",
+                result.size(), numberOfSimplifiedDefinitions, numberOfMergedDefinitions);
+        return new VectorialFunction(result, isCutShort ? null : outputVector, stats);
+    }
+
+    /**
+     * Takes over the definitions from an index in the schedule onwards as they are, because the budget of the
+     * simplification is exhausted. Since the simplified definitions keep their variables, the definitions taken over
+     * remain equivalent.
+     *
+     * @param definitions The table with the definitions to simplify.
+     * @param positions   The positions of the definitions in the schedule.
+     * @param start       The index in the schedule of the first definition to take over.
+     * @param simplified  The table with the simplified definitions.
+     */
+    private static void putUnchanged(final DefinitionTable definitions, final int[] positions, final int start,
+            final DefinitionTable simplified) {
+        for (int i = start; i < positions.length; i++) {
+            simplified.put(definitions.getId(positions[i]), definitions.getExpression(positions[i]));
+        }
+    }
+
+    /**
+     * Cuts a simplification short because its budget is exhausted, before the symbolic simplification has started.
+     * The current pass becomes the compaction pass, pruning the definitions reached so far to the cone of influence of
+     * the output vector.
+     *
+     * @param definitions  The table with the definitions reached so far.
+     * @param outputVector The output vector.
+     * @param stats        The statistics of the simplification.
+     * @return The vectorial function reached so far, not marked as simplified for the output vector.
+     */
+    private static VectorialFunction cutShort(final DefinitionTable definitions, final Word outputVector,
+            final SimplificationStats stats) {
+        Laconic.LOGGER.logProgress("The budget was exhausted before the symbolic simplification.");
+        stats.cutShort();
+        DefinitionTable result = ConeOfInfluence.of(definitions, outputVector).extract(definitions);
+        stats.endPass(COMPACTION_PASS, result);
+        return new VectorialFunction(result, null, stats);
+    }
+
+    /**
+     * Returns whether the budget of a simplification is exhausted.
+     *
+     * @param budget    The budget for the simplification.
+     * @param startTime The value of the nanosecond timer when the simplification started.
+     * @param stats     The statistics of the simplification.
+     * @return True if the budget is exhausted.
+     */
+    private static boolean isExhausted(final SimplificationBudget budget, final long startTime,
+            final SimplificationStats stats) {
+        return budget.isExhausted(System.nanoTime() - startTime, stats.getNumberOfPasses());
+    }
+
+    /**
+     * Simplifies a vectorial function for a number of output vectors at once, e.g. the words of a hash value. The
+     * vectorial function is simplified once for the union of the output vectors, such that the definitions shared by
+     * their cones of influence are simplified only once. The result for each output vector is a view on the simplified
+     * vectorial function, holding only the definitions in the cone of influence of the output vector. Variables of
+     * the other output vectors may occur in a view as intermediate variables. If the simplifier has a parallelism
+     * larger than one, the views are extracted in parallel too.
+     *
+     * @param vectorialFunction The vectorial function to simplify.
+     * @param outputVectors     The output vectors.
+     * @return The simplified vectorial functions, one for each output vector, in the order in which the collection
+     *         with the output vectors iterates, all carrying the statistics of the simplification of the union.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public OrderedCollection<VectorialFunction> simplifyAll(final VectorialFunction vectorialFunction,
+            final Collection<Word> outputVectors) throws IllegalStateException {
+        return simplifyAll(vectorialFunction, outputVectors, new SimplificationBudget());
+    }
+
+    /**
+     * Simplifies a vectorial function for a number of output vectors at once within a budget. If the budget is
+     * exhausted during the simplification, the views are extracted from the best vectorial function reached so far for
+     * the union of the output vectors. The budget is checked again before each view is extracted, and once it's
+     * exhausted, the remaining views are the vectorial function for the union itself, which calculates every output
+     * vector too.
+     *
+     * @param vectorialFunction The vectorial function to simplify.
+     * @param outputVectors     The output vectors.
+     * @param budget            The budget for the simplification.
+     * @return The simplified vectorial functions, one for each output vector, in the order in which the collection
+     *         with the output vectors iterates, all carrying the statistics of the simplification of the union.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public OrderedCollection<VectorialFunction> simplifyAll(final VectorialFunction vectorialFunction,
+            final Collection<Word> outputVectors, final SimplificationBudget budget) throws IllegalStateException {
+        long startTime = System.nanoTime();
+        Word[] words = new Word[outputVectors.size()];
+        ModifiableOrderedCollection<Variable> unionVariables = ModifiableOrderedCollection.empty();
+        int numberOfWords = 0;
+        for (Word word : outputVectors) {
+            words[numberOfWords++] = word;
+            unionVariables.addAll(word.getVariables());
+        }
+        Variable[] union = new Variable[unionVariables.size()];
+        for (int i = 0; i < union.length; i++) {
+            union[i] = unionVariables.getAt(i);
+        }
+        VectorialFunction simplified = simplify(vectorialFunction, new Word(union), budget);
+        VectorialFunction[] views = new VectorialFunction[words.length];
+        if (parallelism == 1) {
+            for (int i = 0; i < words.length; i++) {
+                views[i] = extractView(simplified, words[i], budget, startTime);
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[words.length];
+                for (int i = 0; i < words.length; i++) {
+                    int index = i;
+                    tasks[i] = pool.submit(() -> {
+                        views[index] = extractView(simplified, words[index], budget, startTime);
+                    });
+                }
+                for (ForkJoinTask<?> task : tasks) {
+                    task.join();
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return OrderedCollection.of(views);
+    }
+
+    /**
+     * Extracts the view on a simplified vectorial function for an output vector, unless the budget is exhausted.
+     *
+     * @param simplified   The vectorial function simplified for the union of the output vectors.
+     * @param outputVector The output vector.
+     * @param budget       The budget for the simplification.
+     * @param startTime    The value of the nanosecond timer when the simplification started.
+     * @return The view for the output vector, or the simplified vectorial function if the budget is exhausted.
+     */
+    private static VectorialFunction extractView(final VectorialFunction simplified, final Word outputVector,
+            final SimplificationBudget budget, final long startTime) {
+        return budget.isExhausted(System.nanoTime() - startTime) ? simplified : simplified.extractView(outputVector);
+    }
+
+    /**
+     * Schedules the definitions in the cone of influence of the output vector for simplification, level by level.
+     *
+     * @param definitions  The table with the definitions to simplify.
+     * @param order        A topological order of the definitions.
+     * @param outputVector The output vector.
+     * @param isOutput     Whether the definition at a position defines a variable of the output vector.
+     * @return A schedule with the definitions in the cone of influence, all of them to be simplified.
+     */
+    private static Schedule scheduleConeOfInfluence(final DefinitionTable definitions, final TopologicalOrder order,
+            final Word outputVector, final boolean[] isOutput) {
+        ConeOfInfluence cone = ConeOfInfluence.of(definitions, outputVector);
+        int[] positions = new int[cone.size()];
+        int[] levelStarts = new int[order.getNumberOfLevels() + 1];
+        boolean[] dirty = new boolean[definitions.size()];
+        int numberOfPositions = 0;
+        for (int level = 0; level < order.getNumberOfLevels(); level++) {
+            for (int i = order.getLevelStart(level); i < order.getLevelEnd(level); i++) {
+                int position = order.get(i);
+                if (cone.contains(position)) {
+                    positions[numberOfPositions++] = position;
+                    dirty[position] = true;
+                }
+            }
+            levelStarts[level + 1] = numberOfPositions;
+        }
+        return new Schedule(positions, levelStarts, dirty, isOutput);
+    }
+
+    /**
+     * Schedules the definitions of an extension of a vectorial function that has been simplified for the same output
+     * vector. The definitions of the extension are scheduled as the first level, followed by the levels of the
+     * simplified vectorial function, of which only the transitive fan-out of the extension is to be simplified.
+     *
+     * @param vectorialFunction The vectorial function to simplify.
+     * @param outputVector      The output vector.
+     * @param isOutput          Whether the definition at a position defines a variable of the output vector.
+     * @return A schedule for the extension, or null if the vectorial function isn't an independent extension of a
+     *         vectorial function that has been simplified for the output vector.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    private static Schedule scheduleExtension(final VectorialFunction vectorialFunction, final Word outputVector,
+            final boolean[] isOutput) throws IllegalStateException {
+        VectorialFunction parent = vectorialFunction.getParent();
+        DefinitionTable definitions = vectorialFunction.getDefinitions();
+        if (parent == null || !parent.isSimplifiedFor(outputVector)
+                || !isIndependentExtension(definitions, parent.getDefinitions().size())) {
+            return null;
+        }
+        DefinitionTable parentDefinitions = parent.getDefinitions();
+        int parentSize = parentDefinitions.size();
+        int size = definitions.size();
+        int[] extensionIds = new int[size - parentSize];
+        for (int i = 0; i < extensionIds.length; i++) {
+            extensionIds[i] = definitions.getId(parentSize + i);
+        }
+        Laconic.LOGGER.logProgress("Re-simplifying the definitions affected by an extension of %d definitions...",
+                extensionIds.length);
+        boolean[] dirty =
+                Arrays.copyOf(parent.getFanOutIndex().markTransitiveFanOut(extensionIds, parentDefinitions), size);
+        Arrays.fill(dirty, parentSize, size, true);
+        TopologicalOrder parentOrder = parent.getTopologicalOrder();
+        int[] positions = new int[size];
+        for (int i = 0; i < extensionIds.length; i++) {
+            positions[i] = parentSize + i;
+        }
+        for (int i = 0; i < parentSize; i++) {
+            positions[extensionIds.length + i] = parentOrder.get(i);
+        }
+        int[] levelStarts = new int[parentOrder.getNumberOfLevels() + 2];
+        levelStarts[1] = extensionIds.length;
+        for (int level = 0; level < parentOrder.getNumberOfLevels(); level++) {
+            levelStarts[level + 2] = extensionIds.length + parentOrder.getLevelEnd(level);
+        }
+        return new Schedule(positions, levelStarts, dirty, isOutput);
+    }
+
+    /**
+     * Returns whether the definitions added by an extension are independent of all the definitions in the table, such
+     * that they can be visited before the definitions of the vectorial function that was extended.
+     *
+     * @param definitions The table with the definitions of the extended vectorial function.
+     * @param parentSize  The number of definitions in the vectorial function that was extended.
+     * @return True if none of the definitions added by the extension uses a defined variable.
+     */
+    private static boolean isIndependentExtension(final DefinitionTable definitions, final int parentSize) {
+        for (int position = parentSize; position < definitions.size(); position++) {
+            for (int i = 0; i < definitions.getNumberOfOperands(position); i++) {
+                if (definitions.getPosition(definitions.getOperandId(position, i)) >= 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Simplifies an expression against a table with simplified definitions, until it doesn't change anymore. A
+     * definition of a variable that isn't an output variable isn't expanded anymore once it has been reduced to a
+     * single literal, since the variables using it will take over the literal, such that the variable isn't needed
+     * anymore.
+     *
+     * @param expression        The expression.
+     * @param simplified        The table with the simplified definitions of the operands.
+     * @param isOutput          Whether the expression defines a variable of the output vector.
+     * @param expressionFactory The expression factory sharing structurally identical expressions.
+     * @param ruleCounts        The array with a counter for each rule, indexed by the ordinals of the rules.
+     * @return The simplified expression.
+     */
+    private static Expression simplify(final Expression expression, final DefinitionTable simplified,
+            final boolean isOutput, final ExpressionFactory expressionFactory, final long[] ruleCounts) {
+        Expression current = simplify(expression, ruleCounts);
+        while (true) {
+            if (!isOutput && isLiteral(current)) {
+                return expressionFactory.intern(resolveLiteral(current, simplified, ruleCounts));
+            }
+            Expression next =
+                    expressionFactory.intern(simplify(simplify(current, simplified, ruleCounts), ruleCounts));
+            if (next == current) {
+                return current;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Simplifies an expression on its own, counting the rules applied.
+     *
+     * @param expression The expression.
+     * @param ruleCounts The array with a counter for each rule, indexed by the ordinals of the rules.
+     * @return The simplified expression.
+     */
+    private static Expression simplify(final Expression expression, final long[] ruleCounts) {
+        if (expression instanceof AndFunction andFunction) {
+            return andFunction.simplify(ruleCounts);
+        } else if (expression instanceof OrFunction orFunction) {
+            return orFunction.simplify(ruleCounts);
+        } else if (expression instanceof XorFunction xorFunction) {
+            return xorFunction.simplify(ruleCounts);
+        }
+        return expression.simplify();
+    }
+
+    /**
+     * Simplifies an expression against a table with simplified definitions, counting the rules applied. A single
+     * literal resolved against the table is counted as literal folding.
+     *
+     * @param expression The expression.
+     * @param simplified The table with the simplified definitions of the operands.
+     * @param ruleCounts The array with a counter for each rule, indexed by the ordinals of the rules.
+     * @return The simplified expression.
+     */
+    private static Expression simplify(final Expression expression, final DefinitionTable simplified,
+            final long[] ruleCounts) {
+        if (expression instanceof AndFunction andFunction) {
+            return andFunction.simplify(simplified, ruleCounts);
+        } else if (expression instanceof OrFunction orFunction) {
+            return orFunction.simplify(simplified, ruleCounts);
+        } else if (expression instanceof XorFunction xorFunction) {
+            return xorFunction.simplify(simplified, ruleCounts);
+        }
+        Expression result = expression.simplify(simplified);
+        if (result != expression) {
+            SimplificationRule.LITERAL_FOLDING.count(ruleCounts);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves a single literal against a table with simplified definitions, without expanding the definition of its
+     * variable if it's a function.
+     *
+     * @param expression The identity or negation expression.
+     * @param simplified The table with the simplified definitions.
+     * @param ruleCounts The array with a counter for each rule, indexed by the ordinals of the rules.
+     * @return The literal, a literal with the variable it's an alias of, or a literal expression.
+     */
+    private static Expression resolveLiteral(final Expression expression, final DefinitionTable simplified,
+            final long[] ruleCounts) {
+        int literal = expression instanceof IdentityExpression identityExpression ? identityExpression.literal()
+                : ((NegationExpression) expression).literal();
+        Expression definition = simplified.get(Literals.id(literal));
+        boolean negated = Literals.isNegated(literal);
+        if (definition instanceof LiteralExpression) {
+            SimplificationRule.CONSTANT_FOLDING.count(ruleCounts);
+            return (LiteralExpression.TRUE == definition) != negated ? LiteralExpression.TRUE : LiteralExpression.FALSE;
+        } else if (definition instanceof IdentityExpression identityExpression) {
+            SimplificationRule.LITERAL_FOLDING.count(ruleCounts);
+            return Literals.toExpression(Literals.negateIf(identityExpression.literal(), negated));
+        } else if (definition instanceof NegationExpression negationExpression) {
+            SimplificationRule.LITERAL_FOLDING.count(ruleCounts);
+            return Literals.toExpression(Literals.negateIf(negationExpression.literal(), negated));
+        }
+        return expression;
+    }
+
+    /**
+     * Returns whether a variable is a variable of the output vector. Fresh variables introduced during the
+     * simplification aren't defined in the original table, and are therefore never output variables.
+     *
+     * @param definitions The original table with the definitions.
+     * @param isOutput    Whether the definition at a position in the original table defines an output variable.
+     * @param variable    The variable.
+     * @return True if the variable is a variable of the output vector.
+     */
+    private static boolean isOutput(final DefinitionTable definitions, final boolean[] isOutput,
+            final Variable variable) {
+        int position = definitions.getPosition(variable.id());
+        return position >= 0 && isOutput[position];
+    }
+
+    /**
+     * Returns whether an expression is a single literal, i.e. an identity or a negation expression.
+     *
+     * @param expression The expression.
+     * @return True if the expression is an identity or a negation expression.
+     */
+    private static boolean isLiteral(final Expression expression) {
+        return expression instanceof IdentityExpression || expression instanceof NegationExpression;
+    }
+
+    /**
+     * Drops the definitions that aren't needed to calculate the output vector, i.e. the definitions outside its cone
+     * of influence. If no output variables have to replace representatives and the result is stored on the heap, the
+     * dead definitions are dropped in place from the simplified table.
+     *
+     * Variables that were chosen as the representative of a definition before an output variable with the same
+     * definition was encountered, are replaced by the output variable, whose definition is moved to the position of
+     * the representative, such that the result remains in topological order.
+     *
+     * @param simplified        The table with the simplified definitions, in topological order.
+     * @param outputVector      The output vector.
+     * @param outputAliases     A table mapping representatives to the output variable replacing them.
+     * @param original          The original table, determining whether the result is stored off the heap.
+     * @param expressionFactory The expression factory sharing structurally identical expressions.
+     * @return A table with only the definitions needed to calculate the output vector.
+     */
+    private static DefinitionTable compact(final DefinitionTable simplified, final Word outputVector,
+            final DefinitionTable outputAliases, final DefinitionTable original,
+            final ExpressionFactory expressionFactory) {
+        ConeOfInfluence cone = ConeOfInfluence.of(simplified, outputVector);
+        if (outputAliases.size() == 0 && !original.isOffHeap()) {
+            cone.prune(simplified);
+            return simplified;
+        }
+        int n = simplified.size();
+        boolean[] moved = new boolean[n];
+        for (int i = 0; i < outputAliases.size(); i++) {
+            if (cone.contains(simplified.getPosition(outputAliases.getId(i)))) {
+                IdentityExpression alias = (IdentityExpression) outputAliases.getExpression(i);
+                moved[simplified.getPosition(alias.variable().id())] = true;
+            }
+        }
+        DefinitionTable result = original.createEmpty(cone.size());
+        for (int position = 0; position < n; position++) {
+            if (cone.contains(position) && !moved[position]) {
+                int id = simplified.getId(position);
+                Expression expression = simplified.getExpression(position);
+                Expression alias = outputAliases.get(id);
+                if (alias != null) {
+                    id = ((IdentityExpression) alias).variable().id();
+                }
+                if (outputAliases.size() > 0) {
+                    expression = expressionFactory.intern(expression.simplify(outputAliases).simplify());
+                }
+                result.put(id, expression);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marks the definitions of the variables of the output vector.
+     *
+     * @param definitions  The table with the definitions.
+     * @param outputVector The output vector.
+     * @return An array indicating for each position whether its definition defines a variable of the output vector.
+     */
+    private static boolean[] markOutputs(final DefinitionTable definitions, final Word outputVector) {
+        boolean[] isOutput = new boolean[definitions.size()];
+        for (Variable variable : outputVector.getVariables()) {
+            int position = definitions.getPosition(variable.id());
+            if (position >= 0) {
+                isOutput[position] = true;
+            }
+        }
+        return isOutput;
+    }
+
+    /**
+     * A schedule for a simplification pass, listing the positions of the definitions to visit grouped by level, such
+     * that the definitions of a level don't depend on each other, and marking the definitions to be simplified.
+     *
+     * @param positions   The positions of the definitions to visit, level by level.
+     * @param levelStarts The index in the positions where each level starts, followed by the number of positions.
+     * @param dirty       Whether the definition at a position in the table is to be simplified.
+     * @param isOutput    Whether the definition at a position in the table defines a variable of the output vector.
+     */
+    private record Schedule(int[] positions, int[] levelStarts, boolean[] dirty, boolean[] isOutput) {
+        /**
+         * Returns the number of levels in the schedule.
+         *
+         * @return The number of levels in the schedule.
+         */
+        int getNumberOfLevels() {
+            return levelStarts.length - 1;
+        }
+    }
+
+    /**
+     * Task simplifying a range of the definitions of a level, splitting itself in halves when it runs on a fork/join
+     * pool and the range is large. Every definition is written to its own slot in the array with the results, such
+     * that the results don't depend on how the range was split. The rules applied are counted per task, and the
+     * counters of the halves are added up when they have completed.
+     *
+     * The budget is checked before every chunk of definitions. Once it's exhausted, the remaining definitions of the
+     * task are written to the array with the results as they are, and the task reports that it was cut short.
+     */
+    private static final class LevelTask extends RecursiveAction {
+        /**
+         * The serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The table with the definitions to simplify.
+         */
+        private final DefinitionTable definitions;
+        /**
+         * The schedule of the simplification pass.
+         */
+        private final Schedule schedule;
+        /**
+         * The table with the simplified definitions of the lower levels.
+         */
+        private final DefinitionTable simplified;
+        /**
+         * The expression factory sharing structurally identical expressions.
+         */
+        private final ExpressionFactory expressionFactory;
+        /**
+         * The array receiving the simplified expressions, indexed as the positions in the schedule.
+         */
+        private final Expression[] results;
+        /**
+         * The index in the schedule of the first definition in the range.
+         */
+        private final int start;
+        /**
+         * The index in the schedule just after the last definition in the range.
+         */
+        private final int end;
+        /**
+         * The supplier telling whether the budget of the simplification is exhausted.
+         */
+        private final BooleanSupplier isBudgetExhausted;
+        /**
+         * Whether the budget was exhausted before all the definitions in the range were simplified.
+         */
+        private boolean cutShort;
+        /**
+         * The number of applications of each rule while simplifying the range, indexed by the ordinals of the rules.
+         */
+        private final long[] ruleCounts = new long[SimplificationRule.NUMBER_OF_RULES];
+
+        /**
+         * Constructs a task simplifying the definitions of a level.
+         *
+         * @param definitions       The table with the definitions to simplify.
+         * @param schedule          The schedule of the simplification pass.
+         * @param simplified        The table with the simplified definitions of the lower levels.
+         * @param expressionFactory The expression factory sharing structurally identical expressions.
+         * @param results           The array receiving the simplified expressions.
+         * @param level             The level.
+         * @param isBudgetExhausted The supplier telling whether the budget of the simplification is exhausted.
+         */
+        LevelTask(final DefinitionTable definitions, final Schedule schedule, final DefinitionTable simplified,
+                final ExpressionFactory expressionFactory, final Expression[] results, final int level,
+                final BooleanSupplier isBudgetExhausted) {
+            this.definitions = definitions;
+            this.schedule = schedule;
+            this.simplified = simplified;
+            this.expressionFactory = expressionFactory;
+            this.results = results;
+            this.start = schedule.levelStarts()[level];
+            this.end = schedule.levelStarts()[level + 1];
+            this.isBudgetExhausted = isBudgetExhausted;
+        }
+
+        /**
+         * Constructs a task simplifying a part of the range of another task.
+         *
+         * @param parent The task of which the range is split.
+         * @param start  The index in the schedule of the first definition in the range.
+         * @param end    The index in the schedule just after the last definition in the range.
+         */
+        private LevelTask(final LevelTask parent, final int start, final int end) {
+            this.definitions = parent.definitions;
+            this.schedule = parent.schedule;
+            this.simplified = parent.simplified;
+            this.expressionFactory = parent.expressionFactory;
+            this.results = parent.results;
+            this.start = start;
+            this.end = end;
+            this.isBudgetExhausted = parent.isBudgetExhausted;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > MAXIMAL_NUMBER_OF_DEFINITIONS_PER_TASK && inForkJoinPool()) {
+                int middle = (start + end) >>> 1;
+                LevelTask lower = new LevelTask(this, start, middle);
+                LevelTask upper = new LevelTask(this, middle, end);
+                invokeAll(lower, upper);
+                for (int i = 0; i < ruleCounts.length; i++) {
+                    ruleCounts[i] = lower.ruleCounts[i] + upper.ruleCounts[i];
+                }
+                cutShort = lower.cutShort || upper.cutShort;
+            } else {
+                for (int i = start; i < end; i++) {
+                    if (!cutShort && (i - start) % MAXIMAL_NUMBER_OF_DEFINITIONS_PER_TASK == 0) {
+                        cutShort = isBudgetExhausted.getAsBoolean();
+                    }
+                    int position = schedule.positions()[i];
+                    Expression expression = definitions.getExpression(position);
+                    results[i] = schedule.dirty()[position] && !cutShort ? simplify(expression, simplified,
+                            schedule.isOutput()[position], expressionFactory, ruleCounts) : expression;
+                }
+            }
+        }
+
+        /**
+         * Returns the number of applications of each rule while simplifying the range.
+         *
+         * @return The number of applications of each rule, indexed by the ordinals of the rules.
+         */
+        long[] getRuleCounts() {
+            return ruleCounts;
+        }
+
+        /**
+         * Returns whether the budget was exhausted before all the definitions in the range were simplified.
+         *
+         * @return True if some of the definitions in the range were written to the results as they are.
+         */
+        boolean isCutShort() {
+            return cutShort;
+        }
+    }
+}
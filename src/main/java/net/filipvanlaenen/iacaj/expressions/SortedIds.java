@@ -0,0 +1,184 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+
+import net.filipvanlaenen.kolektoj.Collection;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Utility class with operations on sorted arrays of variable IDs. All operations run in a single linear scan over
+ * their arguments.
+ */
+final class SortedIds {
+    /**
+     * An empty array of IDs.
+     */
+    static final int[] EMPTY = new int[0];
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private SortedIds() {
+    }
+
+    /**
+     * Returns a sorted array with the IDs of the variables in a collection, keeping duplicates.
+     *
+     * @param variables The variables.
+     * @return A sorted array with the IDs of the variables.
+     */
+    static int[] of(final Collection<Variable> variables) {
+        if (variables.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[variables.size()];
+        int i = 0;
+        for (Variable variable : variables) {
+            ids[i++] = variable.id();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns a sorted array in which IDs occurring an even number of times in a sorted array are removed and IDs
+     * occurring an odd number of times are kept once, or the array itself if it doesn't contain duplicates.
+     *
+     * @param ids A sorted array of IDs.
+     * @return A sorted array with the IDs occurring an odd number of times.
+     */
+    static int[] cancelPairs(final int[] ids) {
+        int length = ids.length;
+        int[] result = null;
+        int n = 0;
+        int i = 0;
+        while (i < length) {
+            int j = i + 1;
+            while (j < length && ids[j] == ids[i]) {
+                j++;
+            }
+            if (result == null && j - i > 1) {
+                result = Arrays.copyOf(ids, length);
+            }
+            if ((j - i) % 2 == 1) {
+                if (result != null) {
+                    result[n] = ids[i];
+                }
+                n++;
+            }
+            i = j;
+        }
+        return result == null ? ids : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Returns a sorted array without the duplicates from a sorted array, or the array itself if it doesn't contain
+     * duplicates.
+     *
+     * @param ids A sorted array of IDs.
+     * @return A sorted array without duplicates.
+     */
+    static int[] distinct(final int[] ids) {
+        int length = ids.length;
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                n++;
+            }
+        }
+        if (n == length) {
+            return ids;
+        }
+        int[] result = new int[n];
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                result[j++] = ids[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether two sorted arrays have an ID in common.
+     *
+     * @param a The first sorted array.
+     * @param b The second sorted array.
+     * @return True if the two sorted arrays have an ID in common.
+     */
+    static boolean intersects(final int[] a, final int[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Joins the names of the variables having the IDs in the array with a separator.
+     *
+     * @param ids       An array of IDs.
+     * @param separator The separator.
+     * @return A string with the names of the variables joined with the separator.
+     */
+    static String joinNames(final int[] ids, final String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(VariableTable.getName(ids[i]));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Merges two sorted arrays into one sorted array, keeping duplicates.
+     *
+     * @param a The first sorted array.
+     * @param b The second sorted array.
+     * @return A sorted array with the IDs of both arrays.
+     */
+    static int[] merge(final int[] a, final int[] b) {
+        if (a.length == 0) {
+            return b;
+        } else if (b.length == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        while (i < a.length) {
+            result[k++] = a[i++];
+        }
+        while (j < b.length) {
+            result[k++] = b[j++];
+        }
+        return result;
+    }
+
+    /**
+     * Returns a value collection with the variables having the IDs in the array.
+     *
+     * @param ids An array of IDs.
+     * @return A value collection with the variables.
+     */
+    static ValueCollection<Variable> toVariables(final int[] ids) {
+        Variable[] variables = new Variable[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            variables[i] = new Variable(ids[i]);
+        }
+        return ValueCollection.of(variables);
+    }
+}
@@ -0,0 +1,179 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+
+/**
+ * A topological order of the definitions in a table, such that every definition comes after the definitions of the
+ * variables it depends on. The definitions are grouped by level, where a definition has level zero if it doesn't
+ * depend on any defined variable, and otherwise a level one higher than the highest level of the variables it depends
+ * on. Within a level, the definitions keep the order they have in the table, such that the order is deterministic.
+ *
+ * The order is computed once, without recursion, and refers to the definitions by their positions in the table, such
+ * that consumers can walk the table linearly, one level after the other.
+ */
+final class TopologicalOrder {
+    /**
+     * The positions of the definitions in the table, in topological order.
+     */
+    private final int[] order;
+    /**
+     * The level of each definition, indexed on its position in the table.
+     */
+    private final int[] levels;
+    /**
+     * The index in the order where each level starts, with an extra element at the end for the size of the table.
+     */
+    private final int[] levelStarts;
+
+    /**
+     * Constructs a topological order from its arrays.
+     *
+     * @param order       The positions of the definitions in topological order.
+     * @param levels      The level of each definition, indexed on its position in the table.
+     * @param levelStarts The index in the order where each level starts, followed by the size of the table.
+     */
+    private TopologicalOrder(final int[] order, final int[] levels, final int[] levelStarts) {
+        this.order = order;
+        this.levels = levels;
+        this.levelStarts = levelStarts;
+    }
+
+    /**
+     * Computes the topological order of the definitions in a table.
+     *
+     * @param table The table with the definitions.
+     * @return The topological order of the definitions in the table.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    static TopologicalOrder of(final DefinitionTable table) throws IllegalStateException {
+        int n = table.size();
+        int[] operandStarts = new int[n + 1];
+        int[] operands = new int[Math.max(1, n)];
+        int numberOfOperands = 0;
+        for (int position = 0; position < n; position++) {
+            operandStarts[position] = numberOfOperands;
+            for (int i = 0; i < table.getNumberOfOperands(position); i++) {
+                int operand = table.getPosition(table.getOperandId(position, i));
+                if (operand >= 0) {
+                    if (numberOfOperands == operands.length) {
+                        operands = Arrays.copyOf(operands, numberOfOperands * 2);
+                    }
+                    operands[numberOfOperands++] = operand;
+                }
+            }
+        }
+        operandStarts[n] = numberOfOperands;
+        int[] fanOutStarts = new int[n + 1];
+        for (int i = 0; i < numberOfOperands; i++) {
+            fanOutStarts[operands[i] + 1]++;
+        }
+        for (int position = 0; position < n; position++) {
+            fanOutStarts[position + 1] += fanOutStarts[position];
+        }
+        int[] fanOuts = new int[numberOfOperands];
+        int[] fill = Arrays.copyOf(fanOutStarts, n);
+        int[] pending = new int[n];
+        for (int position = 0; position < n; position++) {
+            pending[position] = operandStarts[position + 1] - operandStarts[position];
+            for (int i = operandStarts[position]; i < operandStarts[position + 1]; i++) {
+                fanOuts[fill[operands[i]]++] = position;
+            }
+        }
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int position = 0; position < n; position++) {
+            if (pending[position] == 0) {
+                queue[tail++] = position;
+            }
+        }
+        int[] levels = new int[n];
+        int numberOfLevels = n == 0 ? 0 : 1;
+        while (head < tail) {
+            int position = queue[head++];
+            int level = levels[position];
+            for (int i = fanOutStarts[position]; i < fanOutStarts[position + 1]; i++) {
+                int user = fanOuts[i];
+                levels[user] = Math.max(levels[user], level + 1);
+                numberOfLevels = Math.max(numberOfLevels, level + 2);
+                if (--pending[user] == 0) {
+                    queue[tail++] = user;
+                }
+            }
+        }
+        if (tail < n) {
+            throw new IllegalStateException("The definitions contain a cycle.");
+        }
+        int[] levelStarts = new int[numberOfLevels + 1];
+        for (int position = 0; position < n; position++) {
+            levelStarts[levels[position] + 1]++;
+        }
+        for (int level = 0; level < numberOfLevels; level++) {
+            levelStarts[level + 1] += levelStarts[level];
+        }
+        int[] order = new int[n];
+        int[] next = Arrays.copyOf(levelStarts, numberOfLevels);
+        for (int position = 0; position < n; position++) {
+            order[next[levels[position]]++] = position;
+        }
+        return new TopologicalOrder(order, levels, levelStarts);
+    }
+
+    /**
+     * Returns the position in the table of the definition at an index in the topological order.
+     *
+     * @param index The index in the topological order, between zero and the size of the table.
+     * @return The position in the table of the definition at the index.
+     */
+    int get(final int index) {
+        return order[index];
+    }
+
+    /**
+     * Returns the level of the definition at a position in the table.
+     *
+     * @param position The position in the table.
+     * @return The level of the definition at the position.
+     */
+    int getLevel(final int position) {
+        return levels[position];
+    }
+
+    /**
+     * Returns the index in the topological order where the definitions after a level start.
+     *
+     * @param level The level.
+     * @return The index in the topological order just after the last definition of the level.
+     */
+    int getLevelEnd(final int level) {
+        return levelStarts[level + 1];
+    }
+
+    /**
+     * Returns the index in the topological order where the definitions of a level start.
+     *
+     * @param level The level.
+     * @return The index in the topological order of the first definition of the level.
+     */
+    int getLevelStart(final int level) {
+        return levelStarts[level];
+    }
+
+    /**
+     * Returns the number of levels.
+     *
+     * @return The number of levels.
+     */
+    int getNumberOfLevels() {
+        return levelStarts.length - 1;
+    }
+
+    /**
+     * Returns the number of definitions in the topological order.
+     *
+     * @return The number of definitions.
+     */
+    int size() {
+        return order.length;
+    }
+}
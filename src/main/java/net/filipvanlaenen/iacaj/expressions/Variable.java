@@ -1,8 +1,43 @@
 package net.filipvanlaenen.iacaj.expressions;
 
-public record Variable(String name) {
+/**
+ * A variable, identified by the dense integer ID under which its name is interned in the variable table.
+ *
+ * @param id The ID of the variable.
+ */
+public record Variable(int id) {
+    /**
+     * Compact constructor verifying that the ID has been handed out by the variable table.
+     *
+     * @param id The ID of the variable.
+     * @throws IllegalArgumentException Thrown if no name has been interned for the ID.
+     */
+    public Variable {
+        if (id < 0 || id >= VariableTable.size()) {
+            throw new IllegalArgumentException("No variable has been interned with ID " + id + ".");
+        }
+    }
+
+    /**
+     * Constructor using the name of the variable, interning the name in the variable table.
+     *
+     * @param name The name of the variable.
+     */
+    public Variable(final String name) {
+        this(VariableTable.intern(name));
+    }
+
+    /**
+     * Returns the name of the variable.
+     *
+     * @return The name of the variable.
+     */
+    public String name() {
+        return VariableTable.getName(id);
+    }
+
     @Override
     public String toString() {
-        return name;
+        return name();
     }
 }
@@ -0,0 +1,97 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class interning the names of the variables to dense integer IDs. Variables only carry their ID, such that comparing
+ * and hashing them doesn't require string operations. A name is interned when a variable is constructed from it, e.g.
+ * by the builders, the parser or the factorizer, and only looked up again when a variable is printed.
+ *
+ * Looking up an ID or a name doesn't take a lock: the names are held in an append-only array published through a
+ * volatile reference, and the IDs in a concurrent map. Only interning a new name takes a lock.
+ *
+ * The table is global, such that variables can be shared between vectorial functions.
+ */
+public final class VariableTable {
+    /**
+     * The initial capacity of the table with names.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * A map mapping the names to their IDs.
+     */
+    private static final ConcurrentHashMap<String, Integer> NAME_TO_ID_MAP = new ConcurrentHashMap<String, Integer>();
+    /**
+     * The lock taken to intern a new name.
+     */
+    private static final Object LOCK = new Object();
+    /**
+     * The names of the variables, indexed by their ID. A new array is published when the table grows.
+     */
+    private static volatile String[] names = new String[INITIAL_CAPACITY];
+    /**
+     * The number of interned names, published after the name has been written to the array.
+     */
+    private static volatile int size;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private VariableTable() {
+    }
+
+    /**
+     * Returns the name of the variable with the provided ID.
+     *
+     * @param id The ID of the variable.
+     * @return The name of the variable with the provided ID.
+     * @throws IllegalArgumentException Thrown if no name has been interned for the ID.
+     */
+    static String getName(final int id) throws IllegalArgumentException {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("No variable has been interned with ID " + id + ".");
+        }
+        return names[id];
+    }
+
+    /**
+     * Returns the ID for a name, interning the name if it hasn't been interned before.
+     *
+     * @param name The name of the variable.
+     * @return The ID of the variable with the provided name.
+     */
+    static int intern(final String name) {
+        Integer id = NAME_TO_ID_MAP.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (LOCK) {
+            id = NAME_TO_ID_MAP.get(name);
+            if (id != null) {
+                return id;
+            }
+            int newId = size;
+            String[] current = names;
+            if (newId == current.length) {
+                current = Arrays.copyOf(current, newId * 2);
+                current[newId] = name;
+                names = current;
+            } else {
+                current[newId] = name;
+            }
+            size = newId + 1;
+            NAME_TO_ID_MAP.put(name, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Returns the number of interned names. All IDs handed out are smaller than this number.
+     *
+     * @return The number of interned names.
+     */
+    public static int size() {
+        return size;
+    }
+}
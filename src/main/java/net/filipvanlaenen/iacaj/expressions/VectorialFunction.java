@@ -1,9 +1,8 @@
 package net.filipvanlaenen.iacaj.expressions;
 
-import java.util.stream.Collectors;
-
+import net.filipvanlaenen.kolektoj.Collection;
 import net.filipvanlaenen.kolektoj.Map;
-import net.filipvanlaenen.kolektoj.ModifiableMap;
+import net.filipvanlaenen.kolektoj.OrderedCollection;
 import net.filipvanlaenen.laconic.Laconic;
 
 /**
@@ -12,9 +11,32 @@ import net.filipvanlaenen.laconic.Laconic;
  */
 public final class VectorialFunction {
     /**
-     * A map mapping the variables to their expressions.
+     * A table mapping the variables to their expressions.
+     */
+    private final DefinitionTable definitions;
+    /**
+     * The vectorial function this vectorial function is an extension of, or null if it isn't an extension sharing the
+     * definitions of another vectorial function.
+     */
+    private final VectorialFunction parent;
+    /**
+     * The output vector this vectorial function has been simplified for, or null if it isn't the result of a
+     * simplification.
+     */
+    private final Word simplifiedFor;
+    /**
+     * The statistics of the simplification this vectorial function is the result of, or null if it isn't the result of
+     * a simplification.
+     */
+    private final SimplificationStats simplificationStats;
+    /**
+     * The topological order of the definitions, computed once on first use.
+     */
+    private TopologicalOrder topologicalOrder;
+    /**
+     * The fan-out index of the definitions, computed once on first use.
      */
-    private final Map<Variable, Expression> variableToExpressionMap;
+    private FanOutIndex fanOutIndex;
 
     /**
      * Constructs a vectorial function from a map of variables and expressions.
@@ -22,47 +44,435 @@ public final class VectorialFunction {
      * @param variableToExpressionMap A map with the variables and their expressions.
      */
     public VectorialFunction(final Map<Variable, Expression> variableToExpressionMap) {
-        this.variableToExpressionMap = Map.of(variableToExpressionMap);
+        this(DefinitionTable.of(variableToExpressionMap));
+    }
+
+    /**
+     * Constructs a vectorial function from a table with definitions. The table is taken over, and shouldn't be
+     * modified afterwards.
+     *
+     * @param definitions A table with the variables and their expressions.
+     */
+    VectorialFunction(final DefinitionTable definitions) {
+        this(definitions, null, null, null);
+    }
+
+    /**
+     * Constructs a vectorial function from a table with definitions that has been simplified for an output vector. The
+     * table is taken over, and shouldn't be modified afterwards.
+     *
+     * @param definitions         A table with the variables and their simplified expressions.
+     * @param simplifiedFor       The output vector the definitions have been simplified for.
+     * @param simplificationStats The statistics of the simplification.
+     */
+    VectorialFunction(final DefinitionTable definitions, final Word simplifiedFor,
+            final SimplificationStats simplificationStats) {
+        this(definitions, null, simplifiedFor, simplificationStats);
+    }
+
+    /**
+     * Constructs a vectorial function from a table with definitions, the vectorial function it extends, the output
+     * vector it has been simplified for and the statistics of that simplification.
+     *
+     * @param definitions         A table with the variables and their expressions.
+     * @param parent              The vectorial function this vectorial function is an extension of, or null.
+     * @param simplifiedFor       The output vector the definitions have been simplified for, or null.
+     * @param simplificationStats The statistics of the simplification, or null.
+     */
+    private VectorialFunction(final DefinitionTable definitions, final VectorialFunction parent,
+            final Word simplifiedFor, final SimplificationStats simplificationStats) {
+        this.definitions = definitions;
+        this.parent = parent;
+        this.simplifiedFor = simplifiedFor;
+        this.simplificationStats = simplificationStats;
     }
 
     public boolean containsSame(VectorialFunction result) {
-        return variableToExpressionMap.containsSame(result.variableToExpressionMap);
+        return definitions.containsSame(result.definitions);
     }
 
-    public VectorialFunction extendWith(ModifiableMap<Variable, Expression> message) {
-        return new VectorialFunction(Map.unionOf(variableToExpressionMap, message));
+    /**
+     * Returns a vectorial function extending this vectorial function with the definitions in a map. The extended
+     * vectorial function shares the definitions of this vectorial function, such that extending it costs time and
+     * memory proportional to the size of the map only.
+     *
+     * If this vectorial function has been simplified, and the map only fixes variables that are input variables of
+     * this vectorial function, simplifying the extended vectorial function for the same output vector re-simplifies
+     * only the definitions in the transitive fan-out of the variables in the map. Changing the fixed variables can be
+     * done by extending this vectorial function again with another map.
+     *
+     * @param message The map with the definitions to extend the vectorial function with.
+     * @return A vectorial function extending this vectorial function with the definitions in the map.
+     */
+    public VectorialFunction extendWith(final Map<Variable, Expression> message) {
+        DefinitionTable extendedDefinitions = definitions.extendWith(message);
+        return new VectorialFunction(extendedDefinitions, extendedDefinitions.isOverlayOf(definitions) ? this : null,
+                null, null);
     }
 
-    private void recursivelyAdd(ModifiableMap<Variable, Expression> map, Variable variable,
-            Map<Variable, Expression> oldMap) {
-        if (!map.containsKey(variable) && oldMap.containsKey(variable)) {
-            Expression expression = oldMap.get(variable).simplify().simplify(oldMap).simplify();
-            map.add(variable, expression);
-            for (Variable v : expression.getVariables()) {
-                recursivelyAdd(map, v, oldMap);
-            }
+    /**
+     * Returns the table with the variables and their expressions.
+     *
+     * @return The table with the variables and their expressions.
+     */
+    DefinitionTable getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * Returns the vectorial function with its common subexpressions eliminated. A definition that's structurally
+     * identical to a definition visited before it in topological order is removed, and its variable is replaced by the
+     * variable of the earlier definition in the definitions using it. Apart from folding in constants, no other
+     * rewriting takes place, such that the elimination is a lot cheaper than a simplification. The number of removed
+     * definitions is logged.
+     *
+     * @param outputVector The output vector, of which the definitions are never removed.
+     * @return The vectorial function with its common subexpressions eliminated.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public VectorialFunction eliminateCommonSubexpressions(final Word outputVector) throws IllegalStateException {
+        CommonSubexpressionEliminator eliminator = CommonSubexpressionEliminator.of(this, outputVector);
+        Laconic.LOGGER.logProgress("%d definitions were removed, of which %d as common subexpressions.",
+                eliminator.getNumberOfRemovedDefinitions(), eliminator.getNumberOfCommonSubexpressions());
+        return new VectorialFunction(eliminator.getDefinitions());
+    }
+
+    /**
+     * Returns the vectorial function pruned to the cone of influence of an output vector, carrying the statistics of
+     * the simplification this vectorial function is the result of.
+     *
+     * @param outputVector The output vector.
+     * @return The pruned vectorial function, with the statistics of the simplification.
+     */
+    VectorialFunction extractView(final Word outputVector) {
+        ConeOfInfluence cone = ConeOfInfluence.of(definitions, outputVector);
+        return cone.size() == definitions.size() ? this
+                : new VectorialFunction(cone.extract(definitions), null, null, simplificationStats);
+    }
+
+    /**
+     * Returns the dimension of the vectorial function, i.e. the number of definitions.
+     *
+     * @return The dimension of the vectorial function.
+     */
+    public int getDimension() {
+        return definitions.size();
+    }
+
+    /**
+     * Returns the fan-out index of the definitions, computing it on first use. Since the definitions of a vectorial
+     * function don't change, the index is cached.
+     *
+     * @return The fan-out index of the definitions.
+     */
+    FanOutIndex getFanOutIndex() {
+        FanOutIndex index = fanOutIndex;
+        if (index == null) {
+            index = FanOutIndex.of(definitions);
+            fanOutIndex = index;
         }
+        return index;
     }
 
-    public VectorialFunction simplify(final Word outputVector) {
-        Map<Variable, Expression> map = variableToExpressionMap;
-        boolean simplified = true;
-        while (simplified) {
-            Laconic.LOGGER.logProgress("Simplifying a vectorial Boolean function of dimension %d...", map.size());
-            ModifiableMap<Variable, Expression> newMap = ModifiableMap.empty();
-            for (Variable variable : outputVector.getVariables()) {
-                recursivelyAdd(newMap, variable, map);
-            }
-            simplified = newMap.size() < map.size();
-            map = newMap;
+    /**
+     * Returns the level of a variable, i.e. zero if its definition doesn't depend on any defined variable, and
+     * otherwise one more than the highest level of the variables its definition depends on.
+     *
+     * @param variable The variable.
+     * @return The level of the variable, or -1 if the variable isn't defined in the vectorial function.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public int getLevel(final Variable variable) throws IllegalStateException {
+        int position = definitions.getPosition(variable.id());
+        return position < 0 ? -1 : getTopologicalOrder().getLevel(position);
+    }
+
+    /**
+     * Returns the number of levels in the vectorial function.
+     *
+     * @return The number of levels in the vectorial function.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public int getNumberOfLevels() throws IllegalStateException {
+        return getTopologicalOrder().getNumberOfLevels();
+    }
+
+    /**
+     * Returns the number of variables occurring in the vectorial function, i.e. the defined variables and the input
+     * variables. Counting the input variables takes a pass over all the definitions.
+     *
+     * @return The number of variables occurring in the vectorial function.
+     */
+    public int getNumberOfVariables() {
+        return definitions.getNumberOfVariables();
+    }
+
+    /**
+     * Returns the vectorial function this vectorial function is an extension of.
+     *
+     * @return The vectorial function this vectorial function is an extension of, or null if it isn't an extension
+     *         sharing the definitions of another vectorial function.
+     */
+    VectorialFunction getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the statistics of the simplification this vectorial function is the result of, with the number of times
+     * each simplification rule was applied, and the dimension, the wall time, the CPU time and the allocated bytes of
+     * each pass.
+     *
+     * @return The statistics of the simplification, or null if the vectorial function isn't the result of a
+     *         simplification.
+     */
+    public SimplificationStats getSimplificationStats() {
+        return simplificationStats;
+    }
+
+    /**
+     * Returns the topological order of the definitions, computing it on first use. Since the definitions of a
+     * vectorial function don't change, the order is cached.
+     *
+     * @return The topological order of the definitions.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    TopologicalOrder getTopologicalOrder() throws IllegalStateException {
+        TopologicalOrder order = topologicalOrder;
+        if (order == null) {
+            order = TopologicalOrder.of(definitions);
+            topologicalOrder = order;
+        }
+        return order;
+    }
+
+    /**
+     * Returns whether the expressions of the vectorial function are stored off the heap.
+     *
+     * @return True if the expressions are stored off the heap.
+     */
+    public boolean isOffHeap() {
+        return definitions.isOffHeap();
+    }
+
+    /**
+     * Returns whether the vectorial function is the result of a simplification for an output vector.
+     *
+     * @param outputVector The output vector.
+     * @return True if the vectorial function has been simplified for the output vector.
+     */
+    boolean isSimplifiedFor(final Word outputVector) {
+        return simplifiedFor != null && simplifiedFor.hasSameVariablesAs(outputVector);
+    }
+
+    /**
+     * Returns a copy of the vectorial function with its expressions stored off the heap, in an arena allocated in
+     * segments of the given size. Vectorial functions derived from it, e.g. by simplification or extension, are stored
+     * off the heap too, each one in its own arena.
+     *
+     * @param arenaSegmentSize The size of a segment in the arena, in bytes.
+     * @return A copy of the vectorial function with its expressions stored off the heap.
+     * @throws IllegalArgumentException Thrown if the segment size is too small.
+     */
+    public VectorialFunction offHeap(final int arenaSegmentSize) throws IllegalArgumentException {
+        return new VectorialFunction(definitions.toOffHeap(arenaSegmentSize));
+    }
+
+    /**
+     * Returns the vectorial function pruned to the cone of influence of an output vector, i.e. without the definitions
+     * that aren't needed to calculate the output vector. No expressions are rewritten, such that pruning is a cheap
+     * way to shrink a vectorial function before any heavier processing, e.g. when only some of the output bits of a
+     * hash function are of interest.
+     *
+     * @param outputVector The output vector.
+     * @return The pruned vectorial function, or this vectorial function if all its definitions are needed.
+     */
+    public VectorialFunction prune(final Word outputVector) {
+        ConeOfInfluence cone = ConeOfInfluence.of(definitions, outputVector);
+        return cone.size() == definitions.size() ? this : new VectorialFunction(cone.extract(definitions));
+    }
+
+    /**
+     * Returns a map with the variables and their expressions.
+     *
+     * @return A map with the variables and their expressions.
+     */
+    Map<Variable, Expression> getVariableToExpressionMap() {
+        return definitions.toMap();
+    }
+
+    /**
+     * Simplifies the vectorial function for an output vector, in a single pass over its definitions in topological
+     * order. If the vectorial function extends a simplified vectorial function, only the definitions affected by the
+     * extension are re-simplified.
+     *
+     * @param outputVector The output vector.
+     * @return The simplified vectorial function.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public VectorialFunction simplify(final Word outputVector) throws IllegalStateException {
+        return new Simplifier().simplify(this, outputVector);
+    }
+
+    /**
+     * Simplifies the vectorial function for an output vector, simplifying the definitions of each level on a number
+     * of threads. The result is the same as for a simplification on a single thread.
+     *
+     * @param outputVector The output vector.
+     * @param parallelism  The number of threads.
+     * @return The simplified vectorial function.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the definitions contain a cycle.
+     */
+    public VectorialFunction simplify(final Word outputVector, final int parallelism)
+            throws IllegalArgumentException, IllegalStateException {
+        return new Simplifier(parallelism).simplify(this, outputVector);
+    }
+
+    /**
+     * Simplifies the vectorial function for an output vector within a budget. If the budget is exhausted, the result
+     * is the best vectorial function reached so far, and its simplification statistics report that the simplification
+     * was cut short.
+     *
+     * @param outputVector The output vector.
+     * @param budget       The budget for the simplification.
+     * @return The simplified vectorial function.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public VectorialFunction simplify(final Word outputVector, final SimplificationBudget budget)
+            throws IllegalStateException {
+        return new Simplifier().simplify(this, outputVector, budget);
+    }
+
+    /**
+     * Simplifies the vectorial function for an output vector within a budget, simplifying the definitions of each
+     * level on a number of threads.
+     *
+     * @param outputVector The output vector.
+     * @param parallelism  The number of threads.
+     * @param budget       The budget for the simplification.
+     * @return The simplified vectorial function.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the definitions contain a cycle.
+     */
+    public VectorialFunction simplify(final Word outputVector, final int parallelism,
+            final SimplificationBudget budget) throws IllegalArgumentException, IllegalStateException {
+        return new Simplifier(parallelism).simplify(this, outputVector, budget);
+    }
+
+    /**
+     * Simplifies the vectorial function for a number of output vectors at once, simplifying the definitions shared by
+     * the output vectors only once.
+     *
+     * @param outputVectors The output vectors.
+     * @return The simplified vectorial functions, one for each output vector, in the order in which the collection
+     *         with the output vectors iterates.
+     * @throws IllegalStateException Thrown if the definitions contain a cycle.
+     */
+    public OrderedCollection<VectorialFunction> simplifyAll(final Collection<Word> outputVectors)
+            throws IllegalStateException {
+        return new Simplifier().simplifyAll(this, outputVectors);
+    }
+
+    /**
+     * Simplifies the vectorial function for a number of output vectors at once, simplifying the definitions shared by
+     * the output vectors only once, on a number of threads.
+     *
+     * @param outputVectors The output vectors.
+     * @param parallelism   The number of threads.
+     * @return The simplified vectorial functions, one for each output vector, in the order in which the collection
+     *         with the output vectors iterates.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the definitions contain a cycle.
+     */
+    public OrderedCollection<VectorialFunction> simplifyAll(final Collection<Word> outputVectors,
+            final int parallelism) throws IllegalArgumentException, IllegalStateException {
+        return new Simplifier(parallelism).simplifyAll(this, outputVectors);
+    }
+
+    /**
+     * Simplifies the vectorial function for a number of output vectors at once within a budget, simplifying the
+     * definitions shared by the output vectors only once, on a number of threads.
+     *
+     * @param outputVectors The output vectors.
+     * @param parallelism   The number of threads.
+     * @param budget        The budget for the simplification.
+     * @return The simplified vectorial functions, one for each output vector, in the order in which the collection
+     *         with the output vectors iterates.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the definitions contain a cycle.
+     */
+    public OrderedCollection<VectorialFunction> simplifyAll(final Collection<Word> outputVectors,
+            final int parallelism, final SimplificationBudget budget)
+            throws IllegalArgumentException, IllegalStateException {
+        return new Simplifier(parallelism).simplifyAll(this, outputVectors, budget);
+    }
+
+    /**
+     * Returns the vectorial function with its xor definitions solved as a system of linear equations over GF(2). Every
+     * xor definition that is still needed is expressed in terms of variables that aren't defined by xor functions,
+     * and the xor definitions that were only used by other xor definitions are eliminated. The number of eliminated
+     * definitions is logged.
+     *
+     * @param outputVector The output vector, of which the definitions are never eliminated.
+     * @return The vectorial function with its xor definitions solved.
+     * @throws IllegalStateException Thrown if the xor definitions contain a cycle that can't be solved.
+     */
+    public VectorialFunction solveLinearDefinitions(final Word outputVector) throws IllegalStateException {
+        return solveLinearDefinitions(outputVector, 1);
+    }
+
+    /**
+     * Returns the vectorial function with its xor definitions solved as a system of linear equations over GF(2), on a
+     * number of threads. The threads are only used to solve xor definitions coupled by a cycle, and the result is the
+     * same as for solving the system on a single thread.
+     *
+     * @param outputVector The output vector, of which the definitions are never eliminated.
+     * @param parallelism  The number of threads.
+     * @return The vectorial function with its xor definitions solved.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the xor definitions contain a cycle that can't be solved.
+     */
+    public VectorialFunction solveLinearDefinitions(final Word outputVector, final int parallelism)
+            throws IllegalArgumentException, IllegalStateException {
+        return solveLinearDefinitions(outputVector, parallelism, new SimplificationBudget());
+    }
+
+    /**
+     * Returns the vectorial function with its xor definitions solved as a system of linear equations over GF(2), on a
+     * number of threads for the xor definitions coupled by a cycle, and within a budget. If the budget is exhausted,
+     * the xor definitions solved so far are substituted, and the other ones are kept as they are. The number of passes
+     * of the budget doesn't apply.
+     *
+     * @param outputVector The output vector, of which the definitions are never eliminated.
+     * @param parallelism  The number of threads.
+     * @param budget       The budget for solving the xor definitions.
+     * @return The vectorial function with its xor definitions solved, as far as the budget allowed.
+     * @throws IllegalArgumentException Thrown if the number of threads isn't positive.
+     * @throws IllegalStateException    Thrown if the xor definitions contain a cycle that can't be solved.
+     */
+    public VectorialFunction solveLinearDefinitions(final Word outputVector, final int parallelism,
+            final SimplificationBudget budget) throws IllegalArgumentException, IllegalStateException {
+        LinearSubsystem linearSubsystem = LinearSubsystem.of(this, outputVector, parallelism, budget);
+        if (linearSubsystem.isCutShort()) {
+            Laconic.LOGGER.logProgress("The budget was exhausted before all xor definitions were solved.");
         }
-        Laconic.LOGGER.logProgress("The vectorial Boolean function was simplified to a dimension of %d.", map.size());
-        return new VectorialFunction(map);
+        Laconic.LOGGER.logProgress("%d xor definitions were solved over GF(2), eliminating %d definitions.",
+                linearSubsystem.getNumberOfLinearDefinitions(), linearSubsystem.getNumberOfEliminatedDefinitions());
+        return new VectorialFunction(linearSubsystem.getDefinitions());
     }
 
     @Override
     public String toString() {
-        return variableToExpressionMap.stream().map(entry -> entry.key() + " = " + entry.value())
-                .collect(Collectors.joining(System.lineSeparator()));
+        TopologicalOrder order = getTopologicalOrder();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < order.size(); i++) {
+            if (i > 0) {
+                sb.append(System.lineSeparator());
+            }
+            int position = order.get(i);
+            sb.append(new Variable(definitions.getId(position))).append(" = ")
+                    .append(definitions.getExpression(position));
+        }
+        return sb.toString();
     }
 }
@@ -88,6 +88,24 @@ public final class Word {
         return variables;
     }
 
+    /**
+     * Returns whether this word consists of the same variables as another word, in the same order.
+     *
+     * @param other The other word.
+     * @return True if both words consist of the same variables in the same order.
+     */
+    boolean hasSameVariablesAs(final Word other) {
+        if (variables.size() != other.variables.size()) {
+            return false;
+        }
+        for (int i = 0; i < variables.size(); i++) {
+            if (!variables.getAt(i).equals(other.variables.getAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Extracts a word representing the second half of this word.
      *
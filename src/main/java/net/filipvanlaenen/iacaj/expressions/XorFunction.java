@@ -1,89 +1,194 @@
 package net.filipvanlaenen.iacaj.expressions;
 
-import net.filipvanlaenen.kolektoj.Collection.ElementCardinality;
-import net.filipvanlaenen.kolektoj.Map.Entry;
-import net.filipvanlaenen.kolektoj.collectors.Collectors;
+import java.util.Arrays;
+
 import net.filipvanlaenen.kolektoj.Collection;
-import net.filipvanlaenen.kolektoj.Map;
-import net.filipvanlaenen.kolektoj.ModifiableCollection;
 import net.filipvanlaenen.kolektoj.ValueCollection;
-import net.filipvanlaenen.nombrajkolektoj.integers.UpdatableIntegerMap;
 
 /**
- * A function using <code>xor</code>.
- *
- * @param variables The variables occurring in the xor function.
- * @param negated   True if the xor function is negated.
+ * A function using <code>xor</code>. The variables are held in a sorted array of variable IDs, duplicates included,
+ * such that pairs of equal variables can be cancelled in a single linear scan.
  */
-public record XorFunction(ValueCollection<Variable> variables, boolean negated) implements Function {
+public final class XorFunction implements Function {
+    /**
+     * The operator with spaces around it.
+     */
     private static final String XOR_WITH_SPACES = " " + Operator.XOR + " ";
+    /**
+     * The sorted IDs of the variables occurring in the xor function.
+     */
+    private final int[] ids;
+    /**
+     * Whether the xor function is negated.
+     */
+    private final boolean negated;
+    /**
+     * The hash code, calculated once at construction.
+     */
+    private final int hashCode;
 
-    @Override
-    public Collection<Variable> getVariables() {
-        return variables;
+    /**
+     * Constructor taking the variables and whether the xor function is negated.
+     *
+     * @param variables The variables occurring in the xor function.
+     * @param negated   True if the xor function is negated.
+     */
+    public XorFunction(final ValueCollection<Variable> variables, final boolean negated) {
+        this(SortedIds.of(variables), negated);
     }
 
-    @Override
-    public Expression simplify() {
-        // TODO: Refactor after the implementation of https://github.com/filipvanlaenen/kolektoj/issues/109
-        ModifiableCollection<Variable> newVariables = ModifiableCollection.of(ElementCardinality.DISTINCT_ELEMENTS);
-        newVariables.addAll(variables);
-        UpdatableIntegerMap<Variable> numberOfOccurrences =
-                UpdatableIntegerMap.of(0, newVariables.toArray(new Variable[0]));
-        for (Variable v : variables) {
-            numberOfOccurrences.augment(v, 1);
-        }
-        for (Entry<Variable, Integer> o : numberOfOccurrences) {
-            if (o.value() % 2 == 0) {
-                newVariables.remove(o.key());
-            }
-        }
-        return createExpression(newVariables, negated);
+    /**
+     * Constructor taking a sorted array of variable IDs and whether the xor function is negated.
+     *
+     * @param ids     The sorted IDs of the variables occurring in the xor function.
+     * @param negated True if the xor function is negated.
+     */
+    XorFunction(final int[] ids, final boolean negated) {
+        this.ids = ids;
+        this.negated = negated;
+        this.hashCode = Arrays.hashCode(ids) * 2 + (negated ? 1 : 0);
     }
 
-    private Expression createExpression(ModifiableCollection<Variable> newVariables, boolean newNegated) {
-        if (newVariables.isEmpty()) {
+    /**
+     * Creates a new expression based on the provided sorted IDs. If no variables are left, a literal expression is
+     * created, and if only one variable is left, an identity or negation expression, instead of a new xor function.
+     *
+     * @param newIds     The new sorted IDs.
+     * @param newNegated Whether the new expression is negated.
+     * @return A new expression based on the provided sorted IDs.
+     */
+    private static Expression createExpression(final int[] newIds, final boolean newNegated) {
+        if (newIds.length == 0) {
             return newNegated ? LiteralExpression.TRUE : LiteralExpression.FALSE;
-        } else if (newVariables.size() == 1) {
-            Variable v = newVariables.get();
+        } else if (newIds.length == 1) {
+            Variable v = new Variable(newIds[0]);
             return newNegated ? new NegationExpression(v) : new IdentityExpression(v);
         } else {
-            // TODO: Refactor after the implementation of https://github.com/filipvanlaenen/kolektoj/issues/108
-            Variable[] direct = newVariables.toArray(new Variable[0]);
-            return new XorFunction(ValueCollection.of(direct), newNegated);
+            return new XorFunction(newIds, newNegated);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
         }
+        return obj instanceof XorFunction other && negated == other.negated && hashCode == other.hashCode
+                && Arrays.equals(ids, other.ids);
+    }
+
+    /**
+     * Returns the sorted IDs of the variables occurring in the xor function. The returned array must not be modified.
+     *
+     * @return The sorted IDs of the variables occurring in the xor function.
+     */
+    int[] getIds() {
+        return ids;
+    }
+
+    @Override
+    public Collection<Variable> getVariables() {
+        return variables();
     }
 
     @Override
-    public Expression simplify(final Map<Variable, Expression> variableToExpressionMap) {
-        ModifiableCollection<Variable> newVariables = ModifiableCollection.empty();
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Returns whether the xor function is negated.
+     *
+     * @return True if the xor function is negated.
+     */
+    public boolean negated() {
+        return negated;
+    }
+
+    @Override
+    public Expression simplify() {
+        return simplify((long[]) null);
+    }
+
+    /**
+     * Tries to simplify the xor function and returns the result, counting the rules applied.
+     *
+     * @param ruleCounts The array with a counter for each rule, indexed by the ordinals of the rules, or null.
+     * @return An expression, if possible simplified.
+     */
+    Expression simplify(final long[] ruleCounts) {
+        return createExpression(cancelPairs(ids, ruleCounts), negated);
+    }
+
+    @Override
+    public Expression simplify(final DefinitionTable definitions) {
+        return simplify(definitions, null);
+    }
+
+    /**
+     * Tries to simplify the xor function using the definitions in a table and returns the result, counting the rules
+     * applied.
+     *
+     * @param definitions The table with the definitions of the variables.
+     * @param ruleCounts  The array with a counter for each rule, indexed by the ordinals of the rules, or null.
+     * @return An expression, if possible simplified.
+     */
+    Expression simplify(final DefinitionTable definitions, final long[] ruleCounts) {
+        int[] newIds = new int[ids.length];
+        int n = 0;
+        int[] nestedIds = SortedIds.EMPTY;
         boolean newNegated = negated;
-        for (Variable variable : variables) {
-            if (variableToExpressionMap.containsKey(variable)) {
-                Expression expression = variableToExpressionMap.get(variable);
-                if (LiteralExpression.TRUE == expression) {
-                    newNegated = !newNegated;
-                } else if (expression instanceof IdentityExpression identityExpression) {
-                    newVariables.add(identityExpression.variable());
-                } else if (expression instanceof NegationExpression negationExpression) {
-                    newNegated = !newNegated;
-                    newVariables.add(negationExpression.variable());
-                } else if (expression instanceof XorFunction xorFunction) {
-                    newNegated = newNegated ^ xorFunction.negated;
-                    newVariables.addAll(xorFunction.variables());
-                } else if (LiteralExpression.FALSE != expression) {
-                    newVariables.add(variable);
-                }
+        for (int id : ids) {
+            Expression expression = definitions.get(id);
+            if (expression instanceof LiteralExpression) {
+                SimplificationRule.CONSTANT_FOLDING.count(ruleCounts);
+                newNegated = newNegated ^ (LiteralExpression.TRUE == expression);
+            } else if (expression instanceof IdentityExpression identityExpression) {
+                SimplificationRule.LITERAL_FOLDING.count(ruleCounts);
+                newIds[n++] = identityExpression.variable().id();
+            } else if (expression instanceof NegationExpression negationExpression) {
+                SimplificationRule.LITERAL_FOLDING.count(ruleCounts);
+                newNegated = !newNegated;
+                newIds[n++] = negationExpression.variable().id();
+            } else if (expression instanceof XorFunction xorFunction) {
+                SimplificationRule.FLATTENING.count(ruleCounts);
+                newNegated = newNegated ^ xorFunction.negated;
+                nestedIds = SortedIds.merge(nestedIds, xorFunction.ids);
             } else {
-                newVariables.add(variable);
+                newIds[n++] = id;
             }
         }
-        return createExpression(newVariables, newNegated);
+        int[] sortedIds = Arrays.copyOf(newIds, n);
+        Arrays.sort(sortedIds);
+        return createExpression(cancelPairs(SortedIds.merge(sortedIds, nestedIds), ruleCounts), newNegated);
+    }
+
+    /**
+     * Cancels the pairs of equal IDs in a sorted array, counting the cancellation if any pairs were cancelled.
+     *
+     * @param sortedIds  A sorted array of IDs.
+     * @param ruleCounts The array with a counter for each rule, indexed by the ordinals of the rules, or null.
+     * @return A sorted array with the IDs occurring an odd number of times.
+     */
+    private static int[] cancelPairs(final int[] sortedIds, final long[] ruleCounts) {
+        int[] result = SortedIds.cancelPairs(sortedIds);
+        if (result.length < sortedIds.length) {
+            SimplificationRule.XOR_CANCELLATION.count(ruleCounts);
+        }
+        return result;
     }
 
     @Override
     public String toString() {
-        return (negated ? Operator.NOT : "") + String.join(XOR_WITH_SPACES,
-                variables.stream().map(Variable::name).collect(Collectors.toCollection()));
+        return (negated ? Operator.NOT : "") + SortedIds.joinNames(ids, XOR_WITH_SPACES);
+    }
+
+    /**
+     * Returns the variables occurring in the xor function.
+     *
+     * @return A value collection with the variables occurring in the xor function.
+     */
+    public ValueCollection<Variable> variables() {
+        return SortedIds.toVariables(ids);
     }
 }
@@ -10,6 +10,7 @@ import net.filipvanlaenen.iacaj.expressions.Variable;
 import net.filipvanlaenen.iacaj.expressions.VectorialFunction;
 import net.filipvanlaenen.iacaj.expressions.Word;
 import net.filipvanlaenen.kolektoj.ModifiableMap;
+import net.filipvanlaenen.kolektoj.OrderedCollection;
 
 public class Md5FunctionBuilderTest {
     /**
@@ -102,6 +103,64 @@ public class Md5FunctionBuilderTest {
         assertTrue(ed.containsSame(resultD));
     }
 
+    /**
+     * Unit test verifying that <code>MD5[2]("") = 0xffffffff663e63e57204db3dffffffff</code> when the four words of the
+     * output vector are simplified at once.
+     */
+    @Test
+    public void md5WithTwoRoundEmptyTestVectorSimplifiedForAllWords() {
+        Md5FunctionBuilder builder = new Md5FunctionBuilder();
+        builder.inputVectorName("i");
+        builder.outputVectorName("o");
+        builder.setNumberOfRounds(2);
+        VectorialFunction md5 = builder.build();
+        Word inputVector = new Word("i", 512);
+        ModifiableMap<Variable, Expression> message = ModifiableMap.empty();
+        message.add(inputVector.getAt(0), LiteralExpression.TRUE);
+        for (int i = 1; i < 512; i++) {
+            message.add(inputVector.getAt(i), LiteralExpression.FALSE);
+        }
+        VectorialFunction vf = md5.extendWith(message);
+        Word outputVector = builder.getOutputVector();
+        OrderedCollection<Word> words = OrderedCollection.of(outputVector.getSlice(0, 32),
+                outputVector.getSlice(32, 64), outputVector.getSlice(64, 96), outputVector.getSlice(96, 128));
+        long[] values = new long[] {0xffffffffL, 0x663e63e5L, 0x7204db3dL, 0xffffffffL};
+
+        OrderedCollection<VectorialFunction> results = vf.simplifyAll(words);
+        for (int i = 0; i < values.length; i++) {
+            ModifiableMap<Variable, Expression> expected = ModifiableMap.empty();
+            expected.addAll(VectorialFunctionBuilder.buildAssignmentFunctions(words.getAt(i), values[i]));
+            assertTrue(new VectorialFunction(expected).containsSame(results.getAt(i)));
+        }
+    }
+
+    /**
+     * Unit test verifying that the first sixteen bits of <code>MD5[2]("")</code> are all set when the vectorial
+     * function is pruned to the cone of influence of the output vector before the test vector is applied.
+     */
+    @Test
+    public void md5WithTwoRoundEmptyTestVectorAndSixteenOutputBitsPruned() {
+        Md5FunctionBuilder builder = new Md5FunctionBuilder();
+        builder.inputVectorName("i");
+        builder.outputVectorName("o");
+        builder.setNumberOfRounds(2);
+        builder.setNumberOfOutputBits(16);
+        VectorialFunction md5 = builder.build();
+        Word outputVector = builder.getOutputVector();
+        VectorialFunction pruned = md5.prune(outputVector);
+        assertTrue(pruned.toString().lines().count() < md5.toString().lines().count());
+        Word inputVector = new Word("i", 512);
+        ModifiableMap<Variable, Expression> message = ModifiableMap.empty();
+        message.add(inputVector.getAt(0), LiteralExpression.TRUE);
+        for (int i = 1; i < 512; i++) {
+            message.add(inputVector.getAt(i), LiteralExpression.FALSE);
+        }
+        VectorialFunction result = pruned.extendWith(message).simplify(outputVector);
+        ModifiableMap<Variable, Expression> expected = ModifiableMap.empty();
+        expected.addAll(VectorialFunctionBuilder.buildAssignmentFunctions(outputVector, 0xffffL));
+        assertTrue(new VectorialFunction(expected).containsSame(result));
+    }
+
     /**
      * Unit test verifying that <code>MD5("") = 0xd41d8cd98f00b204e9800998ecf8427e</code>.
      */
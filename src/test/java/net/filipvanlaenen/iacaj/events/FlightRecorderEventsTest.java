@@ -0,0 +1,139 @@
+package net.filipvanlaenen.iacaj.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.filipvanlaenen.iacaj.builders.AddFunctionBuilder;
+import net.filipvanlaenen.iacaj.builders.Md5FunctionBuilder;
+import net.filipvanlaenen.iacaj.expressions.Parser;
+import net.filipvanlaenen.iacaj.expressions.Variable;
+import net.filipvanlaenen.iacaj.expressions.VectorialFunction;
+import net.filipvanlaenen.iacaj.expressions.Word;
+
+/**
+ * Unit tests on the flight recorder events emitted while building, parsing and simplifying vectorial functions.
+ */
+public class FlightRecorderEventsTest {
+    /**
+     * The name of the build event.
+     */
+    private static final String BUILD_EVENT = "net.filipvanlaenen.iacaj.Build";
+    /**
+     * The name of the MD5 round event.
+     */
+    private static final String MD5_ROUND_EVENT = "net.filipvanlaenen.iacaj.Md5Round";
+    /**
+     * The name of the parse event.
+     */
+    private static final String PARSE_EVENT = "net.filipvanlaenen.iacaj.Parse";
+    /**
+     * The name of the simplification pass event.
+     */
+    private static final String SIMPLIFICATION_PASS_EVENT = "net.filipvanlaenen.iacaj.SimplificationPass";
+    /**
+     * A vectorial function with two definitions and four variables.
+     */
+    private static final String VECTORIAL_FUNCTION = "eventC = eventA ∧ eventB\neventD = ¬eventC";
+    /**
+     * The word length used to build the add function.
+     */
+    private static final int WORD_LENGTH = 4;
+
+    /**
+     * Runs an action while recording an event, and returns the recorded events of that type. Other events enabled by
+     * default, e.g. the build event, may be recorded too, and are filtered out.
+     *
+     * @param eventName The name of the event to record.
+     * @param action    The action to run.
+     * @return The recorded events.
+     * @throws IOException Thrown if the recording can't be dumped to or read from a temporary file.
+     */
+    private static List<RecordedEvent> record(final String eventName, final Runnable action) throws IOException {
+        Path file = Files.createTempFile("iacaj", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(eventName)).toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Verifies that building a vectorial function emits a build event with the builder, the dimension and the number
+     * of variables of the vectorial function.
+     *
+     * @throws IOException Thrown if the recording can't be dumped to or read from a temporary file.
+     */
+    @Test
+    public void buildShouldEmitABuildEvent() throws IOException {
+        AddFunctionBuilder builder = new AddFunctionBuilder();
+        builder.outputVectorWidth(WORD_LENGTH);
+        VectorialFunction[] result = new VectorialFunction[1];
+        List<RecordedEvent> events = record(BUILD_EVENT, () -> result[0] = builder.build());
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("AddFunctionBuilder", event.getString("builder"));
+        assertEquals(result[0].getDimension(), event.getInt("dimension"));
+        assertEquals(result[0].getNumberOfVariables(), event.getInt("numberOfVariables"));
+    }
+
+    /**
+     * Verifies that building MD5 emits an event for each round, with the number of definitions added in the round.
+     *
+     * @throws IOException Thrown if the recording can't be dumped to or read from a temporary file.
+     */
+    @Test
+    public void buildMd5ShouldEmitAnEventForEachRound() throws IOException {
+        Md5FunctionBuilder builder = new Md5FunctionBuilder();
+        builder.setNumberOfRounds(2);
+        List<RecordedEvent> events = record(MD5_ROUND_EVENT, () -> builder.build());
+        assertEquals(2, events.size());
+        RecordedEvent secondRound = events.get(1);
+        assertEquals(2, secondRound.getInt("round"));
+        assertEquals(secondRound.getInt("dimension") - events.get(0).getInt("dimension"),
+                secondRound.getInt("numberOfDefinitions"));
+    }
+
+    /**
+     * Verifies that parsing a vectorial function emits a parse event with the dimension and the number of variables
+     * of the vectorial function.
+     *
+     * @throws IOException Thrown if the recording can't be dumped to or read from a temporary file.
+     */
+    @Test
+    public void parseVectorialFunctionShouldEmitAParseEvent() throws IOException {
+        List<RecordedEvent> events = record(PARSE_EVENT, () -> Parser.parseVectorialFunction(VECTORIAL_FUNCTION));
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getInt("dimension"));
+        assertEquals(WORD_LENGTH, events.get(0).getInt("numberOfVariables"));
+    }
+
+    /**
+     * Verifies that simplifying a vectorial function emits an event for each pass of the simplifier.
+     *
+     * @throws IOException Thrown if the recording can't be dumped to or read from a temporary file.
+     */
+    @Test
+    public void simplifyShouldEmitAnEventForEachPass() throws IOException {
+        VectorialFunction vectorialFunction = Parser.parseVectorialFunction(VECTORIAL_FUNCTION);
+        VectorialFunction[] result = new VectorialFunction[1];
+        List<RecordedEvent> events = record(SIMPLIFICATION_PASS_EVENT,
+                () -> result[0] = vectorialFunction.simplify(new Word(new Variable("eventD"))));
+        assertEquals(result[0].getSimplificationStats().getPasses().size(), events.size());
+        assertEquals("compaction", events.get(events.size() - 1).getString("pass"));
+    }
+}
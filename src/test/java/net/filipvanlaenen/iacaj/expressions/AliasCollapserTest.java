@@ -0,0 +1,119 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>AliasCollapser</code> class.
+ */
+public class AliasCollapserTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable f.
+     */
+    private static final Variable VARIABLE_F = new Variable("f");
+    /**
+     * The variable g.
+     */
+    private static final Variable VARIABLE_G = new Variable("g");
+
+    /**
+     * Creates a table with the definitions below, where a and b are input variables.
+     *
+     * <pre>
+     * c = ¬a
+     * d = c
+     * e = ¬d
+     * f = a ∧ b
+     * g = ¬f
+     * </pre>
+     *
+     * @return A table with the definitions.
+     */
+    private static DefinitionTable createTable() {
+        return DefinitionTable.of(Map.of(VARIABLE_C, new NegationExpression(VARIABLE_A), VARIABLE_D,
+                new IdentityExpression(VARIABLE_C), VARIABLE_E, new NegationExpression(VARIABLE_D), VARIABLE_F,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_G,
+                new NegationExpression(VARIABLE_F)));
+    }
+
+    /**
+     * Verifies that the aliases are counted.
+     */
+    @Test
+    public void ofShouldCountTheAliases() {
+        assertEquals(4, AliasCollapser.of(createTable()).getNumberOfAliases());
+    }
+
+    /**
+     * Verifies that the root of a literal takes the parity of the chain into account.
+     */
+    @Test
+    public void findShouldReturnTheRootWithTheParityOfTheChain() {
+        AliasCollapser collapser = AliasCollapser.of(createTable());
+        assertEquals(Literals.of(VARIABLE_A.id(), false), collapser.find(Literals.of(VARIABLE_E.id(), false)));
+        assertEquals(Literals.of(VARIABLE_A.id(), true), collapser.find(Literals.of(VARIABLE_D.id(), false)));
+        assertEquals(Literals.of(VARIABLE_A.id(), false), collapser.find(Literals.of(VARIABLE_D.id(), true)));
+        assertEquals(Literals.of(VARIABLE_F.id(), true), collapser.find(Literals.of(VARIABLE_G.id(), false)));
+    }
+
+    /**
+     * Verifies that every alias is defined directly as its root after collapsing.
+     */
+    @Test
+    public void toCollapsedDefinitionsShouldDefineTheAliasesAsTheirRoots() {
+        DefinitionTable collapsed = AliasCollapser.of(createTable()).toCollapsedDefinitions();
+        assertEquals(new NegationExpression(VARIABLE_A), collapsed.get(VARIABLE_D));
+        assertEquals(new IdentityExpression(VARIABLE_A), collapsed.get(VARIABLE_E));
+        assertEquals(new NegationExpression(VARIABLE_F), collapsed.get(VARIABLE_G));
+    }
+
+    /**
+     * Verifies that operands that are aliases of a free variable are replaced by the free variable, but that operands
+     * that are aliases of a defined variable are left in place.
+     */
+    @Test
+    public void toCollapsedDefinitionsShouldReplaceOperandsThatAreAliasesOfFreeVariables() {
+        DefinitionTable table = createTable();
+        table.put(new Variable("h").id(),
+                new OrFunction(ValueCollection.of(VARIABLE_E, VARIABLE_G), ValueCollection.empty()));
+        DefinitionTable collapsed = AliasCollapser.of(table).toCollapsedDefinitions();
+        assertEquals(new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_G), ValueCollection.empty()),
+                collapsed.get(new Variable("h")));
+    }
+
+    /**
+     * Verifies that a cyclic chain of aliases is detected.
+     */
+    @Test
+    public void findShouldThrowExceptionForACyclicChain() {
+        DefinitionTable table = DefinitionTable.of(Map.of(VARIABLE_C, new IdentityExpression(VARIABLE_D), VARIABLE_D,
+                new NegationExpression(VARIABLE_C)));
+        AliasCollapser collapser = AliasCollapser.of(table);
+        assertThrows(IllegalStateException.class, () -> collapser.find(Literals.of(VARIABLE_C.id(), false)));
+    }
+}
@@ -43,6 +43,42 @@ public class AndFunctionTest {
         parseSimplifyAndAssertEquals("a ∧ a", "a");
     }
 
+    /**
+     * Verifies that simplifying <code>a ∧ ¬a</code> counts a contradiction, and <code>a ∧ a</code> a duplicate
+     * literal.
+     */
+    @Test
+    public void simplifyShouldCountContradictionsAndDuplicateLiterals() {
+        long[] ruleCounts = new long[SimplificationRule.NUMBER_OF_RULES];
+        new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_A)).simplify(ruleCounts);
+        new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_A), ValueCollection.empty()).simplify(ruleCounts);
+        assertEquals(1L, ruleCounts[SimplificationRule.CONTRADICTION.ordinal()]);
+        assertEquals(1L, ruleCounts[SimplificationRule.IDEMPOTENCE.ordinal()]);
+    }
+
+    /**
+     * Verifies that simplifying against a table counts De Morgan's law for a negated or function and the absorption
+     * of a negated and function, as described below.
+     *
+     * <pre>
+     * c = b ∨ e
+     * d = a ∧ e
+     * a ∧ ¬c ∧ ¬d ⇒ a ∧ ¬b ∧ ¬e
+     * </pre>
+     */
+    @Test
+    public void simplifyWithDefinitionsShouldCountDeMorganAndAbsorption() {
+        AndFunction e = new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_C, VARIABLE_D));
+        DefinitionTable definitions = DefinitionTable.of(Map.of(VARIABLE_C,
+                new OrFunction(ValueCollection.of(VARIABLE_B, VARIABLE_E), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_E), ValueCollection.empty())));
+        long[] ruleCounts = new long[SimplificationRule.NUMBER_OF_RULES];
+        assertEquals(new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B, VARIABLE_E)),
+                e.simplify(definitions, ruleCounts).simplify());
+        assertEquals(1L, ruleCounts[SimplificationRule.DE_MORGAN.ordinal()]);
+        assertEquals(1L, ruleCounts[SimplificationRule.ABSORPTION.ordinal()]);
+    }
+
     /**
      * Verifies that <code>a ∧ a ∧ b</code> is simplified into <code>a ∧ b</code>.
      */
@@ -558,6 +594,47 @@ public class AndFunctionTest {
         assertTrue(actual.containsSame(expected));
     }
 
+    /**
+     * Verifies a functional test on the simplify method as described below.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = a ∧ ¬c      ⇒ d = a ∧ ¬b
+     * </pre>
+     */
+    @Test
+    public void simplificationOfAndWithNegatedAndWithOtherVariable() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_C))));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_D));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B))));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies a functional test on the simplify method as described below, where the remaining operands of d are
+     * defined as a fresh variable.
+     *
+     * <pre>
+     * d = a ∧ b ∧ c   ⇒ °1 = b ∧ c
+     * e = a ∧ ¬d      ⇒ e = a ∧ ¬°1
+     * </pre>
+     */
+    @Test
+    public void simplificationOfAndWithNegatedAndWithOtherVariables() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), ValueCollection.empty()),
+                VARIABLE_E, new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_D))));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_E));
+        Variable fresh = new Variable("°1");
+        VectorialFunction expected = new VectorialFunction(Map.of(fresh,
+                new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_C), ValueCollection.empty()), VARIABLE_E,
+                new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(fresh))));
+        assertTrue(actual.containsSame(expected));
+    }
+
     /**
      * Verifies a functional test on the simplify method as described below.
      *
@@ -666,6 +743,47 @@ public class AndFunctionTest {
         assertTrue(actual.containsSame(expected));
     }
 
+    /**
+     * Verifies a functional test on the simplify method as described below.
+     *
+     * <pre>
+     * c = ¬a ∨ b
+     * d = a ∧ c       ⇒ d = a ∧ b
+     * </pre>
+     */
+    @Test
+    public void simplificationOfAndWithOrWithComplementOfOtherVariable() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new OrFunction(ValueCollection.of(VARIABLE_B), ValueCollection.of(VARIABLE_A)), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_C), ValueCollection.empty())));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_D));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty())));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies a functional test on the simplify method as described below, where the remaining operands of d are
+     * defined as a fresh variable.
+     *
+     * <pre>
+     * d = ¬a ∨ b ∨ c  ⇒ °1 = b ∨ c
+     * e = a ∧ d       ⇒ e = a ∧ °1
+     * </pre>
+     */
+    @Test
+    public void simplificationOfAndWithOrWithComplementOfOtherVariables() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_B, VARIABLE_C), ValueCollection.of(VARIABLE_A)), VARIABLE_E,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_D), ValueCollection.empty())));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_E));
+        Variable fresh = new Variable("°1");
+        VectorialFunction expected = new VectorialFunction(Map.of(fresh,
+                new OrFunction(ValueCollection.of(VARIABLE_B, VARIABLE_C), ValueCollection.empty()), VARIABLE_E,
+                new AndFunction(ValueCollection.of(VARIABLE_A, fresh), ValueCollection.empty())));
+        assertTrue(actual.containsSame(expected));
+    }
+
     /**
      * Verifies a functional test on the simplify method as described below.
      *
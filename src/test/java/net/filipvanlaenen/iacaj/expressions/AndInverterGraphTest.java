@@ -0,0 +1,227 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>AndInverterGraph</code> class.
+ */
+public class AndInverterGraphTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable g.
+     */
+    private static final Variable VARIABLE_G = new Variable("g");
+    /**
+     * The variable °n1, named like the first variable introduced for a shared node.
+     */
+    private static final Variable VARIABLE_N1 = new Variable("°n1");
+    /**
+     * The variable °n2, named like the second variable introduced for a shared node.
+     */
+    private static final Variable VARIABLE_N2 = new Variable("°n2");
+
+    /**
+     * Converts a vectorial function to an and-inverter graph and back.
+     *
+     * @param map The map with the variables and expressions of the vectorial function.
+     * @return The vectorial function converted back from the and-inverter graph.
+     */
+    private static VectorialFunction roundTrip(final Map<Variable, Expression> map) {
+        return AndInverterGraph.of(new VectorialFunction(map)).toVectorialFunction();
+    }
+
+    /**
+     * Verifies that an and function is converted back to the same and function.
+     */
+    @Test
+    public void toVectorialFunctionShouldRecoverAnAndFunction() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B)));
+        assertTrue(roundTrip(map).containsSame(new VectorialFunction(map)));
+    }
+
+    /**
+     * Verifies that an and function with three operands is converted back to a single and function.
+     */
+    @Test
+    public void toVectorialFunctionShouldMergeAndNodesIntoASingleAndFunction() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.of(VARIABLE_C)));
+        assertTrue(roundTrip(map).containsSame(new VectorialFunction(map)));
+    }
+
+    /**
+     * Verifies that an or function is lowered and recovered.
+     */
+    @Test
+    public void toVectorialFunctionShouldRecoverAnOrFunction() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.of(VARIABLE_C)));
+        assertTrue(roundTrip(map).containsSame(new VectorialFunction(map)));
+    }
+
+    /**
+     * Verifies that an xor function is lowered and recovered.
+     */
+    @Test
+    public void toVectorialFunctionShouldRecoverAnXorFunction() {
+        Map<Variable, Expression> map =
+                Map.of(VARIABLE_D, new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), false));
+        Expression actual = roundTrip(map).getVariableToExpressionMap().get(VARIABLE_D);
+        assertTrue(actual instanceof XorFunction);
+        XorFunction xorFunction = (XorFunction) actual;
+        assertFalse(xorFunction.negated());
+        assertEquals(3, xorFunction.variables().size());
+        assertTrue(xorFunction.variables().containsAll(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C)));
+    }
+
+    /**
+     * Verifies that a negated xor function is lowered and recovered.
+     */
+    @Test
+    public void toVectorialFunctionShouldRecoverANegatedXorFunction() {
+        Map<Variable, Expression> map =
+                Map.of(VARIABLE_C, new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), true));
+        Expression actual = roundTrip(map).getVariableToExpressionMap().get(VARIABLE_C);
+        assertTrue(actual instanceof XorFunction);
+        XorFunction xorFunction = (XorFunction) actual;
+        assertTrue(xorFunction.negated());
+        assertEquals(2, xorFunction.variables().size());
+        assertTrue(xorFunction.variables().containsAll(ValueCollection.of(VARIABLE_A, VARIABLE_B)));
+    }
+
+    /**
+     * Verifies that structurally identical definitions are hashed into a single and node.
+     */
+    @Test
+    public void ofShouldHashStructurallyIdenticalDefinitionsIntoOneNode() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_A), ValueCollection.empty()));
+        AndInverterGraph graph = AndInverterGraph.of(new VectorialFunction(map));
+        assertEquals(1, graph.getNumberOfAndNodes());
+        assertEquals(2, graph.getNumberOfInputs());
+        Map<Variable, Expression> expected = Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new IdentityExpression(VARIABLE_C));
+        assertTrue(graph.toVectorialFunction().containsSame(new VectorialFunction(expected)));
+    }
+
+    /**
+     * Verifies that a contradictory and function is folded to false.
+     */
+    @Test
+    public void ofShouldFoldAContradictoryAndFunctionToFalse() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_B,
+                new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_A)));
+        AndInverterGraph graph = AndInverterGraph.of(new VectorialFunction(map));
+        assertEquals(0, graph.getNumberOfAndNodes());
+        assertTrue(graph.toVectorialFunction()
+                .containsSame(new VectorialFunction(Map.of(VARIABLE_B, LiteralExpression.FALSE))));
+    }
+
+    /**
+     * Verifies that a negation of a defined variable is exported as a negation expression.
+     */
+    @Test
+    public void toVectorialFunctionShouldExportNegationsOfDefinedVariables() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new NegationExpression(VARIABLE_C));
+        assertTrue(roundTrip(map).containsSame(new VectorialFunction(map)));
+    }
+
+    /**
+     * Verifies that the export of the cone of influence of an output vector contains only the output variables and a
+     * new variable for a shared node.
+     */
+    @Test
+    public void toVectorialFunctionShouldExportOnlyTheConeOfInfluence() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_C, VARIABLE_A), ValueCollection.empty()), VARIABLE_E,
+                new OrFunction(ValueCollection.of(VARIABLE_C), ValueCollection.of(VARIABLE_B)));
+        VectorialFunction actual =
+                AndInverterGraph.of(new VectorialFunction(map)).toVectorialFunction(new Word(VARIABLE_D, VARIABLE_E));
+        Map<Variable, Expression> actualMap = actual.getVariableToExpressionMap();
+        assertEquals(3, actualMap.size());
+        assertTrue(actualMap.containsKey(VARIABLE_D));
+        assertTrue(actualMap.containsKey(VARIABLE_E));
+        assertFalse(actualMap.containsKey(VARIABLE_C));
+    }
+
+    /**
+     * Verifies that a cyclic definition is rejected.
+     */
+    @Test
+    public void ofShouldThrowExceptionForCyclicDefinitions() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_A, new IdentityExpression(VARIABLE_B), VARIABLE_B,
+                new NegationExpression(VARIABLE_A));
+        assertThrows(IllegalStateException.class, () -> AndInverterGraph.of(new VectorialFunction(map)));
+    }
+
+    /**
+     * Verifies that the variable introduced for a shared node doesn't take the name of an input variable, as
+     * described below.
+     *
+     * <pre>
+     * d = a ∧ b ∧ °n1      ⇒ °n2 = a ∧ b
+     * g = a ∧ b ∧ e           d = °n1 ∧ °n2
+     *                         g = e ∧ °n2
+     * </pre>
+     */
+    @Test
+    public void toVectorialFunctionShouldNotNameASharedNodeLikeAnInputVariable() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_N1), ValueCollection.empty()),
+                VARIABLE_G,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_E), ValueCollection.empty()));
+        Map<Variable, Expression> expected = Map.of(VARIABLE_N2,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_N1, VARIABLE_N2), ValueCollection.empty()), VARIABLE_G,
+                new AndFunction(ValueCollection.of(VARIABLE_E, VARIABLE_N2), ValueCollection.empty()));
+        assertTrue(roundTrip(map).containsSame(new VectorialFunction(expected)));
+    }
+
+    /**
+     * Verifies that the variable introduced for a shared node doesn't take the name of a variable of the output
+     * vector, also if that variable isn't defined, after a round trip through the parser.
+     */
+    @Test
+    public void toVectorialFunctionShouldNotNameASharedNodeLikeAnOutputVariable() {
+        VectorialFunction original = Parser.parseVectorialFunction("d = a ∧ b ∧ c\ng = a ∧ b ∧ e");
+        VectorialFunction exported = AndInverterGraph.of(original)
+                .toVectorialFunction(new Word(VARIABLE_D, VARIABLE_G, VARIABLE_N1));
+        VectorialFunction parsed = Parser.parseVectorialFunction(exported.toString());
+        assertTrue(parsed.containsSame(exported));
+        assertFalse(parsed.getDefinitions().containsKey(VARIABLE_N1));
+        assertTrue(parsed.getDefinitions().containsKey(VARIABLE_N2));
+    }
+}
@@ -0,0 +1,81 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import java.util.Random;
+
+/**
+ * Benchmark comparing plain Gauss-Jordan elimination with the method of the Four Russians on random matrices, on a
+ * single thread and on all available processors. It isn't run as a unit test, but can be run from the test classpath
+ * with the dimensions of the matrices as arguments, e.g. 2000 4000 8000.
+ */
+public final class BitMatrixBenchmark {
+    /**
+     * The default dimensions of the square matrices to benchmark.
+     */
+    private static final int[] DEFAULT_DIMENSIONS = new int[] {1000, 2000, 4000};
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000D;
+    /**
+     * The seed for the random matrices.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private BitMatrixBenchmark() {
+    }
+
+    /**
+     * Creates a square matrix with random entries.
+     *
+     * @param dimension The number of rows and columns.
+     * @return The random matrix.
+     */
+    private static BitMatrix createRandomMatrix(final int dimension) {
+        Random random = new Random(SEED);
+        BitMatrix matrix = new BitMatrix(dimension, dimension);
+        for (int row = 0; row < dimension; row++) {
+            for (int column = 0; column < dimension; column++) {
+                if (random.nextBoolean()) {
+                    matrix.flip(row, column);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The dimensions of the square matrices to benchmark, or none for the default dimensions.
+     */
+    public static void main(final String[] args) {
+        int[] dimensions = DEFAULT_DIMENSIONS;
+        if (args.length > 0) {
+            dimensions = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                dimensions[i] = Integer.parseInt(args[i]);
+            }
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        System.out.println("dimension, plain (ms), Four Russians (ms), Four Russians on " + parallelism
+                + " threads (ms)");
+        for (int dimension : dimensions) {
+            BitMatrix plain = createRandomMatrix(dimension);
+            BitMatrix sequential = createRandomMatrix(dimension);
+            BitMatrix parallel = createRandomMatrix(dimension);
+            long start = System.nanoTime();
+            plain.reduce();
+            long plainEnd = System.nanoTime();
+            sequential.reduceFourRussians(1);
+            long sequentialEnd = System.nanoTime();
+            parallel.reduceFourRussians(parallelism);
+            long parallelEnd = System.nanoTime();
+            System.out.printf("%d, %.1f, %.1f, %.1f%n", dimension, (plainEnd - start) / NANOSECONDS_PER_MILLISECOND,
+                    (sequentialEnd - plainEnd) / NANOSECONDS_PER_MILLISECOND,
+                    (parallelEnd - sequentialEnd) / NANOSECONDS_PER_MILLISECOND);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>BitMatrix</code> class.
+ */
+public class BitMatrixTest {
+    /**
+     * A column in the second word of a row.
+     */
+    private static final int COLUMN_IN_SECOND_WORD = 70;
+    /**
+     * The number of columns of a matrix spanning more than one word per row.
+     */
+    private static final int WIDE_NUMBER_OF_COLUMNS = 130;
+    /**
+     * The number of rows of a random matrix, large enough to span several blocks and to be reduced on a number of
+     * threads.
+     */
+    private static final int RANDOM_NUMBER_OF_ROWS = 1500;
+    /**
+     * The number of columns of a random matrix.
+     */
+    private static final int RANDOM_NUMBER_OF_COLUMNS = 3000;
+    /**
+     * The period of the rows that are the sum of the two rows above them in a random matrix.
+     */
+    private static final int DEPENDENT_ROW_PERIOD = 7;
+    /**
+     * The period of the columns that are the sum of the two columns to the left of them in a random matrix.
+     */
+    private static final int DEPENDENT_COLUMN_PERIOD = 5;
+    /**
+     * The number of threads to reduce a matrix on.
+     */
+    private static final int PARALLELISM = 4;
+    /**
+     * The seed for the random matrices.
+     */
+    private static final long SEED = 20_181_018L;
+
+    /**
+     * Creates a matrix from strings with the entries of its rows.
+     *
+     * @param rows The rows, with a character '1' for every entry that is one.
+     * @return The matrix.
+     */
+    private static BitMatrix createMatrix(final String... rows) {
+        BitMatrix matrix = new BitMatrix(rows.length, rows[0].length());
+        for (int row = 0; row < rows.length; row++) {
+            for (int column = 0; column < rows[row].length(); column++) {
+                if (rows[row].charAt(column) == '1') {
+                    matrix.flip(row, column);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Creates a random matrix with dependent rows and columns, such that the reduction has zero rows at the bottom and
+     * has to skip columns. Every seventh row is the sum of the two rows above it, and every fifth column the sum of the
+     * two columns to the left of it.
+     *
+     * @param numberOfRows    The number of rows.
+     * @param numberOfColumns The number of columns.
+     * @param seed            The seed of the random generator.
+     * @return The random matrix.
+     */
+    private static BitMatrix createRandomMatrix(final int numberOfRows, final int numberOfColumns, final long seed) {
+        Random random = new Random(seed);
+        BitMatrix matrix = new BitMatrix(numberOfRows, numberOfColumns);
+        for (int row = 0; row < numberOfRows; row++) {
+            for (int column = 0; column < numberOfColumns; column++) {
+                boolean entry;
+                if (row % DEPENDENT_ROW_PERIOD == DEPENDENT_ROW_PERIOD - 1) {
+                    entry = matrix.get(row - 1, column) != matrix.get(row - 2, column);
+                } else if (column % DEPENDENT_COLUMN_PERIOD == DEPENDENT_COLUMN_PERIOD - 1) {
+                    entry = matrix.get(row, column - 1) != matrix.get(row, column - 2);
+                } else {
+                    entry = random.nextBoolean();
+                }
+                if (entry) {
+                    matrix.flip(row, column);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Asserts that two matrices have the same entries.
+     *
+     * @param expected The expected matrix.
+     * @param actual   The actual matrix.
+     */
+    private static void assertSameEntries(final BitMatrix expected, final BitMatrix actual) {
+        for (int row = 0; row < expected.getNumberOfRows(); row++) {
+            for (int column = 0; column < expected.getNumberOfColumns(); column++) {
+                assertEquals(expected.get(row, column), actual.get(row, column));
+            }
+        }
+    }
+
+    /**
+     * Asserts that the rows of a matrix have the expected entries.
+     *
+     * @param matrix The matrix.
+     * @param rows   The expected rows, with a character '1' for every entry that is one.
+     */
+    private static void assertRows(final BitMatrix matrix, final String... rows) {
+        assertEquals(rows.length, matrix.getNumberOfRows());
+        for (int row = 0; row < rows.length; row++) {
+            assertEquals(rows[row].length(), matrix.getNumberOfColumns());
+            for (int column = 0; column < rows[row].length(); column++) {
+                assertEquals(rows[row].charAt(column) == '1', matrix.get(row, column));
+            }
+        }
+    }
+
+    /**
+     * Verifies that flipping an entry twice sets it back to zero.
+     */
+    @Test
+    public void flipShouldAddOneToTheEntry() {
+        BitMatrix matrix = new BitMatrix(2, WIDE_NUMBER_OF_COLUMNS);
+        matrix.flip(1, COLUMN_IN_SECOND_WORD);
+        assertTrue(matrix.get(1, COLUMN_IN_SECOND_WORD));
+        matrix.flip(1, COLUMN_IN_SECOND_WORD);
+        assertFalse(matrix.get(1, COLUMN_IN_SECOND_WORD));
+    }
+
+    /**
+     * Verifies that the next entry that is one is found across words.
+     */
+    @Test
+    public void nextSetColumnShouldFindTheNextEntryAcrossWords() {
+        BitMatrix matrix = new BitMatrix(1, WIDE_NUMBER_OF_COLUMNS);
+        matrix.flip(0, 2);
+        matrix.flip(0, COLUMN_IN_SECOND_WORD);
+        assertEquals(2, matrix.nextSetColumn(0, 0));
+        assertEquals(COLUMN_IN_SECOND_WORD, matrix.nextSetColumn(0, 3));
+        assertEquals(-1, matrix.nextSetColumn(0, COLUMN_IN_SECOND_WORD + 1));
+    }
+
+    /**
+     * Verifies that a matrix of full rank is reduced to the identity matrix.
+     */
+    @Test
+    public void reduceShouldReduceAMatrixOfFullRankToTheIdentityMatrix() {
+        BitMatrix matrix = createMatrix("011", "110", "111");
+        assertArrayEquals(new int[] {0, 1, 2}, matrix.reduce());
+        assertRows(matrix, "100", "010", "001");
+    }
+
+    /**
+     * Verifies that the reduced row echelon form of a singular matrix skips the columns without a pivot, and has zero
+     * rows below its rank.
+     */
+    @Test
+    public void reduceShouldReturnThePivotColumnsOfASingularMatrix() {
+        BitMatrix matrix = createMatrix("1101", "0111", "1010");
+        assertArrayEquals(new int[] {0, 1}, matrix.reduce());
+        assertRows(matrix, "1010", "0111", "0000");
+    }
+
+    /**
+     * Verifies that the method of the Four Russians reduces a small matrix to the same reduced row echelon form as
+     * plain Gauss-Jordan elimination.
+     */
+    @Test
+    public void reduceFourRussiansShouldReduceASingularMatrix() {
+        BitMatrix matrix = createMatrix("1101", "0111", "1010");
+        assertArrayEquals(new int[] {0, 1}, matrix.reduceFourRussians(1));
+        assertRows(matrix, "1010", "0111", "0000");
+    }
+
+    /**
+     * Verifies that the method of the Four Russians reduces a large random matrix, spanning several blocks, to the same
+     * reduced row echelon form as plain Gauss-Jordan elimination, both on a single thread and on a number of threads.
+     */
+    @Test
+    public void reduceFourRussiansShouldReturnTheSameResultAsPlainGaussJordanElimination() {
+        BitMatrix plain = createRandomMatrix(RANDOM_NUMBER_OF_ROWS, RANDOM_NUMBER_OF_COLUMNS, SEED);
+        BitMatrix sequential = createRandomMatrix(RANDOM_NUMBER_OF_ROWS, RANDOM_NUMBER_OF_COLUMNS, SEED);
+        BitMatrix parallel = createRandomMatrix(RANDOM_NUMBER_OF_ROWS, RANDOM_NUMBER_OF_COLUMNS, SEED);
+        int[] pivotColumns = plain.reduce();
+        assertTrue(pivotColumns.length < RANDOM_NUMBER_OF_ROWS);
+        assertTrue(pivotColumns[pivotColumns.length - 1] > pivotColumns.length);
+        assertArrayEquals(pivotColumns, sequential.reduceFourRussians(1));
+        assertArrayEquals(pivotColumns, parallel.reduceFourRussians(PARALLELISM));
+        assertSameEntries(plain, sequential);
+        assertSameEntries(plain, parallel);
+    }
+
+    /**
+     * Verifies that a cancelled reduction with the method of the Four Russians returns null.
+     */
+    @Test
+    public void reduceFourRussiansShouldReturnNullWhenCancelled() {
+        BitMatrix matrix = createMatrix("1101", "0111", "1010");
+        assertNull(matrix.reduceFourRussians(1, () -> true));
+    }
+
+    /**
+     * Verifies that reducing with the method of the Four Russians on less than one thread throws an exception.
+     */
+    @Test
+    public void reduceFourRussiansShouldThrowExceptionForNonPositiveParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new BitMatrix(1, 1).reduceFourRussians(0));
+    }
+
+    /**
+     * Verifies that constructing a matrix with negative dimensions throws an exception.
+     */
+    @Test
+    public void constructorShouldThrowExceptionForNegativeDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new BitMatrix(-1, 1));
+    }
+}
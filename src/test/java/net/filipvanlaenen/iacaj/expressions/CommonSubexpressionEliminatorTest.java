@@ -0,0 +1,121 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>CommonSubexpressionEliminator</code> class.
+ */
+public class CommonSubexpressionEliminatorTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable f.
+     */
+    private static final Variable VARIABLE_F = new Variable("f");
+    /**
+     * The variable g.
+     */
+    private static final Variable VARIABLE_G = new Variable("g");
+    /**
+     * The variable h.
+     */
+    private static final Variable VARIABLE_H = new Variable("h");
+
+    /**
+     * Creates a vectorial function with the definitions below, where a, b and f are input variables.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = b ∧ a
+     * e = c ∨ f
+     * g = d ∨ f
+     * h = e ⊻ g
+     * </pre>
+     *
+     * @return The vectorial function.
+     */
+    private static VectorialFunction createVectorialFunction() {
+        return new VectorialFunction(Map.of(
+                VARIABLE_C, new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()),
+                VARIABLE_D, new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_A), ValueCollection.empty()),
+                VARIABLE_E, new OrFunction(ValueCollection.of(VARIABLE_C, VARIABLE_F), ValueCollection.empty()),
+                VARIABLE_G, new OrFunction(ValueCollection.of(VARIABLE_D, VARIABLE_F), ValueCollection.empty()),
+                VARIABLE_H, new XorFunction(ValueCollection.of(VARIABLE_E, VARIABLE_G), false)));
+    }
+
+    /**
+     * Verifies that a duplicate definition is removed, and that the users of the duplicate become duplicates too.
+     */
+    @Test
+    public void ofShouldRemoveDuplicatesInCascade() {
+        CommonSubexpressionEliminator eliminator =
+                CommonSubexpressionEliminator.of(createVectorialFunction(), new Word(VARIABLE_H));
+        DefinitionTable definitions = eliminator.getDefinitions();
+        assertEquals(2, eliminator.getNumberOfCommonSubexpressions());
+        assertEquals(2, eliminator.getNumberOfRemovedDefinitions());
+        assertEquals(3, definitions.size());
+        assertNull(definitions.get(VARIABLE_D));
+        assertNull(definitions.get(VARIABLE_G));
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_E, VARIABLE_E), false).simplify(),
+                definitions.get(VARIABLE_H));
+    }
+
+    /**
+     * Verifies that the definitions of the output variables are kept, even if they're duplicates.
+     */
+    @Test
+    public void ofShouldKeepTheDefinitionsOfOutputVariables() {
+        CommonSubexpressionEliminator eliminator =
+                CommonSubexpressionEliminator.of(createVectorialFunction(), new Word(VARIABLE_E, VARIABLE_G));
+        DefinitionTable definitions = eliminator.getDefinitions();
+        assertEquals(1, eliminator.getNumberOfCommonSubexpressions());
+        assertNull(definitions.get(VARIABLE_D));
+        assertEquals(new OrFunction(ValueCollection.of(VARIABLE_C, VARIABLE_F), ValueCollection.empty()),
+                definitions.get(VARIABLE_G));
+    }
+
+    /**
+     * Verifies that constants are folded in first, such that definitions that only differ in a constant become
+     * duplicates.
+     */
+    @Test
+    public void ofShouldFoldConstantsBeforeLookingForDuplicates() {
+        VectorialFunction vectorialFunction = new VectorialFunction(Map.of(VARIABLE_B, LiteralExpression.TRUE,
+                VARIABLE_C, new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()),
+                VARIABLE_E, new OrFunction(ValueCollection.of(VARIABLE_C, VARIABLE_F), ValueCollection.empty()),
+                VARIABLE_G, new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_F), ValueCollection.empty()),
+                VARIABLE_H, new AndFunction(ValueCollection.of(VARIABLE_E, VARIABLE_G), ValueCollection.empty())));
+        CommonSubexpressionEliminator eliminator = CommonSubexpressionEliminator.of(vectorialFunction,
+                new Word(VARIABLE_H));
+        DefinitionTable definitions = eliminator.getDefinitions();
+        assertEquals(1, eliminator.getNumberOfCommonSubexpressions());
+        assertEquals(3, eliminator.getNumberOfRemovedDefinitions());
+        assertEquals(2, definitions.size());
+        assertTrue(definitions.get(VARIABLE_H) instanceof IdentityExpression);
+    }
+}
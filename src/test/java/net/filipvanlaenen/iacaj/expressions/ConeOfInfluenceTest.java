@@ -0,0 +1,115 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>ConeOfInfluence</code> class.
+ */
+public class ConeOfInfluenceTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable f.
+     */
+    private static final Variable VARIABLE_F = new Variable("f");
+
+    /**
+     * Creates a table with the definitions below, where a and b are input variables.
+     *
+     * <pre>
+     * e = c ⊻ a
+     * c = a ∧ b
+     * d = ¬a
+     * f = c ∨ b
+     * </pre>
+     *
+     * @return A table with the definitions.
+     */
+    private static DefinitionTable createTable() {
+        DefinitionTable table = new DefinitionTable();
+        table.put(VARIABLE_E.id(), new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_A), false));
+        table.put(VARIABLE_C.id(),
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()));
+        table.put(VARIABLE_D.id(), new NegationExpression(VARIABLE_A));
+        table.put(VARIABLE_F.id(), new OrFunction(ValueCollection.of(VARIABLE_C, VARIABLE_B), ValueCollection.empty()));
+        return table;
+    }
+
+    /**
+     * Verifies that the definitions of the output variables and the variables they use are marked, even if the table
+     * isn't in topological order.
+     */
+    @Test
+    public void ofShouldMarkTheDefinitionsNeededForTheOutputVector() {
+        DefinitionTable table = createTable();
+        ConeOfInfluence cone = ConeOfInfluence.of(table, new Word(VARIABLE_E));
+        assertEquals(2, cone.size());
+        assertTrue(cone.contains(table.getPosition(VARIABLE_E.id())));
+        assertTrue(cone.contains(table.getPosition(VARIABLE_C.id())));
+        assertFalse(cone.contains(table.getPosition(VARIABLE_D.id())));
+        assertFalse(cone.contains(table.getPosition(VARIABLE_F.id())));
+    }
+
+    /**
+     * Verifies that pruning drops the dead definitions from the table in place.
+     */
+    @Test
+    public void pruneShouldDropTheDeadDefinitionsInPlace() {
+        DefinitionTable table = createTable();
+        ConeOfInfluence cone = ConeOfInfluence.of(table, new Word(VARIABLE_F));
+        assertEquals(2, cone.prune(table));
+        assertEquals(2, table.size());
+        assertEquals(VARIABLE_C.id(), table.getId(0));
+        assertEquals(VARIABLE_F.id(), table.getId(1));
+        assertNull(table.get(VARIABLE_E));
+    }
+
+    /**
+     * Verifies that the definitions in the cone are extracted into a new table, leaving the original table untouched.
+     */
+    @Test
+    public void extractShouldCopyTheDefinitionsInTheCone() {
+        DefinitionTable table = createTable();
+        DefinitionTable extracted = ConeOfInfluence.of(table, new Word(VARIABLE_D, VARIABLE_E)).extract(table);
+        assertEquals(3, extracted.size());
+        assertEquals(4, table.size());
+        assertNull(extracted.get(VARIABLE_F));
+        assertEquals(table.get(VARIABLE_C), extracted.get(VARIABLE_C));
+    }
+
+    /**
+     * Verifies that pruning a vectorial function of which all definitions are needed returns the vectorial function
+     * itself.
+     */
+    @Test
+    public void pruneShouldReturnTheVectorialFunctionItselfIfAllDefinitionsAreNeeded() {
+        VectorialFunction vectorialFunction = new VectorialFunction(createTable());
+        assertSame(vectorialFunction, vectorialFunction.prune(new Word(VARIABLE_D, VARIABLE_E, VARIABLE_F)));
+    }
+}
@@ -0,0 +1,108 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>ConstantPropagator</code> class.
+ */
+public class ConstantPropagatorTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable f.
+     */
+    private static final Variable VARIABLE_F = new Variable("f");
+
+    /**
+     * Creates a vectorial function with the definitions below, where e is a free variable.
+     *
+     * <pre>
+     * a = true
+     * b = false
+     * c = a ∧ ¬b
+     * d = b ∧ e
+     * f = c ⊻ a ⊻ e
+     * </pre>
+     *
+     * @return The vectorial function.
+     */
+    private static VectorialFunction createVectorialFunction() {
+        return new VectorialFunction(Map.of(VARIABLE_A, LiteralExpression.TRUE, VARIABLE_B, LiteralExpression.FALSE,
+                VARIABLE_C, new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B)),
+                VARIABLE_D, new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_E), ValueCollection.empty()),
+                VARIABLE_F, new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_A, VARIABLE_E), false)));
+    }
+
+    /**
+     * Verifies that the values of definitions determined by the known values of their operands are calculated.
+     */
+    @Test
+    public void ofShouldCalculateTheKnownValues() {
+        VectorialFunction vectorialFunction = createVectorialFunction();
+        DefinitionTable definitions = vectorialFunction.getDefinitions();
+        ConstantPropagator propagator = ConstantPropagator.of(vectorialFunction);
+        assertEquals(4, propagator.getNumberOfKnownDefinitions());
+        assertTrue(propagator.getValue(definitions.getPosition(VARIABLE_C.id())));
+        assertTrue(propagator.isKnown(definitions.getPosition(VARIABLE_D.id())));
+        assertFalse(propagator.getValue(definitions.getPosition(VARIABLE_D.id())));
+        assertFalse(propagator.isKnown(definitions.getPosition(VARIABLE_F.id())));
+    }
+
+    /**
+     * Verifies that an output vector depending on a free variable doesn't have a known value.
+     */
+    @Test
+    public void areAllKnownShouldReturnFalseForAFreeVariable() {
+        ConstantPropagator propagator = ConstantPropagator.of(createVectorialFunction());
+        assertTrue(propagator.areAllKnown(new Word(VARIABLE_C, VARIABLE_D)));
+        assertFalse(propagator.areAllKnown(new Word(VARIABLE_C, VARIABLE_F)));
+    }
+
+    /**
+     * Verifies that the definitions with a known value are replaced by constants.
+     */
+    @Test
+    public void toSubstitutedDefinitionsShouldReplaceKnownValuesByConstants() {
+        DefinitionTable substituted = ConstantPropagator.of(createVectorialFunction()).toSubstitutedDefinitions();
+        assertEquals(LiteralExpression.TRUE, substituted.get(VARIABLE_C));
+        assertEquals(LiteralExpression.FALSE, substituted.get(VARIABLE_D));
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_A, VARIABLE_E), false),
+                substituted.get(VARIABLE_F));
+    }
+
+    /**
+     * Verifies that the simplification of an output vector with known values returns constants.
+     */
+    @Test
+    public void simplifyShouldReturnConstantsForKnownValues() {
+        VectorialFunction actual = createVectorialFunction().simplify(new Word(VARIABLE_C, VARIABLE_D));
+        VectorialFunction expected =
+                new VectorialFunction(Map.of(VARIABLE_C, LiteralExpression.TRUE, VARIABLE_D, LiteralExpression.FALSE));
+        assertTrue(actual.containsSame(expected));
+    }
+}
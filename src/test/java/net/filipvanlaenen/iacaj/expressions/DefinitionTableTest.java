@@ -0,0 +1,336 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>DefinitionTable</code> class.
+ */
+public class DefinitionTableTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The number of definitions used to test the growth of the table.
+     */
+    private static final int LARGE_SIZE = 1000;
+    /**
+     * The number of definitions used to measure the allocations while traversing the operands.
+     */
+    private static final int TRAVERSAL_SIZE = 10_000;
+    /**
+     * The minimal factor by which reading the operands in place should allocate less than decoding the expressions.
+     */
+    private static final int ALLOCATION_FACTOR = 10;
+
+    /**
+     * Verifies that a table created from a map contains the map's definitions.
+     */
+    @Test
+    public void ofShouldContainTheDefinitionsOfTheMap() {
+        DefinitionTable table =
+                DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE, VARIABLE_B, LiteralExpression.FALSE));
+        assertEquals(2, table.size());
+        assertEquals(LiteralExpression.TRUE, table.get(VARIABLE_A));
+        assertEquals(LiteralExpression.FALSE, table.get(VARIABLE_B));
+    }
+
+    /**
+     * Verifies that <code>get</code> returns null for a variable that isn't defined.
+     */
+    @Test
+    public void getShouldReturnNullForAnUndefinedVariable() {
+        DefinitionTable table = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE));
+        assertNull(table.get(VARIABLE_B));
+        assertFalse(table.containsKey(VARIABLE_B));
+    }
+
+    /**
+     * Verifies that <code>put</code> replaces the definition of a variable that's defined already.
+     */
+    @Test
+    public void putShouldReplaceAnExistingDefinition() {
+        DefinitionTable table = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE));
+        table.put(VARIABLE_A.id(), LiteralExpression.FALSE);
+        assertEquals(1, table.size());
+        assertEquals(LiteralExpression.FALSE, table.get(VARIABLE_A));
+    }
+
+    /**
+     * Verifies that the table keeps its definitions in insertion order.
+     */
+    @Test
+    public void tableShouldKeepTheDefinitionsInInsertionOrder() {
+        DefinitionTable table = new DefinitionTable();
+        table.put(VARIABLE_C.id(), LiteralExpression.TRUE);
+        table.put(VARIABLE_A.id(), LiteralExpression.FALSE);
+        assertEquals(VARIABLE_C.id(), table.getId(0));
+        assertEquals(VARIABLE_A.id(), table.getId(1));
+        assertEquals(LiteralExpression.FALSE, table.getExpression(1));
+    }
+
+    /**
+     * Verifies that the table finds all its definitions after growing.
+     */
+    @Test
+    public void tableShouldFindAllDefinitionsAfterGrowing() {
+        DefinitionTable table = new DefinitionTable();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            table.put(new Variable("dt" + i).id(), i % 2 == 0 ? LiteralExpression.TRUE : LiteralExpression.FALSE);
+        }
+        assertEquals(LARGE_SIZE, table.size());
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            assertEquals(i % 2 == 0 ? LiteralExpression.TRUE : LiteralExpression.FALSE,
+                    table.get(new Variable("dt" + i)));
+        }
+    }
+
+    /**
+     * Verifies that <code>containsSame</code> ignores the order of the definitions.
+     */
+    @Test
+    public void containsSameShouldIgnoreTheOrderOfTheDefinitions() {
+        DefinitionTable table1 =
+                DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE, VARIABLE_B, LiteralExpression.FALSE));
+        DefinitionTable table2 =
+                DefinitionTable.of(Map.of(VARIABLE_B, LiteralExpression.FALSE, VARIABLE_A, LiteralExpression.TRUE));
+        assertTrue(table1.containsSame(table2));
+    }
+
+    /**
+     * Verifies that <code>containsSame</code> detects a different definition.
+     */
+    @Test
+    public void containsSameShouldReturnFalseForADifferentDefinition() {
+        DefinitionTable table1 = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE));
+        DefinitionTable table2 = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.FALSE));
+        assertFalse(table1.containsSame(table2));
+    }
+
+    /**
+     * Verifies that an extended table contains both the definitions of the base table and the extension, with the
+     * definitions of the base table first.
+     */
+    @Test
+    public void extendWithShouldContainTheDefinitionsOfTheBaseTableAndTheExtension() {
+        DefinitionTable base = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE));
+        DefinitionTable extended = base.extendWith(Map.of(VARIABLE_B, LiteralExpression.FALSE));
+        assertEquals(2, extended.size());
+        assertEquals(LiteralExpression.TRUE, extended.get(VARIABLE_A));
+        assertEquals(LiteralExpression.FALSE, extended.get(VARIABLE_B));
+        assertEquals(VARIABLE_A.id(), extended.getId(0));
+        assertEquals(VARIABLE_B.id(), extended.getId(1));
+    }
+
+    /**
+     * Verifies that extending a table leaves the base table unchanged.
+     */
+    @Test
+    public void extendWithShouldNotModifyTheBaseTable() {
+        DefinitionTable base = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE));
+        base.extendWith(Map.of(VARIABLE_B, LiteralExpression.FALSE));
+        assertEquals(1, base.size());
+        assertNull(base.get(VARIABLE_B));
+    }
+
+    /**
+     * Verifies that an extension redefining a variable of the base table replaces the definition.
+     */
+    @Test
+    public void extendWithShouldReplaceDefinitionsOfTheBaseTable() {
+        DefinitionTable base =
+                DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE, VARIABLE_B, LiteralExpression.TRUE));
+        DefinitionTable extended = base.extendWith(Map.of(VARIABLE_A, LiteralExpression.FALSE));
+        assertEquals(2, extended.size());
+        assertEquals(LiteralExpression.FALSE, extended.get(VARIABLE_A));
+        assertEquals(LiteralExpression.TRUE, base.get(VARIABLE_A));
+    }
+
+    /**
+     * Verifies that a variable of the base table can't be redefined through an overlay.
+     */
+    @Test
+    public void putShouldThrowExceptionForAVariableOfTheBaseTable() {
+        DefinitionTable base = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE));
+        DefinitionTable extended = base.extendWith(Map.of(VARIABLE_B, LiteralExpression.FALSE));
+        assertThrows(IllegalStateException.class, () -> extended.put(VARIABLE_A.id(), LiteralExpression.FALSE));
+    }
+
+    /**
+     * Verifies that a long chain of extensions keeps all definitions.
+     */
+    @Test
+    public void extendWithShouldKeepAllDefinitionsInALongChainOfExtensions() {
+        DefinitionTable table = new DefinitionTable();
+        for (int i = 0; i < LARGE_SIZE / 10; i++) {
+            table = table.extendWith(Map.of(new Variable("dte" + i), LiteralExpression.TRUE));
+        }
+        assertEquals(LARGE_SIZE / 10, table.size());
+        for (int i = 0; i < LARGE_SIZE / 10; i++) {
+            assertEquals(new Variable("dte" + i).id(), table.getId(i));
+            assertEquals(LiteralExpression.TRUE, table.get(new Variable("dte" + i)));
+        }
+    }
+
+    /**
+     * Verifies that the positions of the definitions in an extended table are found in both layers.
+     */
+    @Test
+    public void getPositionShouldReturnThePositionInAnExtendedTable() {
+        DefinitionTable base = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE));
+        DefinitionTable extended = base.extendWith(Map.of(VARIABLE_B, LiteralExpression.FALSE));
+        assertEquals(0, extended.getPosition(VARIABLE_A.id()));
+        assertEquals(1, extended.getPosition(VARIABLE_B.id()));
+        assertEquals(-1, extended.getPosition(VARIABLE_C.id()));
+    }
+
+    /**
+     * Verifies that <code>retainAll</code> drops the definitions that aren't marked, keeping the order of the others.
+     */
+    @Test
+    public void retainAllShouldDropTheDefinitionsThatAreNotMarked() {
+        DefinitionTable table = new DefinitionTable();
+        table.put(VARIABLE_A.id(), LiteralExpression.TRUE);
+        table.put(VARIABLE_B.id(), LiteralExpression.FALSE);
+        table.put(VARIABLE_C.id(), LiteralExpression.FALSE);
+        table.retainAll(new long[] {0b101L});
+        assertEquals(2, table.size());
+        assertEquals(VARIABLE_A.id(), table.getId(0));
+        assertEquals(VARIABLE_C.id(), table.getId(1));
+        assertNull(table.get(VARIABLE_B));
+        assertEquals(1, table.getPosition(VARIABLE_C.id()));
+    }
+
+    /**
+     * Verifies that the table finds all its retained definitions after having been trimmed by <code>retainAll</code>.
+     */
+    @Test
+    public void retainAllShouldKeepTheRetainedDefinitionsFindableAfterTrimming() {
+        DefinitionTable table = new DefinitionTable();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            table.put(new Variable("dt" + i).id(), LiteralExpression.TRUE);
+        }
+        long[] retained = new long[(LARGE_SIZE + Long.SIZE - 1) / Long.SIZE];
+        retained[0] = 1L;
+        retained[1] = 1L;
+        table.retainAll(retained);
+        assertEquals(2, table.size());
+        assertEquals(LiteralExpression.TRUE, table.get(new Variable("dt" + Long.SIZE)));
+        assertNull(table.get(new Variable("dt1")));
+        table.put(VARIABLE_A.id(), LiteralExpression.FALSE);
+        assertEquals(LiteralExpression.FALSE, table.get(VARIABLE_A));
+    }
+
+    /**
+     * Verifies that extending a table stored off the heap doesn't allocate a full segment for the overlay, and that the
+     * overlay reads its definitions back from the arena.
+     */
+    @Test
+    public void extendWithShouldSizeTheArenaOfAnOverlayToTheExtension() {
+        DefinitionTable base = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE))
+                .toOffHeap(OffHeapArena.DEFAULT_SEGMENT_SIZE);
+        long baseBytes = base.getAllocatedOffHeapBytes();
+        DefinitionTable extended = base.extendWith(Map.of(VARIABLE_B, new NegationExpression(VARIABLE_A)));
+        assertTrue(extended.getAllocatedOffHeapBytes() - baseBytes < OffHeapArena.DEFAULT_SEGMENT_SIZE);
+        assertEquals(new NegationExpression(VARIABLE_A), extended.get(VARIABLE_B));
+    }
+
+    /**
+     * Verifies that an empty table created from a table stored off the heap doesn't allocate a full segment.
+     */
+    @Test
+    public void createEmptyShouldSizeTheArenaToTheExpectedSize() {
+        DefinitionTable table = new DefinitionTable(1, new OffHeapArena()).createEmpty(2);
+        table.put(VARIABLE_A.id(), LiteralExpression.TRUE);
+        table.put(VARIABLE_B.id(), new NegationExpression(VARIABLE_A));
+        assertTrue(table.getAllocatedOffHeapBytes() < OffHeapArena.DEFAULT_SEGMENT_SIZE);
+        assertEquals(LiteralExpression.TRUE, table.get(VARIABLE_A));
+    }
+
+    /**
+     * Verifies that <code>retainAll</code> throws an exception on an overlay.
+     */
+    @Test
+    public void retainAllShouldThrowExceptionForAnOverlay() {
+        DefinitionTable table = DefinitionTable.of(Map.of(VARIABLE_A, LiteralExpression.TRUE))
+                .extendWith(Map.of(VARIABLE_B, LiteralExpression.FALSE));
+        assertThrows(IllegalStateException.class, () -> table.retainAll(new long[] {0b1L}));
+    }
+
+    /**
+     * Verifies that the operands of the definitions can be read without decoding the expressions, both on and off the
+     * heap.
+     */
+    @Test
+    public void getOperandIdShouldReturnTheVariablesOfTheOperands() {
+        Map<Variable, Expression> map = Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B)), VARIABLE_B,
+                new NegationExpression(VARIABLE_A), VARIABLE_A, LiteralExpression.TRUE);
+        for (DefinitionTable table : new DefinitionTable[] {DefinitionTable.of(map),
+                DefinitionTable.of(map).toOffHeap(OffHeapArena.DEFAULT_SEGMENT_SIZE)}) {
+            int c = table.getPosition(VARIABLE_C.id());
+            assertEquals(2, table.getNumberOfOperands(c));
+            assertEquals(VARIABLE_A.id(), table.getOperandId(c, 0));
+            assertEquals(VARIABLE_B.id(), table.getOperandId(c, 1));
+            int b = table.getPosition(VARIABLE_B.id());
+            assertEquals(1, table.getNumberOfOperands(b));
+            assertEquals(VARIABLE_A.id(), table.getOperandId(b, 0));
+            assertEquals(0, table.getNumberOfOperands(table.getPosition(VARIABLE_A.id())));
+        }
+    }
+
+    /**
+     * Verifies that reading the operands of definitions stored off the heap in place allocates far less on the heap
+     * than decoding the expressions to get their variables.
+     */
+    @Test
+    public void readingTheOperandsOffTheHeapShouldAllocateLessThanDecodingTheExpressions() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        DefinitionTable table = new DefinitionTable(TRAVERSAL_SIZE, new OffHeapArena());
+        Expression and = new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_C), ValueCollection.of(VARIABLE_B));
+        for (int i = 0; i < TRAVERSAL_SIZE; i++) {
+            table.put(VariableTable.intern("definitionTableTestTraversal" + i), and);
+        }
+        long start = threadMXBean.getCurrentThreadAllocatedBytes();
+        long decodedSum = 0L;
+        for (int position = 0; position < table.size(); position++) {
+            for (Variable variable : table.getExpression(position).getVariables()) {
+                decodedSum += variable.id();
+            }
+        }
+        long decoding = threadMXBean.getCurrentThreadAllocatedBytes() - start;
+        start = threadMXBean.getCurrentThreadAllocatedBytes();
+        long inPlaceSum = 0L;
+        for (int position = 0; position < table.size(); position++) {
+            for (int i = 0; i < table.getNumberOfOperands(position); i++) {
+                inPlaceSum += table.getOperandId(position, i);
+            }
+        }
+        long inPlace = threadMXBean.getCurrentThreadAllocatedBytes() - start;
+        assertEquals(decodedSum, inPlaceSum);
+        assertTrue(inPlace * ALLOCATION_FACTOR < decoding);
+    }
+}
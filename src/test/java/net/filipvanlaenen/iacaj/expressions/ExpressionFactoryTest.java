@@ -0,0 +1,73 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>ExpressionFactory</code> class.
+ */
+public class ExpressionFactoryTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+
+    /**
+     * Verifies that two and functions with the same operands in a different order are the same node.
+     */
+    @Test
+    public void andShouldReturnTheSameNodeForOperandsInADifferentOrder() {
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        assertSame(expressionFactory.and(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()),
+                expressionFactory.and(ValueCollection.of(VARIABLE_B, VARIABLE_A), ValueCollection.empty()));
+    }
+
+    /**
+     * Verifies that two xor functions with the same operands in a different order are the same node.
+     */
+    @Test
+    public void xorShouldReturnTheSameNodeForOperandsInADifferentOrder() {
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        assertSame(expressionFactory.xor(ValueCollection.of(VARIABLE_A, VARIABLE_B), true),
+                expressionFactory.xor(ValueCollection.of(VARIABLE_B, VARIABLE_A), true));
+    }
+
+    /**
+     * Verifies that an and function and an or function with the same operands are different nodes.
+     */
+    @Test
+    public void andAndOrShouldReturnDifferentNodesForTheSameOperands() {
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        assertNotSame(expressionFactory.and(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()),
+                expressionFactory.or(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()));
+    }
+
+    /**
+     * Verifies that identity expressions are shared.
+     */
+    @Test
+    public void identityShouldReturnTheSameNodeForTheSameVariable() {
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        assertSame(expressionFactory.identity(VARIABLE_A), expressionFactory.identity(VARIABLE_A));
+        assertEquals(1, expressionFactory.size());
+    }
+
+    /**
+     * Verifies that literal expressions are returned as they are.
+     */
+    @Test
+    public void internShouldReturnLiteralExpressionsAsTheyAre() {
+        ExpressionFactory expressionFactory = new ExpressionFactory();
+        assertSame(LiteralExpression.TRUE, expressionFactory.intern(LiteralExpression.TRUE));
+        assertEquals(0, expressionFactory.size());
+    }
+}
@@ -0,0 +1,85 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>FanOutIndex</code> class.
+ */
+public class FanOutIndexTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable f.
+     */
+    private static final Variable VARIABLE_F = new Variable("f");
+
+    /**
+     * Creates a table with the definitions below.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = ¬c
+     * e = b ⊻ f
+     * </pre>
+     *
+     * @return A table with the definitions.
+     */
+    private static DefinitionTable createTable() {
+        DefinitionTable table = new DefinitionTable();
+        table.put(VARIABLE_C.id(),
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()));
+        table.put(VARIABLE_D.id(), new NegationExpression(VARIABLE_C));
+        table.put(VARIABLE_E.id(), new XorFunction(ValueCollection.of(VARIABLE_B, VARIABLE_F), false));
+        return table;
+    }
+
+    /**
+     * Verifies that the users of input variables and defined variables are indexed.
+     */
+    @Test
+    public void getNumberOfUsersShouldCountTheDefinitionsUsingAVariable() {
+        FanOutIndex index = FanOutIndex.of(createTable());
+        assertEquals(1, index.getNumberOfUsers(VARIABLE_A.id()));
+        assertEquals(2, index.getNumberOfUsers(VARIABLE_B.id()));
+        assertEquals(1, index.getNumberOfUsers(VARIABLE_C.id()));
+        assertEquals(0, index.getNumberOfUsers(VARIABLE_D.id()));
+    }
+
+    /**
+     * Verifies that the transitive fan-out of an input variable is marked.
+     */
+    @Test
+    public void markTransitiveFanOutShouldMarkTheDefinitionsDependingOnAVariable() {
+        DefinitionTable table = createTable();
+        FanOutIndex index = FanOutIndex.of(table);
+        assertArrayEquals(new boolean[] {true, true, false},
+                index.markTransitiveFanOut(new int[] {VARIABLE_A.id()}, table));
+        assertArrayEquals(new boolean[] {false, false, true},
+                index.markTransitiveFanOut(new int[] {VARIABLE_F.id()}, table));
+        assertArrayEquals(new boolean[] {true, true, true},
+                index.markTransitiveFanOut(new int[] {VARIABLE_B.id()}, table));
+    }
+}
@@ -0,0 +1,189 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ModifiableMap;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>LinearSubsystem</code> class.
+ */
+public class LinearSubsystemTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable f.
+     */
+    private static final Variable VARIABLE_F = new Variable("f");
+    /**
+     * The variable g.
+     */
+    private static final Variable VARIABLE_G = new Variable("g");
+
+    /**
+     * The length of a long chain of xor definitions.
+     */
+    private static final int CHAIN_LENGTH = 1_000;
+
+    /**
+     * Creates a vectorial function with the definitions below, where a, b and c are input variables.
+     *
+     * <pre>
+     * d = a ⊻ b
+     * e = ¬(d ⊻ c)
+     * f = e ⊻ d
+     * g = a ∧ e
+     * </pre>
+     *
+     * @return The vectorial function.
+     */
+    private static VectorialFunction createVectorialFunction() {
+        return new VectorialFunction(Map.of(
+                VARIABLE_D, new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), false),
+                VARIABLE_E, new XorFunction(ValueCollection.of(VARIABLE_D, VARIABLE_C), true),
+                VARIABLE_F, new XorFunction(ValueCollection.of(VARIABLE_E, VARIABLE_D), false),
+                VARIABLE_G, new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_E), ValueCollection.empty())));
+    }
+
+    /**
+     * Verifies that the xor definitions needed after substitution are expressed in terms of the leaves, and that the
+     * other ones are eliminated.
+     */
+    @Test
+    public void ofShouldSubstituteTheSolvedRows() {
+        LinearSubsystem linearSubsystem =
+                LinearSubsystem.of(createVectorialFunction(), new Word(VARIABLE_F, VARIABLE_G), 1);
+        DefinitionTable definitions = linearSubsystem.getDefinitions();
+        assertEquals(3, linearSubsystem.getNumberOfLinearDefinitions());
+        assertEquals(1, linearSubsystem.getNumberOfEliminatedDefinitions());
+        assertNull(definitions.get(VARIABLE_D));
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), true),
+                definitions.get(VARIABLE_E));
+        assertEquals(new NegationExpression(VARIABLE_C), definitions.get(VARIABLE_F));
+        assertEquals(new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_E), ValueCollection.empty()),
+                definitions.get(VARIABLE_G));
+    }
+
+    /**
+     * Verifies that the definitions of output variables are never eliminated.
+     */
+    @Test
+    public void ofShouldKeepTheDefinitionsOfOutputVariables() {
+        LinearSubsystem linearSubsystem =
+                LinearSubsystem.of(createVectorialFunction(), new Word(VARIABLE_D, VARIABLE_F, VARIABLE_G), 1);
+        assertEquals(0, linearSubsystem.getNumberOfEliminatedDefinitions());
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), false),
+                linearSubsystem.getDefinitions().get(VARIABLE_D));
+    }
+
+    /**
+     * Verifies that a cycle of xor definitions that can't be solved is detected.
+     */
+    @Test
+    public void ofShouldThrowExceptionForACycleThatCantBeSolved() {
+        VectorialFunction vectorialFunction = new VectorialFunction(
+                Map.of(VARIABLE_D, new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_E), false), VARIABLE_E,
+                        new XorFunction(ValueCollection.of(VARIABLE_B, VARIABLE_D), false)));
+        assertThrows(IllegalStateException.class, () -> LinearSubsystem.of(vectorialFunction, new Word(VARIABLE_E), 1));
+    }
+
+    /**
+     * Verifies that a long chain of xor definitions is solved by substitution, eliminating all the links of the chain
+     * that aren't needed anymore.
+     */
+    @Test
+    public void ofShouldSolveALongChainOfXorDefinitions() {
+        ModifiableMap<Variable, Expression> map = ModifiableMap.empty();
+        Variable previous = new Variable("linearSubsystemTestChain0");
+        map.add(previous, new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), false));
+        for (int i = 1; i < CHAIN_LENGTH; i++) {
+            Variable next = new Variable("linearSubsystemTestChain" + i);
+            map.add(next, new XorFunction(ValueCollection.of(previous, VARIABLE_A), false));
+            previous = next;
+        }
+        LinearSubsystem linearSubsystem = LinearSubsystem.of(new VectorialFunction(map), new Word(previous), 1);
+        assertEquals(CHAIN_LENGTH - 1, linearSubsystem.getNumberOfEliminatedDefinitions());
+        assertEquals(new IdentityExpression(VARIABLE_B), linearSubsystem.getDefinitions().get(previous));
+    }
+
+    /**
+     * Verifies that a cycle of xor definitions that determines its variables uniquely is solved, together with the
+     * xor definitions depending on it.
+     */
+    @Test
+    public void ofShouldSolveACycleThatDeterminesItsVariables() {
+        VectorialFunction vectorialFunction = new VectorialFunction(Map.of(
+                VARIABLE_D, new XorFunction(ValueCollection.of(VARIABLE_E, VARIABLE_A), false),
+                VARIABLE_E, new XorFunction(ValueCollection.of(VARIABLE_F, VARIABLE_B), false),
+                VARIABLE_F, new XorFunction(ValueCollection.of(VARIABLE_D, VARIABLE_E, VARIABLE_C), false),
+                VARIABLE_G, new XorFunction(ValueCollection.of(VARIABLE_D, VARIABLE_A), false)));
+        DefinitionTable definitions = LinearSubsystem
+                .of(vectorialFunction, new Word(VARIABLE_D, VARIABLE_E, VARIABLE_F, VARIABLE_G), 1).getDefinitions();
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_B, VARIABLE_C), false), definitions.get(VARIABLE_D));
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), false),
+                definitions.get(VARIABLE_E));
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_C), false), definitions.get(VARIABLE_F));
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), false),
+                definitions.get(VARIABLE_G));
+    }
+
+    /**
+     * Verifies that an exception is thrown for a parallelism that isn't positive, even if no matrix is reduced.
+     */
+    @Test
+    public void ofShouldThrowExceptionForParallelismZero() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LinearSubsystem.of(createVectorialFunction(), new Word(VARIABLE_F), 0));
+    }
+
+    /**
+     * Verifies that when the budget is exhausted before any xor definition is solved, the definitions are kept as they
+     * are, including the ones used by other xor definitions only.
+     */
+    @Test
+    public void ofShouldKeepTheDefinitionsThatWereNotSolvedWhenTheBudgetIsExhausted() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.cancel();
+        LinearSubsystem linearSubsystem =
+                LinearSubsystem.of(createVectorialFunction(), new Word(VARIABLE_F, VARIABLE_G), 1, budget);
+        assertTrue(linearSubsystem.isCutShort());
+        assertEquals(0, linearSubsystem.getNumberOfEliminatedDefinitions());
+        assertTrue(linearSubsystem.getDefinitions().containsSame(createVectorialFunction().getDefinitions()));
+    }
+
+    /**
+     * Verifies that solving the linear subsystem within a budget that isn't exhausted isn't cut short.
+     */
+    @Test
+    public void ofShouldNotBeCutShortWithinABudgetThatIsNotExhausted() {
+        LinearSubsystem linearSubsystem = LinearSubsystem.of(createVectorialFunction(),
+                new Word(VARIABLE_F, VARIABLE_G), 1, new SimplificationBudget());
+        assertFalse(linearSubsystem.isCutShort());
+        assertEquals(1, linearSubsystem.getNumberOfEliminatedDefinitions());
+    }
+}
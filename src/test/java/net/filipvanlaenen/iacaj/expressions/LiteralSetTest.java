@@ -0,0 +1,146 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static net.filipvanlaenen.iacaj.expressions.Assertions.createVariableCollection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>LiteralSet</code> class.
+ */
+public class LiteralSetTest {
+    /**
+     * Creates a literal set from the names of the direct and negated variables.
+     *
+     * @param directNames  The names of the direct variables.
+     * @param negatedNames The names of the negated variables.
+     * @return A literal set with the direct and negated variables.
+     */
+    private static LiteralSet createLiteralSet(final String[] directNames, final String... negatedNames) {
+        return LiteralSet.of(createVariableCollection(directNames), createVariableCollection(negatedNames));
+    }
+
+    /**
+     * Verifies that two literal sets with the same literals in a different order are equal.
+     */
+    @Test
+    public void literalSetsWithTheSameLiteralsShouldBeEqual() {
+        assertEquals(createLiteralSet(new String[] {"a", "b"}, "c"), createLiteralSet(new String[] {"b", "a"}, "c"));
+    }
+
+    /**
+     * Verifies that a literal set containing a variable both directly and negated is contradictory.
+     */
+    @Test
+    public void literalSetWithVariableDirectlyAndNegatedShouldBeContradictory() {
+        assertTrue(createLiteralSet(new String[] {"a", "b"}, "a").isContradictory());
+    }
+
+    /**
+     * Verifies that a literal set without a variable both directly and negated isn't contradictory.
+     */
+    @Test
+    public void literalSetWithoutVariableDirectlyAndNegatedShouldNotBeContradictory() {
+        assertFalse(createLiteralSet(new String[] {"a", "b"}, "c").isContradictory());
+    }
+
+    /**
+     * Verifies that <code>distinct</code> removes the duplicates.
+     */
+    @Test
+    public void distinctShouldRemoveDuplicates() {
+        assertEquals(createLiteralSet(new String[] {"a"}, "b"),
+                createLiteralSet(new String[] {"a", "a"}, "b", "b").distinct());
+    }
+
+    /**
+     * Verifies that two literal sets sharing a negated variable intersect.
+     */
+    @Test
+    public void literalSetsSharingANegatedVariableShouldIntersect() {
+        assertTrue(createLiteralSet(new String[] {"a"}, "b").intersects(createLiteralSet(new String[] {"c"}, "b")));
+    }
+
+    /**
+     * Verifies that two literal sets sharing a variable with opposite signs don't intersect, but intersect with the
+     * complement.
+     */
+    @Test
+    public void literalSetsSharingAVariableWithOppositeSignsShouldIntersectWithTheComplement() {
+        LiteralSet literalSet = createLiteralSet(new String[] {"a"}, "b");
+        LiteralSet other = createLiteralSet(new String[] {"b"}, "c");
+        assertFalse(literalSet.intersects(other));
+        assertTrue(literalSet.intersectsComplementOf(other));
+    }
+
+    /**
+     * Verifies that the builder sorts the literals.
+     */
+    @Test
+    public void builderShouldSortTheLiterals() {
+        LiteralSet.Builder builder = new LiteralSet.Builder();
+        builder.addDirect(new Variable("b").id());
+        builder.addDirect(new Variable("a").id());
+        builder.addNegated(new Variable("c").id());
+        assertEquals(createLiteralSet(new String[] {"a", "b"}, "c"), builder.build());
+    }
+
+    /**
+     * Verifies that the complement of a literal set negates every literal, also for a variable occurring both directly
+     * and negated.
+     */
+    @Test
+    public void complementShouldNegateEveryLiteral() {
+        assertEquals(createLiteralSet(new String[] {"b", "c", "c"}, "a", "c"),
+                createLiteralSet(new String[] {"a", "c"}, "b", "c", "c").complement());
+    }
+
+    /**
+     * Verifies that a literal set containing a variable both directly and negated intersects with the complement of
+     * a literal set containing the variable directly.
+     */
+    @Test
+    public void literalSetWithAVariableOfBothSignsShouldIntersectWithTheComplement() {
+        LiteralSet literalSet = createLiteralSet(new String[] {"a"}, "a");
+        assertTrue(literalSet.intersectsComplementOf(createLiteralSet(new String[] {"a"})));
+    }
+
+    /**
+     * Verifies that <code>toString</code> lists the direct literals before the negated literals.
+     */
+    @Test
+    public void toStringShouldListTheDirectLiteralsFirst() {
+        assertEquals("b ∧ c ∧ ¬a", createLiteralSet(new String[] {"c", "b"}, "a").toString(Operator.AND));
+    }
+
+    /**
+     * Verifies that <code>without</code> removes the literals occurring in the other literal set.
+     */
+    @Test
+    public void withoutShouldRemoveTheLiteralsOfTheOtherLiteralSet() {
+        assertEquals(createLiteralSet(new String[] {"b"}, "c"), createLiteralSet(new String[] {"a", "b"}, "c", "d")
+                .without(createLiteralSet(new String[] {"a", "c"}, "d")));
+    }
+
+    /**
+     * Verifies that <code>withoutComplementsOf</code> removes the literals whose complement occurs in the other literal
+     * set.
+     */
+    @Test
+    public void withoutComplementsOfShouldRemoveTheComplementsOfTheLiteralsOfTheOtherLiteralSet() {
+        assertEquals(createLiteralSet(new String[] {"b"}, "c"), createLiteralSet(new String[] {"a", "b"}, "c", "d")
+                .withoutComplementsOf(createLiteralSet(new String[] {"d"}, "a")));
+    }
+
+    /**
+     * Verifies that <code>without</code> returns the literal set itself if no literals are removed.
+     */
+    @Test
+    public void withoutShouldReturnTheLiteralSetItselfIfNothingIsRemoved() {
+        LiteralSet literalSet = createLiteralSet(new String[] {"a"}, "b");
+        assertSame(literalSet, literalSet.without(createLiteralSet(new String[] {"b"}, "a")));
+    }
+}
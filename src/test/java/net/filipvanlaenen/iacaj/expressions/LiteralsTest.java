@@ -0,0 +1,95 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>Literals</code> class.
+ */
+public class LiteralsTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The length of a chain of definitions too deep to be resolved by recursion.
+     */
+    private static final int LONG_CHAIN_LENGTH = 100_000;
+
+    /**
+     * Verifies that a literal is twice the variable ID, plus one if negated.
+     */
+    @Test
+    public void ofShouldPackTheSignIntoTheLowestBit() {
+        assertEquals(2 * VARIABLE_A.id(), Literals.of(VARIABLE_A.id(), false));
+        assertEquals(2 * VARIABLE_A.id() + 1, Literals.of(VARIABLE_A.id(), true));
+    }
+
+    /**
+     * Verifies that the variable ID and the sign are unpacked from a literal.
+     */
+    @Test
+    public void idAndIsNegatedShouldUnpackALiteral() {
+        int literal = Literals.of(VARIABLE_A.id(), true);
+        assertEquals(VARIABLE_A.id(), Literals.id(literal));
+        assertTrue(Literals.isNegated(literal));
+        assertFalse(Literals.isNegated(Literals.negate(literal)));
+    }
+
+    /**
+     * Verifies that <code>negateIf</code> negates the literal only if the condition holds.
+     */
+    @Test
+    public void negateIfShouldNegateOnlyIfTheConditionHolds() {
+        int literal = Literals.of(VARIABLE_A.id(), false);
+        assertEquals(literal, Literals.negateIf(literal, false));
+        assertEquals(Literals.negate(literal), Literals.negateIf(literal, true));
+    }
+
+    /**
+     * Verifies that literals are converted into identity and negation expressions.
+     */
+    @Test
+    public void toExpressionShouldReturnIdentityOrNegationExpressions() {
+        assertEquals(new IdentityExpression(VARIABLE_A), Literals.toExpression(Literals.of(VARIABLE_A.id(), false)));
+        assertEquals(new NegationExpression(VARIABLE_A), Literals.toExpression(Literals.of(VARIABLE_A.id(), true)));
+    }
+
+    /**
+     * Verifies that a long chain of alternating identity and negation definitions is resolved without overflowing the
+     * stack.
+     */
+    @Test
+    public void simplifyShouldResolveALongChainOfDefinitions() {
+        DefinitionTable definitions = new DefinitionTable(LONG_CHAIN_LENGTH);
+        Variable previous = VARIABLE_A;
+        for (int i = 0; i < LONG_CHAIN_LENGTH; i++) {
+            Variable variable = new Variable("chain" + i);
+            definitions.put(variable.id(),
+                    i % 2 == 0 ? new NegationExpression(previous) : new IdentityExpression(previous));
+            previous = variable;
+        }
+        assertEquals(new NegationExpression(VARIABLE_A),
+                Literals.simplify(Literals.of(previous.id(), true), definitions).simplify());
+    }
+
+    /**
+     * Verifies that a cyclic chain of identity definitions is detected.
+     */
+    @Test
+    public void simplifyShouldThrowExceptionOnACyclicChainOfDefinitions() {
+        DefinitionTable definitions = new DefinitionTable();
+        definitions.put(VARIABLE_A.id(), new IdentityExpression(VARIABLE_B));
+        definitions.put(VARIABLE_B.id(), new NegationExpression(VARIABLE_A));
+        assertThrows(IllegalStateException.class, () -> Literals.simplify(Literals.of(VARIABLE_A.id(), false),
+                definitions));
+    }
+}
@@ -0,0 +1,184 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>OffHeapArena</code> class.
+ */
+public class OffHeapArenaTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * A small segment size, such that a few expressions fill a segment.
+     */
+    private static final int SMALL_SEGMENT_SIZE = 24;
+    /**
+     * The size of an and function with five literals, i.e. a header of two integers and five operands, in bytes.
+     */
+    private static final int WIDE_AND_FUNCTION_SIZE = 28;
+
+    /**
+     * Writes an expression into an arena, and reads it back.
+     *
+     * @param expression The expression.
+     * @return The expression read back from the arena.
+     */
+    private static Expression writeAndRead(final Expression expression) {
+        OffHeapArena arena = new OffHeapArena(SMALL_SEGMENT_SIZE);
+        return arena.read(arena.write(expression));
+    }
+
+    /**
+     * Verifies that literal expressions are read back correctly.
+     */
+    @Test
+    public void readShouldReturnTheLiteralExpressionsWritten() {
+        assertEquals(LiteralExpression.FALSE, writeAndRead(LiteralExpression.FALSE));
+        assertEquals(LiteralExpression.TRUE, writeAndRead(LiteralExpression.TRUE));
+    }
+
+    /**
+     * Verifies that identity and negation expressions are read back correctly.
+     */
+    @Test
+    public void readShouldReturnTheIdentityAndNegationExpressionsWritten() {
+        assertEquals(new IdentityExpression(VARIABLE_A), writeAndRead(new IdentityExpression(VARIABLE_A)));
+        assertEquals(new NegationExpression(VARIABLE_A), writeAndRead(new NegationExpression(VARIABLE_A)));
+    }
+
+    /**
+     * Verifies that and and or functions are read back correctly.
+     */
+    @Test
+    public void readShouldReturnTheAndAndOrFunctionsWritten() {
+        Expression and = new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B));
+        assertEquals(and, writeAndRead(and));
+        Expression or = new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_C), ValueCollection.of(VARIABLE_B));
+        assertEquals(or, writeAndRead(or));
+    }
+
+    /**
+     * Verifies that xor functions are read back correctly.
+     */
+    @Test
+    public void readShouldReturnTheXorFunctionsWritten() {
+        Expression xor = new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), false);
+        assertEquals(xor, writeAndRead(xor));
+        Expression negatedXor = new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), true);
+        assertEquals(negatedXor, writeAndRead(negatedXor));
+    }
+
+    /**
+     * Verifies that expressions spread over several segments are read back correctly.
+     */
+    @Test
+    public void readShouldReturnExpressionsWrittenInDifferentSegments() {
+        OffHeapArena arena = new OffHeapArena(SMALL_SEGMENT_SIZE);
+        Expression and = new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty());
+        Expression negation = new NegationExpression(VARIABLE_C);
+        long andAddress = arena.write(and);
+        long negationAddress = arena.write(negation);
+        assertEquals(2L * SMALL_SEGMENT_SIZE, arena.getAllocatedBytes());
+        assertEquals(and, arena.read(andAddress));
+        assertEquals(negation, arena.read(negationAddress));
+    }
+
+    /**
+     * Verifies that a derived arena starts with a segment sized to the expected content, and doubles the size of its
+     * segments as it grows.
+     */
+    @Test
+    public void deriveShouldSizeTheFirstSegmentToTheExpectedContent() {
+        OffHeapArena arena = new OffHeapArena().derive(1);
+        Expression negation = new NegationExpression(VARIABLE_C);
+        long firstAddress = arena.write(negation);
+        long firstSegment = arena.getAllocatedBytes();
+        assertTrue(firstSegment < OffHeapArena.DEFAULT_SEGMENT_SIZE);
+        long[] addresses = new long[SMALL_SEGMENT_SIZE];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = arena.write(negation);
+        }
+        assertTrue(arena.getAllocatedBytes() > firstSegment);
+        assertTrue(arena.getAllocatedBytes() < OffHeapArena.DEFAULT_SEGMENT_SIZE);
+        assertEquals(negation, arena.read(firstAddress));
+        assertEquals(negation, arena.read(addresses[addresses.length - 1]));
+    }
+
+    /**
+     * Verifies that the segments of a derived arena don't grow beyond the segment size.
+     */
+    @Test
+    public void deriveShouldNotGrowSegmentsBeyondTheSegmentSize() {
+        OffHeapArena arena = new OffHeapArena(SMALL_SEGMENT_SIZE).derive(Integer.MAX_VALUE);
+        arena.write(new NegationExpression(VARIABLE_C));
+        assertEquals(SMALL_SEGMENT_SIZE, arena.getAllocatedBytes());
+    }
+
+    /**
+     * Verifies that an exception is thrown for a segment size that's too small.
+     */
+    @Test
+    public void constructorShouldThrowExceptionForTooSmallSegmentSize() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapArena(Integer.BYTES));
+    }
+
+    /**
+     * Verifies that an expression larger than a segment is written to a dedicated segment of its own size, and that
+     * the expressions around it are read back correctly.
+     */
+    @Test
+    public void writeShouldAllocateADedicatedSegmentForAnExpressionLargerThanASegment() {
+        OffHeapArena arena = new OffHeapArena(SMALL_SEGMENT_SIZE);
+        Expression negation = new NegationExpression(VARIABLE_C);
+        Expression and = new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C),
+                ValueCollection.of(VARIABLE_D, VARIABLE_E));
+        long firstNegationAddress = arena.write(negation);
+        long andAddress = arena.write(and);
+        long secondNegationAddress = arena.write(negation);
+        assertEquals(SMALL_SEGMENT_SIZE + WIDE_AND_FUNCTION_SIZE, arena.getAllocatedBytes());
+        assertEquals(negation, arena.read(firstNegationAddress));
+        assertEquals(and, arena.read(andAddress));
+        assertEquals(negation, arena.read(secondNegationAddress));
+    }
+
+    /**
+     * Verifies that the operands of an expression can be read without decoding the expression, as variable IDs for
+     * the literals of an and function as well as for the variables of an xor function.
+     */
+    @Test
+    public void getOperandIdShouldReturnTheVariablesOfTheOperands() {
+        OffHeapArena arena = new OffHeapArena();
+        long and = arena.write(new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B)));
+        assertEquals(2, arena.getNumberOfOperands(and));
+        assertEquals(VARIABLE_A.id(), arena.getOperandId(and, 0));
+        assertEquals(VARIABLE_B.id(), arena.getOperandId(and, 1));
+        long xor = arena.write(new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_C), true));
+        assertEquals(2, arena.getNumberOfOperands(xor));
+        assertEquals(VARIABLE_C.id(), arena.getOperandId(xor, 1));
+        assertEquals(0, arena.getNumberOfOperands(arena.write(LiteralExpression.TRUE)));
+    }
+}
@@ -35,6 +35,47 @@ public class OrFunctionTest {
      */
     private static final Variable VARIABLE_E = new Variable("e");
 
+    /**
+     * Verifies a functional test on the simplify method as described below.
+     *
+     * <pre>
+     * c = ¬a ∧ b
+     * d = a ∨ c       ⇒ d = a ∨ b
+     * </pre>
+     */
+    @Test
+    public void simplificationOfOrWithAndWithComplementOfOtherVariable() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_B), ValueCollection.of(VARIABLE_A)), VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_C), ValueCollection.empty())));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_D));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty())));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies a functional test on the simplify method as described below, where the remaining operands of d are
+     * defined as a fresh variable.
+     *
+     * <pre>
+     * d = ¬a ∧ b ∧ c  ⇒ °1 = b ∧ c
+     * e = a ∨ d       ⇒ e = a ∨ °1
+     * </pre>
+     */
+    @Test
+    public void simplificationOfOrWithAndWithComplementOfOtherVariables() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_C), ValueCollection.of(VARIABLE_A)), VARIABLE_E,
+                new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_D), ValueCollection.empty())));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_E));
+        Variable fresh = new Variable("°1");
+        VectorialFunction expected = new VectorialFunction(Map.of(fresh,
+                new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_C), ValueCollection.empty()), VARIABLE_E,
+                new OrFunction(ValueCollection.of(VARIABLE_A, fresh), ValueCollection.empty())));
+        assertTrue(actual.containsSame(expected));
+    }
+
     /**
      * Verifies a functional test on the simplify method as described below.
      *
@@ -376,6 +417,47 @@ public class OrFunctionTest {
         assertTrue(actual.containsSame(expected));
     }
 
+    /**
+     * Verifies a functional test on the simplify method as described below.
+     *
+     * <pre>
+     * c = a ∨ b
+     * d = a ∨ ¬c      ⇒ d = a ∨ ¬b
+     * </pre>
+     */
+    @Test
+    public void simplificationOfOrWithNegatedOrWithOtherVariable() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_C))));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_D));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_B))));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies a functional test on the simplify method as described below, where the remaining operands of d are
+     * defined as a fresh variable.
+     *
+     * <pre>
+     * d = a ∨ b ∨ c   ⇒ °1 = b ∨ c
+     * e = a ∨ ¬d      ⇒ e = a ∨ ¬°1
+     * </pre>
+     */
+    @Test
+    public void simplificationOfOrWithNegatedOrWithOtherVariables() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), ValueCollection.empty()),
+                VARIABLE_E, new OrFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_D))));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_E));
+        Variable fresh = new Variable("°1");
+        VectorialFunction expected = new VectorialFunction(Map.of(fresh,
+                new OrFunction(ValueCollection.of(VARIABLE_B, VARIABLE_C), ValueCollection.empty()), VARIABLE_E,
+                new OrFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(fresh))));
+        assertTrue(actual.containsSame(expected));
+    }
+
     /**
      * Verifies a functional test on the simplify method as described below.
      *
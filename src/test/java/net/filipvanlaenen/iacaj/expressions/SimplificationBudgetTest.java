@@ -0,0 +1,104 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>SimplificationBudget</code> class.
+ */
+public class SimplificationBudgetTest {
+    /**
+     * A wall time of one second, in nanoseconds.
+     */
+    private static final long ONE_SECOND = 1_000_000_000L;
+    /**
+     * A wall time of one second, in milliseconds.
+     */
+    private static final long ONE_SECOND_IN_MILLISECONDS = 1_000L;
+
+    /**
+     * Verifies that a new budget is unlimited.
+     */
+    @Test
+    public void newBudgetShouldNotBeExhausted() {
+        assertFalse(new SimplificationBudget().isExhausted(Long.MAX_VALUE - 1L, Integer.MAX_VALUE - 1));
+    }
+
+    /**
+     * Verifies that a cancelled budget is exhausted.
+     */
+    @Test
+    public void cancelledBudgetShouldBeExhausted() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.cancel();
+        assertTrue(budget.isCancelled());
+        assertTrue(budget.isExhausted(0L, 0));
+    }
+
+    /**
+     * Verifies that a new budget isn't cancelled.
+     */
+    @Test
+    public void newBudgetShouldNotBeCancelled() {
+        assertFalse(new SimplificationBudget().isCancelled());
+    }
+
+    /**
+     * Verifies that a budget is exhausted when the maximal wall time has been reached.
+     */
+    @Test
+    public void budgetShouldBeExhaustedWhenTheMaximalWallTimeIsReached() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.setMaximumWallTime(ONE_SECOND_IN_MILLISECONDS);
+        assertFalse(budget.isExhausted(ONE_SECOND - 1L, 0));
+        assertTrue(budget.isExhausted(ONE_SECOND, 0));
+    }
+
+    /**
+     * Verifies that a budget is exhausted when the maximal number of passes has been reached.
+     */
+    @Test
+    public void budgetShouldBeExhaustedWhenTheMaximalNumberOfPassesIsReached() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.setMaximumNumberOfPasses(2);
+        assertFalse(budget.isExhausted(0L, 1));
+        assertTrue(budget.isExhausted(0L, 2));
+    }
+
+    /**
+     * Verifies that a budget is exhausted when the heap in use exceeds the maximal heap use.
+     */
+    @Test
+    public void budgetShouldBeExhaustedWhenTheHeapUseExceedsTheMaximum() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.setMaximumHeapUse(1L);
+        assertTrue(budget.isExhausted(0L, 0));
+    }
+
+    /**
+     * Verifies that setting a negative wall time throws an exception.
+     */
+    @Test
+    public void setMaximumWallTimeShouldThrowExceptionForANegativeWallTime() {
+        assertThrows(IllegalArgumentException.class, () -> new SimplificationBudget().setMaximumWallTime(-1L));
+    }
+
+    /**
+     * Verifies that setting a negative number of passes throws an exception.
+     */
+    @Test
+    public void setMaximumNumberOfPassesShouldThrowExceptionForANegativeNumberOfPasses() {
+        assertThrows(IllegalArgumentException.class, () -> new SimplificationBudget().setMaximumNumberOfPasses(-1));
+    }
+
+    /**
+     * Verifies that setting a heap use of zero bytes throws an exception.
+     */
+    @Test
+    public void setMaximumHeapUseShouldThrowExceptionForZeroBytes() {
+        assertThrows(IllegalArgumentException.class, () -> new SimplificationBudget().setMaximumHeapUse(0L));
+    }
+}
@@ -0,0 +1,79 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+
+/**
+ * Unit tests on the <code>SimplificationStats</code> class.
+ */
+public class SimplificationStatsTest {
+    /**
+     * The initial dimension used in the tests.
+     */
+    private static final int INITIAL_DIMENSION = 10;
+    /**
+     * A table with two definitions.
+     */
+    private static final DefinitionTable TWO_DEFINITIONS = DefinitionTable.of(Map.of(new Variable("b"),
+            new IdentityExpression(new Variable("a")), new Variable("c"), new NegationExpression(new Variable("a"))));
+    /**
+     * A table with one definition.
+     */
+    private static final DefinitionTable ONE_DEFINITION =
+            DefinitionTable.of(Map.of(new Variable("b"), new IdentityExpression(new Variable("a"))));
+
+    /**
+     * Verifies that the counters of an array are added to the counters of the rules.
+     */
+    @Test
+    public void addRuleCountsShouldAddTheCountersOfTheArray() {
+        SimplificationStats stats = new SimplificationStats(INITIAL_DIMENSION);
+        long[] ruleCounts = new long[SimplificationRule.NUMBER_OF_RULES];
+        SimplificationRule.ABSORPTION.count(ruleCounts);
+        SimplificationRule.ABSORPTION.count(ruleCounts);
+        stats.addRuleCounts(ruleCounts);
+        stats.count(SimplificationRule.ABSORPTION, 1L);
+        assertEquals(3L, stats.getCount(SimplificationRule.ABSORPTION));
+        assertEquals(0L, stats.getCount(SimplificationRule.DE_MORGAN));
+    }
+
+    /**
+     * Verifies that a pass is recorded with its name and the dimension after the pass when it ends.
+     */
+    @Test
+    public void endPassShouldRecordThePass() {
+        SimplificationStats stats = new SimplificationStats(INITIAL_DIMENSION);
+        stats.startPass();
+        stats.endPass("first", TWO_DEFINITIONS);
+        stats.startPass();
+        stats.endPass("second", ONE_DEFINITION);
+        assertEquals(2, stats.getPasses().size());
+        assertEquals("second", stats.getPasses().getAt(1).name());
+        assertEquals(1, stats.getPasses().getAt(1).dimension());
+        assertTrue(stats.getPasses().getAt(0).wallTime() >= 0L);
+        assertEquals(stats.getPasses().getAt(0).wallTime() + stats.getPasses().getAt(1).wallTime(),
+                stats.getWallTime());
+    }
+
+    /**
+     * Verifies that <code>toString</code> lists the initial dimension, the passes and the counters of all rules.
+     */
+    @Test
+    public void toStringShouldListThePassesAndTheRules() {
+        SimplificationStats stats = new SimplificationStats(INITIAL_DIMENSION);
+        stats.startPass();
+        stats.endPass("first", TWO_DEFINITIONS);
+        stats.count(SimplificationRule.DE_MORGAN, 2L);
+        String[] lines = stats.toString().split(System.lineSeparator());
+        assertEquals("pass, dimension, wall time (ms), CPU time (ms), allocated bytes", lines[0]);
+        assertEquals("input, 10, 0.0, 0.0, 0", lines[1]);
+        assertTrue(lines[2].startsWith("first, 2, "));
+        assertEquals("", lines[lines.length - 2 - SimplificationRule.NUMBER_OF_RULES]);
+        assertEquals("rule, count", lines[lines.length - 1 - SimplificationRule.NUMBER_OF_RULES]);
+        assertTrue(stats.toString().contains(System.lineSeparator() + "De Morgan, 2" + System.lineSeparator()));
+    }
+}
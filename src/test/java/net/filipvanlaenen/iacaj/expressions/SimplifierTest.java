@@ -0,0 +1,620 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ModifiableMap;
+import net.filipvanlaenen.kolektoj.OrderedCollection;
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>Simplifier</code> class.
+ */
+public class SimplifierTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+    /**
+     * The variable f.
+     */
+    private static final Variable VARIABLE_F = new Variable("f");
+    /**
+     * The variable g.
+     */
+    private static final Variable VARIABLE_G = new Variable("g");
+    /**
+     * The width of the wide vectorial function used to test parallel simplification.
+     */
+    private static final int WIDTH = 200;
+    /**
+     * The number of threads used to test parallel simplification.
+     */
+    private static final int PARALLELISM = 4;
+    /**
+     * The width of the deep vectorial function used to test cancelling a simplification.
+     */
+    private static final int DEEP_WIDTH = 16;
+    /**
+     * The depth of the deep vectorial function used to test cancelling a simplification.
+     */
+    private static final int DEPTH = 100;
+    /**
+     * The seed for the random input values.
+     */
+    private static final long SEED = 42L;
+    /**
+     * The number of input variables of the vectorial function used to test cancelling a simplification within a level.
+     */
+    private static final int WIDE_LEVEL_INPUTS = 256;
+    /**
+     * The number of definitions of the first level of the vectorial function used to test cancelling a simplification
+     * within a level.
+     */
+    private static final int WIDE_LEVEL_BASE = 200;
+    /**
+     * The number of definitions of the second level of the vectorial function used to test cancelling a
+     * simplification within a level.
+     */
+    private static final int WIDE_LEVEL_WIDTH = 2_000;
+    /**
+     * The number of operands of the definitions of the vectorial function used to test cancelling a simplification
+     * within a level.
+     */
+    private static final int WIDE_LEVEL_OPERANDS = 32;
+    /**
+     * The stride between the operands of a definition of the vectorial function used to test cancelling a
+     * simplification within a level.
+     */
+    private static final int WIDE_LEVEL_STRIDE = 7;
+    /**
+     * The fraction of the wall time of a full simplification after which the simplification is cancelled.
+     */
+    private static final int CANCEL_DELAY_FRACTION = 4;
+    /**
+     * The fraction of the wall time of a full simplification within which a cancelled simplification should return.
+     */
+    private static final int CANCEL_LATENCY_FRACTION = 2;
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final long NANOSECONDS_PER_MILLISECOND = 1_000_000L;
+
+    /**
+     * Verifies that a chain of definitions is resolved in a single pass, as described below.
+     *
+     * <pre>
+     * b = ¬a
+     * c = ¬b
+     * d = c ∧ b ⇒ d = false
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldResolveAChainOfDefinitions() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_B, new NegationExpression(VARIABLE_A),
+                VARIABLE_C, new NegationExpression(VARIABLE_B), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_C, VARIABLE_B), ValueCollection.empty())));
+        VectorialFunction actual = new Simplifier().simplify(original, new Word(VARIABLE_D));
+        assertTrue(actual.containsSame(new VectorialFunction(Map.of(VARIABLE_D, LiteralExpression.FALSE))));
+    }
+
+    /**
+     * Verifies that the simplified vectorial function carries the number of times the rules were applied, as
+     * described below.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = ¬c ∧ a ⇒ d = a ∧ ¬b
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldCountTheRulesApplied() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A), ValueCollection.of(VARIABLE_C))));
+        SimplificationStats stats =
+                new Simplifier().simplify(original, new Word(VARIABLE_D)).getSimplificationStats();
+        assertEquals(1L, stats.getCount(SimplificationRule.ABSORPTION));
+        assertEquals(0L, stats.getCount(SimplificationRule.ALIAS_COLLAPSING));
+        assertEquals(0L, stats.getCount(SimplificationRule.CONTRADICTION));
+    }
+
+    /**
+     * Verifies that the aliases collapsed before the symbolic simplification are counted.
+     */
+    @Test
+    public void simplifyShouldCountTheCollapsedAliases() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_B, new NegationExpression(VARIABLE_A),
+                VARIABLE_C, new NegationExpression(VARIABLE_B), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_C, VARIABLE_B), ValueCollection.empty())));
+        SimplificationStats stats =
+                new Simplifier().simplify(original, new Word(VARIABLE_D)).getSimplificationStats();
+        assertEquals(2L, stats.getCount(SimplificationRule.ALIAS_COLLAPSING));
+    }
+
+    /**
+     * Verifies that the simplified vectorial function carries the dimension of the vectorial function after each pass.
+     */
+    @Test
+    public void simplifyShouldRecordTheDimensionAfterEachPass() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_B, new NegationExpression(VARIABLE_A),
+                VARIABLE_C, new NegationExpression(VARIABLE_B), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_C, VARIABLE_B), ValueCollection.empty())));
+        SimplificationStats stats =
+                new Simplifier().simplify(original, new Word(VARIABLE_D)).getSimplificationStats();
+        assertEquals(3, stats.getInitialDimension());
+        OrderedCollection<SimplificationStats.Pass> passes = stats.getPasses();
+        assertEquals(4, passes.size());
+        assertEquals("constant propagation", passes.getAt(0).name());
+        assertEquals("compaction", passes.getAt(3).name());
+        assertEquals(1, passes.getAt(3).dimension());
+    }
+
+    /**
+     * Verifies that definitions outside the cone of influence of the output vector are dropped, as described below.
+     *
+     * <pre>
+     * b = ¬a
+     * c = a ∧ e
+     * d = ¬b ⇒ d = a
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldDropDefinitionsThatAreNotNeeded() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_B, new NegationExpression(VARIABLE_A),
+                VARIABLE_C, new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_E), ValueCollection.empty()),
+                VARIABLE_D, new NegationExpression(VARIABLE_B)));
+        VectorialFunction actual = new Simplifier().simplify(original, new Word(VARIABLE_D));
+        assertTrue(actual.containsSame(new VectorialFunction(Map.of(VARIABLE_D, new IdentityExpression(VARIABLE_A)))));
+    }
+
+    /**
+     * Verifies that an output variable replaces a variable with the same definition, as described below.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = a ∧ b
+     * e = c ∨ ¬f ⇒ e = d ∨ ¬f
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldPreferOutputVariablesWhenMergingVariables() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_E,
+                new OrFunction(ValueCollection.of(VARIABLE_C), ValueCollection.of(VARIABLE_F))));
+        VectorialFunction actual = new Simplifier().simplify(original, new Word(VARIABLE_D, VARIABLE_E));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_E,
+                new OrFunction(ValueCollection.of(VARIABLE_D), ValueCollection.of(VARIABLE_F))));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies that a fresh variable doesn't take the name of a variable occurring in the vectorial function, as
+     * described below.
+     *
+     * <pre>
+     * d = ¬a ∨ b ∨ °1  ⇒ °2 = b ∨ °1
+     * e = a ∧ d        ⇒ e = a ∧ °2
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldIntroduceFreshVariablesWithUnusedNames() {
+        Variable taken = new Variable("°1");
+        Variable fresh = new Variable("°2");
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_B, taken), ValueCollection.of(VARIABLE_A)), VARIABLE_E,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_D), ValueCollection.empty())));
+        VectorialFunction actual = new Simplifier().simplify(original, new Word(VARIABLE_E));
+        VectorialFunction expected = new VectorialFunction(Map.of(fresh,
+                new OrFunction(ValueCollection.of(VARIABLE_B, taken), ValueCollection.empty()), VARIABLE_E,
+                new AndFunction(ValueCollection.of(VARIABLE_A, fresh), ValueCollection.empty())));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies that a variable with the definition of the remaining operands is used instead of a fresh variable, as
+     * described below.
+     *
+     * <pre>
+     * c = b ∨ f
+     * d = ¬a ∨ b ∨ f
+     * e = a ∧ d        ⇒ e = a ∧ c
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldReuseAVariableWithTheDefinitionOfTheRemainingOperands() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new OrFunction(ValueCollection.of(VARIABLE_B, VARIABLE_F), ValueCollection.empty()), VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_B, VARIABLE_F), ValueCollection.of(VARIABLE_A)), VARIABLE_E,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_D), ValueCollection.empty())));
+        VectorialFunction actual = new Simplifier().simplify(original, new Word(VARIABLE_C, VARIABLE_E));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_C,
+                new OrFunction(ValueCollection.of(VARIABLE_B, VARIABLE_F), ValueCollection.empty()), VARIABLE_E,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_C), ValueCollection.empty())));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies that an exception is thrown when the definitions contain a cycle.
+     */
+    @Test
+    public void simplifyShouldThrowExceptionForACycle() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_A, new NegationExpression(VARIABLE_B),
+                VARIABLE_B, new IdentityExpression(VARIABLE_A)));
+        assertThrows(IllegalStateException.class, () -> new Simplifier().simplify(original, new Word(VARIABLE_A)));
+    }
+
+    /**
+     * Creates a simplified vectorial function with the definitions below, simplified for the output vector g.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = e ∨ f
+     * g = c ⊻ d
+     * </pre>
+     *
+     * @return The simplified vectorial function.
+     */
+    private static VectorialFunction createSimplifiedFunction() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_E, VARIABLE_F), ValueCollection.empty()), VARIABLE_G,
+                new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_D), false)));
+        return new Simplifier().simplify(original, new Word(VARIABLE_G));
+    }
+
+    /**
+     * Verifies that an extension of a simplified vectorial function is re-simplified only in the fan-out of the fixed
+     * variable, as described below.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = e ∨ f
+     * g = c ⊻ d
+     * a = true  ⇒ d = e ∨ f
+     *             g = b ⊻ d
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldReSimplifyTheFanOutOfAnExtension() {
+        VectorialFunction simplified = createSimplifiedFunction();
+        VectorialFunction actual = new Simplifier().simplify(
+                simplified.extendWith(Map.of(VARIABLE_A, LiteralExpression.TRUE)), new Word(VARIABLE_G));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_D,
+                new OrFunction(ValueCollection.of(VARIABLE_E, VARIABLE_F), ValueCollection.empty()), VARIABLE_G,
+                new XorFunction(ValueCollection.of(VARIABLE_B, VARIABLE_D), false)));
+        assertTrue(actual.containsSame(expected));
+        assertSame(simplified.getDefinitions().get(VARIABLE_D), actual.getDefinitions().get(VARIABLE_D));
+    }
+
+    /**
+     * Verifies that re-simplifying extensions of a simplified vectorial function gives the same results as simplifying
+     * the extensions from scratch, also when the fixed variable is changed.
+     */
+    @Test
+    public void simplifyShouldReSimplifyExtensionsLikeSimplifyingFromScratch() {
+        VectorialFunction simplified = createSimplifiedFunction();
+        for (LiteralExpression value : new LiteralExpression[] {LiteralExpression.TRUE, LiteralExpression.FALSE}) {
+            VectorialFunction extension = simplified.extendWith(Map.of(VARIABLE_A, value, VARIABLE_E, value));
+            VectorialFunction actual = new Simplifier().simplify(extension, new Word(VARIABLE_G));
+            VectorialFunction expected = new Simplifier()
+                    .simplify(new VectorialFunction(extension.getDefinitions().copy()), new Word(VARIABLE_G));
+            assertTrue(actual.containsSame(expected));
+        }
+    }
+
+    /**
+     * Verifies that the constructor throws an exception if the parallelism isn't positive.
+     */
+    @Test
+    public void constructorShouldThrowExceptionForParallelismZero() {
+        assertThrows(IllegalArgumentException.class, () -> new Simplifier(0));
+    }
+
+    /**
+     * Verifies that simplifying a wide vectorial function on a number of threads gives the same result as simplifying
+     * it on a single thread. The vectorial function has the definitions below, where q0 and q1 have the same
+     * definition, and have to be merged.
+     *
+     * <pre>
+     * pi = ai ∧ bi
+     * qi = pi ⊻ p(i+1 mod 2)
+     * ri = ¬qi ∨ ci
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldGiveTheSameResultOnMultipleThreads() {
+        ModifiableMap<Variable, Expression> map = ModifiableMap.empty();
+        Variable[] outputs = new Variable[WIDTH];
+        for (int i = 0; i < WIDTH; i++) {
+            map.add(new Variable("p" + i), new AndFunction(
+                    ValueCollection.of(new Variable("a" + i), new Variable("b" + i)), ValueCollection.empty()));
+            map.add(new Variable("q" + i),
+                    new XorFunction(ValueCollection.of(new Variable("p" + i), new Variable("p" + (i + 1) % 2)), false));
+            outputs[i] = new Variable("r" + i);
+            map.add(outputs[i], new OrFunction(ValueCollection.of(new Variable("c" + i % 2)),
+                    ValueCollection.of(new Variable("q" + i))));
+        }
+        VectorialFunction original = new VectorialFunction(map);
+        VectorialFunction expected = new Simplifier().simplify(original, new Word(outputs));
+        VectorialFunction actual = new Simplifier(PARALLELISM).simplify(original, new Word(outputs));
+        assertTrue(actual.containsSame(expected));
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    /**
+     * Verifies that simplifying for a number of output vectors at once returns a view for each output vector, sharing
+     * the simplified definitions, as described below.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = c ∨ e     ⇒ c = a ∧ b, d = c ∨ e
+     * g = c ⊻ f     ⇒ c = a ∧ b, g = c ⊻ f
+     * </pre>
+     */
+    @Test
+    public void simplifyAllShouldReturnAViewForEachOutputVector() {
+        Expression and = new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty());
+        Expression or = new OrFunction(ValueCollection.of(VARIABLE_C, VARIABLE_E), ValueCollection.empty());
+        Expression xor = new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_F), false);
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C, and, VARIABLE_D, or, VARIABLE_G, xor));
+        OrderedCollection<VectorialFunction> actual = new Simplifier(PARALLELISM).simplifyAll(original,
+                OrderedCollection.of(new Word(VARIABLE_D), new Word(VARIABLE_G)));
+        assertEquals(2, actual.size());
+        assertTrue(actual.getAt(0).containsSame(new VectorialFunction(Map.of(VARIABLE_C, and, VARIABLE_D, or))));
+        assertTrue(actual.getAt(1).containsSame(new VectorialFunction(Map.of(VARIABLE_C, and, VARIABLE_G, xor))));
+    }
+
+    /**
+     * Verifies that the views returned by <code>simplifyAll</code> carry the statistics of the simplification of the
+     * union of the output vectors.
+     */
+    @Test
+    public void simplifyAllShouldShareTheStatisticsAmongTheViews() {
+        Expression and = new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty());
+        Expression or = new OrFunction(ValueCollection.of(VARIABLE_C, VARIABLE_E), ValueCollection.empty());
+        Expression xor = new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_F), false);
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C, and, VARIABLE_D, or, VARIABLE_G, xor));
+        OrderedCollection<VectorialFunction> actual = new Simplifier().simplifyAll(original,
+                OrderedCollection.of(new Word(VARIABLE_D), new Word(VARIABLE_G)));
+        assertEquals(3, actual.getAt(0).getSimplificationStats().getInitialDimension());
+        assertSame(actual.getAt(0).getSimplificationStats(), actual.getAt(1).getSimplificationStats());
+    }
+
+    /**
+     * Verifies that when the budget is exhausted, <code>simplifyAll</code> doesn't extract the views anymore, but
+     * returns the vectorial function for the union of the output vectors for every output vector.
+     */
+    @Test
+    public void simplifyAllShouldNotExtractTheViewsWhenTheBudgetIsExhausted() {
+        VectorialFunction original = createChainFunction();
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.cancel();
+        OrderedCollection<VectorialFunction> actual = new Simplifier().simplifyAll(original,
+                OrderedCollection.of(new Word(VARIABLE_D), new Word(VARIABLE_E)), budget);
+        assertSame(actual.getAt(0), actual.getAt(1));
+        assertTrue(actual.getAt(0).containsSame(original.prune(new Word(VARIABLE_D, VARIABLE_E))));
+    }
+
+    /**
+     * Creates a vectorial function with a chain of definitions and a definition that isn't needed, as described
+     * below.
+     *
+     * <pre>
+     * b = ¬a
+     * c = ¬b
+     * d = c ∧ b
+     * e = a ∨ f
+     * </pre>
+     *
+     * @return The vectorial function.
+     */
+    private static VectorialFunction createChainFunction() {
+        return new VectorialFunction(Map.of(VARIABLE_B, new NegationExpression(VARIABLE_A), VARIABLE_C,
+                new NegationExpression(VARIABLE_B), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_C, VARIABLE_B), ValueCollection.empty()), VARIABLE_E,
+                new OrFunction(ValueCollection.of(VARIABLE_A, VARIABLE_F), ValueCollection.empty())));
+    }
+
+    /**
+     * Verifies that a simplification with a cancelled budget returns the vectorial function pruned to the cone of
+     * influence of the output vector, and reports that it was cut short.
+     */
+    @Test
+    public void simplifyShouldReturnThePrunedFunctionForACancelledBudget() {
+        VectorialFunction original = createChainFunction();
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.cancel();
+        VectorialFunction actual = new Simplifier().simplify(original, new Word(VARIABLE_D), budget);
+        assertTrue(actual.containsSame(original.prune(new Word(VARIABLE_D))));
+        assertTrue(actual.getSimplificationStats().isCutShort());
+        assertEquals(1, actual.getSimplificationStats().getPasses().size());
+    }
+
+    /**
+     * Verifies that a simplification stops after the maximal number of passes, followed by the compaction.
+     */
+    @Test
+    public void simplifyShouldStopAfterTheMaximalNumberOfPasses() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.setMaximumNumberOfPasses(1);
+        SimplificationStats stats =
+                new Simplifier().simplify(createChainFunction(), new Word(VARIABLE_D), budget).getSimplificationStats();
+        OrderedCollection<SimplificationStats.Pass> passes = stats.getPasses();
+        assertEquals(2, passes.size());
+        assertEquals("constant propagation", passes.getAt(0).name());
+        assertEquals("compaction", passes.getAt(1).name());
+        assertEquals(3, passes.getAt(1).dimension());
+        assertTrue(stats.isCutShort());
+    }
+
+    /**
+     * Verifies that a simplification that was cut short isn't marked as simplified for the output vector.
+     */
+    @Test
+    public void simplifyShouldNotMarkAResultThatWasCutShortAsSimplified() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.setMaximumNumberOfPasses(2);
+        VectorialFunction actual = new Simplifier().simplify(createChainFunction(), new Word(VARIABLE_D), budget);
+        assertFalse(actual.isSimplifiedFor(new Word(VARIABLE_D)));
+    }
+
+    /**
+     * Verifies that a simplification within a budget that isn't exhausted isn't cut short.
+     */
+    @Test
+    public void simplifyShouldNotBeCutShortWithinABudgetThatIsNotExhausted() {
+        SimplificationBudget budget = new SimplificationBudget();
+        budget.setMaximumNumberOfPasses(3);
+        VectorialFunction actual = new Simplifier().simplify(createChainFunction(), new Word(VARIABLE_D), budget);
+        assertFalse(actual.getSimplificationStats().isCutShort());
+        assertTrue(actual.isSimplifiedFor(new Word(VARIABLE_D)));
+        assertTrue(actual.containsSame(new VectorialFunction(Map.of(VARIABLE_D, LiteralExpression.FALSE))));
+    }
+
+    /**
+     * Verifies that cancelling a simplification from another thread, at whatever point the simplification is cut
+     * short, returns a vectorial function that calculates the same output vector as the full simplification. The
+     * vectorial function has the definitions below, for every level l and every position i modulo the width.
+     *
+     * <pre>
+     * tli = s(l-1)i ∧ s(l-1)(i+1)
+     * sli = tli ⊻ s(l-1)(i+2)
+     * </pre>
+     *
+     * @throws InterruptedException Thrown if the thread cancelling the simplification is interrupted.
+     */
+    @Test
+    public void simplifyShouldReturnAnEquivalentFunctionWhenCancelled() throws InterruptedException {
+        ModifiableMap<Variable, Expression> map = ModifiableMap.empty();
+        ModifiableMap<Variable, Expression> inputValues = ModifiableMap.empty();
+        Random random = new Random(SEED);
+        for (int i = 0; i < DEEP_WIDTH; i++) {
+            inputValues.add(new Variable("s0x" + i), random.nextBoolean() ? LiteralExpression.TRUE
+                    : LiteralExpression.FALSE);
+        }
+        for (int level = 1; level <= DEPTH; level++) {
+            for (int i = 0; i < DEEP_WIDTH; i++) {
+                Variable t = new Variable("t" + level + "x" + i);
+                map.add(t, new AndFunction(ValueCollection.of(new Variable("s" + (level - 1) + "x" + i),
+                        new Variable("s" + (level - 1) + "x" + (i + 1) % DEEP_WIDTH)), ValueCollection.empty()));
+                map.add(new Variable("s" + level + "x" + i), new XorFunction(
+                        ValueCollection.of(t, new Variable("s" + (level - 1) + "x" + (i + 2) % DEEP_WIDTH)), false));
+            }
+        }
+        Variable[] outputs = new Variable[DEEP_WIDTH];
+        for (int i = 0; i < DEEP_WIDTH; i++) {
+            outputs[i] = new Variable("s" + DEPTH + "x" + i);
+        }
+        Word outputVector = new Word(outputs);
+        VectorialFunction original = new VectorialFunction(map);
+        SimplificationBudget budget = new SimplificationBudget();
+        Thread canceller = new Thread(budget::cancel);
+        canceller.start();
+        VectorialFunction actual = new Simplifier().simplify(original, outputVector, budget);
+        canceller.join();
+        VectorialFunction expected = new Simplifier().simplify(original, outputVector);
+        assertTrue(evaluate(actual, inputValues, outputVector).containsSame(
+                evaluate(expected, inputValues, outputVector)));
+    }
+
+    /**
+     * Verifies that cancelling a simplification in the middle of a wide level returns well before the level would
+     * have been simplified completely, and returns a vectorial function that calculates the same output vector. The
+     * vectorial function has two levels of xor functions, where every definition of the second level uses definitions
+     * of the first level, such that simplifying the second level takes most of the time.
+     *
+     * @throws InterruptedException Thrown if the thread cancelling the simplification is interrupted.
+     */
+    @Test
+    public void simplifyShouldReturnSoonAfterBeingCancelledWithinALevel() throws InterruptedException {
+        ModifiableMap<Variable, Expression> map = ModifiableMap.empty();
+        for (int j = 0; j < WIDE_LEVEL_BASE; j++) {
+            Variable[] operands = new Variable[WIDE_LEVEL_OPERANDS];
+            for (int m = 0; m < WIDE_LEVEL_OPERANDS; m++) {
+                operands[m] = new Variable("wideLevelIn" + (j + m * WIDE_LEVEL_STRIDE) % WIDE_LEVEL_INPUTS);
+            }
+            map.add(new Variable("wideLevelP" + j), new XorFunction(ValueCollection.of(operands), false));
+        }
+        Variable[] outputs = new Variable[WIDE_LEVEL_WIDTH];
+        for (int i = 0; i < WIDE_LEVEL_WIDTH; i++) {
+            Variable[] operands = new Variable[WIDE_LEVEL_OPERANDS];
+            for (int m = 0; m < WIDE_LEVEL_OPERANDS; m++) {
+                operands[m] = new Variable("wideLevelP" + (i + m * WIDE_LEVEL_STRIDE) % WIDE_LEVEL_BASE);
+            }
+            outputs[i] = new Variable("wideLevelQ" + i);
+            map.add(outputs[i], new XorFunction(ValueCollection.of(operands), false));
+        }
+        VectorialFunction original = new VectorialFunction(map);
+        Word outputVector = new Word(outputs);
+        new Simplifier().simplify(original, outputVector);
+        long start = System.nanoTime();
+        VectorialFunction expected = new Simplifier().simplify(original, outputVector);
+        long fullWallTime = System.nanoTime() - start;
+        SimplificationBudget budget = new SimplificationBudget();
+        long[] cancelTime = new long[1];
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(fullWallTime / CANCEL_DELAY_FRACTION / NANOSECONDS_PER_MILLISECOND);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancelTime[0] = System.nanoTime();
+            budget.cancel();
+        });
+        canceller.start();
+        VectorialFunction actual = new Simplifier().simplify(original, outputVector, budget);
+        long endTime = System.nanoTime();
+        canceller.join();
+        assertTrue(actual.getSimplificationStats().isCutShort());
+        assertTrue(endTime - cancelTime[0] < fullWallTime / CANCEL_LATENCY_FRACTION);
+        ModifiableMap<Variable, Expression> inputValues = ModifiableMap.empty();
+        Random random = new Random(SEED);
+        for (int i = 0; i < WIDE_LEVEL_INPUTS; i++) {
+            inputValues.add(new Variable("wideLevelIn" + i),
+                    random.nextBoolean() ? LiteralExpression.TRUE : LiteralExpression.FALSE);
+        }
+        assertTrue(evaluate(actual, inputValues, outputVector).containsSame(
+                evaluate(expected, inputValues, outputVector)));
+    }
+
+    /**
+     * Evaluates a vectorial function for input values.
+     *
+     * @param vectorialFunction The vectorial function.
+     * @param inputValues       A map with the values of the input variables.
+     * @param outputVector      The output vector.
+     * @return A vectorial function defining the variables of the output vector as constants.
+     */
+    private static VectorialFunction evaluate(final VectorialFunction vectorialFunction,
+            final Map<Variable, Expression> inputValues, final Word outputVector) {
+        return new VectorialFunction(
+                ConstantPropagator.of(vectorialFunction.extendWith(inputValues)).toConstantOutputs(outputVector));
+    }
+}
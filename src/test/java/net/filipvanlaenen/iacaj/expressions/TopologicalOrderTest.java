@@ -0,0 +1,119 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import net.filipvanlaenen.kolektoj.ValueCollection;
+
+/**
+ * Unit tests on the <code>TopologicalOrder</code> class.
+ */
+public class TopologicalOrderTest {
+    /**
+     * The variable a.
+     */
+    private static final Variable VARIABLE_A = new Variable("a");
+    /**
+     * The variable b.
+     */
+    private static final Variable VARIABLE_B = new Variable("b");
+    /**
+     * The variable c.
+     */
+    private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
+
+    /**
+     * Creates a table with the definitions below, in reverse topological order.
+     *
+     * <pre>
+     * e = c ∧ d
+     * d = ¬b
+     * c = b ⊻ a
+     * b = ¬a
+     * </pre>
+     *
+     * @return A table with the definitions.
+     */
+    private static DefinitionTable createTable() {
+        DefinitionTable table = new DefinitionTable();
+        table.put(VARIABLE_E.id(),
+                new AndFunction(ValueCollection.of(VARIABLE_C, VARIABLE_D), ValueCollection.empty()));
+        table.put(VARIABLE_D.id(), new NegationExpression(VARIABLE_B));
+        table.put(VARIABLE_C.id(), new XorFunction(ValueCollection.of(VARIABLE_B, VARIABLE_A), false));
+        table.put(VARIABLE_B.id(), new NegationExpression(VARIABLE_A));
+        return table;
+    }
+
+    /**
+     * Verifies that every definition comes after the definitions of the variables it depends on.
+     */
+    @Test
+    public void ofShouldPlaceDefinitionsAfterTheirOperands() {
+        DefinitionTable table = createTable();
+        TopologicalOrder order = TopologicalOrder.of(table);
+        assertEquals(4, order.size());
+        assertEquals(VARIABLE_B.id(), table.getId(order.get(0)));
+        assertEquals(VARIABLE_D.id(), table.getId(order.get(1)));
+        assertEquals(VARIABLE_C.id(), table.getId(order.get(2)));
+        assertEquals(VARIABLE_E.id(), table.getId(order.get(3)));
+    }
+
+    /**
+     * Verifies that the levels of the definitions are computed correctly.
+     */
+    @Test
+    public void ofShouldComputeTheLevels() {
+        DefinitionTable table = createTable();
+        TopologicalOrder order = TopologicalOrder.of(table);
+        assertEquals(0, order.getLevel(table.getPosition(VARIABLE_B.id())));
+        assertEquals(1, order.getLevel(table.getPosition(VARIABLE_C.id())));
+        assertEquals(1, order.getLevel(table.getPosition(VARIABLE_D.id())));
+        assertEquals(2, order.getLevel(table.getPosition(VARIABLE_E.id())));
+    }
+
+    /**
+     * Verifies that the definitions are grouped by level.
+     */
+    @Test
+    public void ofShouldGroupTheDefinitionsByLevel() {
+        TopologicalOrder order = TopologicalOrder.of(createTable());
+        assertEquals(3, order.getNumberOfLevels());
+        assertEquals(0, order.getLevelStart(0));
+        assertEquals(1, order.getLevelEnd(0));
+        assertEquals(1, order.getLevelStart(1));
+        assertEquals(3, order.getLevelEnd(1));
+        assertEquals(3, order.getLevelStart(2));
+        assertEquals(4, order.getLevelEnd(2));
+    }
+
+    /**
+     * Verifies that an empty table has no levels.
+     */
+    @Test
+    public void ofShouldReturnNoLevelsForAnEmptyTable() {
+        TopologicalOrder order = TopologicalOrder.of(new DefinitionTable());
+        assertEquals(0, order.size());
+        assertEquals(0, order.getNumberOfLevels());
+    }
+
+    /**
+     * Verifies that a cycle in the definitions is detected.
+     */
+    @Test
+    public void ofShouldThrowExceptionForACycle() {
+        DefinitionTable table = new DefinitionTable();
+        table.put(VARIABLE_A.id(), new NegationExpression(VARIABLE_B));
+        table.put(VARIABLE_B.id(), new IdentityExpression(VARIABLE_A));
+        assertThrows(IllegalStateException.class, () -> TopologicalOrder.of(table));
+    }
+}
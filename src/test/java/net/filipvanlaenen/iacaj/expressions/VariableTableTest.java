@@ -0,0 +1,91 @@
+package net.filipvanlaenen.iacaj.expressions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>VariableTable</code> class.
+ */
+public class VariableTableTest {
+    /**
+     * The number of threads interning names concurrently.
+     */
+    private static final int NUMBER_OF_THREADS = 4;
+    /**
+     * The number of names interned by each thread, more than the initial capacity of the table.
+     */
+    private static final int NUMBER_OF_NAMES = 2_000;
+    /**
+     * Verifies that interning the same name twice returns the same ID.
+     */
+    @Test
+    public void internShouldReturnTheSameIdForTheSameName() {
+        assertEquals(VariableTable.intern("variableTableTestA"), VariableTable.intern("variableTableTestA"));
+    }
+
+    /**
+     * Verifies that interning a new name returns the next dense ID.
+     */
+    @Test
+    public void internShouldReturnTheNextIdForANewName() {
+        int first = VariableTable.intern("variableTableTestB");
+        int second = VariableTable.intern("variableTableTestC");
+        assertEquals(first + 1, second);
+        assertTrue(second < VariableTable.size());
+    }
+
+    /**
+     * Verifies that the name can be retrieved using the ID.
+     */
+    @Test
+    public void getNameShouldReturnTheInternedName() {
+        assertEquals("variableTableTestD", VariableTable.getName(VariableTable.intern("variableTableTestD")));
+    }
+
+    /**
+     * Verifies that retrieving the name for an ID that hasn't been handed out throws an exception.
+     */
+    @Test
+    public void getNameShouldThrowExceptionForUnknownId() {
+        assertThrows(IllegalArgumentException.class, () -> VariableTable.getName(VariableTable.size()));
+    }
+
+    /**
+     * Verifies that threads interning the same names concurrently get the same IDs, and can read the names back.
+     *
+     * @throws Exception Thrown if a thread fails.
+     */
+    @Test
+    public void internShouldHandOutTheSameIdsToConcurrentThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            List<Future<int[]>> futures = new ArrayList<Future<int[]>>();
+            for (int t = 0; t < NUMBER_OF_THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    int[] ids = new int[NUMBER_OF_NAMES];
+                    for (int i = 0; i < NUMBER_OF_NAMES; i++) {
+                        ids[i] = VariableTable.intern("variableTableTestConcurrent" + i);
+                        assertEquals("variableTableTestConcurrent" + i, VariableTable.getName(ids[i]));
+                    }
+                    return ids;
+                }));
+            }
+            int[] expected = futures.get(0).get();
+            for (int t = 1; t < NUMBER_OF_THREADS; t++) {
+                assertArrayEquals(expected, futures.get(t).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.filipvanlaenen.iacaj.expressions;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
@@ -15,4 +16,28 @@ public class VariableTest {
     public void toStringShouldReturnTheName() {
         assertEquals("foo", new Variable("foo").toString());
     }
+
+    /**
+     * Verifies that two variables created with the same name are equal.
+     */
+    @Test
+    public void variablesWithTheSameNameShouldBeEqual() {
+        assertEquals(new Variable("foo"), new Variable("foo"));
+    }
+
+    /**
+     * Verifies that a variable created with the ID of another variable has the same name.
+     */
+    @Test
+    public void variableCreatedWithIdShouldHaveTheSameName() {
+        assertEquals("foo", new Variable(new Variable("foo").id()).name());
+    }
+
+    /**
+     * Verifies that a variable can't be created with an ID that hasn't been handed out by the variable table.
+     */
+    @Test
+    public void constructorShouldThrowExceptionForUnknownId() {
+        assertThrows(IllegalArgumentException.class, () -> new Variable(VariableTable.size()));
+    }
 }
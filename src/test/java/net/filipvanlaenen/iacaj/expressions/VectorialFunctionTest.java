@@ -1,12 +1,14 @@
 package net.filipvanlaenen.iacaj.expressions;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
 import net.filipvanlaenen.kolektoj.Collection;
 import net.filipvanlaenen.kolektoj.Map;
+import net.filipvanlaenen.kolektoj.ValueCollection;
 
 /**
  * Unit tests on the <code>VectorialFunction</code> class.
@@ -24,6 +26,14 @@ public class VectorialFunctionTest {
      * The variable c.
      */
     private static final Variable VARIABLE_C = new Variable("c");
+    /**
+     * The variable d.
+     */
+    private static final Variable VARIABLE_D = new Variable("d");
+    /**
+     * The variable e.
+     */
+    private static final Variable VARIABLE_E = new Variable("e");
 
     /**
      * Verifies that <code>toString</code> returns an empty string for an empty vectorial function.
@@ -55,4 +65,81 @@ public class VectorialFunctionTest {
         String expected2 = "c = ¬b\nb = a";
         assertTrue(Collection.of(expected1, expected2).contains(actual));
     }
+
+    /**
+     * Verifies that <code>toString</code> returns the definitions in topological order.
+     */
+    @Test
+    public void toStringShouldReturnTheDefinitionsInTopologicalOrder() {
+        DefinitionTable table = new DefinitionTable();
+        table.put(VARIABLE_C.id(), new NegationExpression(VARIABLE_B));
+        table.put(VARIABLE_B.id(), new IdentityExpression(VARIABLE_A));
+        assertEquals("b = a" + System.lineSeparator() + "c = ¬b", new VectorialFunction(table).toString());
+    }
+
+    /**
+     * Verifies that the levels of the variables are computed, with -1 for variables that aren't defined.
+     */
+    @Test
+    public void getLevelShouldReturnTheLevelOfAVariable() {
+        VectorialFunction vf = new VectorialFunction(
+                Map.of(VARIABLE_B, new IdentityExpression(VARIABLE_A), VARIABLE_C, new NegationExpression(VARIABLE_B)));
+        assertEquals(-1, vf.getLevel(VARIABLE_A));
+        assertEquals(0, vf.getLevel(VARIABLE_B));
+        assertEquals(1, vf.getLevel(VARIABLE_C));
+        assertEquals(2, vf.getNumberOfLevels());
+    }
+
+    /**
+     * Verifies that simplification merges variables with structurally identical definitions, as described below.
+     *
+     * <pre>
+     * c = a ∧ b
+     * d = b ∧ a
+     * e = c ⊻ d ⇒ e = false
+     * </pre>
+     */
+    @Test
+    public void simplifyShouldMergeVariablesWithIdenticalDefinitions() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_A), ValueCollection.empty()), VARIABLE_E,
+                new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_D), false)));
+        VectorialFunction actual = original.simplify(new Word(VARIABLE_E));
+        VectorialFunction expected = new VectorialFunction(Map.of(VARIABLE_E, LiteralExpression.FALSE));
+        assertTrue(actual.containsSame(expected));
+    }
+
+    /**
+     * Verifies that only a vectorial function that is the result of a simplification carries statistics, counting
+     * the definition merged with an identical definition.
+     */
+    @Test
+    public void getSimplificationStatsShouldReturnTheStatisticsOfTheSimplification() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new AndFunction(ValueCollection.of(VARIABLE_B, VARIABLE_A), ValueCollection.empty()), VARIABLE_E,
+                new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_D), false)));
+        assertNull(original.getSimplificationStats());
+        SimplificationStats stats = original.simplify(new Word(VARIABLE_E)).getSimplificationStats();
+        assertEquals(1L, stats.getCount(SimplificationRule.MERGING));
+    }
+
+    /**
+     * Verifies that a vectorial function stored off the heap is simplified to the same result as one stored on the
+     * heap, and that the result is stored off the heap too.
+     */
+    @Test
+    public void simplifyShouldProduceTheSameResultOffHeap() {
+        VectorialFunction original = new VectorialFunction(Map.of(VARIABLE_C,
+                new AndFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B), ValueCollection.empty()), VARIABLE_D,
+                new NegationExpression(VARIABLE_C), VARIABLE_E,
+                new XorFunction(ValueCollection.of(VARIABLE_D, VARIABLE_A), false)));
+        VectorialFunction offHeap = original.offHeap(OffHeapArena.DEFAULT_SEGMENT_SIZE);
+        assertTrue(offHeap.isOffHeap());
+        assertTrue(offHeap.containsSame(original));
+        VectorialFunction actual = offHeap.simplify(new Word(VARIABLE_E));
+        assertTrue(actual.isOffHeap());
+        assertTrue(actual.containsSame(original.simplify(new Word(VARIABLE_E))));
+    }
 }
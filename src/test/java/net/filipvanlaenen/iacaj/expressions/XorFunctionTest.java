@@ -516,4 +516,62 @@ public class XorFunctionTest {
         Expression e = new XorFunction(createVariableCollection("a", "a"), true);
         assertEquals("¬a ⊻ a", e.toString());
     }
+
+    /**
+     * Verifies that <code>simplify</code> cancels pairs of equal variables and keeps variables occurring an odd number
+     * of times once.
+     */
+    @Test
+    public void simplifyShouldCancelPairsOfEqualVariables() {
+        Expression e = new XorFunction(ValueCollection.of(VARIABLE_B, VARIABLE_A, VARIABLE_B, VARIABLE_C, VARIABLE_B,
+                VARIABLE_C, VARIABLE_A, VARIABLE_D), false);
+        assertEquals(new XorFunction(ValueCollection.of(VARIABLE_B, VARIABLE_D), false), e.simplify());
+    }
+
+    /**
+     * Verifies that <code>simplify</code> counts the cancellation of pairs of equal variables once.
+     */
+    @Test
+    public void simplifyShouldCountTheCancellationOfPairs() {
+        XorFunction e = new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_A, VARIABLE_B, VARIABLE_B), false);
+        long[] ruleCounts = new long[SimplificationRule.NUMBER_OF_RULES];
+        e.simplify(ruleCounts);
+        assertEquals(1L, ruleCounts[SimplificationRule.XOR_CANCELLATION.ordinal()]);
+    }
+
+    /**
+     * Verifies that simplifying against a table counts a folded constant, a folded literal, a flattened xor function
+     * and the cancellation of the pairs it leads to, as described below.
+     *
+     * <pre>
+     * b = true
+     * c = ¬d
+     * d = a ⊻ e
+     * a ⊻ b ⊻ c ⊻ d ⇒ false
+     * </pre>
+     */
+    @Test
+    public void simplifyWithDefinitionsShouldCountTheRulesApplied() {
+        XorFunction e = new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C, VARIABLE_D), false);
+        DefinitionTable definitions = DefinitionTable.of(Map.of(VARIABLE_B, LiteralExpression.TRUE, VARIABLE_C,
+                new NegationExpression(VARIABLE_E), VARIABLE_D,
+                new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_E), false)));
+        long[] ruleCounts = new long[SimplificationRule.NUMBER_OF_RULES];
+        assertEquals(LiteralExpression.FALSE, e.simplify(definitions, ruleCounts));
+        assertEquals(1L, ruleCounts[SimplificationRule.CONSTANT_FOLDING.ordinal()]);
+        assertEquals(1L, ruleCounts[SimplificationRule.LITERAL_FOLDING.ordinal()]);
+        assertEquals(1L, ruleCounts[SimplificationRule.FLATTENING.ordinal()]);
+        assertEquals(1L, ruleCounts[SimplificationRule.XOR_CANCELLATION.ordinal()]);
+    }
+
+    /**
+     * Verifies that xor functions with the same variables in a different order are equal.
+     */
+    @Test
+    public void xorFunctionsWithTheSameVariablesInADifferentOrderShouldBeEqual() {
+        Expression e1 = new XorFunction(ValueCollection.of(VARIABLE_A, VARIABLE_B, VARIABLE_C), true);
+        Expression e2 = new XorFunction(ValueCollection.of(VARIABLE_C, VARIABLE_A, VARIABLE_B), true);
+        assertEquals(e1, e2);
+        assertEquals(e1.hashCode(), e2.hashCode());
+    }
 }